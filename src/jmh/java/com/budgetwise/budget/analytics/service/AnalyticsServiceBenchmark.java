@@ -0,0 +1,72 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the in-memory parts of AnalyticsService
+ * Measures the bucket pass (statistics + history, with and without LTTB thinning) and the volatility label
+ * Uses a fixed-seed random walk of daily buckets, about 20 prices each
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsServiceBenchmark {
+
+    @Param({"30", "365", "3650"})
+    int days;
+
+    /** 0 keeps every point (no maxPoints). */
+    @Param({"0", "100"})
+    int maxPoints;
+
+    private AnalyticsService service;
+    private List<RollupBucket> buckets;
+    private double[] coefficients;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        service = new AnalyticsService(null, null, null, null, null);
+
+        buckets = new ArrayList<>(days);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        double price = 150;
+        for (int day = 0; day < days; day++) {
+            price = Math.max(10, price * (1 + (random.nextDouble() - 0.5) * 0.04));
+            long count = 15 + random.nextInt(10);
+            double spread = price * 0.05;
+            double sum = price * count;
+            double sumSquares = count * (price * price + spread * spread / 3);
+            buckets.add(new RollupBucket(start.plusDays(day), price - spread, price + spread, sum, count, sumSquares));
+        }
+
+        coefficients = new double[1024];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = random.nextDouble() * 15;
+        }
+    }
+
+    @Benchmark
+    public AnalyticsService.Series summarize() {
+        return AnalyticsService.summarize(buckets, maxPoints == 0 ? null : maxPoints);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void calculateVolatility(Blackhole blackhole) {
+        for (double coefficient : coefficients) {
+            blackhole.consume(service.calculateVolatility(coefficient));
+        }
+    }
+}
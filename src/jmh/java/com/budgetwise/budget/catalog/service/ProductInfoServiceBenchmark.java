@@ -0,0 +1,123 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.ProductNewComersResponse;
+import com.budgetwise.budget.catalog.dto.ProductTableResponse;
+import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository.MarketCountProjection;
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository.TagProjection;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the in-memory parts of ProductInfoService
+ * Measures the newcomer review mapping (earliest record, distinct markets) and the tag / market count
+ * assembly of one product table page
+ * Uses a fixed-seed catalog: 50 markets, up to 8 tags per product
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductInfoServiceBenchmark {
+
+    private static final int MARKETS = 50;
+    private static final String[] TAGS = {"Vegan", "Low-Fat", "Gluten-Free", "High-Protein", "Low-Sodium",
+            "Halal", "Organic", "Sugar-Free"};
+
+    @Param({"10", "200"})
+    int recordsPerProduct;
+
+    @Param({"10", "100"})
+    int pageSize;
+
+    private ProductInfoService service;
+    private ProductInfo product;
+    private List<ProductTableResponse> page;
+    private List<TagProjection> tags;
+    private List<MarketCountProjection> marketCounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        service = new ProductInfoService(null, null, null, null);
+
+        List<MarketLocation> markets = new ArrayList<>();
+        for (int i = 0; i < MARKETS; i++) {
+            MarketLocation market = new MarketLocation();
+            market.setId((long) i);
+            market.setMarketLocation("Market " + i);
+            markets.add(market);
+        }
+
+        product = new ProductInfo();
+        product.setId(1L);
+        product.setProductName("Bangus");
+        product.setCategory("FISH");
+        product.setLocalName("Milkfish");
+        List<DailyPriceRecord> records = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 6, 0);
+        for (int i = 0; i < recordsPerProduct; i++) {
+            PriceReport report = new PriceReport();
+            report.setDateReported(LocalDate.of(2025, 1, 1).plusDays(i));
+            DailyPriceRecord record = new DailyPriceRecord();
+            record.setPrice(150 + random.nextDouble() * 50);
+            record.setUnit("kg");
+            record.setOrigin("Local");
+            record.setCreatedAt(start.plusMinutes(random.nextInt(1_000_000)));
+            record.setMarketLocation(markets.get(random.nextInt(MARKETS)));
+            record.setPriceReport(report);
+            records.add(record);
+        }
+        product.setPriceRecords(records);
+
+        page = new ArrayList<>();
+        tags = new ArrayList<>();
+        marketCounts = new ArrayList<>();
+        for (long id = 0; id < pageSize; id++) {
+            page.add(new ProductTableResponse(id, "Product " + id, "FISH", "Local", null, "kg",
+                    ProductInfo.Status.ACTIVE, 100.0, 0, null, LocalDate.of(2025, 1, 1)));
+            int tagCount = random.nextInt(TAGS.length + 1);
+            for (int t = 0; t < tagCount; t++) {
+                tags.add(tag(id, TAGS[t]));
+            }
+            marketCounts.add(count(id, (long) random.nextInt(MARKETS)));
+        }
+    }
+
+    @Benchmark
+    public ProductNewComersResponse mapToReviewDTO() {
+        return service.mapToReviewDTO(product);
+    }
+
+    @Benchmark
+    public void assembleTable(Blackhole blackhole) {
+        ProductInfoService.assembleTable(page, tags, marketCounts);
+        blackhole.consume(page);
+    }
+
+    private static TagProjection tag(Long productId, String tagName) {
+        return new TagProjection() {
+            public Long getProductId() { return productId; }
+            public String getDietaryTag() { return tagName; }
+        };
+    }
+
+    private static MarketCountProjection count(Long productId, Long totalMarkets) {
+        return new MarketCountProjection() {
+            public Long getProductId() { return productId; }
+            public Long getTotalMarkets() { return totalMarkets; }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.budgetwise.budget.integration.scrapper.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Jackson deserialization of scraper payloads
+ * Measures binding a full report (records included) from UTF-8 bytes with a shared ObjectReader
+ * Uses generated price_data arrays of realistic commodity rows
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScrapeResultDtoBenchmark {
+
+    private static final String[] CATEGORIES = {"FISH", "RICE", "VEGETABLES", "FRUITS", "MEAT", "SPICES"};
+
+    @Param({"500", "20000"})
+    int products;
+
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        reader = new ObjectMapper().readerFor(ScrapeResultDto.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder json = new StringBuilder(products * 120)
+                .append("{\"status\":\"success\",\"date_processed\":\"2025-12-16T08:00:00\",")
+                .append("\"original_url\":\"https://www.da.gov.ph/wp-content/uploads/2025/12/Daily-Price-Index-December-16-2025.pdf\",")
+                .append("\"covered_markets\":[");
+        for (int i = 0; i < 40; i++) {
+            json.append(i == 0 ? "" : ",").append("\"Public Market ").append(i).append('"');
+        }
+        json.append("],\"price_data\":[");
+        for (int i = 0; i < products; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"category\":\"").append(CATEGORIES[i % CATEGORIES.length])
+                    .append("\",\"commodity\":\"Commodity ").append(i)
+                    .append("\",\"origin\":\"").append(random.nextBoolean() ? "Local" : "Imported")
+                    .append("\",\"unit\":\"kg\",\"price\":")
+                    .append(random.nextInt(20, 500)).append('.').append(random.nextInt(100))
+                    .append('}');
+        }
+        json.append("]}");
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ScrapeResultDto deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,47 @@
+package com.budgetwise.budget.market.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for MarketLocationResolver
+ * Measures the name normalization applied to a report's covered markets before the batch lookup
+ * Uses scraped-looking names with stray whitespace and repeats
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketLocationResolverBenchmark {
+
+    private static final String[] PADDING = {"", " ", "  ", "\t", " \n"};
+
+    @Param({"50", "1000"})
+    int names;
+
+    private List<String> coveredMarkets;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        coveredMarkets = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            // About one name in four repeats an earlier market
+            int market = random.nextInt(Math.max(1, names * 3 / 4));
+            coveredMarkets.add(PADDING[random.nextInt(PADDING.length)] + "Public Market " + market
+                    + PADDING[random.nextInt(PADDING.length)]);
+        }
+    }
+
+    @Benchmark
+    public Set<String> normalizeNames() {
+        return MarketLocationResolver.normalizeNames(coveredMarkets);
+    }
+}
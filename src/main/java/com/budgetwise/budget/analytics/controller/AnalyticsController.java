@@ -1,18 +1,41 @@
 package com.budgetwise.budget.analytics.controller;
 
+import com.budgetwise.budget.analytics.dto.BatchAnalyticsResponse;
+import com.budgetwise.budget.analytics.dto.PriceForecastResponse;
+import com.budgetwise.budget.analytics.dto.PriceIndexResponse;
 import com.budgetwise.budget.analytics.dto.ProductAnalyticsResponse;
 import com.budgetwise.budget.analytics.service.AnalyticsService;
+import com.budgetwise.budget.analytics.service.PriceForecastService;
+import com.budgetwise.budget.analytics.service.PriceIndexService;
+import com.budgetwise.budget.analytics.service.PriceRollupService;
+import com.budgetwise.budget.common.version.DataVersionService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/analytics")
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final DataVersionService dataVersionService;
+    private final PriceRollupService priceRollupService;
+    private final PriceForecastService priceForecastService;
+    private final PriceIndexService priceIndexService;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, DataVersionService dataVersionService,
+                               PriceRollupService priceRollupService, PriceForecastService priceForecastService,
+                               PriceIndexService priceIndexService) {
         this.analyticsService = analyticsService;
+        this.dataVersionService = dataVersionService;
+        this.priceRollupService = priceRollupService;
+        this.priceForecastService = priceForecastService;
+        this.priceIndexService = priceIndexService;
     }
 
     /**
@@ -23,13 +46,103 @@ public class AnalyticsController {
      * * @param productName Exact name of the product (case-sensitive).
      * @param marketId (Optional) ID of the market location.
      * @param days (Optional) Number of days to look back (Default: 30 days).
+     * Long windows return weekly, monthly or yearly points (see the response's resolution).
+     * @param maxPoints (Optional) Chart budget: the history is downsampled (LTTB) to at most this many points,
+     * keeping peaks and troughs. Statistics always cover the full window.
+     * Supports conditional GET: the window is relative to today, so the ETag includes the current date.
      */
     @GetMapping("/product")
     public ResponseEntity<ProductAnalyticsResponse> getProductAnalytics(
             @RequestParam("productName") String productName,
             @RequestParam(value = "marketId", required = false) Long marketId,
-            @RequestParam(value = "days", defaultValue = "30") int days // Default 30 days
+            @RequestParam(value = "days", defaultValue = "30") int days, // Default 30 days
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+            WebRequest webRequest
+    ) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("analytics-product", version, LocalDate.now()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(analyticsService.getProductAnalytics(productName, marketId, days, maxPoints));
+    }
+
+    /**
+     * Batch Analytics for comparison and dashboard views.
+     * * GET /api/v1/analytics/batch?productIds=1,2&productNames=Red Onion&marketId=3&days=90
+     * - Accepts product IDs, product names, or both (max 100 products).
+     * - Returns one columnar response: stats per product plus prices aligned to a shared date axis.
+     * Supports conditional GET with the same ETag rules as the single-product endpoint.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchAnalyticsResponse> getBatchAnalytics(
+            @RequestParam(value = "productIds", required = false) List<Long> productIds,
+            @RequestParam(value = "productNames", required = false) List<String> productNames,
+            @RequestParam(value = "marketId", required = false) Long marketId,
+            @RequestParam(value = "days", defaultValue = "30") int days,
+            WebRequest webRequest
+    ) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("analytics-batch", version, LocalDate.now()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(analyticsService.getBatchAnalytics(productIds, productNames, marketId, days));
+    }
+
+    /**
+     * Price Forecast for budget planning.
+     * * GET /api/v1/analytics/forecast?productName=Red Onion&marketId=3
+     * - Returns the 7, 14 and 30 day forecasts with 95% prediction intervals.
+     * - If marketId is missing: forecasts the National Average.
+     * Forecasts are recomputed asynchronously after every ingestion, so the ETag includes the forecast run.
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<PriceForecastResponse> getForecast(
+            @RequestParam("productName") String productName,
+            @RequestParam(value = "marketId", required = false) Long marketId,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(analyticsService.getProductAnalytics(productName, marketId, days));
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("analytics-forecast", version, priceForecastService.completedRuns()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(priceForecastService.getForecast(productName, marketId));
+    }
+
+    /**
+     * Category Price Index (CPI-style) history.
+     * * GET /api/v1/analytics/indices?category=VEGETABLES&days=365
+     * - If category is missing: the index over all products.
+     * - Returns chained Jevons and Laspeyres values per report day.
+     * - With baseDate=2025-01-06 the history starts there and is rebased to 100 on that day.
+     */
+    @GetMapping("/indices")
+    public ResponseEntity<PriceIndexResponse> getPriceIndex(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "days", defaultValue = "90") int days,
+            @RequestParam(value = "baseDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate baseDate,
+            WebRequest webRequest
+    ) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("analytics-index", version, LocalDate.now()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(priceIndexService.getIndexHistory(category, days, baseDate));
+    }
+
+    /**
+     * Recomputes all forecasts now instead of waiting for the next ingestion.
+     */
+    @PostMapping("/forecast/recompute")
+    public ResponseEntity<Map<String, Integer>> recomputeForecasts() {
+        return ResponseEntity.ok(Map.of("rows", priceForecastService.recomputeAll()));
+    }
+
+    /**
+     * Recreates the daily rollup table from the raw price records.
+     * Only needed after manual corrections to daily_price_record; ingestion keeps it current.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("rows", priceRollupService.rebuildFromHistory()));
     }
-}
\ No newline at end of file
+}
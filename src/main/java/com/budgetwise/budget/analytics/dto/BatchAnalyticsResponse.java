@@ -0,0 +1,33 @@
+package com.budgetwise.budget.analytics.dto;
+
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Analytics of many products in a columnar layout.
+ *
+ * Every per-product list is index-aligned with productIds, and every row of prices
+ * is index-aligned with the shared dates axis (null where the product has no price).
+ * Keys appear once per response instead of once per product and point.
+ */
+public record BatchAnalyticsResponse(
+        String marketName,
+        RollupResolution resolution,
+        List<LocalDate> dates,
+        List<Long> productIds,
+        List<String> productNames,
+        List<Double> minPrice,
+        List<Double> maxPrice,
+        List<Double> averagePrice,
+        List<Double> standardDeviation,
+        List<Double> coefficientOfVariation,
+        List<String> volatility,
+        List<Double> medianPrice, // Cross-market distribution (null entries unless National view)
+        List<Double> p10Price,
+        List<Double> p90Price,
+        List<Double> interquartileRange,
+        List<Double[]> prices,
+        List<String> unresolved // Requested IDs or names that match no product
+) {}
@@ -0,0 +1,11 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+
+public record ForecastPoint(
+        int horizonDays,
+        LocalDate targetDate,
+        Double price,
+        Double lowerBound, // 95% prediction interval
+        Double upperBound
+) {}
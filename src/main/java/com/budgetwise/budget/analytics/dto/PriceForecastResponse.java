@@ -0,0 +1,13 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PriceForecastResponse(
+        String productName,
+        String marketName,
+        LocalDate baseDate, // Last report day the forecast starts from
+        LocalDateTime generatedAt,
+        List<ForecastPoint> forecasts
+) {}
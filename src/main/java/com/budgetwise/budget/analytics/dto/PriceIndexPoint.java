@@ -0,0 +1,10 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+
+public record PriceIndexPoint(
+        LocalDate date,
+        Double jevonsIndex,
+        Double laspeyresIndex,
+        Integer matchedProducts
+) {}
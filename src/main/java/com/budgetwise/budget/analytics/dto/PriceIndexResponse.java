@@ -0,0 +1,10 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PriceIndexResponse(
+        String category, // "*" for every product
+        LocalDate baseDate, // Date the returned values are relative to (= 100)
+        List<PriceIndexPoint> history
+) {}
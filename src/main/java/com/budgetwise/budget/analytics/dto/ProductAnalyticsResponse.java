@@ -1,5 +1,7 @@
 package com.budgetwise.budget.analytics.dto;
 
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+
 import java.util.List;
 
 public record ProductAnalyticsResponse(
@@ -8,6 +10,17 @@ public record ProductAnalyticsResponse(
         Double minPrice,
         Double maxPrice,
         Double averagePrice,
-        String volatility, // "Low", "Medium", "High"
+        String volatility, // "Low", "Medium", "High" (from coefficientOfVariation)
+        Double standardDeviation,
+        Double coefficientOfVariation, // % of averagePrice
+        Double ewmaVolatility, // % per history point, recent changes weigh more
+        Double maxDrawdown, // % drop from the highest point
+        Double averageReturn, // % change per history point
+        Double latestReturn, // % change of the last point
+        Double medianPrice, // Distribution of all market prices in the window (National view only, else null)
+        Double p10Price,
+        Double p90Price,
+        Double interquartileRange, // p75 - p25
+        RollupResolution resolution, // Bucket size of each history point
         List<PriceHistoryPoint> history
 ) {}
\ No newline at end of file
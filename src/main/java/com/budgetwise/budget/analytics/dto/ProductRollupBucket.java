@@ -0,0 +1,21 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+
+/**
+ * {@link RollupBucket} tagged with its product, for queries spanning several products.
+ */
+public record ProductRollupBucket(
+        Long productId,
+        LocalDate bucketStart,
+        Double minPrice,
+        Double maxPrice,
+        Double priceSum,
+        Long priceCount,
+        Double priceSumSquares
+) {
+
+    public RollupBucket toBucket() {
+        return new RollupBucket(bucketStart, minPrice, maxPrice, priceSum, priceCount, priceSumSquares);
+    }
+}
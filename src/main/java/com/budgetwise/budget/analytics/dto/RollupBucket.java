@@ -0,0 +1,20 @@
+package com.budgetwise.budget.analytics.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregated prices of one time bucket, as read from the rollup table.
+ */
+public record RollupBucket(
+        LocalDate bucketStart,
+        Double minPrice,
+        Double maxPrice,
+        Double priceSum,
+        Long priceCount,
+        Double priceSumSquares
+) {
+
+    public double average() {
+        return priceCount == null || priceCount == 0 ? 0.0 : priceSum / priceCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.budgetwise.budget.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Chained price index of one category on one report day (100 on the category's first day).
+ * One row per (category, day) plus an {@link #ALL_CATEGORIES} row covering every product.
+ *
+ * - Jevons: geometric mean of the day-over-day price relatives of the products priced on both days.
+ * - Laspeyres: cost of a basket of one unit of each of those products against the previous day
+ *   (the reports carry no quantities, so every matched product weighs the same).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "category_price_index",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_category_price_index_category_date",
+                columnNames = {"category", "index_date"}))
+public class CategoryPriceIndex {
+
+    /** Category key of the all-products index; not a possible category name, so it never shares a key with one. */
+    public static final String ALL_CATEGORIES = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String category;
+    @Column(name = "index_date", nullable = false)
+    private LocalDate indexDate;
+
+    @Column
+    private double jevonsIndex;
+    @Column
+    private double laspeyresIndex;
+
+    // Products priced on both this and the previous report day
+    @Column
+    private int matchedProducts;
+}
@@ -0,0 +1,39 @@
+package com.budgetwise.budget.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Quantile sketch (t-digest) of all market prices of one product on one day.
+ * Digests of several days merge into the price distribution of any window,
+ * complementing the additive aggregates of {@link DailyPriceRollup}.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "daily_price_digest",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_daily_price_digest_product_date",
+                columnNames = {"product_info_id", "digest_date"}))
+public class DailyPriceDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_info_id", nullable = false)
+    private Long productId;
+    @Column(name = "digest_date", nullable = false)
+    private LocalDate digestDate;
+
+    // Serialized PriceDigest
+    @Column(nullable = false)
+    private byte[] digest;
+}
@@ -0,0 +1,56 @@
+package com.budgetwise.budget.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated prices of one product for one day.
+ * One row per (product, market, day) plus one NATIONAL row (marketId = 0) across all markets.
+ *
+ * Stores additive aggregates only (sum, count, sum of squares), so rows can be
+ * merged incrementally during ingestion and combined over any window without the raw records.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "daily_price_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_daily_price_rollup_product_market_date",
+                columnNames = {"product_info_id", "market_id", "rollup_date"}),
+        // All markets of a product for a date range (period tier refresh)
+        indexes = @Index(name = "idx_daily_price_rollup_product_date", columnList = "product_info_id, rollup_date"))
+public class DailyPriceRollup {
+
+    /** Market key of the all-markets row. */
+    public static final long NATIONAL = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain ids: the NATIONAL row has no market to reference
+    @Column(name = "product_info_id", nullable = false)
+    private Long productId;
+    @Column(name = "market_id", nullable = false)
+    private Long marketId;
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column
+    private double minPrice;
+    @Column
+    private double maxPrice;
+    @Column
+    private double priceSum;
+    @Column
+    private long priceCount;
+    @Column
+    private double priceSumSquares;
+}
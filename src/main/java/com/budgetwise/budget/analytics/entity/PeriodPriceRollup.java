@@ -0,0 +1,53 @@
+package com.budgetwise.budget.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Weekly, monthly and yearly aggregates derived from {@link DailyPriceRollup}.
+ * Same additive columns and the same NATIONAL convention (marketId = 0) as the daily table,
+ * so long windows are served from a few dozen rows instead of one row per day.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "period_price_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_period_price_rollup_product_market_bucket",
+                columnNames = {"product_info_id", "market_id", "resolution", "bucket_start"}),
+        indexes = @Index(name = "idx_period_price_rollup_product_bucket",
+                columnList = "product_info_id, resolution, bucket_start"))
+public class PeriodPriceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_info_id", nullable = false)
+    private Long productId;
+    @Column(name = "market_id", nullable = false)
+    private Long marketId;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private RollupResolution resolution;
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column
+    private double minPrice;
+    @Column
+    private double maxPrice;
+    @Column
+    private double priceSum;
+    @Column
+    private long priceCount;
+    @Column
+    private double priceSumSquares;
+}
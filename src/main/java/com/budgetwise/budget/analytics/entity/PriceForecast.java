@@ -0,0 +1,54 @@
+package com.budgetwise.budget.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Forecast price of one series for one horizon, with a 95% prediction interval.
+ * One row per (product, market, horizon) plus NATIONAL rows (marketId = 0), replaced as a whole
+ * by every forecast run.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "price_forecast",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_price_forecast_product_market_horizon",
+                columnNames = {"product_info_id", "market_id", "horizon_days"}))
+public class PriceForecast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_info_id", nullable = false)
+    private Long productId;
+    @Column(name = "market_id", nullable = false)
+    private Long marketId;
+    @Column(name = "horizon_days", nullable = false)
+    private int horizonDays;
+
+    // Last observed report day the forecast starts from
+    @Column(name = "base_date", nullable = false)
+    private LocalDate baseDate;
+    @Column(name = "target_date", nullable = false)
+    private LocalDate targetDate;
+
+    @Column
+    private double forecastPrice;
+    @Column
+    private double lowerBound;
+    @Column
+    private double upperBound;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,64 @@
+package com.budgetwise.budget.analytics.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time bucket sizes of the analytics rollups.
+ * DAY rows live in daily_price_rollup, the coarser tiers in period_price_rollup.
+ * Bucket starts match PostgreSQL date_trunc (weeks start on Monday).
+ */
+public enum RollupResolution {
+    DAY(1),
+    WEEK(7),
+    MONTH(30),
+    YEAR(365);
+
+    /** Upper bound of history points per chart; the finest tier that fits is used. */
+    public static final int TARGET_POINTS = 120;
+
+    private final int approxDays;
+
+    RollupResolution(int approxDays) {
+        this.approxDays = approxDays;
+    }
+
+    /**
+     * Picks the finest resolution that returns at most {@link #TARGET_POINTS} buckets for the window,
+     * so a 5-year chart reads about as many rows as a 60-day one.
+     */
+    public static RollupResolution forWindow(int days) {
+        for (RollupResolution resolution : values()) {
+            if (days / resolution.approxDays <= TARGET_POINTS) {
+                return resolution;
+            }
+        }
+        return YEAR;
+    }
+
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /** Exclusive end of the bucket containing the date. */
+    public LocalDate bucketEnd(LocalDate date) {
+        LocalDate start = bucketStart(date);
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+            case YEAR -> start.plusYears(1);
+        };
+    }
+
+    /** PostgreSQL date_trunc field of this resolution. */
+    public String truncUnit() {
+        return name().toLowerCase();
+    }
+}
@@ -1,80 +1,131 @@
 package com.budgetwise.budget.analytics.repository;
 
-import com.budgetwise.budget.analytics.dto.PriceHistoryPoint;
-import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.analytics.dto.ProductRollupBucket;
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Read-Only Repository for Analytics.
  * * Utilizes custom JPQL queries to:
- * 1. Efficiently calculate AVG, MIN, and MAX at the database level.
+ * 1. Read pre-aggregated daily rollups instead of raw daily_price_record rows.
  * 2. Avoid fetching full Entity objects (uses DTO projections).
  */
-public interface AnalyticsRepository extends JpaRepository<DailyPriceRecord, Long> {
-
+public interface AnalyticsRepository extends JpaRepository<DailyPriceRollup, Long> {
 
+    /**
+     * History and stats source for one product in one range scan of
+     * uk_daily_price_rollup_product_market_date (product, market, date).
+     * Pass {@link DailyPriceRollup#NATIONAL} as marketId for the National Average.
+     * Rows scanned = days in the window, regardless of how much history exists.
+     */
     @Query("""
-        SELECT new com.budgetwise.budget.analytics.dto.PriceHistoryPoint(
-            dpr.priceReport.dateReported,
-            dpr.price
+        SELECT new com.budgetwise.budget.analytics.dto.RollupBucket(
+            r.rollupDate,
+            r.minPrice,
+            r.maxPrice,
+            r.priceSum,
+            r.priceCount,
+            r.priceSumSquares
         )
-        FROM DailyPriceRecord dpr
-        WHERE dpr.productInfo.productName = :productName
-          AND dpr.marketLocation.id = :marketId
-          AND dpr.priceReport.dateReported >= :startDate
-        ORDER BY dpr.priceReport.dateReported ASC
+        FROM DailyPriceRollup r, ProductInfo p
+        WHERE p.productName = :productName
+          AND r.productId = p.id
+          AND r.marketId = :marketId
+          AND r.rollupDate >= :startDate
+        ORDER BY r.rollupDate ASC
     """)
-    List<PriceHistoryPoint> findHistoryByMarket(
+    List<RollupBucket> findDailyRollups(
             @Param("productName") String productName,
             @Param("marketId") Long marketId,
             @Param("startDate") LocalDate startDate
     );
 
+    /**
+     * Same as {@link #findDailyRollups} on the WEEK, MONTH or YEAR tier.
+     * startDate should be a bucket start of the requested resolution.
+     */
     @Query("""
-        SELECT new com.budgetwise.budget.analytics.dto.PriceHistoryPoint(
-            dpr.priceReport.dateReported,
-            AVG(dpr.price)
+        SELECT new com.budgetwise.budget.analytics.dto.RollupBucket(
+            r.bucketStart,
+            r.minPrice,
+            r.maxPrice,
+            r.priceSum,
+            r.priceCount,
+            r.priceSumSquares
         )
-        FROM DailyPriceRecord dpr
-        WHERE dpr.productInfo.productName = :productName
-          AND dpr.priceReport.dateReported >= :startDate
-        GROUP BY dpr.priceReport.dateReported
-        ORDER BY dpr.priceReport.dateReported ASC
+        FROM PeriodPriceRollup r, ProductInfo p
+        WHERE p.productName = :productName
+          AND r.productId = p.id
+          AND r.marketId = :marketId
+          AND r.resolution = :resolution
+          AND r.bucketStart >= :startDate
+        ORDER BY r.bucketStart ASC
     """)
-    List<PriceHistoryPoint> findHistoryNationalAverage(
+    List<RollupBucket> findPeriodRollups(
             @Param("productName") String productName,
+            @Param("marketId") Long marketId,
+            @Param("resolution") RollupResolution resolution,
             @Param("startDate") LocalDate startDate
     );
 
-
+    /**
+     * Daily rollups of many products in one query (one index seek per product).
+     * Ordered by product, then date, so callers can stream the rows per product.
+     */
     @Query("""
-        SELECT MIN(dpr.price), MAX(dpr.price), AVG(dpr.price)
-        FROM DailyPriceRecord dpr
-        WHERE dpr.productInfo.productName = :productName
-          AND dpr.marketLocation.id = :marketId
-          AND dpr.priceReport.dateReported >= :startDate
+        SELECT new com.budgetwise.budget.analytics.dto.ProductRollupBucket(
+            r.productId,
+            r.rollupDate,
+            r.minPrice,
+            r.maxPrice,
+            r.priceSum,
+            r.priceCount,
+            r.priceSumSquares
+        )
+        FROM DailyPriceRollup r
+        WHERE r.productId IN :productIds
+          AND r.marketId = :marketId
+          AND r.rollupDate >= :startDate
+        ORDER BY r.productId ASC, r.rollupDate ASC
     """)
-    List<Object[]> findStatsByMarket(
-            @Param("productName") String productName,
+    List<ProductRollupBucket> findDailyRollupsForProducts(
+            @Param("productIds") Collection<Long> productIds,
             @Param("marketId") Long marketId,
             @Param("startDate") LocalDate startDate
     );
 
-    // Stats for National Average
+    /**
+     * Same as {@link #findDailyRollupsForProducts} on the WEEK, MONTH or YEAR tier.
+     */
     @Query("""
-        SELECT MIN(dpr.price), MAX(dpr.price), AVG(dpr.price)
-        FROM DailyPriceRecord dpr
-        WHERE dpr.productInfo.productName = :productName
-          AND dpr.priceReport.dateReported >= :startDate
+        SELECT new com.budgetwise.budget.analytics.dto.ProductRollupBucket(
+            r.productId,
+            r.bucketStart,
+            r.minPrice,
+            r.maxPrice,
+            r.priceSum,
+            r.priceCount,
+            r.priceSumSquares
+        )
+        FROM PeriodPriceRollup r
+        WHERE r.productId IN :productIds
+          AND r.marketId = :marketId
+          AND r.resolution = :resolution
+          AND r.bucketStart >= :startDate
+        ORDER BY r.productId ASC, r.bucketStart ASC
     """)
-    List<Object[]> findStatsNational(
-            @Param("productName") String productName,
+    List<ProductRollupBucket> findPeriodRollupsForProducts(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("marketId") Long marketId,
+            @Param("resolution") RollupResolution resolution,
             @Param("startDate") LocalDate startDate
     );
 }
-
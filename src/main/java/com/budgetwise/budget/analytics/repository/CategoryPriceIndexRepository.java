@@ -0,0 +1,52 @@
+package com.budgetwise.budget.analytics.repository;
+
+import com.budgetwise.budget.analytics.entity.CategoryPriceIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CategoryPriceIndexRepository extends JpaRepository<CategoryPriceIndex, Long> {
+
+    /**
+     * Index history of one category, oldest first (one indexed range scan).
+     */
+    List<CategoryPriceIndex> findByCategoryAndIndexDateGreaterThanEqualOrderByIndexDateAsc(String category, LocalDate startDate);
+
+    boolean existsByCategory(String category);
+
+    /**
+     * Last known value of every category before a date: the starting point of a chain update.
+     */
+    @Query(value = """
+        SELECT DISTINCT ON (category) *
+        FROM category_price_index
+        WHERE index_date < :date
+        ORDER BY category, index_date DESC
+    """, nativeQuery = true)
+    List<CategoryPriceIndex> findLatestBefore(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO category_price_index (category, index_date, jevons_index, laspeyres_index, matched_products)
+        VALUES (:category, :indexDate, :jevonsIndex, :laspeyresIndex, :matchedProducts)
+        ON CONFLICT (category, index_date) DO UPDATE SET
+            jevons_index = EXCLUDED.jevons_index,
+            laspeyres_index = EXCLUDED.laspeyres_index,
+            matched_products = EXCLUDED.matched_products
+    """, nativeQuery = true)
+    void upsert(@Param("category") String category,
+                @Param("indexDate") LocalDate indexDate,
+                @Param("jevonsIndex") double jevonsIndex,
+                @Param("laspeyresIndex") double laspeyresIndex,
+                @Param("matchedProducts") int matchedProducts);
+
+    @Modifying
+    @Query(value = "DELETE FROM category_price_index", nativeQuery = true)
+    void deleteAllRows();
+}
@@ -0,0 +1,47 @@
+package com.budgetwise.budget.analytics.repository;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceDigest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyPriceDigestRepository extends JpaRepository<DailyPriceDigest, Long> {
+
+    /**
+     * Locks the day's digest so two reports for the same day merge one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DailyPriceDigest> findByProductIdAndDigestDate(Long productId, LocalDate digestDate);
+
+    /**
+     * Digests of one product for a window (by name, like the rollup reads).
+     */
+    @Query("""
+        SELECT d.digest
+        FROM DailyPriceDigest d, ProductInfo p
+        WHERE p.id = d.productId
+          AND p.productName = :productName
+          AND d.digestDate >= :startDate
+    """)
+    List<byte[]> findDigests(@Param("productName") String productName,
+                             @Param("startDate") LocalDate startDate);
+
+    /**
+     * Digests of many products for a window (batch analytics).
+     */
+    List<DailyPriceDigest> findByProductIdInAndDigestDateGreaterThanEqual(Collection<Long> productIds, LocalDate startDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_price_digest", nativeQuery = true)
+    void deleteAllRows();
+}
@@ -0,0 +1,156 @@
+package com.budgetwise.budget.analytics.repository;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Write side of the daily rollup table.
+ * Reads go through {@link AnalyticsRepository}.
+ */
+@Repository
+public interface DailyPriceRollupRepository extends JpaRepository<DailyPriceRollup, Long> {
+
+    /**
+     * Merges freshly ingested prices into a rollup row (creates it on the first price of the day).
+     * All columns are additive, so applying the same report twice mirrors the duplicated raw records.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_price_rollup (product_info_id, market_id, rollup_date,
+                                        min_price, max_price, price_sum, price_count, price_sum_squares)
+        VALUES (:productId, :marketId, :rollupDate, :minPrice, :maxPrice, :priceSum, :priceCount, :priceSumSquares)
+        ON CONFLICT (product_info_id, market_id, rollup_date) DO UPDATE SET
+            min_price = LEAST(daily_price_rollup.min_price, EXCLUDED.min_price),
+            max_price = GREATEST(daily_price_rollup.max_price, EXCLUDED.max_price),
+            price_sum = daily_price_rollup.price_sum + EXCLUDED.price_sum,
+            price_count = daily_price_rollup.price_count + EXCLUDED.price_count,
+            price_sum_squares = daily_price_rollup.price_sum_squares + EXCLUDED.price_sum_squares
+    """, nativeQuery = true)
+    void mergeDay(@Param("productId") Long productId,
+                  @Param("marketId") Long marketId,
+                  @Param("rollupDate") LocalDate rollupDate,
+                  @Param("minPrice") double minPrice,
+                  @Param("maxPrice") double maxPrice,
+                  @Param("priceSum") double priceSum,
+                  @Param("priceCount") long priceCount,
+                  @Param("priceSumSquares") double priceSumSquares);
+
+    /**
+     * Most recent days of one series, newest first (seeds the ingestion anomaly detector).
+     */
+    List<DailyPriceRollup> findTop20ByProductIdAndMarketIdOrderByRollupDateDesc(Long productId, Long marketId);
+
+    /**
+     * Daily average of one series, as read by the forecast engine.
+     */
+    interface DailyAverageProjection {
+        Long getProductId();
+        Long getMarketId();
+        LocalDate getRollupDate();
+        double getPriceSum();
+        long getPriceCount();
+    }
+
+    /**
+     * Streams every series (markets and NATIONAL) since a date, grouped by series and in date order
+     * (cursor-based, must run inside a transaction).
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("""
+        SELECT
+            r.productId AS productId,
+            r.marketId AS marketId,
+            r.rollupDate AS rollupDate,
+            r.priceSum AS priceSum,
+            r.priceCount AS priceCount
+        FROM DailyPriceRollup r
+        WHERE r.rollupDate >= :startDate
+          AND r.priceCount > 0
+        ORDER BY r.productId ASC, r.marketId ASC, r.rollupDate ASC
+    """)
+    Stream<DailyAverageProjection> streamDailyAveragesSince(@Param("startDate") LocalDate startDate);
+
+    /**
+     * NATIONAL average of one product on one day, with the product's category (price index input).
+     */
+    interface CategoryAverageProjection {
+        Long getProductId();
+        String getCategory();
+        LocalDate getRollupDate();
+        double getPriceSum();
+        long getPriceCount();
+    }
+
+    /**
+     * NATIONAL rows since a date in date order (cursor-based, must run inside a transaction).
+     * An ingestion update reads two days; only a full rebuild reads the whole table.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("""
+        SELECT
+            r.productId AS productId,
+            p.category AS category,
+            r.rollupDate AS rollupDate,
+            r.priceSum AS priceSum,
+            r.priceCount AS priceCount
+        FROM DailyPriceRollup r, ProductInfo p
+        WHERE p.id = r.productId
+          AND r.marketId = 0
+          AND r.rollupDate >= :startDate
+          AND r.priceCount > 0
+        ORDER BY r.rollupDate ASC, r.productId ASC
+    """)
+    Stream<CategoryAverageProjection> streamNationalAveragesSince(@Param("startDate") LocalDate startDate);
+
+    /**
+     * Report day before the given one (null if it is the first).
+     */
+    @Query("SELECT MAX(r.rollupDate) FROM DailyPriceRollup r WHERE r.marketId = 0 AND r.rollupDate < :date")
+    LocalDate findPreviousNationalDate(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_price_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recreates the per-market rows from daily_price_record in one GROUP BY.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_price_rollup (product_info_id, market_id, rollup_date,
+                                        min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT d.product_info_id, d.market_location_id, r.date_reported,
+               MIN(d.price), MAX(d.price), SUM(d.price), COUNT(*), SUM(d.price * d.price)
+        FROM daily_price_record d
+        JOIN price_report r ON r.id = d.price_report_id
+        WHERE d.market_location_id IS NOT NULL
+          AND r.date_reported IS NOT NULL
+        GROUP BY d.product_info_id, d.market_location_id, r.date_reported
+    """, nativeQuery = true)
+    int rebuildMarketRows();
+
+    /**
+     * Recreates the NATIONAL rows by merging the per-market rows (never re-reads the raw records).
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_price_rollup (product_info_id, market_id, rollup_date,
+                                        min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT product_info_id, 0, rollup_date,
+               MIN(min_price), MAX(max_price), SUM(price_sum), SUM(price_count), SUM(price_sum_squares)
+        FROM daily_price_rollup
+        WHERE market_id <> 0
+        GROUP BY product_info_id, rollup_date
+    """, nativeQuery = true)
+    int rebuildNationalRows();
+}
@@ -0,0 +1,113 @@
+package com.budgetwise.budget.analytics.repository;
+
+import com.budgetwise.budget.analytics.entity.PeriodPriceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Write side of the weekly/monthly/yearly rollup tiers.
+ * Reads go through {@link AnalyticsRepository}.
+ */
+@Repository
+public interface PeriodPriceRollupRepository extends JpaRepository<PeriodPriceRollup, Long> {
+
+    /**
+     * Recomputes one WEEK or MONTH bucket of a product (all markets + NATIONAL) from its daily rows.
+     * Overwrites instead of adding, so refreshing the same bucket twice is harmless.
+     *
+     * @param resolution "WEEK" or "MONTH"
+     * @param bucketEnd  Exclusive end of the bucket.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO period_price_rollup (product_info_id, market_id, resolution, bucket_start,
+                                         min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT product_info_id, market_id, :resolution, :bucketStart,
+               MIN(min_price), MAX(max_price), SUM(price_sum), SUM(price_count), SUM(price_sum_squares)
+        FROM daily_price_rollup
+        WHERE product_info_id = :productId
+          AND rollup_date >= :bucketStart
+          AND rollup_date < :bucketEnd
+        GROUP BY product_info_id, market_id
+        ON CONFLICT (product_info_id, market_id, resolution, bucket_start) DO UPDATE SET
+            min_price = EXCLUDED.min_price,
+            max_price = EXCLUDED.max_price,
+            price_sum = EXCLUDED.price_sum,
+            price_count = EXCLUDED.price_count,
+            price_sum_squares = EXCLUDED.price_sum_squares
+    """, nativeQuery = true)
+    void refreshFromDaily(@Param("productId") Long productId,
+                          @Param("resolution") String resolution,
+                          @Param("bucketStart") LocalDate bucketStart,
+                          @Param("bucketEnd") LocalDate bucketEnd);
+
+    /**
+     * Recomputes one YEAR bucket of a product from its (at most 12) MONTH rows per market.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO period_price_rollup (product_info_id, market_id, resolution, bucket_start,
+                                         min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT product_info_id, market_id, 'YEAR', :bucketStart,
+               MIN(min_price), MAX(max_price), SUM(price_sum), SUM(price_count), SUM(price_sum_squares)
+        FROM period_price_rollup
+        WHERE product_info_id = :productId
+          AND resolution = 'MONTH'
+          AND bucket_start >= :bucketStart
+          AND bucket_start < :bucketEnd
+        GROUP BY product_info_id, market_id
+        ON CONFLICT (product_info_id, market_id, resolution, bucket_start) DO UPDATE SET
+            min_price = EXCLUDED.min_price,
+            max_price = EXCLUDED.max_price,
+            price_sum = EXCLUDED.price_sum,
+            price_count = EXCLUDED.price_count,
+            price_sum_squares = EXCLUDED.price_sum_squares
+    """, nativeQuery = true)
+    void refreshYearFromMonths(@Param("productId") Long productId,
+                               @Param("bucketStart") LocalDate bucketStart,
+                               @Param("bucketEnd") LocalDate bucketEnd);
+
+    @Modifying
+    @Query(value = "DELETE FROM period_price_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recreates every WEEK or MONTH bucket from the daily table in one GROUP BY.
+     *
+     * @param resolution "WEEK" or "MONTH"
+     * @param truncUnit  Matching date_trunc field ("week" or "month").
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO period_price_rollup (product_info_id, market_id, resolution, bucket_start,
+                                         min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT product_info_id, market_id, :resolution, bucket,
+               MIN(min_price), MAX(max_price), SUM(price_sum), SUM(price_count), SUM(price_sum_squares)
+        FROM (
+            SELECT d.*, CAST(date_trunc(:truncUnit, d.rollup_date) AS date) AS bucket
+            FROM daily_price_rollup d
+        ) daily
+        GROUP BY product_info_id, market_id, bucket
+    """, nativeQuery = true)
+    int rebuildFromDaily(@Param("resolution") String resolution, @Param("truncUnit") String truncUnit);
+
+    /**
+     * Recreates every YEAR bucket from the MONTH tier.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO period_price_rollup (product_info_id, market_id, resolution, bucket_start,
+                                         min_price, max_price, price_sum, price_count, price_sum_squares)
+        SELECT product_info_id, market_id, 'YEAR', CAST(date_trunc('year', bucket_start) AS date),
+               MIN(min_price), MAX(max_price), SUM(price_sum), SUM(price_count), SUM(price_sum_squares)
+        FROM period_price_rollup
+        WHERE resolution = 'MONTH'
+        GROUP BY product_info_id, market_id, CAST(date_trunc('year', bucket_start) AS date)
+    """, nativeQuery = true)
+    int rebuildYearsFromMonths();
+}
@@ -0,0 +1,35 @@
+package com.budgetwise.budget.analytics.repository;
+
+import com.budgetwise.budget.analytics.entity.PriceForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Read side of the forecast table. Rows are written in batches by PriceForecastService.
+ */
+@Repository
+public interface PriceForecastRepository extends JpaRepository<PriceForecast, Long> {
+
+    /**
+     * All horizons of one series, shortest first.
+     */
+    @Query("""
+        SELECT f
+        FROM PriceForecast f, ProductInfo p
+        WHERE p.id = f.productId
+          AND p.productName = :productName
+          AND f.marketId = :marketId
+        ORDER BY f.horizonDays ASC
+    """)
+    List<PriceForecast> findForSeries(@Param("productName") String productName,
+                                      @Param("marketId") Long marketId);
+
+    @Modifying
+    @Query(value = "DELETE FROM price_forecast", nativeQuery = true)
+    void deleteAllRows();
+}
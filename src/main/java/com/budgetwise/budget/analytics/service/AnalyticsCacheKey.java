@@ -0,0 +1,26 @@
+package com.budgetwise.budget.analytics.service;
+
+import java.time.LocalDate;
+
+/**
+ * Cache key for product analytics.
+ * The window is relative to today, so the date is part of the key
+ * and yesterday's entries simply stop being hit after midnight.
+ * Downsampled responses (maxPoints) are separate entries from the full history.
+ */
+public record AnalyticsCacheKey(
+        String productName,
+        Long marketId,
+        int days,
+        Integer maxPoints, // Null for the full history
+        LocalDate windowEnd
+) {
+
+    public static AnalyticsCacheKey of(String productName, Long marketId, int days) {
+        return of(productName, marketId, days, null);
+    }
+
+    public static AnalyticsCacheKey of(String productName, Long marketId, int days, Integer maxPoints) {
+        return new AnalyticsCacheKey(productName, marketId, days, maxPoints, LocalDate.now());
+    }
+}
@@ -1,25 +1,47 @@
 package com.budgetwise.budget.analytics.service;
 
+import com.budgetwise.budget.analytics.dto.BatchAnalyticsResponse;
 import com.budgetwise.budget.analytics.dto.PriceHistoryPoint;
 import com.budgetwise.budget.analytics.dto.ProductAnalyticsResponse;
+import com.budgetwise.budget.analytics.dto.ProductRollupBucket;
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+import com.budgetwise.budget.analytics.entity.DailyPriceDigest;
 import com.budgetwise.budget.analytics.repository.AnalyticsRepository;
-import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceDigestRepository;
+import com.budgetwise.budget.analytics.store.PriceSeriesStore;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.cache.CacheNames;
 import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsService {
 
     private final AnalyticsRepository recordRepository;
     private final MarketLocationRepository marketRepository;
+    private final PriceSeriesStore seriesStore;
+    private final ProductInfoRepository productInfoRepository;
+    private final DailyPriceDigestRepository digestRepository;
 
-    public AnalyticsService(AnalyticsRepository recordRepository, MarketLocationRepository marketRepository) {
+    public static final int MAX_BATCH_PRODUCTS = 100;
+
+    public AnalyticsService(AnalyticsRepository recordRepository, MarketLocationRepository marketRepository,
+                            PriceSeriesStore seriesStore, ProductInfoRepository productInfoRepository,
+                            DailyPriceDigestRepository digestRepository) {
         this.recordRepository = recordRepository;
         this.marketRepository = marketRepository;
+        this.seriesStore = seriesStore;
+        this.productInfoRepository = productInfoRepository;
+        this.digestRepository = digestRepository;
     }
 
 
@@ -28,70 +50,319 @@ public class AnalyticsService {
      * Core business logic for analytics.
      * * Logic Flow:
      * 1. Check if marketId is provided.
-     * - Yes: Fetch data strictly for that specific market.
-     * - No: Aggregate data from ALL markets (National Average).
-     * 2. Retrieve Stats (Min, Max, Avg) using optimized DB queries.
-     * 3. Compute Volatility (Price fluctuation analysis).
+     * - Yes: Read the rollup rows of that specific market.
+     * - No: Read the NATIONAL rollup rows (all markets merged at ingestion time).
+     * 2. Pick the rollup tier (DAY, WEEK, MONTH, YEAR) that keeps the history
+     * under {@link RollupResolution#TARGET_POINTS}; coarse windows start at a bucket boundary.
+     * 3. Read the buckets from the off-heap {@link PriceSeriesStore} when it is loaded,
+     * otherwise from the rollup tables (one indexed range scan).
+     * 4. Stream the buckets once through {@link PriceStatistics}: History (bucket average),
+     * Min/Max/Avg, standard deviation, EWMA volatility, drawdown and returns.
+     * 5. Label Volatility from the coefficient of variation.
+     * 6. National view: merge the window's daily price digests for median, p10/p90 and IQR
+     * across markets (one small row per day, never the raw records).
+     * 7. With maxPoints: thin the history to that many points with {@link Lttb} (statistics still
+     * cover every bucket).
+     * Results are cached per {@link AnalyticsCacheKey} until the product receives new prices.
+     *
+     * @param maxPoints (Optional) Upper bound on the history points, at least 3.
      */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_ANALYTICS, sync = true,
+            key = "T(com.budgetwise.budget.analytics.service.AnalyticsCacheKey).of(#productName, #marketId, #days, #maxPoints)")
     @Transactional(readOnly = true)
-    public ProductAnalyticsResponse getProductAnalytics(String productName, Long marketId, int days) {
+    public ProductAnalyticsResponse getProductAnalytics(String productName, Long marketId, int days, Integer maxPoints) {
+        if (maxPoints != null && maxPoints < Lttb.MIN_THRESHOLD) {
+            throw new IllegalArgumentException("maxPoints must be at least " + Lttb.MIN_THRESHOLD);
+        }
 
         LocalDate startDate = LocalDate.now().minusDays(days);
-        List<PriceHistoryPoint> history;
-        Double min = 0.0, max = 0.0, avg = 0.0;
-        String marketLabel;
-
-        if (marketId != null && marketId > 0) {
-            // Specific Market
-            marketLabel = marketRepository.findById(marketId)
-                    .map(m -> m.getMarketLocation())
-                    .orElse("Unknown Market");
-
-            history = recordRepository.findHistoryByMarket(productName, marketId, startDate);
-
-            List<Object[]> stats = recordRepository.findStatsByMarket(productName, marketId, startDate);
-            if (!stats.isEmpty() && stats.get(0)[0] != null) {
-                min = (Double) stats.get(0)[0];
-                max = (Double) stats.get(0)[1];
-                avg = (Double) stats.get(0)[2];
-            }
+        Long marketKey = marketKey(marketId);
+        String marketLabel = marketLabel(marketKey);
 
-        } else {
-            marketLabel = "National Average";
-            history = recordRepository.findHistoryNationalAverage(productName, startDate);
+        RollupResolution resolution = RollupResolution.forWindow(days);
+        List<RollupBucket> buckets = seriesStore.findBuckets(productName, marketKey, startDate, resolution)
+                .orElseGet(() -> resolution == RollupResolution.DAY
+                        ? recordRepository.findDailyRollups(productName, marketKey, startDate)
+                        : recordRepository.findPeriodRollups(productName, marketKey, resolution, resolution.bucketStart(startDate)));
 
-            List<Object[]> stats = recordRepository.findStatsNational(productName, startDate);
-            if (!stats.isEmpty() && stats.get(0)[0] != null) {
-                min = (Double) stats.get(0)[0];
-                max = (Double) stats.get(0)[1];
-                avg = (Double) stats.get(0)[2];
-            }
-        }
+        Series series = summarize(buckets, maxPoints);
+        PriceStatistics stats = series.stats();
+        List<PriceHistoryPoint> history = series.history();
 
-        avg = Math.round(avg * 100.0) / 100.0;
-
-        String volatility = calculateVolatility(min, max, avg);
+        PriceDistribution distribution = marketKey == DailyPriceRollup.NATIONAL
+                ? PriceDistribution.of(digestRepository.findDigests(productName, startDate))
+                : PriceDistribution.NONE;
 
         return new ProductAnalyticsResponse(
                 productName,
                 marketLabel,
-                min,
-                max,
-                avg,
-                volatility,
+                stats.min(),
+                stats.max(),
+                round(stats.mean()),
+                calculateVolatility(stats.coefficientOfVariation()),
+                round(stats.standardDeviation()),
+                round(stats.coefficientOfVariation()),
+                round(stats.ewmaVolatility()),
+                round(stats.maxDrawdown()),
+                round(stats.averageReturn()),
+                round(stats.latestReturn()),
+                distribution.median(),
+                distribution.p10(),
+                distribution.p90(),
+                distribution.interquartileRange(),
+                resolution,
                 history
         );
     }
 
-    private String calculateVolatility(Double min, Double max, Double avg) {
-        if (avg == 0) return "Low";
+    /**
+     * Analytics of many products at once (comparison and dashboard views).
+     *
+     * Logic Flow:
+     * 1. Resolve IDs and names to products in at most two queries (unknown ones are reported back).
+     * 2. Serve loaded products from the {@link PriceSeriesStore}; the rest with ONE grouped
+     * rollup query across all products, ordered by product and date.
+     * 3. Stream each product's buckets through {@link PriceStatistics} and align its prices
+     * to the shared date axis of the columnar response.
+     * 4. National view: merge each product's daily digests (ONE query for all products).
+     *
+     * @throws IllegalArgumentException if no product is given or more than {@link #MAX_BATCH_PRODUCTS}.
+     */
+    @Transactional(readOnly = true)
+    public BatchAnalyticsResponse getBatchAnalytics(List<Long> productIds, List<String> productNames, Long marketId, int days) {
+        List<Long> requestedIds = productIds == null ? List.of() : productIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> requestedNames = productNames == null ? List.of() : productNames.stream()
+                .filter(name -> name != null && !name.isBlank()).distinct().toList();
+
+        if (requestedIds.isEmpty() && requestedNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one productId or productName is required");
+        }
+        if (requestedIds.size() + requestedNames.size() > MAX_BATCH_PRODUCTS) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_PRODUCTS + " products");
+        }
+
+        // 1. Resolve products, keeping the request order
+        Map<Long, ProductInfo> products = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        if (!requestedIds.isEmpty()) {
+            Map<Long, ProductInfo> byId = productInfoRepository.findAllById(requestedIds).stream()
+                    .collect(Collectors.toMap(ProductInfo::getId, p -> p));
+            for (Long id : requestedIds) {
+                ProductInfo product = byId.get(id);
+                if (product == null) {
+                    unresolved.add(String.valueOf(id));
+                } else {
+                    products.put(id, product);
+                }
+            }
+        }
+        if (!requestedNames.isEmpty()) {
+            Map<String, ProductInfo> byName = productInfoRepository.findByProductNameIn(requestedNames).stream()
+                    .collect(Collectors.toMap(ProductInfo::getProductName, p -> p));
+            for (String name : requestedNames) {
+                ProductInfo product = byName.get(name);
+                if (product == null) {
+                    unresolved.add(name);
+                } else {
+                    products.putIfAbsent(product.getId(), product);
+                }
+            }
+        }
+
+        LocalDate startDate = LocalDate.now().minusDays(days);
+        Long marketKey = marketKey(marketId);
+        RollupResolution resolution = RollupResolution.forWindow(days);
+
+        // 2. Buckets per product: series store first, one grouped query for the rest
+        Map<Long, List<RollupBucket>> bucketsByProduct = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (ProductInfo product : products.values()) {
+            seriesStore.findBuckets(product.getProductName(), marketKey, startDate, resolution)
+                    .ifPresentOrElse(buckets -> bucketsByProduct.put(product.getId(), buckets),
+                            () -> missing.add(product.getId()));
+        }
+        if (!missing.isEmpty()) {
+            List<ProductRollupBucket> rows = resolution == RollupResolution.DAY
+                    ? recordRepository.findDailyRollupsForProducts(missing, marketKey, startDate)
+                    : recordRepository.findPeriodRollupsForProducts(missing, marketKey, resolution, resolution.bucketStart(startDate));
+            for (ProductRollupBucket row : rows) {
+                bucketsByProduct.computeIfAbsent(row.productId(), id -> new ArrayList<>()).add(row.toBucket());
+            }
+        }
+
+        // Cross-market distribution per product (national view only)
+        Map<Long, List<byte[]>> digestsByProduct = new HashMap<>();
+        if (marketKey == DailyPriceRollup.NATIONAL && !products.isEmpty()) {
+            for (DailyPriceDigest digest : digestRepository.findByProductIdInAndDigestDateGreaterThanEqual(products.keySet(), startDate)) {
+                digestsByProduct.computeIfAbsent(digest.getProductId(), id -> new ArrayList<>()).add(digest.getDigest());
+            }
+        }
+
+        // 3. Shared date axis
+        List<LocalDate> dates = bucketsByProduct.values().stream()
+                .flatMap(List::stream)
+                .filter(bucket -> bucket.priceCount() != null && bucket.priceCount() > 0)
+                .map(RollupBucket::bucketStart)
+                .distinct()
+                .sorted()
+                .toList();
+        Map<LocalDate, Integer> dateIndex = new HashMap<>();
+        for (int i = 0; i < dates.size(); i++) {
+            dateIndex.put(dates.get(i), i);
+        }
+
+        int size = products.size();
+        List<Long> ids = new ArrayList<>(size);
+        List<String> names = new ArrayList<>(size);
+        List<Double> minPrices = new ArrayList<>(size);
+        List<Double> maxPrices = new ArrayList<>(size);
+        List<Double> averagePrices = new ArrayList<>(size);
+        List<Double> standardDeviations = new ArrayList<>(size);
+        List<Double> coefficients = new ArrayList<>(size);
+        List<String> volatilities = new ArrayList<>(size);
+        List<Double> medians = new ArrayList<>(size);
+        List<Double> p10s = new ArrayList<>(size);
+        List<Double> p90s = new ArrayList<>(size);
+        List<Double> interquartileRanges = new ArrayList<>(size);
+        List<Double[]> prices = new ArrayList<>(size);
+
+        for (ProductInfo product : products.values()) {
+            PriceStatistics stats = new PriceStatistics();
+            Double[] row = new Double[dates.size()];
+            for (RollupBucket bucket : bucketsByProduct.getOrDefault(product.getId(), List.of())) {
+                if (bucket.priceCount() == null || bucket.priceCount() == 0) {
+                    continue;
+                }
+                row[dateIndex.get(bucket.bucketStart())] = round(bucket.average());
+                stats.accept(bucket);
+            }
+
+            ids.add(product.getId());
+            names.add(product.getProductName());
+            minPrices.add(stats.min());
+            maxPrices.add(stats.max());
+            averagePrices.add(round(stats.mean()));
+            standardDeviations.add(round(stats.standardDeviation()));
+            coefficients.add(round(stats.coefficientOfVariation()));
+            volatilities.add(calculateVolatility(stats.coefficientOfVariation()));
+            PriceDistribution distribution = PriceDistribution.of(digestsByProduct.getOrDefault(product.getId(), List.of()));
+            medians.add(distribution.median());
+            p10s.add(distribution.p10());
+            p90s.add(distribution.p90());
+            interquartileRanges.add(distribution.interquartileRange());
+            prices.add(row);
+        }
+
+        return new BatchAnalyticsResponse(
+                marketLabel(marketKey),
+                resolution,
+                dates,
+                ids,
+                names,
+                minPrices,
+                maxPrices,
+                averagePrices,
+                standardDeviations,
+                coefficients,
+                volatilities,
+                medians,
+                p10s,
+                p90s,
+                interquartileRanges,
+                prices,
+                unresolved
+        );
+    }
+
+    /**
+     * Quantiles of a window, from the merge of its daily digests (null when there are none).
+     */
+    private record PriceDistribution(Double median, Double p10, Double p90, Double interquartileRange) {
+
+        static final PriceDistribution NONE = new PriceDistribution(null, null, null, null);
 
-        // Simple Formula: Percentage difference between Min and Max
-        double diff = max - min;
-        double percentageFluctuation = (diff / avg) * 100;
+        static PriceDistribution of(List<byte[]> digests) {
+            if (digests.isEmpty()) {
+                return NONE;
+            }
+            PriceDigest window = new PriceDigest();
+            digests.forEach(bytes -> window.add(PriceDigest.fromBytes(bytes)));
+            if (window.count() == 0) {
+                return NONE;
+            }
+            return new PriceDistribution(
+                    round(window.quantile(0.5)),
+                    round(window.quantile(0.1)),
+                    round(window.quantile(0.9)),
+                    round(window.quantile(0.75) - window.quantile(0.25)));
+        }
+    }
+
+    /**
+     * Statistics and (optionally thinned) history of one product's buckets.
+     */
+    record Series(PriceStatistics stats, List<PriceHistoryPoint> history) {}
+
+    static Series summarize(List<RollupBucket> buckets, Integer maxPoints) {
+        // History as primitive columns first, so downsampling runs before any point object exists
+        double[] epochDays = new double[buckets.size()];
+        double[] averages = new double[buckets.size()];
+        int points = 0;
+        PriceStatistics stats = new PriceStatistics();
+
+        for (RollupBucket bucket : buckets) {
+            if (bucket.priceCount() == null || bucket.priceCount() == 0) {
+                continue;
+            }
+            epochDays[points] = bucket.bucketStart().toEpochDay();
+            averages[points] = bucket.average();
+            points++;
+            stats.accept(bucket);
+        }
+        return new Series(stats, toHistory(epochDays, averages, points, maxPoints));
+    }
+
+    private static List<PriceHistoryPoint> toHistory(double[] epochDays, double[] averages, int points, Integer maxPoints) {
+        if (maxPoints == null || points <= maxPoints) {
+            List<PriceHistoryPoint> history = new ArrayList<>(points);
+            for (int i = 0; i < points; i++) {
+                history.add(new PriceHistoryPoint(LocalDate.ofEpochDay((long) epochDays[i]), averages[i]));
+            }
+            return history;
+        }
+        int[] kept = Lttb.downsample(epochDays, averages, points, maxPoints);
+        List<PriceHistoryPoint> history = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            history.add(new PriceHistoryPoint(LocalDate.ofEpochDay((long) epochDays[index]), averages[index]));
+        }
+        return history;
+    }
+
+    private static Long marketKey(Long marketId) {
+        return marketId != null && marketId > 0 ? marketId : DailyPriceRollup.NATIONAL;
+    }
+
+    private String marketLabel(Long marketKey) {
+        if (marketKey == DailyPriceRollup.NATIONAL) {
+            return "National Average";
+        }
+        // Specific Market
+        return marketRepository.findById(marketKey)
+                .map(m -> m.getMarketLocation())
+                .orElse("Unknown Market");
+    }
+
+    /**
+     * Labels volatility from the coefficient of variation (std dev / mean).
+     * Thresholds are tuned for retail food prices, where a 3% spread is already noticeable.
+     */
+    String calculateVolatility(double coefficientOfVariation) {
+        if (coefficientOfVariation < 3) return "Low";       // Less than 3% of the mean
+        if (coefficientOfVariation < 8) return "Medium";    // 3-8%
+        return "High";                                      // 8% and above
+    }
 
-        if (percentageFluctuation < 5) return "Low";       // Less than 5% change
-        if (percentageFluctuation < 15) return "Medium";   // 5-15% change
-        return "High";                                     // >15% change
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.budgetwise.budget.analytics.service;
+
+/**
+ * Holt's linear-trend exponential smoothing over an evenly spaced (daily) series.
+ *
+ * Fitting:
+ * - level/trend are initialised from the first two points;
+ * - alpha and beta are picked from a small grid by the lowest one-step-ahead squared error,
+ *   so each fit is a handful of O(n) passes without any allocation.
+ *
+ * Prediction interval at horizon h (additive errors):
+ * sigma^2 * (1 + sum_{j=1..h-1} alpha^2 * (1 + j * beta)^2), with sigma from the one-step residuals.
+ */
+final class HoltForecaster {
+
+    static final int MIN_POINTS = 10;
+    static final double Z_95 = 1.96;
+
+    private static final double[] ALPHAS = {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+    private static final double[] BETAS = {0.01, 0.05, 0.1, 0.2, 0.3};
+
+    /**
+     * Fitted model: call {@link #predict} / {@link #halfWidth} for any horizon in days.
+     */
+    record Fit(double level, double trend, double alpha, double beta, double sigma) {
+
+        double predict(int horizon) {
+            return level + horizon * trend;
+        }
+
+        /** Half width of the 95% prediction interval. */
+        double halfWidth(int horizon) {
+            double factor = 1;
+            for (int j = 1; j < horizon; j++) {
+                double weight = alpha * (1 + j * beta);
+                factor += weight * weight;
+            }
+            return Z_95 * sigma * Math.sqrt(factor);
+        }
+    }
+
+    private HoltForecaster() {
+    }
+
+    /**
+     * @param values Daily values, oldest first.
+     * @return Null when the series is shorter than {@link #MIN_POINTS}.
+     */
+    static Fit fit(double[] values) {
+        if (values.length < MIN_POINTS) {
+            return null;
+        }
+        double bestError = Double.MAX_VALUE;
+        double bestAlpha = ALPHAS[0];
+        double bestBeta = BETAS[0];
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                double error = squaredError(values, alpha, beta);
+                if (error < bestError) {
+                    bestError = error;
+                    bestAlpha = alpha;
+                    bestBeta = beta;
+                }
+            }
+        }
+        return smooth(values, bestAlpha, bestBeta, bestError);
+    }
+
+    private static double squaredError(double[] values, double alpha, double beta) {
+        double level = values[1];
+        double trend = values[1] - values[0];
+        double error = 0;
+        for (int i = 2; i < values.length; i++) {
+            double residual = values[i] - (level + trend);
+            error += residual * residual;
+            double previousLevel = level;
+            level = alpha * values[i] + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        return error;
+    }
+
+    private static Fit smooth(double[] values, double alpha, double beta, double squaredError) {
+        double level = values[1];
+        double trend = values[1] - values[0];
+        for (int i = 2; i < values.length; i++) {
+            double previousLevel = level;
+            level = alpha * values[i] + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        // n - 2 one-step residuals, two more degrees of freedom for the fitted parameters
+        double sigma = Math.sqrt(squaredError / Math.max(1, values.length - 4));
+        return new Fit(level, trend, alpha, beta, sigma);
+    }
+}
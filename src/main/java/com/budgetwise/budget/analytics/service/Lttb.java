@@ -0,0 +1,80 @@
+package com.budgetwise.budget.analytics.service;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013) for chart series.
+ *
+ * The first and last points are always kept. The points in between are split into
+ * threshold - 2 equal buckets. From each bucket, the point kept is the one forming the largest
+ * triangle with the previously kept point and the average of the next bucket. Peaks and troughs
+ * span the largest triangles, so the shape of the series survives even at a few dozen points.
+ *
+ * One pass over primitive arrays; the only allocation is the index array it returns.
+ */
+final class Lttb {
+
+    static final int MIN_THRESHOLD = 3;
+
+    private Lttb() {
+    }
+
+    /**
+     * @param x         Ascending x values (e.g. epoch days).
+     * @param y         Values at the same positions as x.
+     * @param length    Number of leading entries of x and y that hold points.
+     * @param threshold Number of points to keep, at least MIN_THRESHOLD.
+     * @return Ascending indices of the kept points; all indices when the series is already short enough.
+     */
+    static int[] downsample(double[] x, double[] y, int length, int threshold) {
+        if (threshold < MIN_THRESHOLD) {
+            throw new IllegalArgumentException("threshold must be at least " + MIN_THRESHOLD);
+        }
+        if (length <= threshold) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        kept[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double previousX = x[previous];
+            double previousY = y[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the maximum
+                double area = Math.abs((previousX - averageX) * (y[i] - previousY)
+                        - (previousX - x[i]) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+
+        kept[threshold - 1] = length - 1;
+        return kept;
+    }
+}
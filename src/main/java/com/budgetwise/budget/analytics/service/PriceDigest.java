@@ -0,0 +1,173 @@
+package com.budgetwise.budget.analytics.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch (merging t-digest, Dunning &amp; Ertl) of the prices of one product.
+ *
+ * - Centroids (mean, weight) are kept sorted; new prices and merged digests go to a buffer
+ *   that is folded in with the arcsine scale function, so centroids near the tails stay small.
+ * - A day's few dozen market prices stay single-price centroids, so daily quantiles are exact;
+ *   beyond that the digest stays under ~{@link #COMPRESSION} centroids whatever the number of prices.
+ * - Digests of different days merge losslessly into a digest of the whole window.
+ *
+ * Serialized form (big-endian): int centroid count, double min, double max, then per centroid
+ * double mean and double weight.
+ */
+final class PriceDigest {
+
+    static final double COMPRESSION = 100;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int size;
+
+    private double[] bufferMeans = new double[16];
+    private double[] bufferWeights = new double[16];
+    private int bufferSize;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double price) {
+        add(price, 1);
+    }
+
+    void add(PriceDigest other) {
+        other.compress();
+        for (int i = 0; i < other.size; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.totalWeight > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    private void add(double mean, double weight) {
+        if (bufferSize == bufferMeans.length) {
+            bufferMeans = Arrays.copyOf(bufferMeans, bufferSize * 2);
+            bufferWeights = Arrays.copyOf(bufferWeights, bufferSize * 2);
+        }
+        bufferMeans[bufferSize] = mean;
+        bufferWeights[bufferSize] = weight;
+        bufferSize++;
+        totalWeight += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    long count() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * Price at quantile q (0..1), interpolated between centroid centers; NaN when empty.
+     */
+    double quantile(double q) {
+        compress();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        if (size == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        if (index <= weights[0] / 2) {
+            return min + (means[0] - min) * (index / (weights[0] / 2));
+        }
+        double cumulative = 0;
+        for (int i = 0; i < size - 1; i++) {
+            double center = cumulative + weights[i] / 2;
+            double nextCenter = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index <= nextCenter) {
+                double fraction = (index - center) / (nextCenter - center);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += weights[i];
+        }
+        double lastCenter = totalWeight - weights[size - 1] / 2;
+        double fraction = (index - lastCenter) / (weights[size - 1] / 2);
+        return means[size - 1] + (max - means[size - 1]) * Math.min(1, fraction);
+    }
+
+    byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 2 * Double.BYTES + size * 2 * Double.BYTES);
+        buffer.putInt(size).putDouble(min).putDouble(max);
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(means[i]).putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    static PriceDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        PriceDigest digest = new PriceDigest();
+        int count = buffer.getInt();
+        digest.min = buffer.getDouble();
+        digest.max = buffer.getDouble();
+        digest.means = new double[count];
+        digest.weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = buffer.getDouble();
+            digest.weights[i] = buffer.getDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.size = count;
+        return digest;
+    }
+
+    /**
+     * Folds the buffer into the centroids: one sort and one greedy pass.
+     */
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        int n = size + bufferSize;
+        double[] allMeans = Arrays.copyOf(means, n);
+        double[] allWeights = Arrays.copyOf(weights, n);
+        System.arraycopy(bufferMeans, 0, allMeans, size, bufferSize);
+        System.arraycopy(bufferWeights, 0, allWeights, size, bufferSize);
+        bufferSize = 0;
+
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double[] mergedMeans = new double[n];
+        double[] mergedWeights = new double[n];
+        int merged = 0;
+        double cumulative = 0;
+        double kLeft = scale(0);
+
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (merged > 0 && scale((cumulative + mergedWeights[merged - 1] + allWeights[i]) / totalWeight) - kLeft <= 1) {
+                // Weighted mean update of the open centroid
+                double weight = mergedWeights[merged - 1] + allWeights[i];
+                mergedMeans[merged - 1] += (allMeans[i] - mergedMeans[merged - 1]) * allWeights[i] / weight;
+                mergedWeights[merged - 1] = weight;
+            } else {
+                if (merged > 0) {
+                    cumulative += mergedWeights[merged - 1];
+                    kLeft = scale(cumulative / totalWeight);
+                }
+                mergedMeans[merged] = allMeans[i];
+                mergedWeights[merged] = allWeights[i];
+                merged++;
+            }
+        }
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+        size = merged;
+    }
+
+    /** k1 scale function: delta / (2 pi) * asin(2q - 1). */
+    private static double scale(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+}
@@ -0,0 +1,298 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.ForecastPoint;
+import com.budgetwise.budget.analytics.dto.PriceForecastResponse;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.PriceForecast;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository.DailyAverageProjection;
+import com.budgetwise.budget.analytics.repository.PriceForecastRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.common.snapshot.CoalescingRebuilder;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Forecasts every price series (per market and NATIONAL) for {@link #HORIZONS} days ahead.
+ *
+ * Run Flow (after each committed ingestion or rollup rebuild, coalesced by a {@link CoalescingRebuilder}):
+ * 1. Stream the last {@link #HISTORY_DAYS} days of daily rollups once, series by series,
+ *    and carry each report day's average forward over the days without a report.
+ * 2. Fit one {@link HoltForecaster} model per series in parallel on a dedicated fork-join pool
+ *    (series are independent, so the run scales with the number of cores).
+ * 3. Replace the price_forecast table in one transaction with JDBC batch inserts;
+ *    readers keep seeing the previous run until it commits.
+ */
+@Slf4j
+@Service
+public class PriceForecastService {
+
+    public static final List<Integer> HORIZONS = List.of(7, 14, 30);
+    static final int HISTORY_DAYS = 180;
+    // Carried-forward days carry no information; require real observations
+    static final int MIN_REPORT_DAYS = 8;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO price_forecast (product_info_id, market_id, horizon_days, base_date, target_date,
+                                    forecast_price, lower_bound, upper_bound, generated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private final DailyPriceRollupRepository rollupRepository;
+    private final PriceForecastRepository forecastRepository;
+    private final MarketLocationRepository marketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final CoalescingRebuilder rebuilder = new CoalescingRebuilder("Price forecast", this::runPass);
+    private volatile int lastRunRows;
+
+    public PriceForecastService(DailyPriceRollupRepository rollupRepository,
+                                PriceForecastRepository forecastRepository,
+                                MarketLocationRepository marketRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.forecastRepository = forecastRepository;
+        this.marketRepository = marketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Stored forecasts of one series.
+     *
+     * @param marketId Null or 0 for the National Average.
+     * @throws ResourceNotFoundException if the series has no forecast (unknown product or too little history).
+     */
+    @Transactional(readOnly = true)
+    public PriceForecastResponse getForecast(String productName, Long marketId) {
+        Long marketKey = marketId != null && marketId > 0 ? marketId : DailyPriceRollup.NATIONAL;
+        List<PriceForecast> rows = forecastRepository.findForSeries(productName, marketKey);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("PriceForecast", "productName", productName);
+        }
+
+        String marketName = marketKey == DailyPriceRollup.NATIONAL
+                ? "National Average"
+                : marketRepository.findById(marketKey).map(m -> m.getMarketLocation()).orElse("Unknown Market");
+
+        List<ForecastPoint> points = rows.stream()
+                .map(f -> new ForecastPoint(f.getHorizonDays(), f.getTargetDate(),
+                        f.getForecastPrice(), f.getLowerBound(), f.getUpperBound()))
+                .toList();
+        return new PriceForecastResponse(productName, marketName,
+                rows.get(0).getBaseDate(), rows.get(0).getGeneratedAt(), points);
+    }
+
+    /**
+     * Number of finished forecast runs since startup (part of the forecast ETag,
+     * since runs finish after the data version was already bumped).
+     */
+    public long completedRuns() {
+        return rebuilder.generation();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isIngestion() || event.isHistoryRebuild()) {
+            recomputeAll();
+        }
+    }
+
+    /**
+     * Computes the first forecasts for databases that already hold rollups.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void computeIfEmpty() {
+        if (forecastRepository.count() == 0 && rollupRepository.count() > 0) {
+            recomputeAll();
+        }
+    }
+
+    /**
+     * Recomputes every forecast. Concurrent calls are coalesced into at most one extra pass;
+     * a failed pass keeps the previous forecasts.
+     *
+     * @return Number of forecast rows written by the last successful pass.
+     */
+    public int recomputeAll() {
+        rebuilder.rebuild();
+        return lastRunRows;
+    }
+
+    private void runPass() {
+        lastRunRows = runOnce();
+    }
+
+    private int runOnce() {
+        long started = System.currentTimeMillis();
+        LocalDate startDate = LocalDate.now().minusDays(HISTORY_DAYS);
+
+        // 1. One sequential read of all series
+        List<SeriesInput> series = readOnlyTransaction.execute(status -> {
+            try (Stream<DailyAverageProjection> rows = rollupRepository.streamDailyAveragesSince(startDate)) {
+                return collectSeries(rows);
+            }
+        });
+
+        // 2. Independent fits, spread over all cores
+        LocalDateTime generatedAt = LocalDateTime.now();
+        List<PriceForecast> forecasts = pool.submit(() -> series.parallelStream()
+                .map(input -> forecast(input, generatedAt))
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList()
+        ).join();
+
+        // 3. Swap the table contents atomically
+        writeTransaction.executeWithoutResult(status -> {
+            forecastRepository.deleteAllRows();
+            jdbcTemplate.batchUpdate(INSERT_SQL, forecasts, INSERT_BATCH_SIZE, (ps, f) -> {
+                ps.setLong(1, f.getProductId());
+                ps.setLong(2, f.getMarketId());
+                ps.setInt(3, f.getHorizonDays());
+                ps.setDate(4, Date.valueOf(f.getBaseDate()));
+                ps.setDate(5, Date.valueOf(f.getTargetDate()));
+                ps.setDouble(6, f.getForecastPrice());
+                ps.setDouble(7, f.getLowerBound());
+                ps.setDouble(8, f.getUpperBound());
+                ps.setTimestamp(9, Timestamp.valueOf(f.getGeneratedAt()));
+            });
+        });
+
+        log.info("Price forecasts: {} series, {} rows in {} ms (parallelism {})",
+                series.size(), forecasts.size(), System.currentTimeMillis() - started, pool.getParallelism());
+        return forecasts.size();
+    }
+
+    /**
+     * Folds the ordered rollup rows into one daily series per (product, market).
+     */
+    static List<SeriesInput> collectSeries(Stream<DailyAverageProjection> rows) {
+        List<SeriesInput> series = new ArrayList<>();
+        SeriesBuilder current = null;
+
+        for (DailyAverageProjection row : (Iterable<DailyAverageProjection>) rows::iterator) {
+            if (current == null || !current.matches(row)) {
+                if (current != null) {
+                    series.add(current.build());
+                }
+                current = new SeriesBuilder(row.getProductId(), row.getMarketId(), row.getRollupDate());
+            }
+            current.add(row.getRollupDate(), row.getPriceSum() / row.getPriceCount());
+        }
+        if (current != null) {
+            series.add(current.build());
+        }
+        return series;
+    }
+
+    private static List<PriceForecast> forecast(SeriesInput input, LocalDateTime generatedAt) {
+        HoltForecaster.Fit fit = input.reportDays() < MIN_REPORT_DAYS ? null : HoltForecaster.fit(input.values());
+        if (fit == null) {
+            return null;
+        }
+        LocalDate baseDate = input.lastDate();
+        List<PriceForecast> rows = new ArrayList<>(HORIZONS.size());
+        for (int horizon : HORIZONS) {
+            double price = Math.max(0.0, fit.predict(horizon));
+            double halfWidth = fit.halfWidth(horizon);
+            rows.add(new PriceForecast(null, input.productId(), input.marketId(), horizon,
+                    baseDate, baseDate.plusDays(horizon),
+                    round(price), round(Math.max(0.0, price - halfWidth)), round(price + halfWidth),
+                    generatedAt));
+        }
+        return rows;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * One series on a daily grid, oldest first.
+     */
+    record SeriesInput(Long productId, Long marketId, LocalDate firstDate, int reportDays, double[] values) {
+
+        LocalDate lastDate() {
+            return firstDate.plusDays(values.length - 1);
+        }
+    }
+
+    /**
+     * Collects the report days of one series and fills the days in between with the last known average.
+     */
+    private static final class SeriesBuilder {
+        private final Long productId;
+        private final Long marketId;
+        private final LocalDate firstDate;
+        private int[] offsets = new int[32];
+        private double[] averages = new double[32];
+        private int size;
+
+        private SeriesBuilder(Long productId, Long marketId, LocalDate firstDate) {
+            this.productId = productId;
+            this.marketId = marketId;
+            this.firstDate = firstDate;
+        }
+
+        private boolean matches(DailyAverageProjection row) {
+            return productId.equals(row.getProductId()) && marketId.equals(row.getMarketId());
+        }
+
+        private void add(LocalDate date, double average) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                averages = Arrays.copyOf(averages, size * 2);
+            }
+            offsets[size] = (int) ChronoUnit.DAYS.between(firstDate, date);
+            averages[size] = average;
+            size++;
+        }
+
+        private SeriesInput build() {
+            double[] values = new double[offsets[size - 1] + 1];
+            for (int i = 0; i < size; i++) {
+                int end = i + 1 < size ? offsets[i + 1] : values.length;
+                Arrays.fill(values, offsets[i], end, averages[i]);
+            }
+            return new SeriesInput(productId, marketId, firstDate, size, values);
+        }
+    }
+}
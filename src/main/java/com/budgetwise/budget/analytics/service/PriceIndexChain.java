@@ -0,0 +1,96 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.entity.CategoryPriceIndex;
+
+import java.util.*;
+
+/**
+ * Advances chained category price indices one report day at a time.
+ *
+ * Per day (O(products priced that day)):
+ * - Match every product against its price on the previous report day.
+ * - Link per category and for {@link CategoryPriceIndex#ALL_CATEGORIES}:
+ *   Jevons = exp(mean(ln(p_t / p_t-1))), Laspeyres = sum(p_t) / sum(p_t-1).
+ * - Multiply the category's last level by its link. Categories start at {@link #BASE};
+ *   a day without matched products carries the level forward.
+ */
+final class PriceIndexChain {
+
+    static final double BASE = 100.0;
+
+    record DayPrice(Long productId, String category, double price) {
+    }
+
+    record Level(String category, double jevons, double laspeyres, int matchedProducts) {
+    }
+
+    private final Map<String, double[]> levels;
+    private Map<Long, Double> previousPrices = Map.of();
+
+    /**
+     * @param startLevels Last stored {jevons, laspeyres} per category before the first day to advance.
+     */
+    PriceIndexChain(Map<String, double[]> startLevels) {
+        this.levels = new HashMap<>(startLevels);
+    }
+
+    /**
+     * Sets the prices of the day before the first day to advance (no index is produced for it).
+     */
+    void reference(List<DayPrice> day) {
+        previousPrices = pricesOf(day);
+    }
+
+    /**
+     * Computes the levels of one report day, sorted by category.
+     */
+    List<Level> advance(List<DayPrice> day) {
+        Map<String, Link> links = new TreeMap<>();
+        links.put(CategoryPriceIndex.ALL_CATEGORIES, new Link());
+
+        for (DayPrice price : day) {
+            Link categoryLink = price.category() == null ? null : links.computeIfAbsent(price.category(), c -> new Link());
+            Double previous = previousPrices.get(price.productId());
+            if (previous == null || previous <= 0 || price.price() <= 0) {
+                continue;
+            }
+            links.get(CategoryPriceIndex.ALL_CATEGORIES).accept(previous, price.price());
+            if (categoryLink != null) {
+                categoryLink.accept(previous, price.price());
+            }
+        }
+
+        List<Level> result = new ArrayList<>(links.size());
+        links.forEach((category, link) -> {
+            double[] level = levels.computeIfAbsent(category, c -> new double[]{BASE, BASE});
+            if (link.matched > 0) {
+                level[0] *= Math.exp(link.sumLogRelatives / link.matched);
+                level[1] *= link.sumCurrent / link.sumPrevious;
+            }
+            result.add(new Level(category, level[0], level[1], link.matched));
+        });
+
+        previousPrices = pricesOf(day);
+        return result;
+    }
+
+    private static Map<Long, Double> pricesOf(List<DayPrice> day) {
+        Map<Long, Double> prices = new HashMap<>(day.size() * 2);
+        day.forEach(price -> prices.put(price.productId(), price.price()));
+        return prices;
+    }
+
+    private static final class Link {
+        private int matched;
+        private double sumLogRelatives;
+        private double sumCurrent;
+        private double sumPrevious;
+
+        private void accept(double previous, double current) {
+            matched++;
+            sumLogRelatives += Math.log(current / previous);
+            sumCurrent += current;
+            sumPrevious += previous;
+        }
+    }
+}
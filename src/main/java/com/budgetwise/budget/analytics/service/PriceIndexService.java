@@ -0,0 +1,181 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.PriceIndexPoint;
+import com.budgetwise.budget.analytics.dto.PriceIndexResponse;
+import com.budgetwise.budget.analytics.entity.CategoryPriceIndex;
+import com.budgetwise.budget.analytics.repository.CategoryPriceIndexRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository.CategoryAverageProjection;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the chained category price indices (see {@link CategoryPriceIndex}).
+ *
+ * Update Flow (after each committed report):
+ * 1. Start from the last stored level of every category before the report day.
+ * 2. Read the NATIONAL daily rollups of the previous report day and of the report day
+ *    (plus any later days, when an older report is re-ingested) and chain them forward.
+ * 3. Upsert one row per category per day, so reprocessing a report is idempotent.
+ * A rollup rebuild from history recomputes the whole chain.
+ * History reads are one indexed range scan; each point is a stored row.
+ */
+@Slf4j
+@Service
+public class PriceIndexService {
+
+    private final DailyPriceRollupRepository rollupRepository;
+    private final CategoryPriceIndexRepository indexRepository;
+
+    public PriceIndexService(DailyPriceRollupRepository rollupRepository, CategoryPriceIndexRepository indexRepository) {
+        this.rollupRepository = rollupRepository;
+        this.indexRepository = indexRepository;
+    }
+
+    /**
+     * Index history of a category.
+     *
+     * @param category Product category, or null/blank for all products.
+     * @param days     Look-back window when no baseDate is given.
+     * @param baseDate Optional: values are rebased to 100 on the first report day on or after it.
+     */
+    @Transactional(readOnly = true)
+    public PriceIndexResponse getIndexHistory(String category, int days, LocalDate baseDate) {
+        String key = category == null || category.isBlank() ? CategoryPriceIndex.ALL_CATEGORIES : category.trim();
+        LocalDate startDate = baseDate != null ? baseDate : LocalDate.now().minusDays(days);
+
+        List<CategoryPriceIndex> rows = indexRepository
+                .findByCategoryAndIndexDateGreaterThanEqualOrderByIndexDateAsc(key, startDate);
+
+        // Chain base by default; rebased on request (one division per point)
+        double jevonsBase = PriceIndexChain.BASE;
+        double laspeyresBase = PriceIndexChain.BASE;
+        LocalDate responseBase = null;
+        if (baseDate != null && !rows.isEmpty()) {
+            jevonsBase = rows.get(0).getJevonsIndex();
+            laspeyresBase = rows.get(0).getLaspeyresIndex();
+            responseBase = rows.get(0).getIndexDate();
+        }
+
+        List<PriceIndexPoint> history = new ArrayList<>(rows.size());
+        for (CategoryPriceIndex row : rows) {
+            history.add(new PriceIndexPoint(row.getIndexDate(),
+                    round(row.getJevonsIndex() / jevonsBase * PriceIndexChain.BASE),
+                    round(row.getLaspeyresIndex() / laspeyresBase * PriceIndexChain.BASE),
+                    row.getMatchedProducts()));
+        }
+        return new PriceIndexResponse(key, responseBase, history);
+    }
+
+    /**
+     * Runs in its own transaction right after the report (or rollup rebuild) committed, before the
+     * data version is bumped, so clients revalidating with the new ETag already see the new index values.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isIngestion() && event.reportDate() != null) {
+            updateFrom(event.reportDate());
+        } else if (event.isHistoryRebuild()) {
+            int rows = rebuild();
+            log.info("Rebuilt category_price_index after rollup rebuild: {} rows", rows);
+        }
+    }
+
+    /**
+     * Builds the index history once for databases that already hold rollups
+     * (runs after the rollup backfill). Also rebuilds it when the all-products rows
+     * are missing, i.e. they were stored under the former "ALL" key.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            return;
+        }
+        if (indexRepository.count() == 0) {
+            int rows = updateFrom(LocalDate.EPOCH);
+            log.info("Built category_price_index from rollups: {} rows", rows);
+        } else if (!indexRepository.existsByCategory(CategoryPriceIndex.ALL_CATEGORIES)) {
+            int rows = rebuild();
+            log.info("Rebuilt category_price_index under the '{}' all-products key: {} rows",
+                    CategoryPriceIndex.ALL_CATEGORIES, rows);
+        }
+    }
+
+    /**
+     * Recomputes every index row; days dropped by the rollup rebuild lose their rows too.
+     */
+    synchronized int rebuild() {
+        indexRepository.deleteAllRows();
+        return updateFrom(LocalDate.EPOCH);
+    }
+
+    /**
+     * Recomputes the indices of the given day and every later report day.
+     *
+     * @return Number of index rows written.
+     */
+    synchronized int updateFrom(LocalDate date) {
+        LocalDate previousDate = rollupRepository.findPreviousNationalDate(date);
+
+        Map<String, double[]> startLevels = new HashMap<>();
+        if (previousDate != null) {
+            indexRepository.findLatestBefore(date).forEach(index -> startLevels.put(index.getCategory(),
+                    new double[]{index.getJevonsIndex(), index.getLaspeyresIndex()}));
+        }
+        PriceIndexChain chain = new PriceIndexChain(startLevels);
+
+        int written = 0;
+        LocalDate day = null;
+        List<PriceIndexChain.DayPrice> prices = new ArrayList<>();
+        try (Stream<CategoryAverageProjection> rows =
+                     rollupRepository.streamNationalAveragesSince(previousDate != null ? previousDate : date)) {
+            for (CategoryAverageProjection row : (Iterable<CategoryAverageProjection>) rows::iterator) {
+                if (day != null && !day.equals(row.getRollupDate())) {
+                    written += close(chain, day, previousDate, prices);
+                    prices = new ArrayList<>();
+                }
+                day = row.getRollupDate();
+                prices.add(new PriceIndexChain.DayPrice(row.getProductId(), row.getCategory(),
+                        row.getPriceSum() / row.getPriceCount()));
+            }
+        }
+        if (day != null) {
+            written += close(chain, day, previousDate, prices);
+        }
+        return written;
+    }
+
+    private int close(PriceIndexChain chain, LocalDate day, LocalDate previousDate,
+                      List<PriceIndexChain.DayPrice> prices) {
+        if (day.equals(previousDate)) {
+            chain.reference(prices);
+            return 0;
+        }
+        List<PriceIndexChain.Level> levels = chain.advance(prices);
+        levels.forEach(level -> indexRepository.upsert(level.category(), day,
+                level.jevons(), level.laspeyres(), level.matchedProducts()));
+        return levels.size();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,228 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceDigest;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+import com.budgetwise.budget.analytics.repository.DailyPriceDigestRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.PeriodPriceRollupRepository;
+import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository.SeriesEntryProjection;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the rollup tables read by {@link AnalyticsService}:
+ * daily_price_rollup (DAY), period_price_rollup (WEEK, MONTH, YEAR)
+ * and daily_price_digest (price distribution across markets).
+ *
+ * Ingestion calls {@link #applyRecords} with the records it just saved; {@link #rebuildFromHistory}
+ * recreates all tables from daily_price_record (first start, or after manual data fixes).
+ */
+@Slf4j
+@Service
+public class PriceRollupService {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_DIGEST_SQL = """
+        INSERT INTO daily_price_digest (product_info_id, digest_date, digest)
+        VALUES (?, ?, ?)
+    """;
+
+    private final DailyPriceRollupRepository rollupRepository;
+    private final PeriodPriceRollupRepository periodRollupRepository;
+    private final DailyPriceRecordRepository dailyPriceRecordRepository;
+    private final DailyPriceDigestRepository digestRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceRollupService(DailyPriceRollupRepository rollupRepository,
+                              PeriodPriceRollupRepository periodRollupRepository,
+                              DailyPriceRecordRepository dailyPriceRecordRepository,
+                              DailyPriceDigestRepository digestRepository,
+                              JdbcTemplate jdbcTemplate,
+                              ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.periodRollupRepository = periodRollupRepository;
+        this.dailyPriceRecordRepository = dailyPriceRecordRepository;
+        this.digestRepository = digestRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Merges one product's freshly saved records into its per-market rows and its NATIONAL row,
+     * then refreshes the week, month and year buckets containing the report date
+     * and adds the prices to the product's digest of that day.
+     *
+     * @param records Records of ONE product from ONE report, as saved by DailyPriceIngestionService.
+     */
+    @Transactional
+    public void applyRecords(List<DailyPriceRecord> records) {
+        List<DailyPriceRecord> marketRecords = records.stream()
+                .filter(r -> r.getMarketLocation() != null && r.getMarketLocation().getId() != null)
+                .filter(r -> r.getPriceReport() != null && r.getPriceReport().getDateReported() != null)
+                .toList();
+        if (marketRecords.isEmpty()) {
+            return;
+        }
+
+        Long productId = marketRecords.get(0).getProductInfo().getId();
+        LocalDate day = marketRecords.get(0).getPriceReport().getDateReported();
+
+        // Sorted by market id so concurrent ingestions lock rows in the same order
+        Map<Long, DoubleSummaryStatistics> byMarket = new TreeMap<>();
+        Map<Long, Double> sumSquaresByMarket = new TreeMap<>();
+        DoubleSummaryStatistics national = new DoubleSummaryStatistics();
+        double nationalSumSquares = 0;
+
+        for (DailyPriceRecord record : marketRecords) {
+            Long marketId = record.getMarketLocation().getId();
+            double price = record.getPrice();
+            byMarket.computeIfAbsent(marketId, id -> new DoubleSummaryStatistics()).accept(price);
+            sumSquaresByMarket.merge(marketId, price * price, Double::sum);
+            national.accept(price);
+            nationalSumSquares += price * price;
+        }
+
+        byMarket.forEach((marketId, stats) -> merge(productId, marketId, day, stats, sumSquaresByMarket.get(marketId)));
+        merge(productId, DailyPriceRollup.NATIONAL, day, national, nationalSumSquares);
+
+        refreshPeriods(productId, day);
+        mergeDigest(productId, day, marketRecords);
+    }
+
+    /**
+     * Read-modify-write of the day's digest (row locked; a few hundred bytes).
+     */
+    private void mergeDigest(Long productId, LocalDate day, List<DailyPriceRecord> records) {
+        DailyPriceDigest row = digestRepository.findByProductIdAndDigestDate(productId, day)
+                .orElseGet(() -> new DailyPriceDigest(null, productId, day, null));
+        PriceDigest digest = row.getDigest() == null ? new PriceDigest() : PriceDigest.fromBytes(row.getDigest());
+        records.forEach(record -> digest.add(record.getPrice()));
+        row.setDigest(digest.toBytes());
+        digestRepository.save(row);
+    }
+
+    /**
+     * Recomputes the coarser buckets of one product that contain the given day.
+     * Cascades DAY -> WEEK/MONTH -> YEAR so no statement reads more than ~31 rows per market.
+     */
+    private void refreshPeriods(Long productId, LocalDate day) {
+        for (RollupResolution resolution : List.of(RollupResolution.WEEK, RollupResolution.MONTH)) {
+            periodRollupRepository.refreshFromDaily(productId, resolution.name(),
+                    resolution.bucketStart(day), resolution.bucketEnd(day));
+        }
+        periodRollupRepository.refreshYearFromMonths(productId,
+                RollupResolution.YEAR.bucketStart(day), RollupResolution.YEAR.bucketEnd(day));
+    }
+
+    /**
+     * Recreates every row from the full price history (set-based statements, one per tier).
+     * Publishes a catalog-wide CatalogChangedEvent, so cached analytics, data versions and the
+     * tables derived from the rollups are refreshed once the rebuild committed.
+     */
+    @Transactional
+    public int rebuildFromHistory() {
+        int rows = rebuildAll();
+        eventPublisher.publishEvent(CatalogChangedEvent.historyRebuilt());
+        return rows;
+    }
+
+    private int rebuildAll() {
+        rollupRepository.deleteAllRows();
+        int marketRows = rollupRepository.rebuildMarketRows();
+        int nationalRows = rollupRepository.rebuildNationalRows();
+        log.info("Rebuilt daily_price_rollup from history: {} market rows, {} national rows", marketRows, nationalRows);
+        return marketRows + nationalRows + rebuildPeriods() + rebuildDigests();
+    }
+
+    /**
+     * Backfills the tables once for databases that already hold price history.
+     * Ordered first: the price index backfill reads these tables.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            if (dailyPriceRecordRepository.count() > 0) {
+                rebuildAll();
+            }
+            return;
+        }
+        if (periodRollupRepository.count() == 0) {
+            rebuildPeriods();
+        }
+        if (digestRepository.count() == 0) {
+            rebuildDigests();
+        }
+    }
+
+    private int rebuildPeriods() {
+        periodRollupRepository.deleteAllRows();
+        int weekRows = periodRollupRepository.rebuildFromDaily(RollupResolution.WEEK.name(), RollupResolution.WEEK.truncUnit());
+        int monthRows = periodRollupRepository.rebuildFromDaily(RollupResolution.MONTH.name(), RollupResolution.MONTH.truncUnit());
+        int yearRows = periodRollupRepository.rebuildYearsFromMonths();
+        log.info("Rebuilt period_price_rollup: {} week rows, {} month rows, {} year rows", weekRows, monthRows, yearRows);
+        return weekRows + monthRows + yearRows;
+    }
+
+    /**
+     * Recreates the digests in one pass over the price history (chronological stream,
+     * so only one day of digests is held in memory). Each day is written with a JDBC batch insert,
+     * so no digest entities pile up in the persistence context of the rebuild transaction.
+     */
+    private int rebuildDigests() {
+        digestRepository.deleteAllRows();
+        Map<Long, PriceDigest> dayDigests = new HashMap<>();
+        LocalDate day = null;
+        int rows = 0;
+
+        try (Stream<SeriesEntryProjection> entries = dailyPriceRecordRepository.streamSeriesEntries()) {
+            for (SeriesEntryProjection entry : (Iterable<SeriesEntryProjection>) entries::iterator) {
+                if (day != null && !day.equals(entry.getDateReported())) {
+                    rows += saveDigests(day, dayDigests);
+                    dayDigests = new HashMap<>();
+                }
+                day = entry.getDateReported();
+                dayDigests.computeIfAbsent(entry.getProductId(), id -> new PriceDigest()).add(entry.getPrice());
+            }
+        }
+        if (day != null) {
+            rows += saveDigests(day, dayDigests);
+        }
+        log.info("Rebuilt daily_price_digest: {} rows", rows);
+        return rows;
+    }
+
+    private int saveDigests(LocalDate day, Map<Long, PriceDigest> digests) {
+        List<Map.Entry<Long, PriceDigest>> rows = new ArrayList<>(digests.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_DIGEST_SQL, rows, INSERT_BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            ps.setDate(2, Date.valueOf(day));
+            ps.setBytes(3, row.getValue().toBytes());
+        });
+        return rows.size();
+    }
+
+    private void merge(Long productId, Long marketId, LocalDate day, DoubleSummaryStatistics stats, double sumSquares) {
+        rollupRepository.mergeDay(productId, marketId, day,
+                stats.getMin(), stats.getMax(), stats.getSum(), stats.getCount(), sumSquares);
+    }
+}
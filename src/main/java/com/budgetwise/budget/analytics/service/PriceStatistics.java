@@ -0,0 +1,127 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+
+/**
+ * One-pass statistics over a chronological series of rollup buckets.
+ *
+ * Per bucket (O(1), no buffering):
+ * - Price distribution: count, mean and M2 merged with Chan's parallel form of Welford's algorithm,
+ *   using each bucket's count, sum and sum of squares, so the variance covers every raw price.
+ * - Min / Max of the raw prices.
+ * - Bucket-to-bucket returns of the average price: mean return, latest return,
+ *   EWMA volatility (RiskMetrics, lambda 0.94) and maximum drawdown from the running peak.
+ */
+final class PriceStatistics {
+
+    static final double EWMA_LAMBDA = 0.94;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min;
+    private double max;
+
+    private double previousAverage = Double.NaN;
+    private double peak = Double.NaN;
+    private double maxDrawdown;
+
+    private long returnCount;
+    private double returnMean;
+    private double latestReturn;
+    private double ewmaVariance;
+
+    /**
+     * Adds the next bucket (oldest first). Empty buckets are ignored.
+     */
+    void accept(RollupBucket bucket) {
+        if (bucket.priceCount() == null || bucket.priceCount() == 0) {
+            return;
+        }
+        long n = bucket.priceCount();
+        double bucketMean = bucket.priceSum() / n;
+        // Within-bucket M2 from the additive columns; clamped against rounding below zero
+        double bucketM2 = Math.max(0.0, bucket.priceSumSquares() - bucket.priceSum() * bucketMean);
+
+        if (count == 0) {
+            min = bucket.minPrice();
+            max = bucket.maxPrice();
+        } else {
+            min = Math.min(min, bucket.minPrice());
+            max = Math.max(max, bucket.maxPrice());
+        }
+
+        long total = count + n;
+        double delta = bucketMean - mean;
+        mean += delta * n / total;
+        m2 += bucketM2 + delta * delta * count * n / total;
+        count = total;
+
+        acceptAverage(bucketMean);
+    }
+
+    private void acceptAverage(double average) {
+        if (!Double.isNaN(previousAverage) && previousAverage != 0) {
+            double change = (average - previousAverage) / previousAverage;
+            returnCount++;
+            returnMean += (change - returnMean) / returnCount;
+            latestReturn = change;
+            ewmaVariance = returnCount == 1
+                    ? change * change
+                    : EWMA_LAMBDA * ewmaVariance + (1 - EWMA_LAMBDA) * change * change;
+        }
+        previousAverage = average;
+
+        if (Double.isNaN(peak) || average > peak) {
+            peak = average;
+        } else if (peak > 0) {
+            maxDrawdown = Math.max(maxDrawdown, (peak - average) / peak);
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    double min() {
+        return count == 0 ? 0.0 : min;
+    }
+
+    double max() {
+        return count == 0 ? 0.0 : max;
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    /** Sample standard deviation of the raw prices. */
+    double standardDeviation() {
+        return count < 2 ? 0.0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    /** Standard deviation relative to the mean, in percent. */
+    double coefficientOfVariation() {
+        return mean == 0 ? 0.0 : standardDeviation() / mean * 100;
+    }
+
+    /** EWMA standard deviation of bucket-to-bucket returns, in percent. */
+    double ewmaVolatility() {
+        return Math.sqrt(ewmaVariance) * 100;
+    }
+
+    /** Largest drop from a previous peak of the average price, in percent. */
+    double maxDrawdown() {
+        return maxDrawdown * 100;
+    }
+
+    /** Mean bucket-to-bucket change of the average price, in percent. */
+    double averageReturn() {
+        return returnMean * 100;
+    }
+
+    /** Change of the last bucket against the one before, in percent. */
+    double latestReturn() {
+        return latestReturn * 100;
+    }
+}
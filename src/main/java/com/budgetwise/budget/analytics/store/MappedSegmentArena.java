@@ -0,0 +1,96 @@
+package com.budgetwise.budget.analytics.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hands out fixed-size chunks of off-heap memory carved from memory-mapped segment files.
+ *
+ * Addresses are packed longs (segment index in the high 32 bits, byte offset in the low 32),
+ * so a series only keeps one long per chunk on the heap. Segments are scratch space:
+ * the directory is wiped on {@link #reset()} and everything is reloaded from the database.
+ *
+ * Not thread-safe; {@link PriceSeriesStore} serializes writers.
+ */
+class MappedSegmentArena {
+
+    static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int chunkBytes;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int nextOffset;
+
+    MappedSegmentArena(Path directory, int chunkBytes) {
+        if (chunkBytes <= 0 || chunkBytes > SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkBytes);
+        }
+        this.directory = directory;
+        this.chunkBytes = chunkBytes;
+        this.nextOffset = SEGMENT_BYTES;
+    }
+
+    /**
+     * @return Packed address of a zero-filled chunk.
+     */
+    long allocate() {
+        // The tail of a segment smaller than a chunk is left unused
+        if (nextOffset + chunkBytes > SEGMENT_BYTES) {
+            segments.add(mapSegment(segments.size()));
+            nextOffset = 0;
+        }
+        long address = ((long) (segments.size() - 1) << 32) | nextOffset;
+        nextOffset += chunkBytes;
+        return address;
+    }
+
+    MappedByteBuffer segment(long address) {
+        return segments.get((int) (address >>> 32));
+    }
+
+    static int offset(long address) {
+        return (int) address;
+    }
+
+    long mappedBytes() {
+        return (long) segments.size() * SEGMENT_BYTES;
+    }
+
+    /**
+     * Drops every segment and deletes the files of this and earlier runs.
+     * Mappings are released by the GC once no series references them.
+     */
+    void reset() {
+        segments.clear();
+        nextOffset = SEGMENT_BYTES;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".seg")).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reset series store directory " + directory, e);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int index) {
+        Path file = directory.resolve("series-" + System.nanoTime() + "-" + index + ".seg");
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map series segment " + file, e);
+        }
+    }
+}
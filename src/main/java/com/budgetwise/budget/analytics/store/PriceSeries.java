@@ -0,0 +1,94 @@
+package com.budgetwise.budget.analytics.store;
+
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One price series (a product at a market, or NATIONAL) stored column-wise off-heap.
+ *
+ * Each chunk holds {@link #CHUNK_ENTRIES} entries as two primitive columns:
+ * [int epochDay x N][long centavos x N]. Entries are kept sorted by day so a window
+ * starts with a binary search. The heap side is just the chunk address array.
+ *
+ * Not thread-safe; {@link PriceSeriesStore} guards every series with its read/write lock.
+ */
+class PriceSeries {
+
+    static final int CHUNK_ENTRIES = 512;
+    static final int CHUNK_BYTES = CHUNK_ENTRIES * (Integer.BYTES + Long.BYTES);
+    private static final int PRICE_COLUMN_OFFSET = CHUNK_ENTRIES * Integer.BYTES;
+
+    private final MappedSegmentArena arena;
+    private long[] chunks = new long[1];
+    private int chunkCount;
+    private int size;
+
+    PriceSeries(MappedSegmentArena arena) {
+        this.arena = arena;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int day(int index) {
+        long chunk = chunks[index / CHUNK_ENTRIES];
+        return arena.segment(chunk).getInt(MappedSegmentArena.offset(chunk) + (index % CHUNK_ENTRIES) * Integer.BYTES);
+    }
+
+    long centavos(int index) {
+        long chunk = chunks[index / CHUNK_ENTRIES];
+        return arena.segment(chunk).getLong(MappedSegmentArena.offset(chunk) + PRICE_COLUMN_OFFSET
+                + (index % CHUNK_ENTRIES) * Long.BYTES);
+    }
+
+    /**
+     * Appends an entry, keeping the series sorted by day.
+     * Late (backfilled) reports are shifted into place; this is rare and O(n) only for that series.
+     */
+    void add(int epochDay, long centavos) {
+        int index = size;
+        ensureCapacity(index + 1);
+        while (index > 0 && day(index - 1) > epochDay) {
+            set(index, day(index - 1), centavos(index - 1));
+            index--;
+        }
+        set(index, epochDay, centavos);
+        size++;
+    }
+
+    /**
+     * @return Index of the first entry on or after the given day (size if none).
+     */
+    int lowerBound(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (day(mid) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void set(int index, int epochDay, long centavos) {
+        long chunk = chunks[index / CHUNK_ENTRIES];
+        MappedByteBuffer segment = arena.segment(chunk);
+        int base = MappedSegmentArena.offset(chunk);
+        int slot = index % CHUNK_ENTRIES;
+        segment.putInt(base + slot * Integer.BYTES, epochDay);
+        segment.putLong(base + PRICE_COLUMN_OFFSET + slot * Long.BYTES, centavos);
+    }
+
+    private void ensureCapacity(int entries) {
+        while (chunkCount * CHUNK_ENTRIES < entries) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunkCount++] = arena.allocate();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.budgetwise.budget.analytics.store;
+
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository.SeriesEntryProjection;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process price history for the hottest analytics traffic.
+ *
+ * Every (product, market) series plus one NATIONAL series per product is kept as primitive
+ * columns (epoch day, price in centavos) in memory-mapped segments ({@link PriceSeries}),
+ * so the heap only holds chunk addresses and stays flat as history grows.
+ *
+ * Lifecycle:
+ * 1. Loaded from daily_price_record on startup (off the startup thread).
+ * 2. Appended after every committed ingestion; per report only records newer than the
+ *    last one already held are read, so replays and approved anomalies are handled alike.
+ *    The records are read before the write lock is taken, so analytics reads never wait on the database.
+ * 3. Product edits re-map the edited products' names, so a renamed product stops resolving under its old name.
+ * 4. Until loading completes, {@link #findBuckets} returns empty and callers use the rollup tables.
+ *
+ * Enable with budgetwise.analytics.series-store.enabled=true.
+ */
+@Slf4j
+@Component
+public class PriceSeriesStore {
+
+    private final DailyPriceRecordRepository dailyPriceRecordRepository;
+    private final ProductInfoRepository productInfoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final MappedSegmentArena arena;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PriceSeries> series = new HashMap<>();
+    // Highest record id held per report (one entry per report, not per price)
+    private final Map<Long, Long> lastRecordIdByReport = new HashMap<>();
+    private final Map<String, Long> productIdsByName = new ConcurrentHashMap<>();
+    private long entryCount;
+    private volatile boolean ready;
+
+    public PriceSeriesStore(DailyPriceRecordRepository dailyPriceRecordRepository,
+                            ProductInfoRepository productInfoRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${budgetwise.analytics.series-store.enabled:false}") boolean enabled,
+                            @Value("${budgetwise.analytics.series-store.directory:${java.io.tmpdir}/budgetwise-series}") String directory) {
+        this.dailyPriceRecordRepository = dailyPriceRecordRepository;
+        this.productInfoRepository = productInfoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.arena = new MappedSegmentArena(Path.of(directory), PriceSeries.CHUNK_BYTES);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Streams the full history into fresh segments.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            series.clear();
+            lastRecordIdByReport.clear();
+            productIdsByName.clear();
+            entryCount = 0;
+            arena.reset();
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<SeriesEntryProjection> rows = dailyPriceRecordRepository.streamSeriesEntries()) {
+                    rows.forEach(this::add);
+                }
+            });
+
+            ready = true;
+            log.info("Series store loaded {} prices into {} series ({} MB mapped) in {} ms",
+                    entryCount, series.size(), arena.mappedBytes() / (1024 * 1024), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Series store load failed, analytics keeps using the rollup tables", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the new records of a committed report. Ordered before cache invalidation so the
+     * analytics entries re-warmed afterwards already see the new prices.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.source() == CatalogChangedEvent.Source.PRODUCT_ADMIN) {
+            remapNames(event.productIds());
+            return;
+        }
+        if (!event.isIngestion() || event.reportId() == null) {
+            return;
+        }
+
+        // Blocks while the initial load runs, then reads only what the load has not seen
+        long afterId;
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            afterId = lastRecordIdByReport.getOrDefault(event.reportId(), 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SeriesEntryProjection> entries = dailyPriceRecordRepository.findSeriesEntriesByReportId(event.reportId(), afterId);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            // Skip what a concurrent append (or reload) of the same report already added
+            long held = lastRecordIdByReport.getOrDefault(event.reportId(), 0L);
+            entries.stream()
+                    .filter(entry -> entry.getId() > held)
+                    .forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the names the edited products were held under and maps their current names.
+     */
+    private void remapNames(Set<Long> productIds) {
+        if (!ready || productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> held = new HashSet<>(productIdsByName.values());
+        held.retainAll(productIds);
+        if (held.isEmpty()) {
+            return;
+        }
+        productIdsByName.values().removeAll(held);
+        productInfoRepository.findAllById(held)
+                .forEach(product -> productIdsByName.put(product.getProductName(), product.getId()));
+    }
+
+    /**
+     * Aggregates one series into time buckets, same shape as the rollup queries.
+     * The scan itself only reads primitives; objects are created once per bucket.
+     *
+     * @param marketId {@link DailyPriceRollup#NATIONAL} for the all-markets series.
+     * @return Empty if the store is disabled, still loading, or does not know the product.
+     */
+    public Optional<List<RollupBucket>> findBuckets(String productName, Long marketId,
+                                                    LocalDate startDate, RollupResolution resolution) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Long productId = productIdsByName.get(productName);
+        if (productId == null) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            PriceSeries prices = series.get(seriesKey(productId, marketId));
+            if (prices == null) {
+                return Optional.of(List.of());
+            }
+            return Optional.of(scan(prices, resolution.bucketStart(startDate), resolution));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RollupBucket> scan(PriceSeries prices, LocalDate firstBucket, RollupResolution resolution) {
+        List<RollupBucket> buckets = new ArrayList<>();
+        int size = prices.size();
+        int index = prices.lowerBound((int) firstBucket.toEpochDay());
+
+        LocalDate bucketStart = null;
+        int bucketEndDay = Integer.MIN_VALUE;
+        long min = 0, max = 0, sum = 0, count = 0;
+        double sumSquares = 0;
+
+        for (; index < size; index++) {
+            int day = prices.day(index);
+            long centavos = prices.centavos(index);
+
+            if (day >= bucketEndDay) {
+                if (count > 0) {
+                    buckets.add(toBucket(bucketStart, min, max, sum, count, sumSquares));
+                }
+                LocalDate date = LocalDate.ofEpochDay(day);
+                bucketStart = resolution.bucketStart(date);
+                bucketEndDay = (int) resolution.bucketEnd(date).toEpochDay();
+                min = Long.MAX_VALUE;
+                max = Long.MIN_VALUE;
+                sum = 0;
+                count = 0;
+                sumSquares = 0;
+            }
+
+            min = Math.min(min, centavos);
+            max = Math.max(max, centavos);
+            sum += centavos;
+            count++;
+            sumSquares += (double) centavos * centavos;
+        }
+        if (count > 0) {
+            buckets.add(toBucket(bucketStart, min, max, sum, count, sumSquares));
+        }
+        return buckets;
+    }
+
+    private static RollupBucket toBucket(LocalDate start, long min, long max, long sum, long count, double sumSquares) {
+        return new RollupBucket(start, min / 100.0, max / 100.0, sum / 100.0, count, sumSquares / 10_000.0);
+    }
+
+    /**
+     * Adds one price to its market series and to the product's NATIONAL series.
+     * Caller holds the write lock.
+     */
+    private void add(SeriesEntryProjection entry) {
+        if (entry.getMarketId() == null || entry.getDateReported() == null) {
+            return;
+        }
+        int day = (int) entry.getDateReported().toEpochDay();
+        long centavos = Math.round(entry.getPrice() * 100);
+
+        seriesFor(entry.getProductId(), entry.getMarketId()).add(day, centavos);
+        seriesFor(entry.getProductId(), DailyPriceRollup.NATIONAL).add(day, centavos);
+
+        productIdsByName.put(entry.getProductName(), entry.getProductId());
+        lastRecordIdByReport.merge(entry.getReportId(), entry.getId(), Math::max);
+        entryCount++;
+    }
+
+    private PriceSeries seriesFor(Long productId, Long marketId) {
+        return series.computeIfAbsent(seriesKey(productId, marketId), key -> new PriceSeries(arena));
+    }
+
+    private static long seriesKey(Long productId, Long marketId) {
+        return (productId << 32) | marketId;
+    }
+}
@@ -0,0 +1,73 @@
+package com.budgetwise.budget.basket.controller;
+
+import com.budgetwise.budget.basket.dto.BasketCostHistoryResponse;
+import com.budgetwise.budget.basket.dto.BasketResponse;
+import com.budgetwise.budget.basket.dto.SaveBasketRequest;
+import com.budgetwise.budget.basket.service.SavedBasketService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/baskets")
+public class SavedBasketController {
+
+    private final SavedBasketService savedBasketService;
+
+    public SavedBasketController(SavedBasketService savedBasketService) {
+        this.savedBasketService = savedBasketService;
+    }
+
+    /**
+     * Saves a basket.
+     * * POST /api/v1/baskets
+     * - Body: ownerKey, name, items (productId, quantity in the product's unit).
+     * - The basket is costed at every market right away and after every report that changes one of its products.
+     */
+    @PostMapping
+    public ResponseEntity<BasketResponse> createBasket(@RequestBody @Valid SaveBasketRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(savedBasketService.createBasket(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BasketResponse>> displayBaskets(@RequestParam("owner") String owner) {
+        return ResponseEntity.ok(savedBasketService.findBaskets(owner));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BasketResponse> getBasket(@PathVariable("id") Long id,
+                                                    @RequestParam("owner") String owner) {
+        return ResponseEntity.ok(savedBasketService.getBasket(id, owner));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<BasketResponse> updateBasket(@PathVariable("id") Long id,
+                                                       @RequestBody @Valid SaveBasketRequest request) {
+        return ResponseEntity.ok(savedBasketService.updateBasket(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBasket(@PathVariable("id") Long id,
+                                             @RequestParam("owner") String owner) {
+        savedBasketService.deleteBasket(id, owner);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cost-over-time chart of a basket: one point per market and report day.
+     * * GET /api/v1/baskets/{id}/costs?owner=&days=90&marketId=
+     */
+    @GetMapping("/{id}/costs")
+    public ResponseEntity<BasketCostHistoryResponse> getCostHistory(
+            @PathVariable("id") Long id,
+            @RequestParam("owner") String owner,
+            @RequestParam(value = "days", defaultValue = "90") int days,
+            @RequestParam(value = "marketId", required = false) Long marketId) {
+        return ResponseEntity.ok(savedBasketService.getCostHistory(id, owner, days, marketId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.budgetwise.budget.basket.dto;
+
+import java.util.List;
+
+public record BasketCostHistoryResponse(
+        Long basketId,
+        String name,
+        int itemCount,
+        List<BasketCostPoint> history // Oldest first, then by market
+) {}
@@ -0,0 +1,15 @@
+package com.budgetwise.budget.basket.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One point of a basket cost chart: the basket at one market on one report day.
+ */
+public record BasketCostPoint(
+        LocalDate date,
+        Long marketId,
+        String marketName,
+        double totalCost, // Pesos, priced items only
+        int pricedItems,
+        int itemCount
+) {}
@@ -0,0 +1,15 @@
+package com.budgetwise.budget.basket.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record BasketItemRequest(
+
+        @NotNull(message = "Product is required")
+        Long productId,
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        Double quantity // In the product's unit
+) {
+}
@@ -0,0 +1,7 @@
+package com.budgetwise.budget.basket.dto;
+
+public record BasketItemResponse(
+        Long productId,
+        String productName,
+        double quantity
+) {}
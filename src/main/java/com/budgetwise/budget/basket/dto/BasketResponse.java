@@ -0,0 +1,13 @@
+package com.budgetwise.budget.basket.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BasketResponse(
+        Long id,
+        String ownerKey,
+        String name,
+        List<BasketItemResponse> items,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {}
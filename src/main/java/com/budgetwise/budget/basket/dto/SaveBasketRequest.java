@@ -0,0 +1,24 @@
+package com.budgetwise.budget.basket.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record SaveBasketRequest(
+
+        @NotBlank(message = "Owner key is required")
+        @Size(max = 100, message = "Owner key must be at most 100 characters")
+        String ownerKey,
+
+        @NotBlank(message = "Basket name is required")
+        @Size(max = 100, message = "Basket name must be at most 100 characters")
+        String name,
+
+        @NotEmpty(message = "A basket needs at least one item")
+        @Size(max = 100, message = "A basket can hold at most 100 items")
+        List<@Valid BasketItemRequest> items
+) {
+}
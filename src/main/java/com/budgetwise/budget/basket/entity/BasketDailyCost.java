@@ -0,0 +1,47 @@
+package com.budgetwise.budget.basket.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Cost of one saved basket at one market on one report day, at the prices current that day.
+ *
+ * Written after each ingestion for the baskets holding a changed product, so a cost-over-time
+ * chart is one range scan over idx_basket_daily_cost_basket_date.
+ * pricedItems below itemCount means the market did not carry every product; totalCost only covers the priced ones.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "basket_daily_cost",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_basket_daily_cost_basket_market_date",
+                columnNames = {"basket_id", "market_id", "cost_date"}),
+        indexes = @Index(name = "idx_basket_daily_cost_basket_date", columnList = "basket_id, cost_date"))
+public class BasketDailyCost {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "basket_id", nullable = false)
+    private Long basketId;
+    @Column(name = "market_id", nullable = false)
+    private Long marketId;
+    @Column(name = "cost_date", nullable = false)
+    private LocalDate costDate;
+
+    @Column(name = "total_cost")
+    private double totalCost;
+    @Column(name = "priced_items")
+    private int pricedItems;
+    @Column(name = "item_count")
+    private int itemCount;
+}
@@ -0,0 +1,54 @@
+package com.budgetwise.budget.basket.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A household's recurring shopping list, e.g. "my weekly basket".
+ * Its cost per market and report day is kept in basket_daily_cost.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "saved_basket",
+        indexes = @Index(name = "idx_saved_basket_owner", columnList = "owner_key"))
+public class SavedBasket {
+
+    /**
+     * @param quantity In the product's reported unit (kg, pc, ...).
+     */
+    public record Item(Long productId, double quantity) {}
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Opaque id chosen by the client (device, account)
+    @Column(name = "owner_key", length = 100, nullable = false)
+    private String ownerKey;
+
+    @Column(length = 100, nullable = false)
+    private String name;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private List<Item> items;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
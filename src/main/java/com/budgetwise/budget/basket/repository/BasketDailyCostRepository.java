@@ -0,0 +1,58 @@
+package com.budgetwise.budget.basket.repository;
+
+import com.budgetwise.budget.basket.dto.BasketCostPoint;
+import com.budgetwise.budget.basket.entity.BasketDailyCost;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BasketDailyCostRepository extends JpaRepository<BasketDailyCost, Long> {
+
+    /**
+     * Cost history of one basket at every market, oldest first
+     * (one range scan over idx_basket_daily_cost_basket_date).
+     */
+    @Query("""
+        SELECT new com.budgetwise.budget.basket.dto.BasketCostPoint(
+            c.costDate,
+            c.marketId,
+            m.marketLocation,
+            c.totalCost,
+            c.pricedItems,
+            c.itemCount
+        )
+        FROM BasketDailyCost c
+        JOIN MarketLocation m ON m.id = c.marketId
+        WHERE c.basketId = :basketId
+          AND c.costDate >= :startDate
+        ORDER BY c.costDate ASC, c.marketId ASC
+    """)
+    List<BasketCostPoint> findHistory(@Param("basketId") Long basketId,
+                                      @Param("startDate") LocalDate startDate);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO basket_daily_cost (basket_id, market_id, cost_date, total_cost, priced_items, item_count)
+        VALUES (:basketId, :marketId, :costDate, :totalCost, :pricedItems, :itemCount)
+        ON CONFLICT (basket_id, market_id, cost_date) DO UPDATE SET
+            total_cost = EXCLUDED.total_cost,
+            priced_items = EXCLUDED.priced_items,
+            item_count = EXCLUDED.item_count
+    """, nativeQuery = true)
+    void upsert(@Param("basketId") Long basketId,
+                @Param("marketId") Long marketId,
+                @Param("costDate") LocalDate costDate,
+                @Param("totalCost") double totalCost,
+                @Param("pricedItems") int pricedItems,
+                @Param("itemCount") int itemCount);
+
+    @Modifying
+    @Query("DELETE FROM BasketDailyCost c WHERE c.basketId = :basketId")
+    int deleteByBasket(@Param("basketId") Long basketId);
+}
@@ -0,0 +1,15 @@
+package com.budgetwise.budget.basket.repository;
+
+import com.budgetwise.budget.basket.entity.SavedBasket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedBasketRepository extends JpaRepository<SavedBasket, Long> {
+
+    List<SavedBasket> findByOwnerKeyOrderByCreatedAtDesc(String ownerKey);
+
+    long countByOwnerKey(String ownerKey);
+}
@@ -0,0 +1,109 @@
+package com.budgetwise.budget.basket.service;
+
+import java.util.*;
+
+/**
+ * Immutable product -> basket reverse index.
+ *
+ * After an ingestion only the baskets holding a changed product are recomputed;
+ * this index answers "which baskets?" with one map lookup per changed product.
+ * Updates copy the maps (baskets change far less often than prices arrive).
+ */
+public final class BasketProductIndex {
+
+    private static final BasketProductIndex EMPTY = new BasketProductIndex(Map.of(), Map.of());
+
+    private final Map<Long, Set<Long>> basketsByProduct;
+    private final Map<Long, Set<Long>> productsByBasket;
+
+    private BasketProductIndex(Map<Long, Set<Long>> basketsByProduct, Map<Long, Set<Long>> productsByBasket) {
+        this.basketsByProduct = basketsByProduct;
+        this.productsByBasket = productsByBasket;
+    }
+
+    public static BasketProductIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param productsByBasket Product ids of every basket, keyed by basket id.
+     */
+    public static BasketProductIndex build(Map<Long, ? extends Collection<Long>> productsByBasket) {
+        if (productsByBasket.isEmpty()) {
+            return EMPTY;
+        }
+        Map<Long, Set<Long>> byProduct = new HashMap<>();
+        Map<Long, Set<Long>> byBasket = new HashMap<>();
+        productsByBasket.forEach((basketId, productIds) -> {
+            Set<Long> products = Set.copyOf(productIds);
+            byBasket.put(basketId, products);
+            products.forEach(productId -> byProduct.computeIfAbsent(productId, id -> new HashSet<>()).add(basketId));
+        });
+        return new BasketProductIndex(byProduct, byBasket);
+    }
+
+    public int basketCount() {
+        return productsByBasket.size();
+    }
+
+    /**
+     * Baskets containing at least one of the given products.
+     */
+    public Set<Long> basketsContaining(Collection<Long> productIds) {
+        Set<Long> baskets = new HashSet<>();
+        for (Long productId : productIds) {
+            Set<Long> holding = basketsByProduct.get(productId);
+            if (holding != null) {
+                baskets.addAll(holding);
+            }
+        }
+        return baskets;
+    }
+
+    /**
+     * Copy of this index with the basket (re)registered under its current products.
+     */
+    public BasketProductIndex with(Long basketId, Collection<Long> productIds) {
+        return update(basketId, Set.copyOf(productIds));
+    }
+
+    /**
+     * Copy of this index without the basket; the same index if it was not indexed.
+     */
+    public BasketProductIndex without(Long basketId) {
+        if (!productsByBasket.containsKey(basketId)) {
+            return this;
+        }
+        return update(basketId, null);
+    }
+
+    /**
+     * Only the product sets the basket enters or leaves are copied.
+     */
+    private BasketProductIndex update(Long basketId, Set<Long> products) {
+        Map<Long, Set<Long>> byProduct = new HashMap<>(basketsByProduct);
+        Map<Long, Set<Long>> byBasket = new HashMap<>(productsByBasket);
+
+        Set<Long> previous = byBasket.getOrDefault(basketId, Set.of());
+        for (Long productId : previous) {
+            Set<Long> holding = new HashSet<>(byProduct.get(productId));
+            holding.remove(basketId);
+            if (holding.isEmpty()) {
+                byProduct.remove(productId);
+            } else {
+                byProduct.put(productId, holding);
+            }
+        }
+        if (products == null) {
+            byBasket.remove(basketId);
+        } else {
+            byBasket.put(basketId, products);
+            for (Long productId : products) {
+                Set<Long> holding = new HashSet<>(byProduct.getOrDefault(productId, Set.of()));
+                holding.add(basketId);
+                byProduct.put(productId, holding);
+            }
+        }
+        return new BasketProductIndex(byProduct, byBasket);
+    }
+}
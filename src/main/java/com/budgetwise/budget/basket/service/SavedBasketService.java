@@ -0,0 +1,288 @@
+package com.budgetwise.budget.basket.service;
+
+import com.budgetwise.budget.basket.dto.*;
+import com.budgetwise.budget.basket.entity.SavedBasket;
+import com.budgetwise.budget.basket.repository.BasketDailyCostRepository;
+import com.budgetwise.budget.basket.repository.SavedBasketRepository;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.ProductPriceProjection;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Saved baskets and their precomputed cost series (see {@link com.budgetwise.budget.basket.entity.BasketDailyCost}).
+ *
+ * Update Flow (after each committed report):
+ * 1. The product -> basket reverse index picks the baskets holding at least one changed product.
+ * 2. Each of them is costed at every market from latest_market_price (one query per basket).
+ * 3. One row per (basket, market) is upserted for the report day, so reprocessing is idempotent.
+ * A new or edited basket is costed right away for the latest report day.
+ * Cost charts are one indexed range scan; nothing is summed at read time.
+ */
+@Slf4j
+@Service
+public class SavedBasketService {
+
+    public static final int MAX_BASKETS_PER_OWNER = 20;
+
+    private final SavedBasketRepository savedBasketRepository;
+    private final BasketDailyCostRepository basketDailyCostRepository;
+    private final LatestMarketPriceRepository latestMarketPriceRepository;
+    private final ProductInfoRepository productInfoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile BasketProductIndex index = BasketProductIndex.empty();
+
+    /**
+     * Published when a basket was saved (productIds set) or deleted (productIds null); applied after commit.
+     */
+    public record BasketChangedEvent(Long basketId, Set<Long> productIds) {}
+
+    /**
+     * Cost of a basket at one market.
+     */
+    record MarketCost(long marketId, double totalCost, int pricedItems) {}
+
+    record Price(long productId, long marketId, double price) {}
+
+    public SavedBasketService(SavedBasketRepository savedBasketRepository,
+                              BasketDailyCostRepository basketDailyCostRepository,
+                              LatestMarketPriceRepository latestMarketPriceRepository,
+                              ProductInfoRepository productInfoRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.savedBasketRepository = savedBasketRepository;
+        this.basketDailyCostRepository = basketDailyCostRepository;
+        this.latestMarketPriceRepository = latestMarketPriceRepository;
+        this.productInfoRepository = productInfoRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        Map<Long, Set<Long>> productsByBasket = new HashMap<>();
+        for (SavedBasket basket : savedBasketRepository.findAll()) {
+            productsByBasket.put(basket.getId(), productIds(basket.getItems()));
+        }
+        index = BasketProductIndex.build(productsByBasket);
+        log.info("Basket reverse index loaded: {} baskets", index.basketCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBasketChanged(BasketChangedEvent event) {
+        index = event.productIds() == null
+                ? index.without(event.basketId())
+                : index.with(event.basketId(), event.productIds());
+    }
+
+    /**
+     * Runs in its own transaction right after the report committed.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 3)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isIngestion() || event.reportDate() == null || event.productIds().isEmpty()) {
+            return;
+        }
+        Set<Long> basketIds = index.basketsContaining(event.productIds());
+        if (basketIds.isEmpty()) {
+            return;
+        }
+        int rows = 0;
+        for (SavedBasket basket : savedBasketRepository.findAllById(basketIds)) {
+            rows += recompute(basket, event.reportDate());
+        }
+        log.info("Recomputed {} of {} baskets for {}: {} cost rows",
+                basketIds.size(), index.basketCount(), event.reportDate(), rows);
+    }
+
+    @Transactional
+    public BasketResponse createBasket(SaveBasketRequest request) {
+        if (savedBasketRepository.countByOwnerKey(request.ownerKey()) >= MAX_BASKETS_PER_OWNER) {
+            throw new IllegalArgumentException("An owner can have at most " + MAX_BASKETS_PER_OWNER + " baskets");
+        }
+        SavedBasket basket = new SavedBasket();
+        basket.setOwnerKey(request.ownerKey());
+        return save(basket, request);
+    }
+
+    /**
+     * Replaces name and items. Past cost rows are kept (they describe what the basket cost back then);
+     * the latest report day is recomputed with the new items.
+     */
+    @Transactional
+    public BasketResponse updateBasket(Long id, SaveBasketRequest request) {
+        SavedBasket basket = findOwnedBasket(id, request.ownerKey());
+        return save(basket, request);
+    }
+
+    @Transactional
+    public void deleteBasket(Long id, String ownerKey) {
+        SavedBasket basket = findOwnedBasket(id, ownerKey);
+        basketDailyCostRepository.deleteByBasket(basket.getId());
+        savedBasketRepository.delete(basket);
+        eventPublisher.publishEvent(new BasketChangedEvent(basket.getId(), null));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BasketResponse> findBaskets(String ownerKey) {
+        List<SavedBasket> baskets = savedBasketRepository.findByOwnerKeyOrderByCreatedAtDesc(ownerKey);
+        Set<Long> productIds = new HashSet<>();
+        baskets.forEach(basket -> productIds.addAll(productIds(basket.getItems())));
+        Map<Long, String> names = productNames(productIds);
+        return baskets.stream().map(basket -> toResponse(basket, names)).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public BasketResponse getBasket(Long id, String ownerKey) {
+        SavedBasket basket = findOwnedBasket(id, ownerKey);
+        return toResponse(basket, productNames(productIds(basket.getItems())));
+    }
+
+    /**
+     * Cost chart of a basket.
+     *
+     * @param days     Look-back window in days.
+     * @param marketId Optional: only this market.
+     */
+    @Transactional(readOnly = true)
+    public BasketCostHistoryResponse getCostHistory(Long id, String ownerKey, int days, Long marketId) {
+        if (days < 1 || days > 3650) {
+            throw new IllegalArgumentException("days must be between 1 and 3650");
+        }
+        SavedBasket basket = findOwnedBasket(id, ownerKey);
+        List<BasketCostPoint> history = basketDailyCostRepository.findHistory(id, LocalDate.now().minusDays(days));
+        if (marketId != null) {
+            history = history.stream().filter(point -> marketId.equals(point.marketId())).toList();
+        }
+        return new BasketCostHistoryResponse(basket.getId(), basket.getName(), basket.getItems().size(), history);
+    }
+
+    private BasketResponse save(SavedBasket basket, SaveBasketRequest request) {
+        // Same product listed twice: quantities add up
+        Map<Long, Double> quantities = new LinkedHashMap<>();
+        request.items().forEach(item -> quantities.merge(item.productId(), item.quantity(), Double::sum));
+
+        Map<Long, String> names = productNames(quantities.keySet());
+        for (Long productId : quantities.keySet()) {
+            if (!names.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+
+        basket.setName(request.name().trim());
+        basket.setItems(quantities.entrySet().stream()
+                .map(e -> new SavedBasket.Item(e.getKey(), e.getValue()))
+                .toList());
+        savedBasketRepository.save(basket);
+
+        recompute(basket, null);
+        eventPublisher.publishEvent(new BasketChangedEvent(basket.getId(), quantities.keySet()));
+        return toResponse(basket, names);
+    }
+
+    /**
+     * Costs a basket at every market and upserts the rows of the given day.
+     *
+     * @param date Report day; null for the newest day among the basket's prices.
+     *             Skipped when a basket product already has a newer price (late backfill of an older report).
+     * @return Number of cost rows written.
+     */
+    int recompute(SavedBasket basket, LocalDate date) {
+        List<ProductPriceProjection> rows = latestMarketPriceRepository.findCurrentPrices(productIds(basket.getItems()));
+        LocalDate newest = rows.stream()
+                .map(ProductPriceProjection::getDateReported)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (newest == null || (date != null && newest.isAfter(date))) {
+            return 0;
+        }
+        LocalDate costDate = date != null ? date : newest;
+
+        List<Price> prices = rows.stream()
+                .map(row -> new Price(row.getProductId(), row.getMarketId(), row.getPrice()))
+                .toList();
+        int itemCount = basket.getItems().size();
+        List<MarketCost> costs = costByMarket(basket.getItems(), prices);
+        for (MarketCost cost : costs) {
+            basketDailyCostRepository.upsert(basket.getId(), cost.marketId(), costDate,
+                    cost.totalCost(), cost.pricedItems(), itemCount);
+        }
+        return costs.size();
+    }
+
+    /**
+     * Sum of quantity x current price per market, over the items the market carries.
+     */
+    static List<MarketCost> costByMarket(List<SavedBasket.Item> items, List<Price> prices) {
+        Map<Long, Double> quantities = items.stream()
+                .collect(Collectors.toMap(SavedBasket.Item::productId, SavedBasket.Item::quantity, Double::sum));
+
+        Map<Long, double[]> byMarket = new TreeMap<>(); // marketId -> {total, pricedItems}
+        for (Price price : prices) {
+            Double quantity = quantities.get(price.productId());
+            if (quantity == null) {
+                continue;
+            }
+            double[] cost = byMarket.computeIfAbsent(price.marketId(), id -> new double[2]);
+            cost[0] += quantity * price.price();
+            cost[1]++;
+        }
+
+        List<MarketCost> costs = new ArrayList<>(byMarket.size());
+        byMarket.forEach((marketId, cost) ->
+                costs.add(new MarketCost(marketId, Math.round(cost[0] * 100.0) / 100.0, (int) cost[1])));
+        return costs;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the basket belongs to another owner.
+     */
+    private SavedBasket findOwnedBasket(Long id, String ownerKey) {
+        SavedBasket basket = savedBasketRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("SavedBasket", "id", id));
+        if (!basket.getOwnerKey().equals(ownerKey)) {
+            throw new IllegalArgumentException("Basket " + id + " belongs to another owner");
+        }
+        return basket;
+    }
+
+    private Map<Long, String> productNames(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productInfoRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductInfo::getId, ProductInfo::getProductName, (a, b) -> a));
+    }
+
+    private static Set<Long> productIds(List<SavedBasket.Item> items) {
+        return items == null ? Set.of() : items.stream()
+                .map(SavedBasket.Item::productId)
+                .collect(Collectors.toSet());
+    }
+
+    private static BasketResponse toResponse(SavedBasket basket, Map<Long, String> productNames) {
+        List<BasketItemResponse> items = basket.getItems().stream()
+                .map(item -> new BasketItemResponse(item.productId(), productNames.get(item.productId()), item.quantity()))
+                .toList();
+        return new BasketResponse(basket.getId(), basket.getOwnerKey(), basket.getName(), items,
+                basket.getCreatedAt(), basket.getUpdatedAt());
+    }
+}
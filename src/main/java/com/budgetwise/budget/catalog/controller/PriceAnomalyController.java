@@ -0,0 +1,43 @@
+package com.budgetwise.budget.catalog.controller;
+
+import com.budgetwise.budget.catalog.dto.PriceAnomalyResponse;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import com.budgetwise.budget.catalog.service.PriceAnomalyService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/anomalies")
+public class PriceAnomalyController {
+
+    private final PriceAnomalyService priceAnomalyService;
+
+    public PriceAnomalyController(PriceAnomalyService priceAnomalyService) {
+        this.priceAnomalyService = priceAnomalyService;
+    }
+
+    /**
+     * Review queue of quarantined prices (PENDING by default, newest first).
+     */
+    @GetMapping
+    public ResponseEntity<Page<PriceAnomalyResponse>> displayAnomalies(
+            @RequestParam(value = "status", defaultValue = "PENDING") PriceAnomaly.Status status,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+
+        return ResponseEntity.ok(priceAnomalyService.findAnomalies(status, pageable));
+    }
+
+    @PutMapping("/{id}/approve")
+    public ResponseEntity<PriceAnomalyResponse> approveAnomaly(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(priceAnomalyService.approve(id));
+    }
+
+    @PutMapping("/{id}/reject")
+    public ResponseEntity<PriceAnomalyResponse> rejectAnomaly(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(priceAnomalyService.reject(id));
+    }
+}
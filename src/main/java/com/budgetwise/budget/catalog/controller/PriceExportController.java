@@ -0,0 +1,45 @@
+package com.budgetwise.budget.catalog.controller;
+
+import com.budgetwise.budget.catalog.service.PriceExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/prices")
+public class PriceExportController {
+
+    private final PriceExportService priceExportService;
+
+    public PriceExportController(PriceExportService priceExportService) {
+        this.priceExportService = priceExportService;
+    }
+
+    /**
+     * Full price history download for the data team.
+     * * GET /api/v1/prices/export?from=2025-01-01&to=2025-12-31&category=FISH&marketId=3&format=COLUMNAR
+     * - All filters are optional; without them every record is exported.
+     * - format=CSV (default) or COLUMNAR (gzipped column blocks, see PriceExportWriter.Columnar).
+     * - Rows are streamed from the database as they are read, oldest report first.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPrices(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "marketId", required = false) Long marketId,
+            @RequestParam(value = "format", defaultValue = "CSV") PriceExportService.Format format) {
+
+        StreamingResponseBody body = priceExportService.exportPrices(from, to, category, marketId, format);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(format.fileName()).build().toString())
+                .body(body);
+    }
+}
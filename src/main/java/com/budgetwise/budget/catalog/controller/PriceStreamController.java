@@ -0,0 +1,32 @@
+package com.budgetwise.budget.catalog.controller;
+
+import com.budgetwise.budget.catalog.service.PriceStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/prices")
+public class PriceStreamController {
+
+    private final PriceStreamService priceStreamService;
+
+    public PriceStreamController(PriceStreamService priceStreamService) {
+        this.priceStreamService = priceStreamService;
+    }
+
+    /**
+     * GET /api/v1/prices/stream - Server-Sent Events, one "report" event per committed ingestion
+     * (report date, changed product/market counts). With productIds, the event also carries
+     * the price deltas of those products when they changed. With watcher (a watchlist owner key),
+     * the stream also carries an "alert" event for each triggered price watch of that owner.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(
+            @RequestParam(value = "productIds", required = false) List<Long> productIds,
+            @RequestParam(value = "watcher", required = false) String watcher) {
+        return priceStreamService.subscribe(productIds, watcher);
+    }
+}
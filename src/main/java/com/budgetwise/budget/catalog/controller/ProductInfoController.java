@@ -2,13 +2,17 @@ package com.budgetwise.budget.catalog.controller;
 
 import com.budgetwise.budget.catalog.dto.*;
 import com.budgetwise.budget.catalog.service.ProductInfoService;
+import com.budgetwise.budget.catalog.service.ProductTagService;
+import com.budgetwise.budget.common.version.DataVersionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -16,15 +20,30 @@ import java.util.List;
 public class ProductInfoController {
 
     private final ProductInfoService productInfoService;
+    private final DataVersionService dataVersionService;
+    private final ProductTagService productTagService;
 
-    public ProductInfoController(ProductInfoService productInfoService) {
+    public ProductInfoController(ProductInfoService productInfoService, DataVersionService dataVersionService,
+                                 ProductTagService productTagService) {
         this.productInfoService = productInfoService;
+        this.dataVersionService = dataVersionService;
+        this.productTagService = productTagService;
     }
 
+    /*
+     * Read endpoints below support conditional GET:
+     * checkNotModified() answers 304 from the data version alone, before any query runs.
+     */
 
     @GetMapping("/display")
     public ResponseEntity<Page<ProductTableResponse>> displayProducts(
-            @PageableDefault(size = 10, sort = "productName", direction = Sort.Direction.ASC) Pageable pageable){
+            @PageableDefault(size = 10, sort = "productName", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest webRequest){
+
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("products-display", version), version)) {
+            return null;
+        }
 
         Page<ProductTableResponse> response = productInfoService.displayProducts(pageable);
 
@@ -32,15 +51,46 @@ public class ProductInfoController {
     }
 
 
+    /**
+     * Product table filtered by dietary tags, with facet counts.
+     * * GET /api/v1/products/filter?all=Vegan&any=Low-Fat,Gluten-Free&none=Spicy
+     * - all: every tag required (AND); any: at least one (OR); none: excluded (NOT). All optional.
+     * - Returns the page of products plus, for every tag, how many matching products carry it.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ProductFacetResponse> filterProducts(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none,
+            @PageableDefault(size = 10, sort = "productName", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest webRequest) {
+
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("products-filter", version), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(productTagService.filterProducts(all, any, none, pageable));
+    }
+
     @GetMapping("/stats")
-    public ResponseEntity<ProductStatsResponse> displayProductStats() {
+    public ResponseEntity<ProductStatsResponse> displayProductStats(WebRequest webRequest) {
+
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("products-stats", version), version)) {
+            return null;
+        }
 
         ProductStatsResponse response = productInfoService.getProductStats();
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/newcomers")
-    public ResponseEntity<List<ProductNewComersResponse>> displayNewComersProduct() {
+    public ResponseEntity<List<ProductNewComersResponse>> displayNewComersProduct(WebRequest webRequest) {
+
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("products-newcomers", version), version)) {
+            return null;
+        }
        List<ProductNewComersResponse> newcomers =  productInfoService.findNewComersProducts();
 
        return ResponseEntity.ok(newcomers);
@@ -63,15 +113,40 @@ public class ProductInfoController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/updateStatus/bulk")
+    public ResponseEntity<BulkUpdateResponse> bulkUpdateProductStatus(@RequestBody BulkProductStatusRequest request) {
+
+        BulkUpdateResponse response = productInfoService.bulkUpdateProductStatus(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/updatenewcomers/bulk")
+    public ResponseEntity<BulkUpdateResponse> bulkUpdateNewComers(@RequestBody BulkNewComersRequest request) {
+
+        BulkUpdateResponse response = productInfoService.bulkManageNewComers(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/marketDetails/{id}")
-    public ResponseEntity<ProductMarketDetailResponse> getProductMarketDetails(@PathVariable("id") Long id) {
+    public ResponseEntity<ProductMarketDetailResponse> getProductMarketDetails(@PathVariable("id") Long id, WebRequest webRequest) {
+
+        long version = dataVersionService.productVersion(id);
+        if (webRequest.checkNotModified(dataVersionService.etag("product-markets", version), version)) {
+            return null;
+        }
         ProductMarketDetailResponse response = productInfoService.getProductMarketDetails(id);
         return ResponseEntity.ok(response);
     }
 
 
     @GetMapping("archive/stats")
-    public ResponseEntity<ArchiveStatsResponse> getStats() {
+    public ResponseEntity<ArchiveStatsResponse> getStats(WebRequest webRequest) {
+
+        // "New this month" depends on the calendar month, not only on the data
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("archive-stats", version, YearMonth.now()), version)) {
+            return null;
+        }
         return ResponseEntity.ok(productInfoService.getArchiveStats());
     }
 
@@ -80,8 +155,13 @@ public class ProductInfoController {
     public ResponseEntity<Page<ArchiveTableResponse>> getArchivedProducts(
             @RequestParam(required = false) String search,
 
-            @PageableDefault(size = 7, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable
+            @PageableDefault(size = 7, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest webRequest
     ) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("archive-table", version), version)) {
+            return null;
+        }
         return ResponseEntity.ok(productInfoService.getArchivedProducts(search, pageable));
     }
 }
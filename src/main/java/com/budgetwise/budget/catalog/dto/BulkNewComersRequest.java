@@ -0,0 +1,15 @@
+package com.budgetwise.budget.catalog.dto;
+
+import java.util.List;
+
+/**
+ * Field patch applied to many newcomer products at once.
+ * Null fields are left untouched; approve = true also moves the products to ACTIVE.
+ */
+public record BulkNewComersRequest(
+        List<Long> ids,
+        String category,
+        String localName,
+        boolean approve
+) {
+}
@@ -0,0 +1,9 @@
+package com.budgetwise.budget.catalog.dto;
+
+import java.util.List;
+
+public record BulkProductStatusRequest(
+        List<Long> ids,
+        String newStatus
+) {
+}
@@ -0,0 +1,10 @@
+package com.budgetwise.budget.catalog.dto;
+
+import java.util.List;
+
+public record BulkUpdateResponse(
+        int requested,
+        int updated,
+        List<BulkUpdateResult> results
+) {
+}
@@ -0,0 +1,8 @@
+package com.budgetwise.budget.catalog.dto;
+
+public record BulkUpdateResult(
+        Long id,
+        Outcome outcome
+) {
+    public enum Outcome { UPDATED, NOT_PENDING, NOT_FOUND }
+}
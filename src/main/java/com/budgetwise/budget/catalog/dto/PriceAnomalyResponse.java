@@ -0,0 +1,24 @@
+package com.budgetwise.budget.catalog.dto;
+
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record PriceAnomalyResponse(
+        Long id,
+        Long productId,
+        String productName,
+        LocalDate dateReported,
+        Double price,
+        String unit,
+        String origin,
+        Double expectedPrice,
+        Double expectedDeviation,
+        Double score,
+        PriceAnomaly.Reason reason,
+        PriceAnomaly.Status status,
+        LocalDateTime createdAt,
+        LocalDateTime reviewedAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.budgetwise.budget.catalog.dto;
+
+/**
+ * How one product moved in a freshly ingested report, averaged over the markets it reached.
+ */
+public record PriceDelta(
+        Long productId,
+        String productName,
+        Double averagePrice,
+        Double averageChange, // Against each market's previous report day; null if all prices are new
+        Long markets
+) {}
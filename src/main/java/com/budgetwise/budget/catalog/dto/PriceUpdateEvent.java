@@ -0,0 +1,15 @@
+package com.budgetwise.budget.catalog.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Payload of the "report" event pushed to price stream subscribers after an ingestion commits.
+ */
+public record PriceUpdateEvent(
+        Long reportId,
+        LocalDate reportDate,
+        int changedProducts,
+        int changedMarkets,
+        List<PriceDelta> deltas // Only the subscribed products that changed; empty without a product filter
+) {}
@@ -0,0 +1,13 @@
+package com.budgetwise.budget.catalog.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One page of a tag-filtered product listing, with facet counts over the whole result (not just the page).
+ */
+public record ProductFacetResponse(
+        Page<ProductTableResponse> products,
+        List<TagFacet> facets
+) {}
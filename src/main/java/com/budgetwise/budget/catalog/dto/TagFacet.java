@@ -0,0 +1,6 @@
+package com.budgetwise.budget.catalog.dto;
+
+public record TagFacet(
+        String tag,
+        long count // Products in the filtered result carrying the tag
+) {}
@@ -30,6 +30,11 @@ public class DietaryTag {
     @Column(columnDefinition = "TEXT")
     private String tagDescription;
 
+    // Position in ProductInfo.dietaryTagMask (0..63); a deleted tag's bit goes to the next new tag,
+    // which triggers a full mask resync
+    @Column(unique = true)
+    private Integer tagBit;
+
 
     @CreationTimestamp
     @Column(updatable = false)
@@ -0,0 +1,61 @@
+package com.budgetwise.budget.catalog.entity;
+
+import com.budgetwise.budget.market.entity.MarketLocation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Current price of a product at a market (one row per market/product pair).
+ * Maintained during ingestion so market catalogs never scan the full price history.
+ * Keeps the previous day's price to expose the day-over-day change.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "latest_market_price",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"market_location_id", "product_info_id"}),
+        indexes = @Index(name = "idx_latest_market_price_market", columnList = "market_location_id"))
+public class LatestMarketPrice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "market_location_id", nullable = false)
+    private MarketLocation marketLocation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_info_id", nullable = false)
+    private ProductInfo productInfo;
+
+    @Column
+    private double price;
+    @Column(length = 20)
+    private String unit;
+    @Column(length = 250)
+    private String origin;
+    @Column
+    private LocalDate dateReported;
+
+    @Column
+    private Double previousPrice;
+    @Column
+    private LocalDate previousDateReported;
+
+    // Stored (not derived) so the catalog can be sorted by it
+    @Column
+    private Double priceChange;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,78 @@
+package com.budgetwise.budget.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A scraped price held back from daily_price_record because it looked like an outlier
+ * (decimal slip, unit change, sudden spike or drop).
+ *
+ * Keeps everything needed to publish the price later: on approval the records are created
+ * for the same markets, on rejection the price is discarded.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "price_anomaly",
+        indexes = @Index(name = "idx_price_anomaly_status", columnList = "status, created_at"))
+public class PriceAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_info_id", nullable = false)
+    private ProductInfo productInfo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "price_report_id", nullable = false)
+    private PriceReport priceReport;
+
+    @Column
+    private double price;
+    @Column(length = 20)
+    private String unit;
+    @Column(length = 250)
+    private String origin;
+
+    // What the detector expected when the price arrived
+    @Column
+    private double expectedPrice;
+    @Column
+    private double expectedDeviation;
+    @Column
+    private double score;
+
+    public enum Reason { SPIKE, DROP, DECIMAL_SLIP, UNIT_CHANGE }
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Reason reason;
+
+    public enum Status { PENDING, APPROVED, REJECTED }
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Status status;
+
+    // Markets the price would have been broadcast to
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<Long> marketIds;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    @Column
+    private LocalDateTime reviewedAt;
+}
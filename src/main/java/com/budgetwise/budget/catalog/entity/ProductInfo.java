@@ -42,6 +42,11 @@ public class ProductInfo {
     @Column(length = 20,nullable = false)
     private Status status;
 
+    // One bit per dietary tag (DietaryTag.tagBit); written only by the native syncDietaryTagMasks
+    // statements, so saving an entity loaded before a sync cannot write a stale mask back
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long dietaryTagMask;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
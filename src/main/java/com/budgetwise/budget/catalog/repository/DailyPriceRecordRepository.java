@@ -1,12 +1,16 @@
 package com.budgetwise.budget.catalog.repository;
 
 import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 @Repository
 public interface DailyPriceRecordRepository extends JpaRepository<DailyPriceRecord, Long> {
 
@@ -33,4 +37,59 @@ public interface DailyPriceRecordRepository extends JpaRepository<DailyPriceReco
         GROUP BY r.productInfo.id               
     """)
     List<MarketCountProjection> countMarketsByProductIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Flat row of a price series: only the columns the in-memory series store keeps.
+     */
+    public interface SeriesEntryProjection {
+        Long getId();
+        Long getReportId();
+        Long getProductId();
+        String getProductName();
+        Long getMarketId();
+        LocalDate getDateReported();
+        double getPrice();
+    }
+
+    /**
+     * Streams every market price in chronological order (cursor-based, must run inside a transaction).
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("""
+        SELECT
+            r.id AS id,
+            r.priceReport.id AS reportId,
+            r.productInfo.id AS productId,
+            r.productInfo.productName AS productName,
+            r.marketLocation.id AS marketId,
+            r.priceReport.dateReported AS dateReported,
+            r.price AS price
+        FROM DailyPriceRecord r
+        WHERE r.marketLocation IS NOT NULL
+          AND r.priceReport.dateReported IS NOT NULL
+        ORDER BY r.priceReport.dateReported ASC, r.id ASC
+    """)
+    Stream<SeriesEntryProjection> streamSeriesEntries();
+
+    /**
+     * Market prices of one report created after the given record, for appending a fresh
+     * ingestion (or a later approved anomaly) to the series store.
+     */
+    @Query("""
+        SELECT
+            r.id AS id,
+            r.priceReport.id AS reportId,
+            r.productInfo.id AS productId,
+            r.productInfo.productName AS productName,
+            r.marketLocation.id AS marketId,
+            r.priceReport.dateReported AS dateReported,
+            r.price AS price
+        FROM DailyPriceRecord r
+        WHERE r.priceReport.id = :reportId
+          AND r.id > :afterId
+          AND r.marketLocation IS NOT NULL
+        ORDER BY r.id ASC
+    """)
+    List<SeriesEntryProjection> findSeriesEntriesByReportId(@Param("reportId") Long reportId,
+                                                            @Param("afterId") Long afterId);
 }
@@ -4,6 +4,10 @@ import com.budgetwise.budget.catalog.entity.DietaryTag;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DietaryTagRepository extends JpaRepository<DietaryTag, Long> {
+
+    List<DietaryTag> findAllByOrderByIdAsc();
 }
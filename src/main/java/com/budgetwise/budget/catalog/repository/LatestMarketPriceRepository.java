@@ -0,0 +1,174 @@
+package com.budgetwise.budget.catalog.repository;
+
+import com.budgetwise.budget.catalog.dto.PriceDelta;
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.market.dto.MarketCatalogItemResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LatestMarketPriceRepository extends JpaRepository<LatestMarketPrice, Long> {
+
+    /**
+     * Batch loads the current rows of one product across the given markets.
+     * Used by ingestion to upsert a whole report line in one round trip.
+     */
+    @Query("""
+        SELECT lmp FROM LatestMarketPrice lmp
+        WHERE lmp.productInfo.id = :productId
+          AND lmp.marketLocation.id IN :marketIds
+    """)
+    List<LatestMarketPrice> findByProductAndMarkets(@Param("productId") Long productId,
+                                                    @Param("marketIds") Collection<Long> marketIds);
+
+    /**
+     * Paginated catalog of a single market: one row per product with its latest price.
+     * Backed by idx_latest_market_price_market, so cost depends on the page size,
+     * not on how much price history the market has accumulated.
+     */
+    @Query(value = """
+        SELECT new com.budgetwise.budget.market.dto.MarketCatalogItemResponse(
+            p.id,
+            p.productName,
+            p.category,
+            lmp.unit,
+            lmp.origin,
+            lmp.price,
+            lmp.previousPrice,
+            lmp.priceChange,
+            lmp.dateReported,
+            lmp.previousDateReported
+        )
+        FROM LatestMarketPrice lmp
+        JOIN lmp.productInfo p
+        WHERE lmp.marketLocation.id = :marketId
+    """,
+            countQuery = """
+        SELECT COUNT(lmp) FROM LatestMarketPrice lmp
+        WHERE lmp.marketLocation.id = :marketId
+    """)
+    Page<MarketCatalogItemResponse> findMarketCatalog(@Param("marketId") Long marketId, Pageable pageable);
+
+    /**
+     * One cell of the product x market price matrix.
+     */
+    interface MatrixCellProjection {
+        Long getProductId();
+        String getProductName();
+        String getCategory();
+        String getUnit();
+        Long getMarketId();
+        String getMarketName();
+        double getPrice();
+    }
+
+    /**
+     * Current price of every active product at every active market (full table read, used to rebuild the matrix).
+     */
+    @Query("""
+        SELECT
+            p.id AS productId,
+            p.productName AS productName,
+            p.category AS category,
+            lmp.unit AS unit,
+            m.id AS marketId,
+            m.marketLocation AS marketName,
+            lmp.price AS price
+        FROM LatestMarketPrice lmp
+        JOIN lmp.productInfo p
+        JOIN lmp.marketLocation m
+        WHERE p.status = com.budgetwise.budget.catalog.entity.ProductInfo.Status.ACTIVE
+          AND m.status = com.budgetwise.budget.market.entity.MarketLocation.Status.ACTIVE
+    """)
+    List<MatrixCellProjection> findMatrixCells();
+
+    /**
+     * Per-product average of the prices a report just set, averaged over the markets it reached.
+     * Used by the price stream; rows already moved to a newer report are not part of the delta.
+     */
+    @Query("""
+        SELECT new com.budgetwise.budget.catalog.dto.PriceDelta(
+            p.id,
+            p.productName,
+            AVG(lmp.price),
+            AVG(lmp.priceChange),
+            COUNT(lmp)
+        )
+        FROM LatestMarketPrice lmp
+        JOIN lmp.productInfo p
+        WHERE p.id IN :productIds
+          AND lmp.dateReported = :reportDate
+        GROUP BY p.id, p.productName
+    """)
+    List<PriceDelta> findPriceDeltas(@Param("productIds") Collection<Long> productIds,
+                                     @Param("reportDate") LocalDate reportDate);
+
+    /**
+     * Current price of some products at every market that carries them.
+     */
+    interface ProductPriceProjection {
+        Long getProductId();
+        Long getMarketId();
+        double getPrice();
+        LocalDate getDateReported();
+    }
+
+    /**
+     * Current prices of the given products across markets (used to cost saved baskets).
+     */
+    @Query("""
+        SELECT
+            lmp.productInfo.id AS productId,
+            lmp.marketLocation.id AS marketId,
+            lmp.price AS price,
+            lmp.dateReported AS dateReported
+        FROM LatestMarketPrice lmp
+        WHERE lmp.productInfo.id IN :productIds
+    """)
+    List<ProductPriceProjection> findCurrentPrices(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM latest_market_price", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Rebuilds the table from daily_price_record in one statement.
+     * Per (market, product, day) the last inserted record wins (matches ingestion order),
+     * then LAG() picks the previous day's price for the change column.
+     */
+    @Modifying
+    @Query(value = """
+        WITH daily AS (
+            SELECT DISTINCT ON (d.market_location_id, d.product_info_id, r.date_reported)
+                   d.market_location_id, d.product_info_id, r.date_reported, d.price, d.unit, d.origin
+            FROM daily_price_record d
+            JOIN price_report r ON r.id = d.price_report_id
+            WHERE d.market_location_id IS NOT NULL
+            ORDER BY d.market_location_id, d.product_info_id, r.date_reported, d.id DESC
+        ), ranked AS (
+            SELECT daily.*,
+                   LAG(price) OVER w AS previous_price,
+                   LAG(date_reported) OVER w AS previous_date_reported,
+                   ROW_NUMBER() OVER (PARTITION BY market_location_id, product_info_id
+                                      ORDER BY date_reported DESC) AS rn
+            FROM daily
+            WINDOW w AS (PARTITION BY market_location_id, product_info_id ORDER BY date_reported)
+        )
+        INSERT INTO latest_market_price (market_location_id, product_info_id, price, unit, origin, date_reported,
+                                         previous_price, previous_date_reported, price_change, updated_at)
+        SELECT market_location_id, product_info_id, price, unit, origin, date_reported,
+               previous_price, previous_date_reported, price - previous_price, NOW()
+        FROM ranked
+        WHERE rn = 1
+    """, nativeQuery = true)
+    int rebuildFromHistory();
+}
@@ -0,0 +1,54 @@
+package com.budgetwise.budget.catalog.repository;
+
+import com.budgetwise.budget.catalog.dto.PriceAnomalyResponse;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PriceAnomalyRepository extends JpaRepository<PriceAnomaly, Long> {
+
+    /**
+     * Locks the anomaly so two reviews of the same price run one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PriceAnomaly> findWithLockById(Long id);
+
+    /**
+     * Review queue: anomalies of one status with product and report date, newest first by default.
+     */
+    @Query(value = """
+        SELECT new com.budgetwise.budget.catalog.dto.PriceAnomalyResponse(
+            a.id,
+            p.id,
+            p.productName,
+            r.dateReported,
+            a.price,
+            a.unit,
+            a.origin,
+            a.expectedPrice,
+            a.expectedDeviation,
+            a.score,
+            a.reason,
+            a.status,
+            a.createdAt,
+            a.reviewedAt
+        )
+        FROM PriceAnomaly a
+        JOIN a.productInfo p
+        JOIN a.priceReport r
+        WHERE a.status = :status
+    """,
+            countQuery = """
+        SELECT COUNT(a) FROM PriceAnomaly a WHERE a.status = :status
+    """)
+    Page<PriceAnomalyResponse> findByStatus(@Param("status") PriceAnomaly.Status status, Pageable pageable);
+}
@@ -29,6 +29,12 @@ public interface ProductDietaryTagRepository extends JpaRepository <ProductDieta
            SELECT pdt.productInfo.id AS productId,t.tagName AS dietaryTag            
               FROM ProductDietaryTag pdt JOIN pdt.dietaryTag t WHERE pdt.productInfo.id IN :ids """)
     List<TagProjection> findByProductIdIn(@Param("ids") List<Long> ids);
-}
-
 
+    /**
+     * Every (product, tag) pair; used to build the in-memory planner index.
+     */
+    @Query("""
+           SELECT pdt.productInfo.id AS productId, t.tagName AS dietaryTag
+              FROM ProductDietaryTag pdt JOIN pdt.dietaryTag t """)
+    List<TagProjection> findAllTags();
+}
@@ -7,6 +7,7 @@ import com.budgetwise.budget.catalog.entity.ProductInfo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +21,8 @@ public interface ProductInfoRepository extends JpaRepository <ProductInfo , Long
 
     Optional<ProductInfo> findByCategoryAndProductName(String category, String productName);
 
+    List<ProductInfo> findByProductNameIn(Collection<String> productNames);
+
   Optional<ProductInfo> findById(Long id);
     /**
      * Checks if a product exists based on composite unique constraints.
@@ -76,8 +79,150 @@ AND dpr.origin = :origin
 """)
     Page<ProductTableResponse> displayProductTable(Pageable pageable);
 
+    /**
+     * Same rows as {@link #displayProductTable} for the given products (one page of a dietary tag filter,
+     * sliced in memory), in no particular order.
+     */
+    @Query("""
+    SELECT new com.budgetwise.budget.catalog.dto.ProductTableResponse(
+        p.id,
+        p.productName,
+        p.category,
+        d.origin,
+        p.localName,
+        d.unit,
+        p.status,
+        d.price,
+        0,
+        null,
+        r.dateReported
+    )
+    FROM ProductInfo p
+    LEFT JOIN p.priceRecords d
+    LEFT JOIN d.priceReport r
+    WHERE p.id IN :ids
+    AND (d.id IS NULL OR d.id = (
+        SELECT MAX(sub.id)
+        FROM DailyPriceRecord sub
+        WHERE sub.productInfo = p
+    ))
+""")
+    List<ProductTableResponse> displayProductTableByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Product id and dietary tag bitmask; loaded into the in-memory tag index.
+     */
+    interface TagMaskProjection {
+        Long getId();
+        long getDietaryTagMask();
+    }
+
+    @Query("""
+        SELECT p.id AS id, p.dietaryTagMask AS dietaryTagMask
+        FROM ProductInfo p
+        WHERE p.status = :status
+        ORDER BY p.productName
+    """)
+    List<TagMaskProjection> findTagMasksByStatus(@Param("status") ProductInfo.Status status);
+
+    /**
+     * Recomputes every product's dietary tag bitmask from product_dietary_tag in one statement.
+     * Tags without a bit are left out.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE product_info p
+        SET dietary_tag_mask = COALESCE((
+            SELECT bit_or(CAST(1 AS bigint) << t.tag_bit)
+            FROM product_dietary_tag pdt
+            JOIN dietary_tag t ON t.id = pdt.dietary_tag_id
+            WHERE pdt.product_info_id = p.id AND t.tag_bit IS NOT NULL
+        ), 0)
+    """, nativeQuery = true)
+    int syncDietaryTagMasks();
+
+    /**
+     * {@link #syncDietaryTagMasks()} limited to the given products.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE product_info p
+        SET dietary_tag_mask = COALESCE((
+            SELECT bit_or(CAST(1 AS bigint) << t.tag_bit)
+            FROM product_dietary_tag pdt
+            JOIN dietary_tag t ON t.id = pdt.dietary_tag_id
+            WHERE pdt.product_info_id = p.id AND t.tag_bit IS NOT NULL
+        ), 0)
+        WHERE p.id IN (:ids)
+    """, nativeQuery = true)
+    int syncDietaryTagMasks(@Param("ids") Collection<Long> ids);
+
    long countByStatus(ProductInfo.Status status);
 
+    @Query("SELECT p.id FROM ProductInfo p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Subset of the given IDs whose product currently has the given status.
+     */
+    @Query("SELECT p.id FROM ProductInfo p WHERE p.id IN :ids AND p.status = :status")
+    List<Long> findIdsByStatus(@Param("ids") Collection<Long> ids, @Param("status") ProductInfo.Status status);
+
+    /**
+     * Set-based status update for bulk operations.
+     * Bypasses entity loading, so updatedAt must be passed explicitly (@UpdateTimestamp does not fire).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInfo p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("status") ProductInfo.Status status,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Set-based field patch for bulk newcomer edits. Null parameters keep the current value.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE ProductInfo p
+        SET p.category = COALESCE(:category, p.category),
+            p.localName = COALESCE(:localName, p.localName),
+            p.updatedAt = :updatedAt
+        WHERE p.id IN :ids
+    """)
+    int patchNewComersByIds(@Param("ids") Collection<Long> ids,
+                            @Param("category") String category,
+                            @Param("localName") String localName,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Projection for building the in-memory autocomplete index.
+     * Popularity is the number of price records linked to the product.
+     */
+    interface ProductPopularityProjection {
+        Long getId();
+        String getProductName();
+        String getLocalName();
+        String getCategory();
+        Long getPopularity();
+    }
+
+    /**
+     * Fetches every product with the given status together with its price record count.
+     * Single GROUP BY query used when (re)building the autocomplete trie.
+     */
+    @Query("""
+        SELECT p.id AS id,
+               p.productName AS productName,
+               p.localName AS localName,
+               p.category AS category,
+               COUNT(d.id) AS popularity
+        FROM ProductInfo p
+        LEFT JOIN p.priceRecords d
+        WHERE p.status = :status
+        GROUP BY p.id, p.productName, p.localName, p.category
+    """)
+    List<ProductPopularityProjection> findPopularityByStatus(@Param("status") ProductInfo.Status status);
+
         long countByStatusInAndUpdatedAtBetween(
                 Collection<ProductInfo.Status> statuses,
                 LocalDateTime start,
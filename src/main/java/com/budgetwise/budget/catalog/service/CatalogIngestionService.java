@@ -1,14 +1,20 @@
 package com.budgetwise.budget.catalog.service;
 
 
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.catalog.entity.PriceReport;
 import com.budgetwise.budget.catalog.entity.ProductInfo;
 import com.budgetwise.budget.integration.scrapper.dto.ScrapeResultDto;
 import com.budgetwise.budget.market.service.MarketLocationResolver;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CatalogIngestionService {
@@ -17,12 +23,14 @@ public class CatalogIngestionService {
    private final DailyPriceIngestionService dailyPriceRecordService;
    private final MarketLocationResolver marketLocationService;
    private final ProductMatchingService productMatchingService;
+   private final ApplicationEventPublisher eventPublisher;
 
-    public CatalogIngestionService(PriceReportProcessingService priceReportService, DailyPriceIngestionService dailyPriceRecordService, MarketLocationResolver marketLocationService, ProductMatchingService productMatchingService) {
+    public CatalogIngestionService(PriceReportProcessingService priceReportService, DailyPriceIngestionService dailyPriceRecordService, MarketLocationResolver marketLocationService, ProductMatchingService productMatchingService, ApplicationEventPublisher eventPublisher) {
         this.priceReportService = priceReportService;
         this.dailyPriceRecordService = dailyPriceRecordService;
         this.marketLocationService = marketLocationService;
         this.productMatchingService = productMatchingService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -44,12 +52,18 @@ public class CatalogIngestionService {
             PriceReport priceReport = priceReportService.createFromScrapeResult(result);
            //  Resolve Markets (Bulk Operation)
             List<MarketLocation> markets =  marketLocationService.findOrCreateMarket(result.coveredMarkets());
+            Set<Long> marketIds = markets.stream()
+                    .map(MarketLocation::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Long> productIds = new HashSet<>();
 
 
 
             if(result.products() == null || result.products().isEmpty() ){
 
                 System.out.println("No products found");
+                publishIngestion(priceReport, productIds, marketIds);
                 return;
             }
 
@@ -62,6 +76,7 @@ public class CatalogIngestionService {
             System.out.println("Processing product " + productCount + ": " + scrapedProduct.commodity());
 
             ProductInfo productInfo = productMatchingService.findOrCreateProduct(scrapedProduct);
+            productIds.add(productInfo.getId());
 
             dailyPriceRecordService.createRecordForAllMarkets(
                     scrapedProduct,
@@ -77,6 +92,21 @@ public class CatalogIngestionService {
         System.out.println("   Report ID: " + priceReport.getId());
         System.out.println("   Products Processed: " + productCount);
         System.out.println("   Total Price Rows Saved: " + totalRecords);
+
+        publishIngestion(priceReport, productIds, marketIds);
+    }
+
+    /**
+     * Notifies downstream listeners (indexes, caches, versions) that a report was ingested.
+     * Listeners bound with @TransactionalEventListener only fire once this transaction commits.
+     */
+    private void publishIngestion(PriceReport priceReport, Set<Long> productIds, Set<Long> marketIds) {
+        eventPublisher.publishEvent(CatalogChangedEvent.ingestion(
+                priceReport.getId(),
+                priceReport.getDateReported(),
+                productIds,
+                marketIds
+        ));
     }
 
     }
@@ -1,24 +1,46 @@
 package com.budgetwise.budget.catalog.service;
 
+import com.budgetwise.budget.analytics.service.PriceRollupService;
 import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.catalog.entity.PriceReport;
 import com.budgetwise.budget.catalog.entity.ProductInfo;
 import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.PriceAnomalyRepository;
 import com.budgetwise.budget.integration.scrapper.dto.ScrapeResultDto;
+import com.budgetwise.budget.watchlist.service.PriceWatchService;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 public class DailyPriceIngestionService {
 
     private final DailyPriceRecordRepository dailyPriceRecordRepository;
-
-    public DailyPriceIngestionService(DailyPriceRecordRepository dailyPriceRecordRepository) {
+    private final LatestPriceService latestPriceService;
+    private final PriceRollupService priceRollupService;
+    private final PriceAnomalyDetector anomalyDetector;
+    private final PriceAnomalyRepository priceAnomalyRepository;
+    private final PriceWatchService priceWatchService;
+
+    public DailyPriceIngestionService(DailyPriceRecordRepository dailyPriceRecordRepository,
+                                      LatestPriceService latestPriceService,
+                                      PriceRollupService priceRollupService,
+                                      PriceAnomalyDetector anomalyDetector,
+                                      PriceAnomalyRepository priceAnomalyRepository,
+                                      PriceWatchService priceWatchService) {
         this.dailyPriceRecordRepository = dailyPriceRecordRepository;
+        this.latestPriceService = latestPriceService;
+        this.priceRollupService = priceRollupService;
+        this.anomalyDetector = anomalyDetector;
+        this.priceAnomalyRepository = priceAnomalyRepository;
+        this.priceWatchService = priceWatchService;
     }
 
 
@@ -29,6 +51,8 @@ public class DailyPriceIngestionService {
      * Since the scraping source (DA PDF) provides a "Prevailing Price"
      * that applies to a list of markets in a region, we create one record per market
      * with the same price value.
+     * The per-market latest price rows and the daily analytics rollups are updated in the same transaction,
+     * and price watches crossed by the new price queue their alerts.
      * * @param scrapedProduct The raw price and unit data.
      * @param productInfo    The resolved Product entity (Foreign Key).
      * @param priceReport    The parent Report entity (Foreign Key).
@@ -46,6 +70,36 @@ public class DailyPriceIngestionService {
             return;
         }
 
+        // Anomaly Gate: O(1) score against the product's rolling statistics
+        PriceAnomalyDetector.Assessment assessment =
+                anomalyDetector.assess(productInfo.getId(), scrapedProduct.unit(), scrapedProduct.price());
+        if (assessment.anomalous()) {
+            quarantine(scrapedProduct, productInfo, priceReport, markets, assessment);
+            return;
+        }
+
+        List<DailyPriceRecord> batchRecords = saveForMarkets(
+                scrapedProduct.price(), scrapedProduct.unit(), scrapedProduct.origin(), productInfo, priceReport, markets);
+        anomalyDetector.observe(productInfo.getId(), scrapedProduct.unit(), scrapedProduct.price());
+
+        System.out.println("Linked " + batchRecords.size() + " records for: "
+                + scrapedProduct.commodity() + " across " + markets.size() + " markets.");
+    }
+
+    /**
+     * Publishes a quarantined price once a reviewer approved it (skips the anomaly gate).
+     */
+    @Transactional
+    public List<DailyPriceRecord> createApprovedRecords(PriceAnomaly anomaly, List<MarketLocation> markets) {
+        List<DailyPriceRecord> records = saveForMarkets(anomaly.getPrice(), anomaly.getUnit(), anomaly.getOrigin(),
+                anomaly.getProductInfo(), anomaly.getPriceReport(), markets);
+        anomalyDetector.rebase(anomaly.getProductInfo().getId(), anomaly.getUnit(), anomaly.getPrice());
+        return records;
+    }
+
+    private List<DailyPriceRecord> saveForMarkets(double price, String unit, String origin,
+                                                  ProductInfo productInfo, PriceReport priceReport,
+                                                  List<MarketLocation> markets) {
         // Batch Collection (Optimization)
         // Instead of saving one by one, we collect them in a list first.
         List<DailyPriceRecord> batchRecords = new ArrayList<>();
@@ -54,9 +108,9 @@ public class DailyPriceIngestionService {
 
             DailyPriceRecord record = new DailyPriceRecord();
 
-            record.setPrice(scrapedProduct.price());
-            record.setUnit(scrapedProduct.unit());
-            record.setOrigin(scrapedProduct.origin());
+            record.setPrice(price);
+            record.setUnit(unit);
+            record.setOrigin(origin);
 
             //Connect all entities via foreign keys
             record.setProductInfo(productInfo);
@@ -67,11 +121,34 @@ public class DailyPriceIngestionService {
 
         }
         dailyPriceRecordRepository.saveAll(batchRecords);
-
-        System.out.println("Linked " + batchRecords.size() + " records for: "
-                + scrapedProduct.commodity() + " across " + markets.size() + " markets.");
+        List<LatestMarketPrice> latestRows = latestPriceService.applyRecords(batchRecords);
+        priceRollupService.applyRecords(batchRecords);
+        priceWatchService.evaluate(priceReport, latestRows);
+        return batchRecords;
     }
 
-
-
+    /**
+     * Holds an outlier back from daily_price_record until it has been reviewed.
+     */
+    private void quarantine(ScrapeResultDto.ScrapedProduct scrapedProduct, ProductInfo productInfo,
+                            PriceReport priceReport, List<MarketLocation> markets,
+                            PriceAnomalyDetector.Assessment assessment) {
+        PriceAnomaly anomaly = new PriceAnomaly();
+        anomaly.setProductInfo(productInfo);
+        anomaly.setPriceReport(priceReport);
+        anomaly.setPrice(scrapedProduct.price());
+        anomaly.setUnit(scrapedProduct.unit());
+        anomaly.setOrigin(scrapedProduct.origin());
+        anomaly.setExpectedPrice(assessment.expectedPrice());
+        anomaly.setExpectedDeviation(assessment.expectedDeviation());
+        anomaly.setScore(assessment.score());
+        anomaly.setReason(assessment.reason());
+        anomaly.setStatus(PriceAnomaly.Status.PENDING);
+        anomaly.setMarketIds(markets.stream().map(MarketLocation::getId).toList());
+        priceAnomalyRepository.save(anomaly);
+        anomalyDetector.flag(productInfo.getId(), scrapedProduct.price());
+
+        log.warn("Quarantined {} at {} ({}, expected ~{})", scrapedProduct.commodity(), scrapedProduct.price(),
+                assessment.reason(), Math.round(assessment.expectedPrice()));
+    }
 }
@@ -0,0 +1,123 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the latest_market_price table (one row per market/product pair).
+ *
+ * Ingestion calls {@link #applyRecords} with the records it just saved, so the table is always
+ * up to date without a background job. {@link #rebuildFromHistory} recreates it from
+ * daily_price_record, e.g. on first start after this table was introduced.
+ */
+@Slf4j
+@Service
+public class LatestPriceService {
+
+    private final LatestMarketPriceRepository latestMarketPriceRepository;
+    private final DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    public LatestPriceService(LatestMarketPriceRepository latestMarketPriceRepository, DailyPriceRecordRepository dailyPriceRecordRepository) {
+        this.latestMarketPriceRepository = latestMarketPriceRepository;
+        this.dailyPriceRecordRepository = dailyPriceRecordRepository;
+    }
+
+    /**
+     * Upserts the latest price rows for one product's freshly saved records.
+     *
+     * Rules per (market, product):
+     * - Newer report date: current price becomes the previous price.
+     * - Same report date (product listed twice with different origins): last record wins, previous is kept.
+     * - Older report date (late backfill): ignored, the row already holds newer data.
+     *
+     * @param records Records of ONE product across markets, as saved by DailyPriceIngestionService.
+     * @return The rows that took the new price (stale backfills excluded).
+     */
+    @Transactional
+    public List<LatestMarketPrice> applyRecords(List<DailyPriceRecord> records) {
+        List<DailyPriceRecord> marketRecords = records.stream()
+                .filter(r -> r.getMarketLocation() != null && r.getMarketLocation().getId() != null)
+                .toList();
+        if (marketRecords.isEmpty()) {
+            return List.of();
+        }
+
+        Long productId = marketRecords.get(0).getProductInfo().getId();
+        Set<Long> marketIds = marketRecords.stream()
+                .map(r -> r.getMarketLocation().getId())
+                .collect(Collectors.toSet());
+
+        //  Batch Query: one SELECT for all markets of this product
+        Map<Long, LatestMarketPrice> currentByMarket = latestMarketPriceRepository
+                .findByProductAndMarkets(productId, marketIds).stream()
+                .collect(Collectors.toMap(l -> l.getMarketLocation().getId(), Function.identity()));
+
+        List<LatestMarketPrice> changed = new ArrayList<>();
+        for (DailyPriceRecord record : marketRecords) {
+            LocalDate reportDate = record.getPriceReport().getDateReported();
+            LatestMarketPrice latest = currentByMarket.get(record.getMarketLocation().getId());
+
+            if (latest == null) {
+                latest = new LatestMarketPrice();
+                latest.setMarketLocation(record.getMarketLocation());
+                latest.setProductInfo(record.getProductInfo());
+                currentByMarket.put(record.getMarketLocation().getId(), latest);
+            } else if (latest.getDateReported() != null && reportDate != null) {
+                if (reportDate.isBefore(latest.getDateReported())) {
+                    continue;
+                }
+                if (reportDate.isAfter(latest.getDateReported())) {
+                    latest.setPreviousPrice(latest.getPrice());
+                    latest.setPreviousDateReported(latest.getDateReported());
+                }
+            }
+
+            latest.setPrice(record.getPrice());
+            latest.setUnit(record.getUnit());
+            latest.setOrigin(record.getOrigin());
+            latest.setDateReported(reportDate);
+            latest.setPriceChange(latest.getPreviousPrice() != null
+                    ? latest.getPrice() - latest.getPreviousPrice()
+                    : null);
+            changed.add(latest);
+        }
+
+        List<LatestMarketPrice> rows = new ArrayList<>(new LinkedHashSet<>(changed));
+        latestMarketPriceRepository.saveAll(rows);
+        return rows;
+    }
+
+    /**
+     * Recreates every row from the full price history in a single set-based statement.
+     */
+    @Transactional
+    public int rebuildFromHistory() {
+        latestMarketPriceRepository.deleteAllRows();
+        int rows = latestMarketPriceRepository.rebuildFromHistory();
+        log.info("Rebuilt latest_market_price from history: {} rows", rows);
+        return rows;
+    }
+
+    /**
+     * Backfills the table once for databases that already hold price history.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (latestMarketPriceRepository.count() == 0 && dailyPriceRecordRepository.count() > 0) {
+            rebuildFromHistory();
+        }
+    }
+}
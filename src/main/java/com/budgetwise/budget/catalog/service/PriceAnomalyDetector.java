@@ -0,0 +1,218 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scores incoming prices against per-product rolling statistics kept in memory.
+ *
+ * Model (per product):
+ * - EWMA mean and variance with alpha = 2 / (WINDOW + 1), i.e. roughly the last WINDOW reports.
+ * - State is seeded lazily from the product's last WINDOW NATIONAL daily rollups,
+ *   then updated in O(1) by every accepted price. Quarantined prices never update it.
+ *
+ * A price is anomalous once MIN_OBSERVATIONS are known and it is either
+ * RATIO_THRESHOLD times away from the mean (decimal slip) or more than Z_THRESHOLD
+ * deviations away (spike/drop; halved when the unit also changed).
+ *
+ * Recovery: quarantined prices within SHIFT_TOLERANCE of each other form a run. The SHIFT_OUTLIERS-th
+ * consecutive one is taken as a real level shift: it passes, and the state is rebased on the run's average.
+ * The earlier prices of the run stay in the review queue.
+ *
+ * observe, flag and rebase change the state only after the surrounding transaction commits
+ * (immediately without one), so a rolled back ingestion leaves the statistics untouched.
+ */
+@Slf4j
+@Component
+public class PriceAnomalyDetector {
+
+    static final int WINDOW = 20;
+    static final double ALPHA = 2.0 / (WINDOW + 1);
+    static final int MIN_OBSERVATIONS = 5;
+    static final double Z_THRESHOLD = 4.0;
+    static final double RATIO_THRESHOLD = 5.0;
+    // Stable series have near-zero variance; never judge against less than 5% of the mean
+    static final double MIN_RELATIVE_DEVIATION = 0.05;
+    static final int SHIFT_OUTLIERS = 3;
+    static final double SHIFT_TOLERANCE = 0.10;
+
+    private final DailyPriceRollupRepository rollupRepository;
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    public PriceAnomalyDetector(DailyPriceRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Result of scoring one price.
+     *
+     * @param reason Null when the price looks normal.
+     */
+    public record Assessment(boolean anomalous, PriceAnomaly.Reason reason,
+                             double expectedPrice, double expectedDeviation, double score) {
+    }
+
+    /**
+     * Scores a price without changing the product's state.
+     * An outlier that completes a run of SHIFT_OUTLIERS consistent outliers is not anomalous.
+     */
+    public Assessment assess(Long productId, String unit, double price) {
+        State state = states.computeIfAbsent(productId, this::seed);
+        synchronized (state) {
+            if (state.count < MIN_OBSERVATIONS || state.mean <= 0) {
+                return new Assessment(false, null, state.mean, Math.sqrt(state.variance), 0);
+            }
+            double deviation = Math.max(Math.sqrt(state.variance), state.mean * MIN_RELATIVE_DEVIATION);
+            double score = Math.abs(price - state.mean) / deviation;
+            double ratio = price / state.mean;
+            boolean unitChanged = unit != null && state.unit != null && !unit.equalsIgnoreCase(state.unit);
+
+            PriceAnomaly.Reason reason = null;
+            if (price <= 0 || ratio >= RATIO_THRESHOLD || ratio <= 1 / RATIO_THRESHOLD) {
+                reason = PriceAnomaly.Reason.DECIMAL_SLIP;
+            } else if (unitChanged && score > Z_THRESHOLD / 2) {
+                reason = PriceAnomaly.Reason.UNIT_CHANGE;
+            } else if (score > Z_THRESHOLD) {
+                reason = price > state.mean ? PriceAnomaly.Reason.SPIKE : PriceAnomaly.Reason.DROP;
+            }
+            if (reason != null && price > 0 && state.completesShift(price)) {
+                reason = null;
+            }
+            return new Assessment(reason != null, reason, state.mean, deviation, score);
+        }
+    }
+
+    /**
+     * Folds an accepted price into the product's rolling statistics,
+     * or rebases them when the price completes a level shift.
+     */
+    public void observe(Long productId, String unit, double price) {
+        State state = states.computeIfAbsent(productId, this::seed);
+        afterCommit(() -> {
+            synchronized (state) {
+                if (state.completesShift(price)) {
+                    double level = (state.shiftLevel * state.shiftCount + price) / (state.shiftCount + 1);
+                    log.info("Price level shift for product {}: {} -> {} after {} consistent outliers",
+                            productId, Math.round(state.mean), Math.round(level), SHIFT_OUTLIERS);
+                    state.rebase(level);
+                } else {
+                    state.accept(price);
+                    state.shiftCount = 0;
+                }
+                if (unit != null) {
+                    state.unit = unit;
+                }
+            }
+        });
+    }
+
+    /**
+     * Records a quarantined price: extends the current outlier run when consistent with it,
+     * starts a new run otherwise.
+     */
+    public void flag(Long productId, double price) {
+        State state = states.computeIfAbsent(productId, this::seed);
+        afterCommit(() -> {
+            synchronized (state) {
+                if (state.continuesShift(price)) {
+                    state.shiftLevel = (state.shiftLevel * state.shiftCount + price) / (state.shiftCount + 1);
+                    state.shiftCount++;
+                } else {
+                    state.shiftLevel = price;
+                    state.shiftCount = 1;
+                }
+            }
+        });
+    }
+
+    /**
+     * Trusts a reviewed price as the product's new level (e.g. an approved unit change),
+     * so the following reports at that level are not flagged again.
+     */
+    public void rebase(Long productId, String unit, double price) {
+        State state = states.computeIfAbsent(productId, this::seed);
+        afterCommit(() -> {
+            synchronized (state) {
+                state.rebase(price);
+                if (unit != null) {
+                    state.unit = unit;
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private State seed(Long productId) {
+        List<DailyPriceRollup> recent = rollupRepository
+                .findTop20ByProductIdAndMarketIdOrderByRollupDateDesc(productId, DailyPriceRollup.NATIONAL);
+        State state = new State();
+        // Oldest first so the most recent days carry the most weight
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            DailyPriceRollup day = recent.get(i);
+            if (day.getPriceCount() > 0) {
+                state.accept(day.getPriceSum() / day.getPriceCount());
+            }
+        }
+        return state;
+    }
+
+    private static final class State {
+        private long count;
+        private double mean;
+        private double variance;
+        private String unit;
+        // Current run of consecutive quarantined prices: their average and length
+        private double shiftLevel;
+        private int shiftCount;
+
+        private boolean continuesShift(double price) {
+            return shiftCount > 0 && Math.abs(price - shiftLevel) <= shiftLevel * SHIFT_TOLERANCE;
+        }
+
+        private boolean completesShift(double price) {
+            return continuesShift(price) && shiftCount + 1 >= SHIFT_OUTLIERS;
+        }
+
+        // The old spread says nothing about the new level; MIN_RELATIVE_DEVIATION covers it until prices arrive
+        private void rebase(double level) {
+            mean = level;
+            variance = 0;
+            count = Math.max(count, 1);
+            shiftCount = 0;
+        }
+
+        private void accept(double price) {
+            if (count == 0) {
+                mean = price;
+                variance = 0;
+            } else {
+                double diff = price - mean;
+                double increment = ALPHA * diff;
+                mean += increment;
+                variance = (1 - ALPHA) * (variance + diff * increment);
+            }
+            count++;
+        }
+    }
+}
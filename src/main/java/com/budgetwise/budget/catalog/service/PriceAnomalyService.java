@@ -0,0 +1,114 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.PriceAnomalyResponse;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.repository.PriceAnomalyRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Review workflow for prices quarantined by the ingestion anomaly gate.
+ */
+@Service
+public class PriceAnomalyService {
+
+    private final PriceAnomalyRepository priceAnomalyRepository;
+    private final MarketLocationRepository marketLocationRepository;
+    private final DailyPriceIngestionService dailyPriceIngestionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceAnomalyService(PriceAnomalyRepository priceAnomalyRepository,
+                               MarketLocationRepository marketLocationRepository,
+                               DailyPriceIngestionService dailyPriceIngestionService,
+                               ApplicationEventPublisher eventPublisher) {
+        this.priceAnomalyRepository = priceAnomalyRepository;
+        this.marketLocationRepository = marketLocationRepository;
+        this.dailyPriceIngestionService = dailyPriceIngestionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PriceAnomalyResponse> findAnomalies(PriceAnomaly.Status status, Pageable pageable) {
+        return priceAnomalyRepository.findByStatus(status, pageable);
+    }
+
+    /**
+     * Accepts a quarantined price as real.
+     * Logic:
+     * - Locks the anomaly and checks it is still pending, so a second approval writes nothing.
+     * - Creates the records for the markets the price was originally broadcast to.
+     * - Rebases the detector so the next reports at this level pass.
+     * - Publishes an ingestion event so rollups, caches and the series store pick the price up.
+     */
+    @Transactional
+    public PriceAnomalyResponse approve(Long id) {
+        PriceAnomaly anomaly = findPending(id);
+
+        List<Long> marketIds = anomaly.getMarketIds() == null ? List.of() : anomaly.getMarketIds();
+        List<MarketLocation> markets = marketLocationRepository.findAllById(marketIds);
+        dailyPriceIngestionService.createApprovedRecords(anomaly, markets);
+
+        anomaly.setStatus(PriceAnomaly.Status.APPROVED);
+        anomaly.setReviewedAt(LocalDateTime.now());
+
+        PriceReport report = anomaly.getPriceReport();
+        Set<Long> publishedMarkets = new HashSet<>();
+        markets.forEach(market -> publishedMarkets.add(market.getId()));
+        eventPublisher.publishEvent(CatalogChangedEvent.ingestion(
+                report.getId(), report.getDateReported(), Set.of(anomaly.getProductInfo().getId()), publishedMarkets));
+
+        return toResponse(anomaly);
+    }
+
+    /**
+     * Discards a quarantined price; nothing is written to daily_price_record.
+     */
+    @Transactional
+    public PriceAnomalyResponse reject(Long id) {
+        PriceAnomaly anomaly = findPending(id);
+        anomaly.setStatus(PriceAnomaly.Status.REJECTED);
+        anomaly.setReviewedAt(LocalDateTime.now());
+        return toResponse(anomaly);
+    }
+
+    private PriceAnomaly findPending(Long id) {
+        PriceAnomaly anomaly = priceAnomalyRepository.findWithLockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("PriceAnomaly", "id", id));
+        if (anomaly.getStatus() != PriceAnomaly.Status.PENDING) {
+            throw new IllegalArgumentException("Anomaly " + id + " was already " + anomaly.getStatus());
+        }
+        return anomaly;
+    }
+
+    private PriceAnomalyResponse toResponse(PriceAnomaly anomaly) {
+        return new PriceAnomalyResponse(
+                anomaly.getId(),
+                anomaly.getProductInfo().getId(),
+                anomaly.getProductInfo().getProductName(),
+                anomaly.getPriceReport().getDateReported(),
+                anomaly.getPrice(),
+                anomaly.getUnit(),
+                anomaly.getOrigin(),
+                anomaly.getExpectedPrice(),
+                anomaly.getExpectedDeviation(),
+                anomaly.getScore(),
+                anomaly.getReason(),
+                anomaly.getStatus(),
+                anomaly.getCreatedAt(),
+                anomaly.getReviewedAt()
+        );
+    }
+}
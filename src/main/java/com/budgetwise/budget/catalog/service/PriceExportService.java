@@ -0,0 +1,177 @@
+package com.budgetwise.budget.catalog.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk export of the raw price history (daily_price_record joined with product, market and report).
+ *
+ * Logic Flow:
+ * 1. Validate the filters before the response is committed (errors still become a 400).
+ * 2. On the async response thread, open a read-only transaction so PostgreSQL serves the query
+ *    through a server-side cursor, FETCH_SIZE rows per round trip.
+ * 3. Hand every row straight from the ResultSet to a {@link PriceExportWriter}; no entities,
+ *    no lists, so memory stays flat however many rows the export has.
+ */
+@Slf4j
+@Service
+public class PriceExportService {
+
+    static final int FETCH_SIZE = 5_000;
+
+    private static final String SELECT_SQL = """
+        SELECT r.date_reported, p.id AS product_id, p.product_name, p.category,
+               m.id AS market_id, m.market_location AS market_name, d.price, d.unit, d.origin
+        FROM daily_price_record d
+        JOIN price_report r ON r.id = d.price_report_id
+        JOIN product_info p ON p.id = d.product_info_id
+        LEFT JOIN market_location m ON m.id = d.market_location_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PriceExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public enum Format {
+        CSV(new MediaType("text", "csv"), "csv"),
+        COLUMNAR(MediaType.APPLICATION_OCTET_STREAM, "bwx.gz");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String fileName() {
+            return "price-history." + extension;
+        }
+    }
+
+    /**
+     * Filtered SELECT with its bind values, oldest report first.
+     */
+    record ExportQuery(String sql, List<Object> args) {
+    }
+
+    /**
+     * Prepares a streaming export. All filters are optional.
+     *
+     * @param marketId Only records of that market.
+     * @throws IllegalArgumentException if from is after to.
+     */
+    public StreamingResponseBody exportPrices(LocalDate from, LocalDate to,
+                                              String category, Long marketId, Format format) {
+        ExportQuery query = buildQuery(from, to, category, marketId);
+        return out -> export(query, format, out);
+    }
+
+    static ExportQuery buildQuery(LocalDate from, LocalDate to, String category, Long marketId) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            conditions.add("r.date_reported >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("r.date_reported <= ?");
+            args.add(Date.valueOf(to));
+        }
+        if (category != null && !category.isBlank()) {
+            conditions.add("p.category = ?");
+            args.add(category.trim());
+        }
+        if (marketId != null) {
+            conditions.add("d.market_location_id = ?");
+            args.add(marketId);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY r.date_reported, d.id");
+        return new ExportQuery(sql.toString(), List.copyOf(args));
+    }
+
+    private void export(ExportQuery query, Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        PriceExportWriter writer = PriceExportWriter.open(format, out);
+        long[] rows = {0};
+        long[] undated = {0};
+
+        try {
+            // PostgreSQL only honours the fetch size inside a transaction (autocommit off)
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(query.sql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < query.args().size(); i++) {
+                    statement.setObject(i + 1, query.args().get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                Date reported = rs.getDate("date_reported");
+                if (reported == null) {
+                    undated[0]++;
+                    return;
+                }
+                long market = rs.getLong("market_id");
+                Long marketId = rs.wasNull() ? null : market;
+                try {
+                    writer.write(
+                            reported.toLocalDate(),
+                            rs.getLong("product_id"),
+                            rs.getString("product_name"),
+                            rs.getString("category"),
+                            marketId,
+                            rs.getString("market_name"),
+                            rs.getDouble("price"),
+                            rs.getString("unit"),
+                            rs.getString("origin"));
+                } catch (IOException e) {
+                    // Client disconnected; abort the query instead of reading the rest of the cursor
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.finish();
+        if (undated[0] > 0) {
+            log.warn("Skipped {} price records whose report has no date", undated[0]);
+        }
+        log.info("Exported {} price records as {} in {} ms", rows[0], format, System.currentTimeMillis() - started);
+    }
+}
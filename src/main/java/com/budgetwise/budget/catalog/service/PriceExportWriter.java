@@ -0,0 +1,215 @@
+package com.budgetwise.budget.catalog.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Row sink of the price history export. Rows arrive one at a time straight from the JDBC cursor;
+ * a writer never holds more than one block of them.
+ */
+interface PriceExportWriter {
+
+    /**
+     * @param marketId Null for records that were not broadcast to a market.
+     */
+    void write(LocalDate date, long productId, String productName, String category,
+               Long marketId, String marketName, double price, String unit, String origin) throws IOException;
+
+    /**
+     * Writes what is still buffered and the format's trailer; does not close the response stream.
+     */
+    void finish() throws IOException;
+
+    static PriceExportWriter open(PriceExportService.Format format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case COLUMNAR -> new Columnar(out);
+        };
+    }
+
+    /**
+     * RFC 4180 CSV with a header line; fields are quoted only when they need it.
+     */
+    final class Csv implements PriceExportWriter {
+
+        static final String HEADER = "date_reported,product_id,product_name,category,market_id,market_name,price,unit,origin";
+
+        private final Writer out;
+
+        Csv(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.out.write(HEADER);
+            this.out.write('\n');
+        }
+
+        @Override
+        public void write(LocalDate date, long productId, String productName, String category,
+                          Long marketId, String marketName, double price, String unit, String origin) throws IOException {
+            out.write(date.toString());
+            out.write(',');
+            out.write(Long.toString(productId));
+            out.write(',');
+            field(productName);
+            out.write(',');
+            field(category);
+            out.write(',');
+            if (marketId != null) {
+                out.write(marketId.toString());
+            }
+            out.write(',');
+            field(marketName);
+            out.write(',');
+            out.write(Double.toString(price));
+            out.write(',');
+            field(unit);
+            out.write(',');
+            field(origin);
+            out.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Gzipped column blocks ("BWX1"), for loading into dataframes without parsing text.
+     *
+     * Layout (big-endian, DataOutputStream):
+     * - Header: int magic, int version.
+     * - Blocks of up to BLOCK_ROWS rows: int rowCount,
+     *   int newProducts x (long id, UTF name, UTF category), int newMarkets x (long id, UTF name),
+     *   then the columns: int[] epochDay, long[] productId, long[] marketId (0 = none),
+     *   double[] price, UTF[] unit, UTF[] origin.
+     * - Trailer: int 0.
+     * Product and market names are sent once, in the block where the id first appears.
+     */
+    final class Columnar implements PriceExportWriter {
+
+        static final int MAGIC = 0x42575831;
+        static final int VERSION = 1;
+        static final int BLOCK_ROWS = 8192;
+
+        private final DataOutputStream out;
+        private final GZIPOutputStream gzip;
+
+        // One block of columns, reused
+        private final int[] days = new int[BLOCK_ROWS];
+        private final long[] productIds = new long[BLOCK_ROWS];
+        private final long[] marketIds = new long[BLOCK_ROWS];
+        private final double[] prices = new double[BLOCK_ROWS];
+        private final String[] units = new String[BLOCK_ROWS];
+        private final String[] origins = new String[BLOCK_ROWS];
+        private int rows;
+
+        private final Set<Long> knownProducts = new HashSet<>();
+        private final Set<Long> knownMarkets = new HashSet<>();
+        private final ByteArrayOutputStream newProducts = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream newMarkets = new ByteArrayOutputStream();
+        private final DataOutputStream newProductsOut = new DataOutputStream(newProducts);
+        private final DataOutputStream newMarketsOut = new DataOutputStream(newMarkets);
+        private int newProductCount;
+        private int newMarketCount;
+
+        Columnar(OutputStream out) throws IOException {
+            this.gzip = new GZIPOutputStream(out, 64 * 1024);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(VERSION);
+        }
+
+        @Override
+        public void write(LocalDate date, long productId, String productName, String category,
+                          Long marketId, String marketName, double price, String unit, String origin) throws IOException {
+            if (knownProducts.add(productId)) {
+                newProductsOut.writeLong(productId);
+                newProductsOut.writeUTF(Objects.toString(productName, ""));
+                newProductsOut.writeUTF(Objects.toString(category, ""));
+                newProductCount++;
+            }
+            if (marketId != null && knownMarkets.add(marketId)) {
+                newMarketsOut.writeLong(marketId);
+                newMarketsOut.writeUTF(Objects.toString(marketName, ""));
+                newMarketCount++;
+            }
+
+            days[rows] = (int) date.toEpochDay();
+            productIds[rows] = productId;
+            marketIds[rows] = marketId == null ? 0 : marketId;
+            prices[rows] = price;
+            units[rows] = unit;
+            origins[rows] = origin;
+            if (++rows == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            out.writeInt(rows);
+            out.writeInt(newProductCount);
+            newProducts.writeTo(out);
+            out.writeInt(newMarketCount);
+            newMarkets.writeTo(out);
+
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(days[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeLong(productIds[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeLong(marketIds[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(prices[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeUTF(Objects.toString(units[i], ""));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeUTF(Objects.toString(origins[i], ""));
+            }
+
+            rows = 0;
+            newProducts.reset();
+            newMarkets.reset();
+            newProductCount = 0;
+            newMarketCount = 0;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flushBlock();
+            out.writeInt(0);
+            out.flush();
+            gzip.finish();
+        }
+    }
+}
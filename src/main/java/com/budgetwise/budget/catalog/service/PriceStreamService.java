@@ -0,0 +1,236 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.PriceDelta;
+import com.budgetwise.budget.catalog.dto.PriceUpdateEvent;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes a compact "report" event to Server-Sent Events subscribers once an ingestion has committed,
+ * so dashboards no longer poll the product and analytics endpoints to find out a report landed.
+ *
+ * Connections are async servlet requests: an idle subscriber holds no thread, only its emitter.
+ *
+ * Logic Flow (per committed report):
+ * - The listener returns immediately; the fan-out runs on a virtual thread.
+ * - Price deltas are read once, for the changed products at least one subscriber filters on.
+ * - Each subscriber gets its own send task, so a slow or dead client never delays the others.
+ *   Failed sends drop the subscriber.
+ *
+ * A heartbeat comment every HEARTBEAT interval keeps proxies from closing idle streams
+ * and detects clients that went away without closing.
+ *
+ * Clients that subscribe with a watcher key also receive "alert" events for their price watches,
+ * handed over by WatchAlertDispatcher.
+ */
+@Slf4j
+@Service
+public class PriceStreamService {
+
+    static final Duration TIMEOUT = Duration.ofMinutes(30);
+    static final Duration HEARTBEAT = Duration.ofSeconds(25);
+    public static final int MAX_PRODUCT_FILTER = 100;
+
+    private final LatestMarketPriceRepository latestMarketPriceRepository;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("price-stream-heartbeat").factory());
+
+    /**
+     * @param productIds Products whose price deltas the client wants; empty for the summary only.
+     * @param watcher    Owner key of the client's price watches; null when it wants no alerts.
+     */
+    record Subscriber(SseEmitter emitter, Set<Long> productIds, String watcher) {
+    }
+
+    public PriceStreamService(LatestMarketPriceRepository latestMarketPriceRepository) {
+        this.latestMarketPriceRepository = latestMarketPriceRepository;
+        long period = HEARTBEAT.toSeconds();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, period, period, TimeUnit.SECONDS);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Opens a stream for one client.
+     *
+     * @param productIds Optional product filter, at most MAX_PRODUCT_FILTER ids.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds) {
+        return subscribe(productIds, null);
+    }
+
+    /**
+     * Opens a stream for one client.
+     *
+     * @param productIds Optional product filter, at most MAX_PRODUCT_FILTER ids.
+     * @param watcher    Optional owner key; the stream then also carries that owner's watch alerts.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds, String watcher) {
+        Set<Long> filter = productIds == null ? Set.of() : Set.copyOf(productIds);
+        if (filter.size() > MAX_PRODUCT_FILTER) {
+            throw new IllegalArgumentException("At most " + MAX_PRODUCT_FILTER + " productIds can be subscribed");
+        }
+        SseEmitter emitter = new SseEmitter(TIMEOUT.toMillis());
+        register(emitter, filter, watcher == null || watcher.isBlank() ? null : watcher);
+        return emitter;
+    }
+
+    Subscriber register(SseEmitter emitter, Set<Long> productIds) {
+        return register(emitter, productIds, null);
+    }
+
+    Subscriber register(SseEmitter emitter, Set<Long> productIds, String watcher) {
+        Subscriber subscriber = new Subscriber(emitter, productIds, watcher);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Flushes the response headers so the client knows the stream is open
+        send(subscriber, SseEmitter.event().comment("connected"));
+        return subscriber;
+    }
+
+    /**
+     * Runs after the ingestion transaction commits; never blocks the ingestion thread.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isIngestion() || subscribers.isEmpty()) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                publish(event);
+            } catch (RuntimeException e) {
+                log.error("Price stream fan-out failed for report {}", event.reportId(), e);
+            }
+        });
+    }
+
+    void publish(CatalogChangedEvent event) {
+        Map<Long, PriceDelta> deltas = loadDeltas(event);
+        PriceUpdateEvent summary = new PriceUpdateEvent(event.reportId(), event.reportDate(),
+                event.productIds().size(), event.marketIds().size(), List.of());
+
+        for (Subscriber subscriber : subscribers) {
+            PriceUpdateEvent payload = subscriber.productIds().isEmpty() ? summary : withDeltas(summary, subscriber, deltas);
+            SseEmitter.SseEventBuilder message = SseEmitter.event()
+                    .name("report")
+                    .id(String.valueOf(event.reportId()))
+                    .data(payload, MediaType.APPLICATION_JSON);
+            senders.execute(() -> send(subscriber, message));
+        }
+    }
+
+    /**
+     * One query for every subscriber: only changed products somebody filters on.
+     */
+    private Map<Long, PriceDelta> loadDeltas(CatalogChangedEvent event) {
+        if (event.reportDate() == null) {
+            return Map.of();
+        }
+        Set<Long> wanted = subscribers.stream()
+                .flatMap(subscriber -> subscriber.productIds().stream())
+                .filter(event.productIds()::contains)
+                .collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        return latestMarketPriceRepository.findPriceDeltas(wanted, event.reportDate()).stream()
+                .collect(Collectors.toMap(PriceDelta::productId, Function.identity()));
+    }
+
+    private static PriceUpdateEvent withDeltas(PriceUpdateEvent summary, Subscriber subscriber, Map<Long, PriceDelta> deltas) {
+        List<PriceDelta> matching = new ArrayList<>();
+        for (Long productId : subscriber.productIds()) {
+            PriceDelta delta = deltas.get(productId);
+            if (delta != null) {
+                matching.add(delta);
+            }
+        }
+        matching.sort(Comparator.comparing(PriceDelta::productId));
+        return new PriceUpdateEvent(summary.reportId(), summary.reportDate(),
+                summary.changedProducts(), summary.changedMarkets(), matching);
+    }
+
+    /**
+     * True if the watcher has at least one open stream.
+     */
+    public boolean isWatching(String watcher) {
+        return subscribers.stream().anyMatch(subscriber -> watcher.equals(subscriber.watcher()));
+    }
+
+    /**
+     * Pushes one watch alert to every open stream of its owner, on the calling thread,
+     * so the caller knows whether it reached the client.
+     *
+     * @return Number of streams the alert was written to (0 when the owner is not connected or every write failed).
+     */
+    public int sendAlert(String watcher, Long alertId, Object payload) {
+        int sent = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (!watcher.equals(subscriber.watcher())) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder message = SseEmitter.event()
+                    .name("alert")
+                    .id("alert-" + alertId)
+                    .data(payload, MediaType.APPLICATION_JSON);
+            if (send(subscriber, message)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            senders.execute(() -> send(subscriber, SseEmitter.event().comment("keep-alive")));
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        try {
+            subscriber.emitter().send(message);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            subscribers.remove(subscriber);
+            log.debug("Dropped price stream subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+        senders.shutdown();
+    }
+}
@@ -6,9 +6,13 @@ import com.budgetwise.budget.catalog.entity.ProductInfo;
 import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
 import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository;
 import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.cache.CacheNames;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
 import com.budgetwise.budget.common.exception.ResourceNotFoundException;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +29,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductInfoService {
 
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final ProductInfoRepository productInfoRepository;
     private final ProductDietaryTagRepository productDietaryTagRepository;
     private final DailyPriceRecordRepository dailyPriceRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -38,7 +45,9 @@ public class ProductInfoService {
      * Retrieves a paginated list of products with aggregated details.
      * @param pageable Pagination information (page number, size, sorting).
      * @return A Page of {@link ProductTableResponse} containing product info, latest price, market counts, and tags.
+     * Cached per Pageable; evicted by CacheInvalidationService after ingestion or product edits.
      */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_TABLE, sync = true)
     @Transactional(readOnly = true)
     public Page<ProductTableResponse> displayProducts(Pageable pageable) {
 
@@ -56,6 +65,18 @@ public class ProductInfoService {
         List<ProductDietaryTagRepository.TagProjection> allTags = productDietaryTagRepository.findByProductIdIn(productIds);
         List<DailyPriceRecordRepository.MarketCountProjection> marketCounts = dailyPriceRecordRepository.countMarketsByProductIds(productIds);
 
+        assembleTable(productsPage.getContent(), allTags, marketCounts);
+
+        return productsPage;
+
+    }
+
+    /**
+     * In-memory merge of the batch-fetched tags and market counts into the page rows.
+     */
+    static void assembleTable(List<ProductTableResponse> rows,
+                              List<ProductDietaryTagRepository.TagProjection> allTags,
+                              List<DailyPriceRecordRepository.MarketCountProjection> marketCounts) {
         //  In-Memory Mapping: Group Tags by ProductID for fast lookup
         Map<Long, List<String>> allTagsMap = allTags.stream()
                 .collect(Collectors.groupingBy(
@@ -71,13 +92,10 @@ public class ProductInfoService {
 
 
         // Assembly: Iterate through the page and inject the missing data
-        productsPage.getContent().forEach(dto -> {
+        rows.forEach(dto -> {
             dto.setDietaryTags(allTagsMap.getOrDefault(dto.getId(), new ArrayList<>()));
             dto.setTotalMarkets(countsMap.getOrDefault(dto.getId(), 0));
         });
-
-        return productsPage;
-
     }
 
 
@@ -140,7 +158,7 @@ public class ProductInfoService {
      * * @param product The ProductInfo entity fetched with priceRecords.
      * @return The clean DTO for display.
      */
-    private ProductNewComersResponse mapToReviewDTO(ProductInfo product) {
+    ProductNewComersResponse mapToReviewDTO(ProductInfo product) {
         Double price = 0.0;
         int totalMarkets = 0;
         String origin = product.getLocalName();
@@ -213,6 +231,7 @@ public class ProductInfoService {
             product.setLocalName(request.getLocalName());
         }
         ProductInfo updatedProduct = productInfoRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.productsUpdated(Set.of(updatedProduct.getId())));
 
         return mapToManageDTO(updatedProduct);
 
@@ -255,6 +274,7 @@ public class ProductInfoService {
 
 
         ProductInfo updatedProduct = productInfoRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.productsUpdated(Set.of(updatedProduct.getId())));
 
         return new UpdateProductStatus(
                 updatedProduct.getId(),
@@ -265,6 +285,94 @@ public class ProductInfoService {
     }
 
 
+    /**
+     * Updates the status of many products in one transaction.
+     *
+     * Logic:
+     * 1. Resolves which of the requested IDs exist (one SELECT ... IN).
+     * 2. Applies a single set-based UPDATE ... WHERE id IN (...) to the existing ones.
+     * 3. Publishes ONE CatalogChangedEvent, so caches and versions are invalidated once per batch.
+     *
+     * @param request The product IDs and the target status.
+     * @return Per-ID outcome (UPDATED or NOT_FOUND).
+     * @throws IllegalArgumentException if the ID list is empty/too large or the status is missing or invalid.
+     */
+    @Transactional
+    public BulkUpdateResponse bulkUpdateProductStatus(BulkProductStatusRequest request) {
+        Set<Long> ids = validateBulkIds(request.ids());
+        if (request.newStatus() == null) {
+            throw new IllegalArgumentException("A target status is required.");
+        }
+        ProductInfo.Status status = ProductInfo.Status.valueOf(request.newStatus());
+
+        Set<Long> existingIds = new HashSet<>(productInfoRepository.findExistingIds(ids));
+        if (!existingIds.isEmpty()) {
+            productInfoRepository.updateStatusByIds(existingIds, status, LocalDateTime.now());
+        }
+
+        return completeBulkUpdate(ids, existingIds, existingIds);
+    }
+
+    /**
+     * Bulk version of {@link #ManageNewComersProduct}: patches category/local name
+     * and optionally approves (activates) many newcomers in one transaction.
+     * Only PENDING products are newcomers; products already reviewed are left untouched.
+     * Product names are unique, so they cannot be bulk-patched.
+     *
+     * @param request The product IDs and the fields to apply.
+     * @return Per-ID outcome (UPDATED, NOT_PENDING or NOT_FOUND).
+     * @throws IllegalArgumentException if the ID list is empty or too large.
+     */
+    @Transactional
+    public BulkUpdateResponse bulkManageNewComers(BulkNewComersRequest request) {
+        Set<Long> ids = validateBulkIds(request.ids());
+
+        Set<Long> existingIds = new HashSet<>(productInfoRepository.findExistingIds(ids));
+        Set<Long> pendingIds = existingIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productInfoRepository.findIdsByStatus(existingIds, ProductInfo.Status.PENDING));
+        if (!pendingIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+
+            if (request.category() != null || request.localName() != null) {
+                productInfoRepository.patchNewComersByIds(pendingIds, request.category(), request.localName(), now);
+            }
+            if (request.approve()) {
+                productInfoRepository.updateStatusByIds(pendingIds, ProductInfo.Status.ACTIVE, now);
+            }
+        }
+
+        return completeBulkUpdate(ids, existingIds, pendingIds);
+    }
+
+    private Set<Long> validateBulkIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one product ID is required.");
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk update accepts at most " + MAX_BULK_SIZE + " product IDs.");
+        }
+        // Keep request order for the response, drop duplicates and nulls
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        return unique;
+    }
+
+    private BulkUpdateResponse completeBulkUpdate(Set<Long> requestedIds, Set<Long> existingIds, Set<Long> updatedIds) {
+        if (!updatedIds.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.productsUpdated(updatedIds));
+        }
+
+        List<BulkUpdateResult> results = requestedIds.stream()
+                .map(id -> new BulkUpdateResult(id, updatedIds.contains(id) ? BulkUpdateResult.Outcome.UPDATED
+                        : existingIds.contains(id) ? BulkUpdateResult.Outcome.NOT_PENDING
+                        : BulkUpdateResult.Outcome.NOT_FOUND))
+                .toList();
+
+        return new BulkUpdateResponse(requestedIds.size(), updatedIds.size(), results);
+    }
+
+
     /**
      * Retrieves comprehensive product details along with all markets where the product is available.
      *
@@ -280,6 +388,7 @@ public class ProductInfoService {
      * // Returns product "Rice" with markets: "Market A", "Market B", etc.
      * getProductMarketDetails(123L);
      */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_MARKET_DETAILS, sync = true)
     @Transactional(readOnly = true)
     public ProductMarketDetailResponse getProductMarketDetails(Long productId) {
         ProductInfo product = productInfoRepository.findById(productId)
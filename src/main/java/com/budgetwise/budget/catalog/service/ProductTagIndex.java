@@ -0,0 +1,133 @@
+package com.budgetwise.budget.catalog.service;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory copy of the active products' dietary tag bitmasks.
+ *
+ * Bit i of a mask stands for the tag with DietaryTag.tagBit = i, so a tag filter is three AND operations
+ * per product and the facet counts of a result set are collected in the same pass.
+ * Products are kept in name order, the default order of the product table.
+ */
+final class ProductTagIndex {
+
+    static final int MAX_TAGS = Long.SIZE;
+
+    static final ProductTagIndex EMPTY = new ProductTagIndex(new String[MAX_TAGS], Map.of(), new long[0], new long[0]);
+
+    private final String[] tagNames; // by bit, null where unassigned
+    private final Map<String, Integer> bitsByKey;
+    private final long[] productIds;
+    private final long[] masks;
+
+    private ProductTagIndex(String[] tagNames, Map<String, Integer> bitsByKey, long[] productIds, long[] masks) {
+        this.tagNames = tagNames;
+        this.bitsByKey = bitsByKey;
+        this.productIds = productIds;
+        this.masks = masks;
+    }
+
+    /**
+     * Products that must carry every tag of all, at least one tag of any (when not 0) and none of none.
+     */
+    record TagFilter(long all, long any, long none) {
+
+        boolean matches(long mask) {
+            return (mask & all) == all && (any == 0 || (mask & any) != 0) && (mask & none) == 0;
+        }
+    }
+
+    /**
+     * @param masks  Tag bitmask of every matching product, in index order.
+     * @param facets Matching products carrying each tag, indexed by bit.
+     */
+    record Result(LinkedHashMap<Long, Long> masks, long[] facets) {}
+
+    /**
+     * @param tagNames   Tag name per bit (null where no tag holds the bit).
+     * @param productIds Products in display order.
+     * @param masks      Tag bitmask per product, parallel to productIds.
+     */
+    static ProductTagIndex build(String[] tagNames, long[] productIds, long[] masks) {
+        if (tagNames.length != MAX_TAGS || productIds.length != masks.length) {
+            throw new IllegalArgumentException("Tag names must cover " + MAX_TAGS + " bits, one mask per product");
+        }
+        Map<String, Integer> bits = new HashMap<>();
+        for (int bit = 0; bit < MAX_TAGS; bit++) {
+            if (tagNames[bit] != null) {
+                bits.put(key(tagNames[bit]), bit);
+            }
+        }
+        return new ProductTagIndex(tagNames.clone(), bits, productIds, masks);
+    }
+
+    int productCount() {
+        return productIds.length;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a tag is unknown.
+     */
+    TagFilter filter(Collection<String> all, Collection<String> any, Collection<String> none) {
+        return new TagFilter(mask(all), mask(any), mask(none));
+    }
+
+    /**
+     * Single pass over every product: collects the matching ids and counts their tags.
+     */
+    Result query(TagFilter filter) {
+        LinkedHashMap<Long, Long> matches = new LinkedHashMap<>();
+        long[] facets = new long[MAX_TAGS];
+        for (int i = 0; i < productIds.length; i++) {
+            long mask = masks[i];
+            if (!filter.matches(mask)) {
+                continue;
+            }
+            matches.put(productIds[i], mask);
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                facets[Long.numberOfTrailingZeros(bits)]++;
+            }
+        }
+        return new Result(matches, facets);
+    }
+
+    /**
+     * Tag names of a mask, in bit order.
+     */
+    List<String> tagNames(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            String name = tagNames[Long.numberOfTrailingZeros(bits)];
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    String tagName(int bit) {
+        return tagNames[bit];
+    }
+
+    private long mask(Collection<String> tags) {
+        long mask = 0;
+        if (tags == null) {
+            return mask;
+        }
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            Integer bit = bitsByKey.get(key(tag));
+            if (bit == null) {
+                throw new IllegalArgumentException("Unknown dietary tag: " + tag);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private static String key(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+}
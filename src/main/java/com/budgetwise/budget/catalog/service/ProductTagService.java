@@ -0,0 +1,201 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.ProductFacetResponse;
+import com.budgetwise.budget.catalog.dto.ProductTableResponse;
+import com.budgetwise.budget.catalog.dto.TagFacet;
+import com.budgetwise.budget.catalog.entity.DietaryTag;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.DietaryTagRepository;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dietary tag filtering and facet counts for the product table, on per-product tag bitmasks.
+ *
+ * Storage:
+ * - Every dietary tag owns one bit (DietaryTag.tagBit, at most 64 tags).
+ * - product_info.dietary_tag_mask holds the product's tags, recomputed from product_dietary_tag
+ *   at startup (all products) and after catalog changes (the changed products).
+ * - The active products' masks are mirrored in an immutable {@link ProductTagIndex} swapped in after each sync.
+ *
+ * Listing: the filter and the facet counts run in one pass over the in-memory masks, which are in
+ * product name order; the page is sliced in memory and only its products are read from PostgreSQL.
+ */
+@Slf4j
+@Service
+public class ProductTagService {
+
+    private final ProductInfoRepository productInfoRepository;
+    private final DietaryTagRepository dietaryTagRepository;
+    private final DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    private volatile ProductTagIndex index = ProductTagIndex.EMPTY;
+
+    public ProductTagService(ProductInfoRepository productInfoRepository,
+                             DietaryTagRepository dietaryTagRepository,
+                             DailyPriceRecordRepository dailyPriceRecordRepository) {
+        this.productInfoRepository = productInfoRepository;
+        this.dietaryTagRepository = dietaryTagRepository;
+        this.dailyPriceRecordRepository = dailyPriceRecordRepository;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh(Set.of());
+    }
+
+    @Async
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresh(event.productIds());
+    }
+
+    /**
+     * Assigns bits to new tags, recomputes the masks and reloads the index.
+     *
+     * @param productIds Products whose masks may be stale; empty for all.
+     */
+    synchronized void refresh(Set<Long> productIds) {
+        long start = System.nanoTime();
+        String[] tagNames = new String[ProductTagIndex.MAX_TAGS];
+        boolean newBits = assignTagBits(tagNames);
+
+        int synced = newBits || productIds.isEmpty()
+                ? productInfoRepository.syncDietaryTagMasks()
+                : productInfoRepository.syncDietaryTagMasks(productIds);
+
+        List<ProductInfoRepository.TagMaskProjection> rows = productInfoRepository.findTagMasksByStatus(ProductInfo.Status.ACTIVE);
+        long[] ids = new long[rows.size()];
+        long[] masks = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = rows.get(i).getId();
+            masks[i] = rows.get(i).getDietaryTagMask();
+        }
+        index = ProductTagIndex.build(tagNames, ids, masks);
+
+        log.info("Product tag index loaded: {} active products, {} masks synced in {} ms",
+                ids.length, synced, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Gives every tag without a bit the lowest free one and fills tagNames by bit.
+     *
+     * @return true if a bit was assigned (every mask must then be recomputed).
+     */
+    private boolean assignTagBits(String[] tagNames) {
+        List<DietaryTag> tags = dietaryTagRepository.findAllByOrderByIdAsc();
+        List<DietaryTag> unassigned = new ArrayList<>();
+        for (DietaryTag tag : tags) {
+            Integer bit = tag.getTagBit();
+            if (bit != null && bit >= 0 && bit < ProductTagIndex.MAX_TAGS) {
+                tagNames[bit] = tag.getTagName();
+            } else {
+                unassigned.add(tag);
+            }
+        }
+
+        int bit = 0;
+        boolean assigned = false;
+        for (DietaryTag tag : unassigned) {
+            while (bit < ProductTagIndex.MAX_TAGS && tagNames[bit] != null) {
+                bit++;
+            }
+            if (bit == ProductTagIndex.MAX_TAGS) {
+                log.warn("No free tag bit for dietary tag '{}'; it cannot be filtered on", tag.getTagName());
+                continue;
+            }
+            tag.setTagBit(bit);
+            tagNames[bit] = tag.getTagName();
+            dietaryTagRepository.save(tag);
+            assigned = true;
+        }
+        return assigned;
+    }
+
+    /**
+     * Active products filtered by dietary tags, with per-tag counts over the whole result.
+     *
+     * @param all  Tags a product must all carry (AND).
+     * @param any  Tags of which a product must carry at least one (OR); ignored when empty.
+     * @param none Tags a product must not carry (NOT).
+     * @throws IllegalArgumentException if a tag does not exist, or the page is sorted by anything
+     *                                  but productName ascending (the order of the index).
+     */
+    @Transactional(readOnly = true)
+    public ProductFacetResponse filterProducts(Collection<String> all, Collection<String> any,
+                                               Collection<String> none, Pageable pageable) {
+        if (!isIndexOrder(pageable.getSort())) {
+            throw new IllegalArgumentException("Filtered products can only be sorted by productName ascending");
+        }
+        ProductTagIndex current = index;
+        ProductTagIndex.Result result = current.query(current.filter(all, any, none));
+
+        List<TagFacet> facets = new ArrayList<>();
+        for (int bit = 0; bit < ProductTagIndex.MAX_TAGS; bit++) {
+            if (current.tagName(bit) != null) {
+                facets.add(new TagFacet(current.tagName(bit), result.facets()[bit]));
+            }
+        }
+        facets.sort(Comparator.comparingLong(TagFacet::count).reversed().thenComparing(TagFacet::tag));
+
+        if (result.masks().isEmpty()) {
+            return new ProductFacetResponse(Page.empty(pageable), facets);
+        }
+
+        int total = result.masks().size();
+        List<Long> matches = new ArrayList<>(result.masks().keySet());
+        int from = (int) Math.min(pageable.getOffset(), total);
+        List<Long> pageIds = matches.subList(from, Math.min(from + pageable.getPageSize(), total));
+        if (pageIds.isEmpty()) {
+            return new ProductFacetResponse(new PageImpl<>(List.of(), pageable, total), facets);
+        }
+
+        // Rows come back in any order; keep the index order
+        Map<Long, ProductTableResponse> rowsById = productInfoRepository.displayProductTableByIds(pageIds).stream()
+                .collect(Collectors.toMap(ProductTableResponse::getId, Function.identity(), (a, b) -> a));
+        Map<Long, Integer> countsMap = dailyPriceRecordRepository.countMarketsByProductIds(pageIds).stream()
+                .collect(Collectors.toMap(
+                        DailyPriceRecordRepository.MarketCountProjection::getProductId,
+                        p -> p.getTotalMarkets() != null ? p.getTotalMarkets().intValue() : 0));
+
+        List<ProductTableResponse> rows = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            ProductTableResponse dto = rowsById.get(id);
+            if (dto == null) {
+                continue; // Deactivated or deleted since the index was loaded
+            }
+            // Tags come from the in-memory masks: no tag query per page
+            dto.setDietaryTags(current.tagNames(result.masks().get(id)));
+            dto.setTotalMarkets(countsMap.getOrDefault(id, 0));
+            rows.add(dto);
+        }
+        return new ProductFacetResponse(new PageImpl<>(rows, pageable, total), facets);
+    }
+
+    private static boolean isIndexOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && orders.get(0).getProperty().equals("productName") && orders.get(0).isAscending();
+    }
+}
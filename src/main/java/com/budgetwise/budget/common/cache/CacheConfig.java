@@ -0,0 +1,45 @@
+package com.budgetwise.budget.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Response cache configuration.
+ *
+ * Uses Caffeine (W-TinyLFU eviction) with a bounded size per cache and statistics enabled,
+ * so hit ratios can be read from /api/v1/cache/stats.
+ * Entries are invalidated by CatalogChangedEvent; the TTL is only a safety net.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    private static final Duration SAFETY_TTL = Duration.ofHours(24);
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_TABLE, boundedCache(200));
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_MARKET_DETAILS, boundedCache(2_000));
+        cacheManager.registerCustomCache(CacheNames.MARKET_PRODUCTS, boundedCache(500));
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_ANALYTICS, boundedCache(5_000));
+
+        return cacheManager;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> boundedCache(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(SAFETY_TTL)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.budgetwise.budget.common.cache;
+
+import com.budgetwise.budget.analytics.service.AnalyticsCacheKey;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Evicts exactly the cached responses affected by a catalog change.
+ *
+ * Invalidation Matrix:
+ * - INGESTION:     product table (latest prices), details of touched products,
+ *                  products of touched markets, analytics of touched products.
+ * - PRODUCT_ADMIN: product table, details of touched products,
+ *                  all market product lists (they embed product names), analytics of touched products.
+ * - MARKET_ADMIN:  product table (rows embed market counts), all product details (they embed market data),
+ *                  products of touched markets, analytics scoped to touched markets.
+ * - HISTORY_REBUILD: all analytics (every rollup row was recreated).
+ *
+ * Runs right after the series store append and before every other after-commit listener,
+ * so the data version is never bumped while a stale entry is still cached. The hottest evicted keys are handed to
+ * {@link CacheWarmer} for refresh-ahead.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationService {
+
+    private static final int WARM_LIMIT = 20;
+
+    private final CacheManager cacheManager;
+    private final ProductInfoRepository productInfoRepository;
+    private final CacheWarmer cacheWarmer;
+
+    public CacheInvalidationService(CacheManager cacheManager, ProductInfoRepository productInfoRepository, CacheWarmer cacheWarmer) {
+        this.cacheManager = cacheManager;
+        this.productInfoRepository = productInfoRepository;
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Set<Long> productIds = event.productIds();
+        Set<Long> marketIds = event.marketIds();
+        Set<String> productNames = productNames(productIds);
+
+        Map<String, List<Object>> evicted = new HashMap<>();
+
+        switch (event.source()) {
+            case INGESTION -> {
+                evicted.put(CacheNames.PRODUCT_TABLE, evictAll(CacheNames.PRODUCT_TABLE));
+                evicted.put(CacheNames.PRODUCT_MARKET_DETAILS, evictKeys(CacheNames.PRODUCT_MARKET_DETAILS, productIds));
+                evicted.put(CacheNames.MARKET_PRODUCTS, evictKeys(CacheNames.MARKET_PRODUCTS, marketIds));
+                evicted.put(CacheNames.PRODUCT_ANALYTICS, evictMatching(CacheNames.PRODUCT_ANALYTICS,
+                        key -> key instanceof AnalyticsCacheKey k && productNames.contains(k.productName())));
+            }
+            case PRODUCT_ADMIN -> {
+                evicted.put(CacheNames.PRODUCT_TABLE, evictAll(CacheNames.PRODUCT_TABLE));
+                evicted.put(CacheNames.PRODUCT_MARKET_DETAILS, evictKeys(CacheNames.PRODUCT_MARKET_DETAILS, productIds));
+                evicted.put(CacheNames.MARKET_PRODUCTS, evictAll(CacheNames.MARKET_PRODUCTS));
+                evicted.put(CacheNames.PRODUCT_ANALYTICS, evictMatching(CacheNames.PRODUCT_ANALYTICS,
+                        key -> key instanceof AnalyticsCacheKey k && productNames.contains(k.productName())));
+            }
+            case MARKET_ADMIN -> {
+                evicted.put(CacheNames.PRODUCT_TABLE, evictAll(CacheNames.PRODUCT_TABLE));
+                evicted.put(CacheNames.PRODUCT_MARKET_DETAILS, evictAll(CacheNames.PRODUCT_MARKET_DETAILS));
+                evicted.put(CacheNames.MARKET_PRODUCTS, evictKeys(CacheNames.MARKET_PRODUCTS, marketIds));
+                evicted.put(CacheNames.PRODUCT_ANALYTICS, evictMatching(CacheNames.PRODUCT_ANALYTICS,
+                        key -> key instanceof AnalyticsCacheKey k && marketIds.contains(k.marketId())));
+            }
+            case HISTORY_REBUILD -> evicted.put(CacheNames.PRODUCT_ANALYTICS, evictAll(CacheNames.PRODUCT_ANALYTICS));
+        }
+
+        log.info("Cache invalidation after {}: {}", event.source(),
+                evicted.entrySet().stream()
+                        .map(e -> e.getKey() + "=" + e.getValue().size())
+                        .collect(Collectors.joining(", ")));
+
+        cacheWarmer.warm(evicted);
+    }
+
+    private Set<String> productNames(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        return productInfoRepository.findAllById(productIds).stream()
+                .map(ProductInfo::getProductName)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Clears a cache, returning its hottest keys (by W-TinyLFU frequency) for warming.
+     */
+    private List<Object> evictAll(String cacheName) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = nativeCache(cacheName);
+        if (nativeCache == null) {
+            return List.of();
+        }
+        List<Object> hottest = nativeCache.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(WARM_LIMIT).keySet()))
+                .orElse(List.of());
+
+        nativeCache.invalidateAll();
+        return hottest;
+    }
+
+    private List<Object> evictKeys(String cacheName, Set<Long> keys) {
+        return evictMatching(cacheName, keys::contains);
+    }
+
+    private List<Object> evictMatching(String cacheName, Predicate<Object> predicate) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = nativeCache(cacheName);
+        if (nativeCache == null) {
+            return List.of();
+        }
+        List<Object> matching = nativeCache.asMap().keySet().stream()
+                .filter(predicate)
+                .toList();
+
+        nativeCache.invalidateAll(matching);
+        return matching.size() > WARM_LIMIT ? matching.subList(0, WARM_LIMIT) : matching;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache instanceof CaffeineCache caffeineCache ? caffeineCache.getNativeCache() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.budgetwise.budget.common.cache;
+
+/**
+ * Names of the response caches, shared by @Cacheable declarations and the invalidation logic.
+ */
+public final class CacheNames {
+
+    public static final String PRODUCT_TABLE = "productTable";
+    public static final String PRODUCT_MARKET_DETAILS = "productMarketDetails";
+    public static final String MARKET_PRODUCTS = "marketProducts";
+    public static final String PRODUCT_ANALYTICS = "productAnalytics";
+
+    private CacheNames() {
+    }
+}
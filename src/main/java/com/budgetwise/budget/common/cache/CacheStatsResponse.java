@@ -0,0 +1,11 @@
+package com.budgetwise.budget.common.cache;
+
+public record CacheStatsResponse(
+        String cacheName,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRatio,
+        long evictionCount
+) {
+}
@@ -0,0 +1,66 @@
+package com.budgetwise.budget.common.cache;
+
+import com.budgetwise.budget.analytics.service.AnalyticsCacheKey;
+import com.budgetwise.budget.analytics.service.AnalyticsService;
+import com.budgetwise.budget.catalog.service.ProductInfoService;
+import com.budgetwise.budget.market.service.MarketLocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refresh-ahead for the response caches.
+ *
+ * After an invalidation, the hottest evicted keys are recomputed off the request thread
+ * by calling the cached service methods through their proxies, so the first user request
+ * after an ingestion finds a warm entry instead of hitting the database.
+ * Requests arriving mid-warm-up wait on the same entry (@Cacheable sync = true) instead of stampeding.
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+
+    private final ProductInfoService productInfoService;
+    private final MarketLocationService marketLocationService;
+    private final AnalyticsService analyticsService;
+
+    public CacheWarmer(ProductInfoService productInfoService, MarketLocationService marketLocationService, AnalyticsService analyticsService) {
+        this.productInfoService = productInfoService;
+        this.marketLocationService = marketLocationService;
+        this.analyticsService = analyticsService;
+    }
+
+    @Async
+    public void warm(Map<String, List<Object>> evictedKeys) {
+        evictedKeys.forEach((cacheName, keys) -> keys.forEach(key -> warmKey(cacheName, key)));
+    }
+
+    private void warmKey(String cacheName, Object key) {
+        try {
+            switch (cacheName) {
+                case CacheNames.PRODUCT_TABLE -> {
+                    if (key instanceof Pageable pageable) {
+                        productInfoService.displayProducts(pageable);
+                    }
+                }
+                case CacheNames.PRODUCT_MARKET_DETAILS -> productInfoService.getProductMarketDetails((Long) key);
+                case CacheNames.MARKET_PRODUCTS -> marketLocationService.displayMarketsProducts((Long) key);
+                case CacheNames.PRODUCT_ANALYTICS -> {
+                    // Entries for a past window end are dead keys; don't resurrect them
+                    if (key instanceof AnalyticsCacheKey k && LocalDate.now().equals(k.windowEnd())) {
+                        analyticsService.getProductAnalytics(k.productName(), k.marketId(), k.days(), k.maxPoints());
+                    }
+                }
+                default -> { }
+            }
+        } catch (RuntimeException ex) {
+            // e.g. the product was deleted; the next real request will report it properly
+            log.debug("Skipped warming {} key {}: {}", cacheName, key, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.budgetwise.budget.common.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Application event fired whenever catalog data changes.
+ *
+ * Published by:
+ * - CatalogIngestionService after a PriceReport has been ingested.
+ * - Admin write operations on products and markets.
+ * - PriceRollupService after the rollup tables were rebuilt from history (catalog-wide, no ids).
+ *
+ * Listeners that rebuild in-memory structures should use
+ * {@code @TransactionalEventListener} so they only run after the data is committed.
+ *
+ * @param source     What triggered the change.
+ * @param reportId   ID of the ingested PriceReport (null for admin edits).
+ * @param reportDate Date of the ingested PriceReport (null for admin edits).
+ * @param productIds Products touched by the change (empty if none).
+ * @param marketIds  Markets touched by the change (empty if none).
+ */
+public record CatalogChangedEvent(
+        Source source,
+        Long reportId,
+        LocalDate reportDate,
+        Set<Long> productIds,
+        Set<Long> marketIds
+) {
+
+    public enum Source { INGESTION, PRODUCT_ADMIN, MARKET_ADMIN, HISTORY_REBUILD }
+
+    public static CatalogChangedEvent ingestion(Long reportId, LocalDate reportDate, Set<Long> productIds, Set<Long> marketIds) {
+        return new CatalogChangedEvent(Source.INGESTION, reportId, reportDate, Set.copyOf(productIds), Set.copyOf(marketIds));
+    }
+
+    public static CatalogChangedEvent productsUpdated(Set<Long> productIds) {
+        return new CatalogChangedEvent(Source.PRODUCT_ADMIN, null, null, Set.copyOf(productIds), Set.of());
+    }
+
+    public static CatalogChangedEvent marketsUpdated(Set<Long> marketIds) {
+        return new CatalogChangedEvent(Source.MARKET_ADMIN, null, null, Set.of(), Set.copyOf(marketIds));
+    }
+
+    public static CatalogChangedEvent historyRebuilt() {
+        return new CatalogChangedEvent(Source.HISTORY_REBUILD, null, null, Set.of(), Set.of());
+    }
+
+    public boolean isHistoryRebuild() {
+        return source == Source.HISTORY_REBUILD;
+    }
+
+    public boolean isIngestion() {
+        return source == Source.INGESTION;
+    }
+}
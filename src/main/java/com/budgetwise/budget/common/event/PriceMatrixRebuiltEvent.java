@@ -0,0 +1,10 @@
+package com.budgetwise.budget.common.event;
+
+/**
+ * Application event fired by PriceMatrixService after a new price matrix snapshot was swapped in.
+ *
+ * Snapshots derived from the matrix (the planners' shopping index) rebuild on this event
+ * instead of on {@link CatalogChangedEvent}, so they never read a matrix older than the change.
+ */
+public record PriceMatrixRebuiltEvent() {
+}
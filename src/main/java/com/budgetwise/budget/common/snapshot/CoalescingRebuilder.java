@@ -0,0 +1,101 @@
+package com.budgetwise.budget.common.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuild loop shared by the services that serve an immutable in-memory snapshot.
+ *
+ * - {@link #rebuild()} marks the snapshot dirty; the caller that takes the rebuilding flag loops
+ *   until nothing is pending, so a burst of change events is coalesced into at most one extra pass.
+ * - A failed pass is logged and the previous snapshot keeps being served.
+ * - {@link #generation()} counts the successful passes. {@link #ensureBuilt()} lets a read that arrives
+ *   before the first snapshot wait for the pass in flight, or run it on the caller's thread when none is.
+ *   After a failed pass, reads only retry once {@link #RETRY_BACKOFF} has passed.
+ */
+@Slf4j
+public final class CoalescingRebuilder {
+
+    public static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final String name;
+    private final Runnable pass;
+    private final long retryBackoffNanos;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean(false);
+    private final AtomicLong generation = new AtomicLong();
+    private final Object passFinished = new Object();
+    private volatile long retryAt = System.nanoTime();
+
+    /**
+     * @param name Snapshot name used in the failure log (e.g. "Price matrix").
+     * @param pass Builds a fresh snapshot and swaps it in; throws to keep the previous one.
+     */
+    public CoalescingRebuilder(String name, Runnable pass) {
+        this(name, pass, RETRY_BACKOFF);
+    }
+
+    CoalescingRebuilder(String name, Runnable pass, Duration retryBackoff) {
+        this.name = name;
+        this.pass = pass;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+    }
+
+    /**
+     * Runs the pass, or leaves it to the rebuild already in progress.
+     */
+    public void rebuild() {
+        rebuildRequested.set(true);
+
+        while (rebuildRequested.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildRequested.set(false);
+                pass.run();
+                generation.incrementAndGet();
+            } catch (RuntimeException ex) {
+                // Keep serving the previous snapshot
+                retryAt = System.nanoTime() + retryBackoffNanos;
+                log.error("{} rebuild failed: {}", name, ex.getMessage(), ex);
+            } finally {
+                rebuilding.set(false);
+                synchronized (passFinished) {
+                    passFinished.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns once the first snapshot is built, or once the first attempt failed.
+     * Waits for a pass already in flight instead of returning the empty snapshot.
+     */
+    public void ensureBuilt() {
+        if (generation.get() > 0) {
+            return;
+        }
+        if (!rebuilding.get() && System.nanoTime() - retryAt >= 0) {
+            rebuild();
+        }
+        synchronized (passFinished) {
+            while (generation.get() == 0 && rebuilding.get()) {
+                try {
+                    passFinished.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of snapshots built since startup.
+     */
+    public long generation() {
+        return generation.get();
+    }
+}
@@ -0,0 +1,103 @@
+package com.budgetwise.budget.common.version;
+
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks data versions used to build ETag and Last-Modified headers.
+ *
+ * Version Scheme:
+ * - A version is a monotonic millisecond timestamp of the last change, so it doubles as Last-Modified.
+ * - Global version: bumped by every ingestion and admin write.
+ * - Product / market versions: bumped only when that product or market is touched.
+ * - Product pages embed market data (and vice versa), so an admin edit on one side
+ *   also invalidates every page on the other side.
+ *
+ * Versions start at boot time, so a restart invalidates all previously issued ETags.
+ */
+@Service
+public class DataVersionService {
+
+    private final long bootVersion;
+    private final AtomicLong clock;
+    private final AtomicLong globalVersion;
+    private final AtomicLong productAdminVersion;
+    private final AtomicLong marketAdminVersion;
+
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> marketVersions = new ConcurrentHashMap<>();
+
+    public DataVersionService() {
+        this.bootVersion = System.currentTimeMillis();
+        this.clock = new AtomicLong(bootVersion);
+        this.globalVersion = new AtomicLong(bootVersion);
+        this.productAdminVersion = new AtomicLong(bootVersion);
+        this.marketAdminVersion = new AtomicLong(bootVersion);
+    }
+
+    /**
+     * Bumps versions once the change is committed, so a client can never
+     * cache a representation built from uncommitted data under a new ETag.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        long version = nextVersion();
+
+        event.productIds().forEach(id -> productVersions.put(id, version));
+        event.marketIds().forEach(id -> marketVersions.put(id, version));
+
+        switch (event.source()) {
+            case PRODUCT_ADMIN -> productAdminVersion.set(version);
+            case MARKET_ADMIN -> marketAdminVersion.set(version);
+            case INGESTION, HISTORY_REBUILD -> { }
+        }
+        globalVersion.set(version);
+    }
+
+    public long globalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * Version of a product detail page: the product itself, or any market edit.
+     */
+    public long productVersion(Long productId) {
+        return Math.max(productVersions.getOrDefault(productId, bootVersion), marketAdminVersion.get());
+    }
+
+    /**
+     * Version of a market detail page: the market itself, or any product edit.
+     */
+    public long marketVersion(Long marketId) {
+        return Math.max(marketVersions.getOrDefault(marketId, bootVersion), productAdminVersion.get());
+    }
+
+    /**
+     * Builds a strong ETag value such as {@code "products-display-18c2a1f3b40-1f"}.
+     *
+     * @param resource   Logical name of the endpoint.
+     * @param version    Version the representation was built from.
+     * @param qualifiers Extra inputs the response depends on besides the URL (e.g. today's date).
+     */
+    public String etag(String resource, long version, Object... qualifiers) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(resource)
+                .append('-')
+                .append(Long.toHexString(version));
+
+        if (qualifiers.length > 0) {
+            tag.append('-').append(Integer.toHexString(Arrays.hashCode(qualifiers)));
+        }
+        return tag.append('"').toString();
+    }
+
+    private long nextVersion() {
+        return clock.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.budgetwise.budget.market.controller;
 
+import com.budgetwise.budget.common.version.DataVersionService;
 import com.budgetwise.budget.market.dto.*;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.market.service.MarketLocationService;
+import com.budgetwise.budget.market.service.PriceMatrixService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -10,8 +12,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,10 +25,16 @@ import java.util.List;
 public class MarketLocationController {
 
     private final MarketLocationService marketLocationService;
+    private final DataVersionService dataVersionService;
+    private final PriceMatrixService priceMatrixService;
 
 
     @GetMapping("/stats")
-    public ResponseEntity<MarketStatsResponse> getMarketStats() {
+    public ResponseEntity<MarketStatsResponse> getMarketStats(WebRequest webRequest) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("markets-stats", version), version)) {
+            return null;
+        }
         MarketStatsResponse response = marketLocationService.getMarketStats();
         return ResponseEntity.ok(response);
     }
@@ -32,21 +42,77 @@ public class MarketLocationController {
 
     @GetMapping("/displayMarkets")
     public ResponseEntity<Page<MarketTableResponse>>displayMarkets(
-            @PageableDefault(size = 10, sort = "marketLocation", direction = Sort.Direction.ASC) Pageable pageable
+            @PageableDefault(size = 10, sort = "marketLocation", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest webRequest
     ){
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("markets-display", version), version)) {
+            return null;
+        }
         Page<MarketTableResponse> response = marketLocationService.displayMarketTableInfo(pageable);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/marketProducts/{marketId}")
     public ResponseEntity<List<MarketProductsResponse>> displayMarketsProducts(
-            @PathVariable("marketId") Long marketId ) {
+            @PathVariable("marketId") Long marketId, WebRequest webRequest) {
+        long version = dataVersionService.marketVersion(marketId);
+        if (webRequest.checkNotModified(dataVersionService.etag("market-products", version), version)) {
+            return null;
+        }
         List<MarketProductsResponse> response = marketLocationService.displayMarketsProducts(marketId);
         System.out.println("Type ng Count: " + response.get(0).totalProducts().getClass().getName());
         System.out.println("Type ng Price: " + response.get(0).productPrice().getClass().getName());
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{marketId}/catalog")
+    public ResponseEntity<Page<MarketCatalogItemResponse>> displayMarketCatalog(
+            @PathVariable("marketId") Long marketId,
+            @PageableDefault(size = 20, sort = "productName", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest webRequest) {
+        long version = dataVersionService.marketVersion(marketId);
+        if (webRequest.checkNotModified(dataVersionService.etag("market-catalog", version), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(marketLocationService.displayMarketCatalog(marketId, pageable));
+    }
+
+    /**
+     * Latest price of every product at every market in one response.
+     * * GET /api/v1/markets/price-matrix?productIds=1,2&marketIds=3,4&category=FISH
+     * - All filters are optional; without them the whole matrix is returned.
+     * - Columnar JSON: product and market axes plus row-major centavos and a presence bitmap.
+     * - Send Accept: application/octet-stream for the binary encoding of the same slice.
+     */
+    @GetMapping(value = "/price-matrix", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PriceMatrixResponse> getPriceMatrix(
+            @RequestParam(value = "productIds", required = false) List<Long> productIds,
+            @RequestParam(value = "marketIds", required = false) List<Long> marketIds,
+            @RequestParam(value = "category", required = false) String category,
+            WebRequest webRequest) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("price-matrix", version, priceMatrixService.generation()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok(priceMatrixService.getMatrix(productIds, marketIds, category));
+    }
+
+    @GetMapping(value = "/price-matrix", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getPriceMatrixBinary(
+            @RequestParam(value = "productIds", required = false) List<Long> productIds,
+            @RequestParam(value = "marketIds", required = false) List<Long> marketIds,
+            @RequestParam(value = "category", required = false) String category,
+            WebRequest webRequest) {
+        long version = dataVersionService.globalVersion();
+        if (webRequest.checkNotModified(dataVersionService.etag("price-matrix-binary", version, priceMatrixService.generation()), version)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(priceMatrixService.getMatrixBinary(productIds, marketIds, category));
+    }
+
     @PutMapping("/updateStatus")
     public ResponseEntity<UpdateMarketStatus> updateMarketStatus(@RequestBody UpdateMarketStatus status){
         UpdateMarketStatus response = marketLocationService.updateMarketStatus(status);
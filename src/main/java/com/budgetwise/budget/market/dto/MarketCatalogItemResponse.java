@@ -0,0 +1,17 @@
+package com.budgetwise.budget.market.dto;
+
+import java.time.LocalDate;
+
+public record MarketCatalogItemResponse(
+        Long productId,
+        String productName,
+        String productCategory,
+        String unit,
+        String origin,
+        Double price,
+        Double previousPrice,
+        Double priceChange,
+        LocalDate dateReported,
+        LocalDate previousDateReported
+) {
+}
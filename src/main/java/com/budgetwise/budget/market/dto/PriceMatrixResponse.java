@@ -0,0 +1,20 @@
+package com.budgetwise.budget.market.dto;
+
+import java.util.List;
+
+/**
+ * Columnar product x market price matrix.
+ * Cell (row r, column c) is at index r * marketIds.size() + c of centavos;
+ * it holds a price only if bit r * marketIds.size() + c of present is set (little-endian bit order).
+ */
+public record PriceMatrixResponse(
+        List<Long> productIds, // Rows
+        List<String> productNames,
+        List<String> categories,
+        List<String> units,
+        List<Long> marketIds, // Columns
+        List<String> marketNames,
+        long[] centavos, // Row-major, 0 where there is no price
+        byte[] present, // Presence bitmap, Base64 in JSON
+        int priceCount
+) {}
@@ -64,6 +64,8 @@ public interface MarketLocationRepository extends JpaRepository<MarketLocation,
      * @code (SELECT COUNT(dprSub) ...) to calculate the total products for the market.
      * While this avoids a separate N+1 query for the count, it runs per row.
      * Optimized for single-market retrieval via ID.
+     * Returns the FULL price history of the market; for the current catalog
+     * (latest price per product, paginated) use LatestMarketPriceRepository#findMarketCatalog.
      *
      * @param marketId The ID of the market to filter by.
      * @return A list of flattened DTOs containing market info, product details, and price.
@@ -88,6 +90,30 @@ public interface MarketLocationRepository extends JpaRepository<MarketLocation,
     List<MarketProductsResponse> displayProductByMarketId(@Param("marketId") Long marketId);
 
 
+    /**
+     * Projection for building the in-memory autocomplete index.
+     * Popularity is the number of distinct products priced at the market.
+     */
+    interface MarketPopularityProjection {
+        Long getId();
+        String getMarketLocation();
+        MarketLocation.Type getType();
+        Long getPopularity();
+    }
+
+    @Query("""
+        SELECT m.id AS id,
+               m.marketLocation AS marketLocation,
+               m.type AS type,
+               COUNT(DISTINCT dpr.productInfo.id) AS popularity
+        FROM MarketLocation m
+        LEFT JOIN m.dailyPriceRecords dpr
+        WHERE m.status = :status
+        GROUP BY m.id, m.marketLocation, m.type
+        """)
+    List<MarketPopularityProjection> findPopularityByStatus(@Param("status") MarketLocation.Status status);
+
+
     Optional<MarketLocation> findById(Long id);
 
     boolean existsByMarketLocation(String marketLocation);
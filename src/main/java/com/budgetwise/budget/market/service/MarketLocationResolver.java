@@ -35,12 +35,7 @@ public class MarketLocationResolver {
             return List.of();
         }
 
-        //  Pre-processing:
-        //    - Trim whitespace to avoid dirty data (" Marikina " vs "Marikina")
-        //    - Use Set to automatically remove duplicates from the input
-        Set<String> uniqueMarkets = coveredMarkets.stream()
-                .map(String::trim)
-                .collect(Collectors.toSet());
+        Set<String> uniqueMarkets = normalizeNames(coveredMarkets);
 
         //  Batch Query (Optimization):
         //    Fetch ALL existing markets in ONE database query using 'IN' clause.
@@ -75,4 +70,15 @@ public class MarketLocationResolver {
         //  Return the complete list (Old + New) ready for linking
         return existingMarkets;
     }
+
+    /**
+     * Pre-processing of scraped market names:
+     * - Trim whitespace to avoid dirty data (" Marikina " vs "Marikina")
+     * - Use Set to automatically remove duplicates from the input
+     */
+    static Set<String> normalizeNames(List<String> coveredMarkets) {
+        return coveredMarkets.stream()
+                .map(String::trim)
+                .collect(Collectors.toSet());
+    }
 }
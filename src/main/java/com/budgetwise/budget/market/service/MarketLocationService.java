@@ -1,23 +1,45 @@
 package com.budgetwise.budget.market.service;
 
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.common.cache.CacheNames;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
 import com.budgetwise.budget.market.dto.*;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.market.repository.MarketLocationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class MarketLocationService {
 
+    /**
+     * Public sort keys of the market catalog mapped to entity paths.
+     */
+    private static final Map<String, String> CATALOG_SORT_PROPERTIES = Map.of(
+            "productName", "productInfo.productName",
+            "category", "productInfo.category",
+            "price", "price",
+            "priceChange", "priceChange",
+            "dateReported", "dateReported"
+    );
+
     private final MarketLocationRepository marketLocationRepository;
+    private final LatestMarketPriceRepository latestMarketPriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -58,6 +80,7 @@ public class MarketLocationService {
      * @return A list of product projections.
      * @throws IllegalArgumentException if the market does not exist.
      */
+    @Cacheable(cacheNames = CacheNames.MARKET_PRODUCTS, sync = true)
     @Transactional(readOnly = true)
     public List<MarketProductsResponse> displayMarketsProducts(Long marketId ) {
         boolean exist = marketLocationRepository.existsById(marketId);
@@ -68,6 +91,40 @@ public class MarketLocationService {
         return marketLocationRepository.displayProductByMarketId(marketId);
     }
 
+    /**
+     * Retrieves the current catalog of a market: each product once, with its latest price
+     * and the change against the previous report.
+     * Reads the latest_market_price table, so the response size is bounded by the page size
+     * regardless of how much history the market has.
+     *
+     * @param marketId The ID of the market.
+     * @param pageable Page and sort (productName, category, price, priceChange, dateReported).
+     * @return A page of catalog items.
+     * @throws IllegalArgumentException if the market does not exist or the sort key is unsupported.
+     */
+    @Transactional(readOnly = true)
+    public Page<MarketCatalogItemResponse> displayMarketCatalog(Long marketId, Pageable pageable) {
+        if (!marketLocationRepository.existsById(marketId)) {
+            throw new IllegalArgumentException("Market with ID " + marketId + " does not exist.");
+        }
+
+        return latestMarketPriceRepository.findMarketCatalog(marketId, toCatalogPageable(pageable));
+    }
+
+    private Pageable toCatalogPageable(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> {
+                    String property = CATALOG_SORT_PROPERTIES.get(order.getProperty());
+                    if (property == null) {
+                        throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+                    }
+                    return order.withProperty(property);
+                })
+                .toList());
+
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     /**
      * Updates the status of a market location.
      *
@@ -84,6 +141,7 @@ public class MarketLocationService {
         marketLocation.setStatus(status.newStatus());
         marketLocation.setUpdatedAt(LocalDateTime.now());
         marketLocationRepository.save(marketLocation);
+        eventPublisher.publishEvent(CatalogChangedEvent.marketsUpdated(Set.of(marketLocation.getId())));
 
         return status;
 
@@ -126,7 +184,10 @@ public class MarketLocationService {
         market.setRatings(0.0);
         market.setUpdatedAt(LocalDateTime.now());
 
-        return marketLocationRepository.save(market);
+        MarketLocation savedMarket = marketLocationRepository.save(market);
+        eventPublisher.publishEvent(CatalogChangedEvent.marketsUpdated(Set.of(savedMarket.getId())));
+
+        return savedMarket;
     }
 
 
@@ -162,6 +223,9 @@ public class MarketLocationService {
         market.setUpdatedAt(LocalDateTime.now());
 
 
-        return marketLocationRepository.save(market);
+        MarketLocation updatedMarket = marketLocationRepository.save(market);
+        eventPublisher.publishEvent(CatalogChangedEvent.marketsUpdated(Set.of(updatedMarket.getId())));
+
+        return updatedMarket;
     }
 }
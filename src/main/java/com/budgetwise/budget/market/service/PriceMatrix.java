@@ -0,0 +1,290 @@
+package com.budgetwise.budget.market.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.MatrixCellProjection;
+import com.budgetwise.budget.market.dto.PriceMatrixResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable dense snapshot of the latest price of every product at every market.
+ *
+ * Layout:
+ * - Rows are products (sorted by name), columns are markets (sorted by name).
+ * - Prices are long centavos in one row-major array; a BitSet marks the cells that hold a price.
+ * - Id -> index maps make slicing O(rows x columns) of the slice, not of the matrix.
+ *
+ * The public accessors let other in-memory snapshots (the planners' shopping index) reuse the axes
+ * and prices instead of loading and indexing the same cells again.
+ */
+public final class PriceMatrix {
+
+    /** First bytes of the binary encoding ("BWM1"). */
+    static final int BINARY_MAGIC = 0x42574D31;
+
+    static final PriceMatrix EMPTY = build(List.of());
+
+    private final long[] productIds;
+    private final String[] productNames;
+    private final String[] categories;
+    private final String[] units;
+    private final long[] marketIds;
+    private final String[] marketNames;
+    private final long[] centavos;
+    private final BitSet present;
+    private final Map<Long, Integer> productIndex;
+    private final Map<Long, Integer> marketIndex;
+
+    private PriceMatrix(long[] productIds, String[] productNames, String[] categories, String[] units,
+                        long[] marketIds, String[] marketNames, long[] centavos, BitSet present) {
+        this.productIds = productIds;
+        this.productNames = productNames;
+        this.categories = categories;
+        this.units = units;
+        this.marketIds = marketIds;
+        this.marketNames = marketNames;
+        this.centavos = centavos;
+        this.present = present;
+        this.productIndex = indexOf(productIds);
+        this.marketIndex = indexOf(marketIds);
+    }
+
+    public static PriceMatrix build(List<MatrixCellProjection> cells) {
+        // Axes: one entry per product / market, ordered by name then id
+        Comparator<MatrixCellProjection> byProduct = Comparator
+                .comparing(MatrixCellProjection::getProductName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(MatrixCellProjection::getProductId);
+        Comparator<MatrixCellProjection> byMarket = Comparator
+                .comparing(MatrixCellProjection::getMarketName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(MatrixCellProjection::getMarketId);
+
+        List<MatrixCellProjection> products = distinct(cells, byProduct, MatrixCellProjection::getProductId);
+        List<MatrixCellProjection> markets = distinct(cells, byMarket, MatrixCellProjection::getMarketId);
+
+        long[] productIds = new long[products.size()];
+        String[] productNames = new String[products.size()];
+        String[] categories = new String[products.size()];
+        String[] units = new String[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            MatrixCellProjection p = products.get(i);
+            productIds[i] = p.getProductId();
+            productNames[i] = p.getProductName();
+            categories[i] = p.getCategory();
+            units[i] = p.getUnit();
+        }
+        long[] marketIds = new long[markets.size()];
+        String[] marketNames = new String[markets.size()];
+        for (int i = 0; i < markets.size(); i++) {
+            marketIds[i] = markets.get(i).getMarketId();
+            marketNames[i] = markets.get(i).getMarketName();
+        }
+
+        Map<Long, Integer> rows = indexOf(productIds);
+        Map<Long, Integer> columns = indexOf(marketIds);
+        long[] centavos = new long[productIds.length * marketIds.length];
+        BitSet present = new BitSet(centavos.length);
+        for (MatrixCellProjection cell : cells) {
+            int index = rows.get(cell.getProductId()) * marketIds.length + columns.get(cell.getMarketId());
+            centavos[index] = Math.round(cell.getPrice() * 100);
+            present.set(index);
+        }
+        return new PriceMatrix(productIds, productNames, categories, units, marketIds, marketNames, centavos, present);
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int marketCount() {
+        return marketIds.length;
+    }
+
+    int priceCount() {
+        return present.cardinality();
+    }
+
+    /** Row of a product, or -1 if it has no current price anywhere. */
+    public int row(long productId) {
+        return productIndex.getOrDefault(productId, -1);
+    }
+
+    /** Column of a market, or -1 if it has no current prices. */
+    public int column(long marketId) {
+        return marketIndex.getOrDefault(marketId, -1);
+    }
+
+    public long productId(int row) {
+        return productIds[row];
+    }
+
+    public String productName(int row) {
+        return productNames[row];
+    }
+
+    public String category(int row) {
+        return categories[row];
+    }
+
+    public String unit(int row) {
+        return units[row];
+    }
+
+    public long marketId(int column) {
+        return marketIds[column];
+    }
+
+    public String marketName(int column) {
+        return marketNames[column];
+    }
+
+    public boolean hasPrice(int row, int column) {
+        return present.get(row * marketIds.length + column);
+    }
+
+    /** Latest price in centavos, 0 where {@link #hasPrice} is false. */
+    public long centavos(int row, int column) {
+        return centavos[row * marketIds.length + column];
+    }
+
+    /**
+     * Row indexes of the requested products (all when null/empty), optionally limited to one category.
+     * Unknown ids are skipped: they have no current price anywhere.
+     */
+    int[] rows(Collection<Long> requestedIds, String category) {
+        int[] candidates = select(requestedIds, productIndex, productIds.length);
+        if (category == null || category.isBlank()) {
+            return candidates;
+        }
+        return Arrays.stream(candidates)
+                .filter(row -> category.equalsIgnoreCase(categories[row]))
+                .toArray();
+    }
+
+    /**
+     * Column indexes of the requested markets (all when null/empty).
+     */
+    int[] columns(Collection<Long> requestedIds) {
+        return select(requestedIds, marketIndex, marketIds.length);
+    }
+
+    PriceMatrixResponse toResponse(int[] rows, int[] columns) {
+        long[] slice = new long[rows.length * columns.length];
+        BitSet slicePresent = new BitSet(slice.length);
+        copy(rows, columns, (index, source) -> {
+            slice[index] = centavos[source];
+            slicePresent.set(index);
+        });
+
+        return new PriceMatrixResponse(
+                Arrays.stream(rows).mapToObj(row -> productIds[row]).toList(),
+                Arrays.stream(rows).mapToObj(row -> productNames[row]).toList(),
+                Arrays.stream(rows).mapToObj(row -> categories[row]).toList(),
+                Arrays.stream(rows).mapToObj(row -> units[row]).toList(),
+                Arrays.stream(columns).mapToObj(column -> marketIds[column]).toList(),
+                Arrays.stream(columns).mapToObj(column -> marketNames[column]).toList(),
+                slice,
+                slicePresent.toByteArray(),
+                slicePresent.cardinality()
+        );
+    }
+
+    /**
+     * Binary encoding (big-endian, strings as modified UTF-8 with a 2-byte length):
+     * magic, rowCount, columnCount,
+     * per row: productId (long), name, category, unit,
+     * per column: marketId (long), name,
+     * bitmap length (int) + presence bitmap (same bit order as the JSON one),
+     * then one int of centavos per cell, row-major (0 where there is no price).
+     */
+    byte[] toBinary(int[] rows, int[] columns) {
+        int cellCount = rows.length * columns.length;
+        int[] slice = new int[cellCount];
+        BitSet slicePresent = new BitSet(cellCount);
+        copy(rows, columns, (index, source) -> {
+            slice[index] = Math.toIntExact(centavos[source]);
+            slicePresent.set(index);
+        });
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 + rows.length * 48 + columns.length * 40 + cellCount * 4);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(rows.length);
+            out.writeInt(columns.length);
+            for (int row : rows) {
+                out.writeLong(productIds[row]);
+                out.writeUTF(Objects.toString(productNames[row], ""));
+                out.writeUTF(Objects.toString(categories[row], ""));
+                out.writeUTF(Objects.toString(units[row], ""));
+            }
+            for (int column : columns) {
+                out.writeLong(marketIds[column]);
+                out.writeUTF(Objects.toString(marketNames[column], ""));
+            }
+            byte[] bitmap = slicePresent.toByteArray();
+            out.writeInt(bitmap.length);
+            out.write(bitmap);
+            for (int value : slice) {
+                out.writeInt(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private interface CellConsumer {
+        void accept(int sliceIndex, int matrixIndex);
+    }
+
+    /**
+     * Visits the present cells of a slice with their index in the slice and in the matrix.
+     */
+    private void copy(int[] rows, int[] columns, CellConsumer consumer) {
+        int index = 0;
+        for (int row : rows) {
+            int rowOffset = row * marketIds.length;
+            for (int column : columns) {
+                if (present.get(rowOffset + column)) {
+                    consumer.accept(index, rowOffset + column);
+                }
+                index++;
+            }
+        }
+    }
+
+    private static int[] select(Collection<Long> requestedIds, Map<Long, Integer> index, int size) {
+        if (requestedIds == null || requestedIds.isEmpty()) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return requestedIds.stream()
+                .distinct()
+                .map(index::get)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static List<MatrixCellProjection> distinct(List<MatrixCellProjection> cells,
+                                                       Comparator<MatrixCellProjection> order,
+                                                       Function<MatrixCellProjection, Long> id) {
+        Map<Long, MatrixCellProjection> first = new HashMap<>();
+        cells.forEach(cell -> first.putIfAbsent(id.apply(cell), cell));
+        List<MatrixCellProjection> axis = new ArrayList<>(first.values());
+        axis.sort(order);
+        return axis;
+    }
+
+    private static Map<Long, Integer> indexOf(long[] ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,108 @@
+package com.budgetwise.budget.market.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.event.PriceMatrixRebuiltEvent;
+import com.budgetwise.budget.common.snapshot.CoalescingRebuilder;
+import com.budgetwise.budget.market.dto.PriceMatrixResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Serves the product x market comparison matrix from an in-memory {@link PriceMatrix}.
+ *
+ * Concurrency Model (same as the autocomplete index):
+ * - Reads go through a single volatile snapshot and never hit PostgreSQL.
+ * - The snapshot is rebuilt off the request thread from latest_market_price after
+ *   catalog changes commit; bursts of events are coalesced by a {@link CoalescingRebuilder}.
+ * - Every new snapshot is announced with a {@link PriceMatrixRebuiltEvent} for the snapshots built on it.
+ */
+@Slf4j
+@Service
+public class PriceMatrixService {
+
+    private final LatestMarketPriceRepository latestMarketPriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CoalescingRebuilder rebuilder = new CoalescingRebuilder("Price matrix", this::buildSnapshot);
+
+    private volatile PriceMatrix matrix = PriceMatrix.EMPTY;
+
+    public PriceMatrixService(LatestMarketPriceRepository latestMarketPriceRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.latestMarketPriceRepository = latestMarketPriceRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Full matrix or a slice of it as columnar JSON.
+     *
+     * @param productIds Rows to include (all when empty).
+     * @param marketIds  Columns to include (all when empty).
+     * @param category   Optional product category filter.
+     */
+    public PriceMatrixResponse getMatrix(Collection<Long> productIds, Collection<Long> marketIds, String category) {
+        PriceMatrix current = current();
+        return current.toResponse(current.rows(productIds, category), current.columns(marketIds));
+    }
+
+    /**
+     * Same slice as {@link #getMatrix}, in the binary encoding described on {@link PriceMatrix#toBinary}.
+     */
+    public byte[] getMatrixBinary(Collection<Long> productIds, Collection<Long> marketIds, String category) {
+        PriceMatrix current = current();
+        return current.toBinary(current.rows(productIds, category), current.columns(marketIds));
+    }
+
+    /**
+     * Number of snapshots built since startup (part of the matrix ETag,
+     * since rebuilds finish after the data version was already bumped).
+     */
+    public long generation() {
+        return rebuilder.generation();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the matrix and swaps it in. Concurrent calls are coalesced into at most one extra pass.
+     */
+    void rebuild() {
+        rebuilder.rebuild();
+    }
+
+    private void buildSnapshot() {
+        long start = System.nanoTime();
+
+        PriceMatrix fresh = PriceMatrix.build(latestMarketPriceRepository.findMatrixCells());
+        matrix = fresh;
+        eventPublisher.publishEvent(new PriceMatrixRebuiltEvent());
+
+        log.info("Price matrix rebuilt: {} products x {} markets, {} prices in {} ms",
+                fresh.productCount(), fresh.marketCount(), fresh.priceCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Current snapshot; waits for (or runs) the startup rebuild if a request arrives before it finished.
+     */
+    public PriceMatrix current() {
+        rebuilder.ensureBuilt();
+        return matrix;
+    }
+}
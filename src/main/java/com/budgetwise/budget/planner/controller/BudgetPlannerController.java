@@ -0,0 +1,73 @@
+package com.budgetwise.budget.planner.controller;
+
+import com.budgetwise.budget.planner.dto.BudgetPlanRequest;
+import com.budgetwise.budget.planner.dto.BudgetPlanResponse;
+import com.budgetwise.budget.planner.dto.RoutePlanRequest;
+import com.budgetwise.budget.planner.dto.RoutePlanResponse;
+import com.budgetwise.budget.planner.dto.SubstituteResponse;
+import com.budgetwise.budget.planner.service.BudgetPlannerService;
+import com.budgetwise.budget.planner.service.RoutePlannerService;
+import com.budgetwise.budget.planner.service.SubstituteService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/planner")
+public class BudgetPlannerController {
+
+    private final BudgetPlannerService budgetPlannerService;
+    private final RoutePlannerService routePlannerService;
+    private final SubstituteService substituteService;
+
+    public BudgetPlannerController(BudgetPlannerService budgetPlannerService, RoutePlannerService routePlannerService,
+                                   SubstituteService substituteService) {
+        this.budgetPlannerService = budgetPlannerService;
+        this.routePlannerService = routePlannerService;
+        this.substituteService = substituteService;
+    }
+
+    /**
+     * Budget Plan for one shopping trip.
+     * * POST /api/v1/planner/plan
+     * - Body: budget (pesos), householdSize, items (category or productId, quantity per person, priority),
+     *   optional dietaryTags, marketId and objective (CHEAPEST or COVERAGE).
+     * - Returns the best market with one product per item, what could not be bought and why,
+     *   and the next best markets.
+     */
+    @PostMapping("/plan")
+    public ResponseEntity<BudgetPlanResponse> plan(@RequestBody BudgetPlanRequest request) {
+        return ResponseEntity.ok(budgetPlannerService.plan(request));
+    }
+
+    /**
+     * Shopping Route across several markets.
+     * * POST /api/v1/planner/route
+     * - Body: startLatitude/startLongitude, items and dietaryTags as for /plan, optional householdSize,
+     *   departureTime, maxMarkets (default 3, max 5) and costPerKm (pesos, default 10).
+     * - Returns the stops in visiting order with arrival times and what to buy at each,
+     *   the goods/travel split and the savings over the best single-market trip.
+     */
+    @PostMapping("/route")
+    public ResponseEntity<RoutePlanResponse> route(@RequestBody RoutePlanRequest request) {
+        return ResponseEntity.ok(routePlannerService.plan(request));
+    }
+
+    /**
+     * Cheaper Substitutes for a product.
+     * * GET /api/v1/planner/substitutes/{productId}
+     * - Optional marketId: compare prices at that market instead of across all markets.
+     * - Optional dietaryTags: every substitute must carry them.
+     * - limit: default 5, max 10.
+     * - Returns same-category, same-unit products ranked by similarity and savings.
+     */
+    @GetMapping("/substitutes/{productId}")
+    public ResponseEntity<SubstituteResponse> substitutes(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long marketId,
+            @RequestParam(required = false) List<String> dietaryTags,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(substituteService.recommend(productId, marketId, dietaryTags, limit));
+    }
+}
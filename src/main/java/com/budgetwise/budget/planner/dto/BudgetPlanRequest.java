@@ -0,0 +1,19 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.util.List;
+
+public record BudgetPlanRequest(
+        Double budget, // Pesos
+        Integer householdSize, // Item quantities are per person (default 1)
+        List<PlanItemRequest> items,
+        List<String> dietaryTags, // Every chosen product must carry all of them
+        Long marketId, // Optional: plan at this market only
+        Objective objective // Default CHEAPEST
+) {
+
+    /**
+     * CHEAPEST buys the whole list as cheaply as possible and only reports the budget;
+     * COVERAGE buys as much of the list (by priority) as the budget allows.
+     */
+    public enum Objective { CHEAPEST, COVERAGE }
+}
@@ -0,0 +1,16 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.util.List;
+
+public record BudgetPlanResponse(
+        Long marketId, // Null when no market sells anything on the list
+        String marketName,
+        BudgetPlanRequest.Objective objective,
+        Double budget,
+        Double totalCost,
+        Double remainingBudget, // Negative when a CHEAPEST plan is over budget
+        boolean withinBudget,
+        List<PlanLine> lines,
+        List<UnmetItem> unmet,
+        List<MarketOption> alternatives // Next best markets, best first
+) {}
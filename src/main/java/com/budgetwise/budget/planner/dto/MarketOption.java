@@ -0,0 +1,8 @@
+package com.budgetwise.budget.planner.dto;
+
+public record MarketOption(
+        Long marketId,
+        String marketName,
+        Double totalCost,
+        int coveredItems
+) {}
@@ -0,0 +1,8 @@
+package com.budgetwise.budget.planner.dto;
+
+public record PlanItemRequest(
+        String category, // Cheapest eligible product of this category...
+        Long productId, // ...or exactly this product
+        Double quantity, // Per person, in the product's unit (kg, pc, ...)
+        Integer priority // Weight under COVERAGE (default 1)
+) {}
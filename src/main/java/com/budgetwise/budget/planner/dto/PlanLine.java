@@ -0,0 +1,12 @@
+package com.budgetwise.budget.planner.dto;
+
+public record PlanLine(
+        int item, // Index in the request's items
+        String category,
+        Long productId,
+        String productName,
+        String unit,
+        Double unitPrice,
+        Double quantity, // For the whole household
+        Double cost
+) {}
@@ -0,0 +1,15 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public record RoutePlanRequest(
+        Double startLatitude,
+        Double startLongitude,
+        LocalTime departureTime, // Default: now
+        Integer householdSize, // Item quantities are per person (default 1)
+        List<PlanItemRequest> items,
+        List<String> dietaryTags, // Every chosen product must carry all of them
+        Integer maxMarkets, // At most this many stops (default 3)
+        Double costPerKm // Pesos one km of travel is worth (fare/fuel and time; default 10)
+) {}
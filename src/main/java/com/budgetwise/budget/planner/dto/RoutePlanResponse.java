@@ -0,0 +1,16 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public record RoutePlanResponse(
+        LocalTime departureTime,
+        List<RouteStop> stops, // In visiting order
+        List<UnmetItem> unmet,
+        Double goodsCost,
+        Double travelKm,
+        Double travelCost, // travelKm x costPerKm
+        Double totalCost, // goodsCost + travelCost
+        Double singleMarketTotalCost, // Best one-stop trip for the same items (null if none covers as much)
+        Double savings // singleMarketTotalCost - totalCost
+) {}
@@ -0,0 +1,16 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public record RouteStop(
+        int order, // 1 = first stop
+        Long marketId,
+        String marketName,
+        Double latitude,
+        Double longitude,
+        Double legKm, // From the previous stop (or the start point)
+        LocalTime arrivalTime, // After waiting for the market to open, if needed
+        List<PlanLine> lines, // Items to buy at this stop
+        Double subtotal
+) {}
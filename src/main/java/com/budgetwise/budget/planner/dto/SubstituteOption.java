@@ -0,0 +1,10 @@
+package com.budgetwise.budget.planner.dto;
+
+public record SubstituteOption(
+        Long productId,
+        String productName,
+        String unit,
+        Double unitPrice, // At the market, or the average across markets
+        Double savingsPercent, // Against the original product's price
+        Double similarity // 0..1 over dietary tags and name tokens (same category and unit always)
+) {}
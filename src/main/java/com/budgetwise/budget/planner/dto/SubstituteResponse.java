@@ -0,0 +1,13 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.util.List;
+
+public record SubstituteResponse(
+        Long productId,
+        String productName,
+        String category,
+        String unit,
+        Long marketId, // Null when prices are averages across markets
+        Double referencePrice, // Price of the original product the substitutes are compared with
+        List<SubstituteOption> substitutes // Best first
+) {}
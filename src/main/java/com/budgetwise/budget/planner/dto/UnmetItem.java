@@ -0,0 +1,14 @@
+package com.budgetwise.budget.planner.dto;
+
+import java.util.List;
+
+public record UnmetItem(
+        int item, // Index in the request's items
+        String category,
+        Long productId,
+        Reason reason,
+        List<SubstituteOption> substitutes // Cheaper products at the chosen market (productId items only)
+) {
+
+    public enum Reason { NOT_AVAILABLE, OVER_BUDGET }
+}
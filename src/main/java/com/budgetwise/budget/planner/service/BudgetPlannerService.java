@@ -0,0 +1,250 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.planner.dto.*;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Plans a household's shopping at one market within a peso budget.
+ *
+ * Logic Flow:
+ * 1. Resolve every item to its eligible products (category or product, dietary tags) once.
+ * 2. For each candidate market: pick the cheapest eligible product per item, then choose the items:
+ * - CHEAPEST: every item the market sells.
+ * - COVERAGE: knapsack over the budget, greedy by priority per peso with a repair step (below).
+ * 3. Rank the markets (most covered first, then cheapest) and return the best with a few alternatives.
+ * 4. A named product that could not be bought gets cheaper substitutes at the chosen market
+ *    (same dietary tags; for OVER_BUDGET, only ones the leftover budget can pay for).
+ * Everything runs on the in-memory {@link ShoppingPriceIndex}: no queries, O(markets x candidates).
+ */
+@Service
+public class BudgetPlannerService {
+
+    static final int MAX_HOUSEHOLD_SIZE = 50;
+    static final int ALTERNATIVES = 3;
+    static final int SUBSTITUTES_PER_ITEM = 3;
+
+    private final ShoppingIndexService shoppingIndexService;
+
+    public BudgetPlannerService(ShoppingIndexService shoppingIndexService) {
+        this.shoppingIndexService = shoppingIndexService;
+    }
+
+    /**
+     * @throws IllegalArgumentException  on a missing/invalid budget, household size or item.
+     * @throws ResourceNotFoundException if marketId is given but that market has no current prices.
+     */
+    public BudgetPlanResponse plan(BudgetPlanRequest request) {
+        if (request.budget() == null || request.budget() <= 0) {
+            throw new IllegalArgumentException("budget must be a positive amount in pesos");
+        }
+        int householdSize = request.householdSize() == null ? 1 : request.householdSize();
+        if (householdSize < 1 || householdSize > MAX_HOUSEHOLD_SIZE) {
+            throw new IllegalArgumentException("householdSize must be between 1 and " + MAX_HOUSEHOLD_SIZE);
+        }
+        BudgetPlanRequest.Objective objective = request.objective() == null
+                ? BudgetPlanRequest.Objective.CHEAPEST
+                : request.objective();
+        long budget = Math.round(request.budget() * 100);
+
+        ShoppingPriceIndex index = shoppingIndexService.current();
+        ShoppingList list = ShoppingList.resolve(index, request.items(), request.dietaryTags(), householdSize);
+
+        List<MarketPlan> plans = new ArrayList<>();
+        if (request.marketId() != null) {
+            int column = index.column(request.marketId());
+            if (column < 0) {
+                throw new ResourceNotFoundException("MarketLocation", "id", request.marketId());
+            }
+            plans.add(planAt(index, list, column, budget, objective));
+        } else {
+            for (int column = 0; column < index.marketCount(); column++) {
+                plans.add(planAt(index, list, column, budget, objective));
+            }
+        }
+
+        Comparator<MarketPlan> ranking = objective == BudgetPlanRequest.Objective.COVERAGE
+                ? Comparator.comparingLong(MarketPlan::coveredWeight).reversed()
+                : Comparator.comparingInt(MarketPlan::coveredItems).reversed();
+        plans.sort(ranking.thenComparingLong(MarketPlan::total));
+
+        return toResponse(index, list, plans, budget, objective, SubstituteService.tagKeys(request.dietaryTags()));
+    }
+
+    /**
+     * The cheapest choice per item at one market, then the item selection for the objective.
+     */
+    static MarketPlan planAt(ShoppingPriceIndex index, ShoppingList list, int column, long budget,
+                             BudgetPlanRequest.Objective objective) {
+        int size = list.size();
+        int[] rows = new int[size];
+        long[] costs = new long[size];
+        for (int item = 0; item < size; item++) {
+            rows[item] = list.cheapestRow(index, item, column);
+            costs[item] = rows[item] < 0 ? 0 : list.cost(item, index.centavos(rows[item], column));
+        }
+
+        boolean[] chosen = objective == BudgetPlanRequest.Objective.COVERAGE
+                ? selectWithinBudget(rows, costs, list.weights(), budget)
+                : selectAll(rows);
+        return MarketPlan.of(column, rows, costs, chosen, list.weights());
+    }
+
+    private static boolean[] selectAll(int[] rows) {
+        boolean[] chosen = new boolean[rows.length];
+        for (int item = 0; item < rows.length; item++) {
+            chosen[item] = rows[item] >= 0;
+        }
+        return chosen;
+    }
+
+    /**
+     * 0/1 knapsack, solved greedily:
+     * 1. Take items by priority per centavo (ties: cheaper first), skipping the ones that no longer fit.
+     * 2. Repair: if one affordable item alone outweighs the greedy pick (a high-priority item crowded out
+     *    by many cheap ones), take it instead and fill the rest greedily again.
+     * Bounded at half the optimum in the worst case; exact whenever all priorities are equal.
+     */
+    static boolean[] selectWithinBudget(int[] rows, long[] costs, int[] weights, long budget) {
+        int size = rows.length;
+        Integer[] order = new Integer[size];
+        for (int item = 0; item < size; item++) {
+            order[item] = item;
+        }
+        Arrays.sort(order, Comparator
+                .comparingDouble((Integer item) -> -(double) weights[item] / Math.max(costs[item], 1))
+                .thenComparingLong(item -> costs[item]));
+
+        boolean[] greedy = fill(rows, costs, order, budget, new boolean[size], 0);
+
+        int heaviest = -1;
+        for (int item = 0; item < size; item++) {
+            if (rows[item] >= 0 && costs[item] <= budget && (heaviest < 0 || weights[item] > weights[heaviest])) {
+                heaviest = item;
+            }
+        }
+        if (heaviest >= 0 && !greedy[heaviest] && weights[heaviest] > weight(greedy, weights)) {
+            boolean[] repaired = new boolean[size];
+            repaired[heaviest] = true;
+            return fill(rows, costs, order, budget, repaired, costs[heaviest]);
+        }
+        return greedy;
+    }
+
+    private static boolean[] fill(int[] rows, long[] costs, Integer[] order, long budget, boolean[] chosen, long spent) {
+        for (int item : order) {
+            if (!chosen[item] && rows[item] >= 0 && spent + costs[item] <= budget) {
+                chosen[item] = true;
+                spent += costs[item];
+            }
+        }
+        return chosen;
+    }
+
+    private static long weight(boolean[] chosen, int[] weights) {
+        long total = 0;
+        for (int item = 0; item < chosen.length; item++) {
+            if (chosen[item]) {
+                total += weights[item];
+            }
+        }
+        return total;
+    }
+
+    private BudgetPlanResponse toResponse(ShoppingPriceIndex index, ShoppingList list, List<MarketPlan> plans,
+                                          long budget, BudgetPlanRequest.Objective objective,
+                                          Set<String> requiredTags) {
+        List<PlanLine> lines = new ArrayList<>();
+        List<UnmetItem> unmet = new ArrayList<>();
+        MarketPlan best = plans.isEmpty() ? null : plans.get(0);
+
+        for (int item = 0; item < list.size(); item++) {
+            PlanItemRequest requested = list.items().get(item);
+            if (best != null && best.chosen()[item]) {
+                int row = best.rows()[item];
+                lines.add(new PlanLine(item, index.category(row), index.productId(row), index.productName(row),
+                        index.unit(row), pesos(index.centavos(row, best.column())), list.quantities()[item],
+                        pesos(best.costs()[item])));
+            } else {
+                UnmetItem.Reason reason = best == null || best.rows()[item] < 0
+                        ? UnmetItem.Reason.NOT_AVAILABLE
+                        : UnmetItem.Reason.OVER_BUDGET;
+                unmet.add(new UnmetItem(item, requested.category(), requested.productId(), reason,
+                        substitutes(index, list, best, item, budget, reason, requiredTags)));
+            }
+        }
+
+        List<MarketOption> alternatives = plans.stream().skip(1).limit(ALTERNATIVES)
+                .map(plan -> new MarketOption(index.marketId(plan.column()), index.marketName(plan.column()),
+                        pesos(plan.total()), plan.coveredItems()))
+                .toList();
+
+        long total = best == null ? 0 : best.total();
+        return new BudgetPlanResponse(
+                best == null ? null : index.marketId(best.column()),
+                best == null ? null : index.marketName(best.column()),
+                objective,
+                pesos(budget),
+                pesos(total),
+                pesos(budget - total),
+                total <= budget,
+                lines,
+                unmet,
+                alternatives
+        );
+    }
+
+    /**
+     * Cheaper products for an unmet named product at the chosen market; category items already got the
+     * cheapest eligible product, so they get none.
+     */
+    private List<SubstituteOption> substitutes(ShoppingPriceIndex index, ShoppingList list, MarketPlan best,
+                                               int item, long budget, UnmetItem.Reason reason,
+                                               Set<String> requiredTags) {
+        Long productId = list.items().get(item).productId();
+        if (best == null || productId == null) {
+            return List.of();
+        }
+        long maxCentavos = Long.MAX_VALUE;
+        if (reason == UnmetItem.Reason.OVER_BUDGET) {
+            long left = budget - best.total();
+            if (left <= 0) {
+                return List.of();
+            }
+            maxCentavos = (long) Math.floor(left / list.quantities()[item]);
+        }
+        return SubstituteService.toOptions(index, shoppingIndexService.substitutes()
+                .substitutes(index, productId, best.column(), requiredTags, maxCentavos, SUBSTITUTES_PER_ITEM));
+    }
+
+    private static double pesos(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Outcome at one market.
+     *
+     * @param rows   Chosen product row per item, -1 if the market sells no eligible product.
+     * @param costs  Household cost per item in centavos.
+     * @param chosen Items bought.
+     */
+    record MarketPlan(int column, int[] rows, long[] costs, boolean[] chosen,
+                      int coveredItems, long coveredWeight, long total) {
+
+        static MarketPlan of(int column, int[] rows, long[] costs, boolean[] chosen, int[] weights) {
+            int covered = 0;
+            long weight = 0;
+            long total = 0;
+            for (int item = 0; item < rows.length; item++) {
+                if (chosen[item]) {
+                    covered++;
+                    weight += weights[item];
+                    total += costs[item];
+                }
+            }
+            return new MarketPlan(column, rows, costs, chosen, covered, weight, total);
+        }
+    }
+}
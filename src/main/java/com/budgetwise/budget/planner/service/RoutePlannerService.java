@@ -0,0 +1,411 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.planner.dto.*;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Plans a shopping trip across up to K markets: cheaper prices at another market are only worth
+ * the extra stop if they beat the travel it costs.
+ *
+ * Logic Flow:
+ * 1. Resolve the list once (same rules as the budget planner). Candidate markets have coordinates
+ *    and sell at least one item; the cheapest eligible product per (item, market) is precomputed.
+ * 2. For a set of markets, every item goes to the market in the set where it is cheapest, and the
+ *    stops are ordered by nearest neighbour + 2-opt over the start point and the set (distance matrix
+ *    from the index). The visit is simulated from the departure time at {@value #AVERAGE_SPEED_KMH} km/h
+ *    with {@value #MINUTES_PER_STOP} minutes per stop: we wait for a market to open, and a set whose
+ *    tour (or, failing that, closing-time order) reaches a market after it closes is rejected.
+ *    A closing time before the opening time is an overnight market, open until that time the next morning.
+ * 3. Sets are compared by items covered, then goods + costPerKm x km. Markets are added greedily
+ *    while that improves the trip, then single drops/swaps are tried until none helps.
+ * Everything runs on the in-memory {@link ShoppingPriceIndex}: no queries.
+ */
+@Service
+public class RoutePlannerService {
+
+    static final int DEFAULT_MAX_MARKETS = 3;
+    static final int MAX_MARKETS = 5;
+    static final double DEFAULT_COST_PER_KM = 10.0;
+    static final double AVERAGE_SPEED_KMH = 20.0;
+    static final double MINUTES_PER_STOP = 20.0;
+
+    private static final double MINUTES_PER_DAY = 24 * 60;
+
+    private final ShoppingIndexService shoppingIndexService;
+
+    public RoutePlannerService(ShoppingIndexService shoppingIndexService) {
+        this.shoppingIndexService = shoppingIndexService;
+    }
+
+    /**
+     * @throws IllegalArgumentException on a missing/invalid start point, household size, maxMarkets,
+     *                                  costPerKm or item.
+     */
+    public RoutePlanResponse plan(RoutePlanRequest request) {
+        Double latitude = request.startLatitude();
+        Double longitude = request.startLongitude();
+        if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("startLatitude and startLongitude are required and must be valid coordinates");
+        }
+        int householdSize = request.householdSize() == null ? 1 : request.householdSize();
+        if (householdSize < 1 || householdSize > BudgetPlannerService.MAX_HOUSEHOLD_SIZE) {
+            throw new IllegalArgumentException("householdSize must be between 1 and " + BudgetPlannerService.MAX_HOUSEHOLD_SIZE);
+        }
+        int maxMarkets = request.maxMarkets() == null ? DEFAULT_MAX_MARKETS : request.maxMarkets();
+        if (maxMarkets < 1 || maxMarkets > MAX_MARKETS) {
+            throw new IllegalArgumentException("maxMarkets must be between 1 and " + MAX_MARKETS);
+        }
+        double costPerKm = request.costPerKm() == null ? DEFAULT_COST_PER_KM : request.costPerKm();
+        if (costPerKm < 0) {
+            throw new IllegalArgumentException("costPerKm cannot be negative");
+        }
+        LocalTime departure = request.departureTime() == null ? LocalTime.now() : request.departureTime();
+
+        ShoppingPriceIndex index = shoppingIndexService.current();
+        ShoppingList list = ShoppingList.resolve(index, request.items(), request.dietaryTags(), householdSize);
+
+        Trip trip = new Trip(index, list, latitude, longitude, departure.toSecondOfDay() / 60.0, costPerKm);
+        return trip.search(maxMarkets).toResponse(departure);
+    }
+
+    /**
+     * Search state for one request: the candidate markets and the per-item costs there.
+     */
+    static final class Trip {
+
+        private final ShoppingPriceIndex index;
+        private final ShoppingList list;
+        private final double startLatitude;
+        private final double startLongitude;
+        private final double departureMinutes;
+        private final double costPerKm;
+
+        private final int[] candidates; // Index columns
+        private final int[][] rows; // [item][candidate] cheapest eligible row, -1 if not sold
+        private final long[][] costs; // [item][candidate] household cost in centavos
+
+        Trip(ShoppingPriceIndex index, ShoppingList list, double startLatitude, double startLongitude,
+             double departureMinutes, double costPerKm) {
+            this.index = index;
+            this.list = list;
+            this.startLatitude = startLatitude;
+            this.startLongitude = startLongitude;
+            this.departureMinutes = departureMinutes;
+            this.costPerKm = costPerKm;
+
+            int size = list.size();
+            List<Integer> usable = new ArrayList<>();
+            List<int[]> rowsPerColumn = new ArrayList<>();
+            for (int column = 0; column < index.marketCount(); column++) {
+                if (!index.hasLocation(column)) {
+                    continue;
+                }
+                int[] cheapest = new int[size];
+                boolean sellsAny = false;
+                for (int item = 0; item < size; item++) {
+                    cheapest[item] = list.cheapestRow(index, item, column);
+                    sellsAny |= cheapest[item] >= 0;
+                }
+                if (sellsAny) {
+                    usable.add(column);
+                    rowsPerColumn.add(cheapest);
+                }
+            }
+
+            candidates = usable.stream().mapToInt(Integer::intValue).toArray();
+            rows = new int[size][candidates.length];
+            costs = new long[size][candidates.length];
+            for (int c = 0; c < candidates.length; c++) {
+                for (int item = 0; item < size; item++) {
+                    int row = rowsPerColumn.get(c)[item];
+                    rows[item][c] = row;
+                    costs[item][c] = row < 0 ? 0 : list.cost(item, index.centavos(row, candidates[c]));
+                }
+            }
+        }
+
+        /**
+         * Greedy additions up to maxMarkets, then drops/swaps until no single change improves the trip.
+         */
+        Result search(int maxMarkets) {
+            Route best = null;
+            Route bestSingle = null;
+            int[] chosen = new int[0];
+
+            while (chosen.length < maxMarkets) {
+                Route roundBest = null;
+                for (int c = 0; c < candidates.length; c++) {
+                    if (!contains(chosen, c)) {
+                        roundBest = better(evaluate(append(chosen, c)), roundBest);
+                    }
+                }
+                if (chosen.length == 0) {
+                    bestSingle = roundBest;
+                }
+                if (roundBest == null || better(roundBest, best) != roundBest) {
+                    break;
+                }
+                best = roundBest;
+                chosen = roundBest.set();
+            }
+
+            boolean improved = best != null;
+            while (improved) {
+                improved = false;
+                Route current = best;
+                for (int i = 0; i < chosen.length && !improved; i++) {
+                    if (chosen.length > 1) {
+                        best = better(evaluate(remove(chosen, i)), best);
+                    }
+                    for (int c = 0; c < candidates.length && best == current; c++) {
+                        if (!contains(chosen, c)) {
+                            int[] swapped = chosen.clone();
+                            swapped[i] = c;
+                            best = better(evaluate(swapped), best);
+                        }
+                    }
+                    improved = best != current;
+                }
+                chosen = best.set();
+            }
+            return new Result(this, best, bestSingle);
+        }
+
+        /**
+         * Assigns items, orders the stops and checks opening hours for one set of candidates.
+         *
+         * @return null if no visiting order reaches every market while it is open, or a market gets no item.
+         */
+        Route evaluate(int[] set) {
+            int size = list.size();
+            int[] assignment = new int[size];
+            int[] itemsPerStop = new int[set.length];
+            int covered = 0;
+            long goods = 0;
+            for (int item = 0; item < size; item++) {
+                int best = -1;
+                for (int s = 0; s < set.length; s++) {
+                    int c = set[s];
+                    if (rows[item][c] >= 0 && (best < 0 || costs[item][c] < costs[item][set[best]])) {
+                        best = s;
+                    }
+                }
+                assignment[item] = best;
+                if (best >= 0) {
+                    itemsPerStop[best]++;
+                    covered++;
+                    goods += costs[item][set[best]];
+                }
+            }
+            for (int count : itemsPerStop) {
+                if (count == 0) {
+                    return null;
+                }
+            }
+
+            double[][] distances = distances(set);
+            int[] tour = TourOptimizer.solve(distances);
+            double[] arrivals = schedule(set, tour, distances);
+            if (arrivals == null) {
+                tour = byClosingTime(set);
+                arrivals = schedule(set, tour, distances);
+                if (arrivals == null) {
+                    return null;
+                }
+            }
+
+            double km = TourOptimizer.length(tour, distances);
+            long total = goods + Math.round(km * costPerKm * 100);
+            return new Route(set, assignment, tour, distances, arrivals, covered, goods, km, total);
+        }
+
+        /** Node 0 is the start point, node s + 1 is set[s]. */
+        private double[][] distances(int[] set) {
+            int n = set.length + 1;
+            double[][] distances = new double[n][n];
+            for (int s = 0; s < set.length; s++) {
+                double fromStart = index.distanceKm(startLatitude, startLongitude, candidates[set[s]]);
+                distances[0][s + 1] = fromStart;
+                distances[s + 1][0] = fromStart;
+                for (int t = s + 1; t < set.length; t++) {
+                    double between = index.distanceKm(candidates[set[s]], candidates[set[t]]);
+                    distances[s + 1][t + 1] = between;
+                    distances[t + 1][s + 1] = between;
+                }
+            }
+            return distances;
+        }
+
+        /**
+         * Arrival minute (after any wait for opening) per tour position, or null if a market is closed
+         * before the shopping there can be finished.
+         */
+        private double[] schedule(int[] set, int[] tour, double[][] distances) {
+            double[] arrivals = new double[tour.length];
+            double clock = departureMinutes;
+            arrivals[0] = clock;
+            for (int position = 1; position < tour.length; position++) {
+                clock += distances[tour[position - 1]][tour[position]] / AVERAGE_SPEED_KMH * 60;
+                int column = candidates[set[tour[position] - 1]];
+                LocalTime opening = index.openingTime(column);
+                LocalTime closing = index.closingTime(column);
+                double open = opening == null ? 0 : opening.toSecondOfDay() / 60.0;
+                double close = closing == null ? Double.POSITIVE_INFINITY : closing.toSecondOfDay() / 60.0;
+                if (opening != null && closing != null && closing.isBefore(opening)) {
+                    // Overnight market: still open from last night, otherwise open tonight until tomorrow's close
+                    if (clock + MINUTES_PER_STOP <= close) {
+                        open = 0;
+                    } else {
+                        close += MINUTES_PER_DAY;
+                    }
+                }
+                clock = Math.max(clock, open);
+                double done = clock + MINUTES_PER_STOP;
+                if (done > close) {
+                    return null;
+                }
+                arrivals[position] = clock;
+                clock = done;
+            }
+            return arrivals;
+        }
+
+        /** Earliest-closing market first (overnight markets close the next day, no closing time last). */
+        private int[] byClosingTime(int[] set) {
+            return IntStream.rangeClosed(0, set.length).boxed()
+                    .sorted(Comparator.comparingDouble(node -> {
+                        if (node == 0) {
+                            return Double.NEGATIVE_INFINITY;
+                        }
+                        LocalTime opening = index.openingTime(candidates[set[node - 1]]);
+                        LocalTime closing = index.closingTime(candidates[set[node - 1]]);
+                        if (closing == null) {
+                            return Double.POSITIVE_INFINITY;
+                        }
+                        boolean overnight = opening != null && closing.isBefore(opening);
+                        return closing.toSecondOfDay() + (overnight ? MINUTES_PER_DAY * 60 : 0);
+                    }))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /** The better of two routes (more items covered, then cheaper overall); nulls lose. */
+        private static Route better(Route candidate, Route incumbent) {
+            if (candidate == null) {
+                return incumbent;
+            }
+            if (incumbent == null || candidate.covered() > incumbent.covered()
+                    || (candidate.covered() == incumbent.covered() && candidate.total() < incumbent.total())) {
+                return candidate;
+            }
+            return incumbent;
+        }
+
+        private static boolean contains(int[] set, int c) {
+            for (int member : set) {
+                if (member == c) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int[] append(int[] set, int c) {
+            int[] extended = Arrays.copyOf(set, set.length + 1);
+            extended[set.length] = c;
+            return extended;
+        }
+
+        private static int[] remove(int[] set, int position) {
+            int[] reduced = new int[set.length - 1];
+            System.arraycopy(set, 0, reduced, 0, position);
+            System.arraycopy(set, position + 1, reduced, position, set.length - position - 1);
+            return reduced;
+        }
+    }
+
+    /**
+     * One evaluated set of markets.
+     *
+     * @param set        Candidate positions (unordered).
+     * @param assignment Per item, the position in set it is bought at, -1 if none sells it.
+     * @param tour       Visiting order over the distance matrix nodes (0 = start, s + 1 = set[s]).
+     * @param arrivals   Arrival minute of the day per tour position.
+     */
+    record Route(int[] set, int[] assignment, int[] tour, double[][] distances, double[] arrivals,
+                 int covered, long goods, double km, long total) {
+    }
+
+    record Result(Trip trip, Route best, Route bestSingle) {
+
+        RoutePlanResponse toResponse(LocalTime departure) {
+            ShoppingPriceIndex index = trip.index;
+            ShoppingList list = trip.list;
+            List<UnmetItem> unmet = new ArrayList<>();
+            List<List<PlanLine>> linesPerStop = new ArrayList<>();
+            long[] subtotals = new long[best == null ? 0 : best.set().length];
+            for (int s = 0; s < subtotals.length; s++) {
+                linesPerStop.add(new ArrayList<>());
+            }
+
+            for (int item = 0; item < list.size(); item++) {
+                int stop = best == null ? -1 : best.assignment()[item];
+                if (stop < 0) {
+                    PlanItemRequest requested = list.items().get(item);
+                    unmet.add(new UnmetItem(item, requested.category(), requested.productId(),
+                            UnmetItem.Reason.NOT_AVAILABLE, List.of()));
+                    continue;
+                }
+                int c = best.set()[stop];
+                int column = trip.candidates[c];
+                int row = trip.rows[item][c];
+                long cost = trip.costs[item][c];
+                linesPerStop.get(stop).add(new PlanLine(item, index.category(row), index.productId(row),
+                        index.productName(row), index.unit(row), pesos(index.centavos(row, column)),
+                        list.quantities()[item], pesos(cost)));
+                subtotals[stop] += cost;
+            }
+
+            if (best == null) {
+                return new RoutePlanResponse(departure, List.of(), unmet, 0.0, 0.0, 0.0, 0.0, null, null);
+            }
+
+            List<RouteStop> stops = new ArrayList<>();
+            int[] tour = best.tour();
+            for (int position = 1; position < tour.length; position++) {
+                int stop = tour[position] - 1;
+                int column = trip.candidates[best.set()[stop]];
+                stops.add(new RouteStop(position, index.marketId(column), index.marketName(column),
+                        index.latitude(column), index.longitude(column),
+                        round(best.distances()[tour[position - 1]][tour[position]]),
+                        LocalTime.ofSecondOfDay(Math.round(best.arrivals()[position] * 60) % 86_400),
+                        linesPerStop.get(stop), pesos(subtotals[stop])));
+            }
+
+            boolean comparable = bestSingle != null && bestSingle.covered() == best.covered();
+            return new RoutePlanResponse(
+                    departure,
+                    stops,
+                    unmet,
+                    pesos(best.goods()),
+                    round(best.km()),
+                    pesos(best.total() - best.goods()),
+                    pesos(best.total()),
+                    comparable ? pesos(bestSingle.total()) : null,
+                    comparable ? pesos(bestSingle.total() - best.total()) : null
+            );
+        }
+
+        private static double pesos(long centavos) {
+            return centavos / 100.0;
+        }
+
+        private static double round(double km) {
+            return Math.round(km * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.event.PriceMatrixRebuiltEvent;
+import com.budgetwise.budget.common.snapshot.CoalescingRebuilder;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.market.service.PriceMatrix;
+import com.budgetwise.budget.market.service.PriceMatrixService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the {@link ShoppingPriceIndex} every planner reads, and the {@link SubstitutionIndex} derived from it.
+ *
+ * Concurrency Model (same as the price matrix):
+ * - Plans read a single volatile snapshot and never hit PostgreSQL.
+ * - The snapshot wraps the current {@link PriceMatrix} (prices from latest_market_price) with dietary tags
+ *   and market locations. It is rebuilt off the request thread whenever the price matrix announces a new
+ *   snapshot, so it follows every catalog change; bursts are coalesced by a {@link CoalescingRebuilder}.
+ * - Substitutes are re-ranked only for the categories of the products changed since the last pass;
+ *   changes without product ids (market edits) or a failed pass re-rank everything.
+ */
+@Slf4j
+@Service
+public class ShoppingIndexService {
+
+    private final PriceMatrixService priceMatrixService;
+    private final ProductDietaryTagRepository productDietaryTagRepository;
+    private final MarketLocationRepository marketLocationRepository;
+    private final CoalescingRebuilder rebuilder = new CoalescingRebuilder("Shopping index", this::buildSnapshot);
+
+    private final Set<Long> changedProducts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allProductsChanged = new AtomicBoolean(true);
+
+    private volatile ShoppingPriceIndex index = ShoppingPriceIndex.EMPTY;
+    private volatile SubstitutionIndex substitutes = SubstitutionIndex.EMPTY;
+
+    public ShoppingIndexService(PriceMatrixService priceMatrixService,
+                                ProductDietaryTagRepository productDietaryTagRepository,
+                                MarketLocationRepository marketLocationRepository) {
+        this.priceMatrixService = priceMatrixService;
+        this.productDietaryTagRepository = productDietaryTagRepository;
+        this.marketLocationRepository = marketLocationRepository;
+    }
+
+    /**
+     * Number of snapshots built since startup.
+     */
+    public long generation() {
+        return rebuilder.generation();
+    }
+
+    /**
+     * Only records what changed (cheap, on the committing thread); the rebuild waits for the new price matrix.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.productIds().isEmpty()) {
+            allProductsChanged.set(true);
+        } else {
+            changedProducts.addAll(event.productIds());
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onPriceMatrixRebuilt(PriceMatrixRebuiltEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index and swaps it in. Concurrent calls are coalesced into at most one extra pass.
+     */
+    void rebuild() {
+        rebuilder.rebuild();
+    }
+
+    private void buildSnapshot() {
+        long start = System.nanoTime();
+        Set<Long> changed = takeChangedProducts();
+        try {
+            PriceMatrix matrix = priceMatrixService.current();
+            if (priceMatrixService.generation() == 0) {
+                // Never publish an index built on the empty matrix; the matrix rebuild event retries
+                throw new IllegalStateException("Price matrix is not built yet");
+            }
+            ShoppingPriceIndex fresh = ShoppingPriceIndex.build(matrix,
+                    productDietaryTagRepository.findAllTags(), marketLocationRepository.findAll());
+            SubstitutionIndex freshSubstitutes = SubstitutionIndex.update(substitutes, fresh, changed);
+            index = fresh;
+            substitutes = freshSubstitutes;
+
+            log.info("Shopping index rebuilt: {} products x {} markets, {} substitute categories re-ranked in {} ms",
+                    fresh.productCount(), fresh.marketCount(), freshSubstitutes.recomputedCategories(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // The next pass re-ranks every substitute
+            allProductsChanged.set(true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Products changed since the last pass, or null when everything must be re-ranked.
+     */
+    private Set<Long> takeChangedProducts() {
+        Set<Long> changed = new HashSet<>(changedProducts);
+        changedProducts.removeAll(changed);
+        return allProductsChanged.getAndSet(false) ? null : changed;
+    }
+
+    /**
+     * Current snapshot; waits for (or runs) the first rebuild if a request arrives before it finished.
+     */
+    ShoppingPriceIndex current() {
+        rebuilder.ensureBuilt();
+        return index;
+    }
+
+    /**
+     * Substitutes matching the current snapshot (product ids, resolved against {@link #current()}).
+     */
+    SubstitutionIndex substitutes() {
+        rebuilder.ensureBuilt();
+        return substitutes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.planner.dto.PlanItemRequest;
+
+import java.util.*;
+
+/**
+ * A validated shopping list resolved against one {@link ShoppingPriceIndex} snapshot:
+ * per item, the index rows of every product that may fill it (category and dietary tags already applied).
+ *
+ * @param quantities Household quantity per item.
+ * @param weights    Priority per item (1 when not given).
+ */
+record ShoppingList(List<PlanItemRequest> items, int[][] candidates, double[] quantities, int[] weights) {
+
+    static final int MAX_ITEMS = 50;
+
+    static ShoppingList resolve(ShoppingPriceIndex index, List<PlanItemRequest> items,
+                                Collection<String> dietaryTags, int householdSize) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("A shopping list can contain at most " + MAX_ITEMS + " items");
+        }
+        Set<String> requiredTags = new HashSet<>();
+        if (dietaryTags != null) {
+            dietaryTags.stream().filter(tag -> tag != null && !tag.isBlank())
+                    .forEach(tag -> requiredTags.add(ShoppingPriceIndex.key(tag)));
+        }
+
+        int size = items.size();
+        int[][] candidates = new int[size][];
+        double[] quantities = new double[size];
+        int[] weights = new int[size];
+        for (int i = 0; i < size; i++) {
+            PlanItemRequest item = items.get(i);
+            if (item == null || (item.productId() == null && (item.category() == null || item.category().isBlank()))) {
+                throw new IllegalArgumentException("Item " + i + " needs a category or a productId");
+            }
+            if (item.quantity() == null || item.quantity() <= 0) {
+                throw new IllegalArgumentException("Item " + i + " needs a positive quantity");
+            }
+            if (item.priority() != null && item.priority() < 1) {
+                throw new IllegalArgumentException("Item " + i + " priority must be at least 1");
+            }
+
+            int[] rows;
+            if (item.productId() != null) {
+                int row = index.row(item.productId());
+                rows = row < 0 ? new int[0] : new int[]{row};
+            } else {
+                rows = index.rowsInCategory(item.category());
+            }
+            candidates[i] = requiredTags.isEmpty()
+                    ? rows
+                    : Arrays.stream(rows).filter(row -> index.hasTags(row, requiredTags)).toArray();
+            quantities[i] = item.quantity() * householdSize;
+            weights[i] = item.priority() == null ? 1 : item.priority();
+        }
+        return new ShoppingList(List.copyOf(items), candidates, quantities, weights);
+    }
+
+    int size() {
+        return candidates.length;
+    }
+
+    /**
+     * Cheapest eligible product for an item at one market, or -1 if the market sells none.
+     */
+    int cheapestRow(ShoppingPriceIndex index, int item, int column) {
+        int best = -1;
+        long bestPrice = Long.MAX_VALUE;
+        for (int row : candidates[item]) {
+            long price = index.centavos(row, column);
+            if (price != ShoppingPriceIndex.NO_PRICE && price < bestPrice) {
+                best = row;
+                bestPrice = price;
+            }
+        }
+        return best;
+    }
+
+    /** Cost in centavos of an item's household quantity at the given unit price. */
+    long cost(int item, long unitCentavos) {
+        return Math.round(unitCentavos * quantities[item]);
+    }
+}
@@ -0,0 +1,207 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository.TagProjection;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.service.PriceMatrix;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Immutable in-memory snapshot the planners work on: the latest price of every active product
+ * at every active market, plus each product's category and dietary tags.
+ *
+ * Layout:
+ * - Products, markets and prices are the {@link PriceMatrix} snapshot's rows, columns and centavos
+ *   (no second copy); NO_PRICE where a market does not sell the product.
+ * - Category and tag lookups are precomputed (lower-case keys), so a plan never scans strings per market.
+ * - Markets carry their coordinates and opening hours, with a precomputed great-circle distance
+ *   matrix between every pair of located markets (NaN when either has no coordinates).
+ */
+final class ShoppingPriceIndex {
+
+    static final long NO_PRICE = -1;
+
+    static final ShoppingPriceIndex EMPTY = build(PriceMatrix.build(List.of()), List.of(), List.of());
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final PriceMatrix matrix;
+    private final List<Set<String>> tags;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final LocalTime[] openingTimes;
+    private final LocalTime[] closingTimes;
+    private final double[] distancesKm;
+    private final Map<String, int[]> rowsByCategory;
+
+    private ShoppingPriceIndex(PriceMatrix matrix, List<Set<String>> tags, double[] latitudes, double[] longitudes,
+                               LocalTime[] openingTimes, LocalTime[] closingTimes) {
+        this.matrix = matrix;
+        this.tags = tags;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.openingTimes = openingTimes;
+        this.closingTimes = closingTimes;
+
+        Map<String, List<Integer>> byCategory = new HashMap<>();
+        for (int row = 0; row < matrix.productCount(); row++) {
+            if (matrix.category(row) != null) {
+                byCategory.computeIfAbsent(key(matrix.category(row)), k -> new ArrayList<>()).add(row);
+            }
+        }
+        Map<String, int[]> rows = new HashMap<>();
+        byCategory.forEach((category, list) -> rows.put(category, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.rowsByCategory = rows;
+
+        int markets = matrix.marketCount();
+        this.distancesKm = new double[markets * markets];
+        for (int from = 0; from < markets; from++) {
+            for (int to = 0; to < markets; to++) {
+                distancesKm[from * markets + to] = haversineKm(latitudes[from], longitudes[from], latitudes[to], longitudes[to]);
+            }
+        }
+    }
+
+    static ShoppingPriceIndex build(PriceMatrix matrix, List<TagProjection> tagRows, List<MarketLocation> locations) {
+        int marketCount = matrix.marketCount();
+        double[] latitudes = new double[marketCount];
+        double[] longitudes = new double[marketCount];
+        Arrays.fill(latitudes, Double.NaN);
+        Arrays.fill(longitudes, Double.NaN);
+        LocalTime[] openingTimes = new LocalTime[marketCount];
+        LocalTime[] closingTimes = new LocalTime[marketCount];
+        for (MarketLocation location : locations) {
+            int locationColumn = location.getId() == null ? -1 : matrix.column(location.getId());
+            if (locationColumn < 0) {
+                continue;
+            }
+            // Unset coordinates are stored as 0/0
+            if (location.getLatitude() != 0 || location.getLongitude() != 0) {
+                latitudes[locationColumn] = location.getLatitude();
+                longitudes[locationColumn] = location.getLongitude();
+            }
+            openingTimes[locationColumn] = location.getOpeningTime() == null ? null : location.getOpeningTime().toLocalTime();
+            closingTimes[locationColumn] = location.getClosingTime() == null ? null : location.getClosingTime().toLocalTime();
+        }
+
+        int productCount = matrix.productCount();
+        List<Set<String>> tags = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            tags.add(new HashSet<>());
+        }
+        for (TagProjection tag : tagRows) {
+            int tagRow = tag.getProductId() == null ? -1 : matrix.row(tag.getProductId());
+            if (tagRow >= 0 && tag.getDietaryTag() != null) {
+                tags.get(tagRow).add(key(tag.getDietaryTag()));
+            }
+        }
+        tags.replaceAll(Set::copyOf);
+
+        return new ShoppingPriceIndex(matrix, tags, latitudes, longitudes, openingTimes, closingTimes);
+    }
+
+    int productCount() {
+        return matrix.productCount();
+    }
+
+    int marketCount() {
+        return matrix.marketCount();
+    }
+
+    /** Row of a product, or -1 if it has no current price anywhere. */
+    int row(long productId) {
+        return matrix.row(productId);
+    }
+
+    /** Column of a market, or -1 if it has no current prices. */
+    int column(long marketId) {
+        return matrix.column(marketId);
+    }
+
+    int[] rowsInCategory(String category) {
+        return category == null ? new int[0] : rowsByCategory.getOrDefault(key(category), new int[0]);
+    }
+
+    /** Whether the product carries every tag in requiredTags (lower-case). */
+    boolean hasTags(int row, Set<String> requiredTags) {
+        return tags.get(row).containsAll(requiredTags);
+    }
+
+    /** Latest price in centavos, or NO_PRICE. */
+    long centavos(int row, int column) {
+        return matrix.hasPrice(row, column) ? matrix.centavos(row, column) : NO_PRICE;
+    }
+
+    long productId(int row) {
+        return matrix.productId(row);
+    }
+
+    String productName(int row) {
+        return matrix.productName(row);
+    }
+
+    String category(int row) {
+        return matrix.category(row);
+    }
+
+    String unit(int row) {
+        return matrix.unit(row);
+    }
+
+    Set<String> tags(int row) {
+        return tags.get(row);
+    }
+
+    long marketId(int column) {
+        return matrix.marketId(column);
+    }
+
+    String marketName(int column) {
+        return matrix.marketName(column);
+    }
+
+    double latitude(int column) {
+        return latitudes[column];
+    }
+
+    double longitude(int column) {
+        return longitudes[column];
+    }
+
+    boolean hasLocation(int column) {
+        return !Double.isNaN(latitudes[column]);
+    }
+
+    /** Null when the market has no recorded opening time. */
+    LocalTime openingTime(int column) {
+        return openingTimes[column];
+    }
+
+    /** Null when the market has no recorded closing time. */
+    LocalTime closingTime(int column) {
+        return closingTimes[column];
+    }
+
+    /** Great-circle distance between two markets in km (NaN if either has no coordinates). */
+    double distanceKm(int fromColumn, int toColumn) {
+        return distancesKm[fromColumn * matrix.marketCount() + toColumn];
+    }
+
+    /** Great-circle distance from a point to a market in km (NaN if the market has no coordinates). */
+    double distanceKm(double latitude, double longitude, int column) {
+        return haversineKm(latitude, longitude, latitudes[column], longitudes[column]);
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
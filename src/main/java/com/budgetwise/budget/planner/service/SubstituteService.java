@@ -0,0 +1,94 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.planner.dto.SubstituteOption;
+import com.budgetwise.budget.planner.dto.SubstituteResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cheaper-substitute recommendations, served from the in-memory {@link SubstitutionIndex}.
+ */
+@Service
+public class SubstituteService {
+
+    public static final int MAX_LIMIT = SubstitutionIndex.MAX_SUBSTITUTES;
+
+    private final ShoppingIndexService shoppingIndexService;
+
+    public SubstituteService(ShoppingIndexService shoppingIndexService) {
+        this.shoppingIndexService = shoppingIndexService;
+    }
+
+    /**
+     * @param marketId    Optional: compare prices at this market (substitutes must be sold there).
+     * @param dietaryTags Optional: every substitute must carry all of them.
+     * @throws ResourceNotFoundException if the product or market has no current prices.
+     */
+    public SubstituteResponse recommend(Long productId, Long marketId, Collection<String> dietaryTags, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        ShoppingPriceIndex index = shoppingIndexService.current();
+        int row = index.row(productId);
+        if (row < 0) {
+            throw new ResourceNotFoundException("ProductInfo", "id", productId);
+        }
+        int column = -1;
+        if (marketId != null) {
+            column = index.column(marketId);
+            if (column < 0) {
+                throw new ResourceNotFoundException("MarketLocation", "id", marketId);
+            }
+        }
+
+        List<SubstitutionIndex.Match> matches = shoppingIndexService.substitutes()
+                .substitutes(index, productId, column, tagKeys(dietaryTags), Long.MAX_VALUE, limit);
+        Double referencePrice = matches.isEmpty()
+                ? referencePrice(index, row, column)
+                : pesos(matches.get(0).referenceCentavos());
+        return new SubstituteResponse(productId, index.productName(row), index.category(row), index.unit(row),
+                marketId, referencePrice, toOptions(index, matches));
+    }
+
+    static Set<String> tagKeys(Collection<String> dietaryTags) {
+        Set<String> keys = new HashSet<>();
+        if (dietaryTags != null) {
+            dietaryTags.stream().filter(tag -> tag != null && !tag.isBlank())
+                    .forEach(tag -> keys.add(ShoppingPriceIndex.key(tag)));
+        }
+        return keys;
+    }
+
+    static List<SubstituteOption> toOptions(ShoppingPriceIndex index, List<SubstitutionIndex.Match> matches) {
+        return matches.stream()
+                .map(match -> new SubstituteOption(
+                        index.productId(match.row()),
+                        index.productName(match.row()),
+                        index.unit(match.row()),
+                        pesos(match.centavos()),
+                        round(100.0 * (match.referenceCentavos() - match.centavos()) / match.referenceCentavos()),
+                        round(match.similarity())))
+                .toList();
+    }
+
+    private static Double referencePrice(ShoppingPriceIndex index, int row, int column) {
+        if (column >= 0) {
+            long price = index.centavos(row, column);
+            return price == ShoppingPriceIndex.NO_PRICE ? null : pesos(price);
+        }
+        return null;
+    }
+
+    private static double pesos(long centavos) {
+        return centavos / 100.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,226 @@
+package com.budgetwise.budget.planner.service;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable per-product list of cheaper substitutes, precomputed from a {@link ShoppingPriceIndex}.
+ *
+ * Candidates of a product:
+ * - same category and same unit (prices per unit must be comparable),
+ * - cheaper on average across the markets selling them.
+ * Ranked by 0.5 x similarity + 0.5 x savings ratio, where similarity is
+ * 0.6 x Jaccard of the dietary tag sets + 0.4 x Jaccard of the name tokens.
+ *
+ * Lists only depend on the products of their own category, so {@link #update} re-ranks the categories
+ * holding a changed product (or whose membership changed) and keeps every other list as is.
+ * Lists hold product ids, not rows, so they stay valid across index snapshots.
+ */
+final class SubstitutionIndex {
+
+    static final int MAX_SUBSTITUTES = 10;
+
+    static final SubstitutionIndex EMPTY = new SubstitutionIndex(Map.of(), Map.of(), Map.of(), 0);
+
+    private static final double TAG_WEIGHT = 0.6;
+    private static final double NAME_WEIGHT = 0.4;
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * @param averageCentavos Average current price across the markets selling the candidate.
+     */
+    record Candidate(long productId, double similarity, long averageCentavos) {}
+
+    /**
+     * A substitute resolved at serve time.
+     *
+     * @param centavos          Candidate price used for the comparison (at the market, or its average).
+     * @param referenceCentavos Price of the original product it is compared with.
+     */
+    record Match(int row, long centavos, long referenceCentavos, double similarity, double score) {}
+
+    private final Map<Long, List<Candidate>> byProduct;
+    private final Map<String, Set<Long>> membersByCategory;
+    private final Map<Long, Long> averageCentavos;
+    private final int recomputedCategories;
+
+    private SubstitutionIndex(Map<Long, List<Candidate>> byProduct, Map<String, Set<Long>> membersByCategory,
+                              Map<Long, Long> averageCentavos, int recomputedCategories) {
+        this.byProduct = byProduct;
+        this.membersByCategory = membersByCategory;
+        this.averageCentavos = averageCentavos;
+        this.recomputedCategories = recomputedCategories;
+    }
+
+    static SubstitutionIndex build(ShoppingPriceIndex index) {
+        return update(EMPTY, index, null);
+    }
+
+    /**
+     * Next index for a fresh price snapshot.
+     *
+     * @param changedProducts Products whose price or tags may have changed since previous; null for all.
+     */
+    static SubstitutionIndex update(SubstitutionIndex previous, ShoppingPriceIndex index, Set<Long> changedProducts) {
+        Map<String, List<Integer>> rowsByCategory = new HashMap<>();
+        Map<Long, Long> averages = new HashMap<>();
+        for (int row = 0; row < index.productCount(); row++) {
+            long average = averageCentavos(index, row);
+            if (average == ShoppingPriceIndex.NO_PRICE || index.category(row) == null) {
+                continue;
+            }
+            averages.put(index.productId(row), average);
+            rowsByCategory.computeIfAbsent(ShoppingPriceIndex.key(index.category(row)), k -> new ArrayList<>()).add(row);
+        }
+
+        Map<Long, List<Candidate>> byProduct = new HashMap<>();
+        Map<String, Set<Long>> members = new HashMap<>();
+        int recomputed = 0;
+        for (Map.Entry<String, List<Integer>> category : rowsByCategory.entrySet()) {
+            List<Integer> rows = category.getValue();
+            Set<Long> ids = new HashSet<>();
+            rows.forEach(row -> ids.add(index.productId(row)));
+            members.put(category.getKey(), Set.copyOf(ids));
+
+            boolean dirty = changedProducts == null
+                    || !ids.equals(previous.membersByCategory.get(category.getKey()))
+                    || ids.stream().anyMatch(changedProducts::contains);
+            if (dirty) {
+                rankCategory(index, rows, averages, byProduct);
+                recomputed++;
+            } else {
+                ids.forEach(id -> byProduct.put(id, previous.byProduct.getOrDefault(id, List.of())));
+            }
+        }
+        return new SubstitutionIndex(byProduct, members, averages, recomputed);
+    }
+
+    int productCount() {
+        return byProduct.size();
+    }
+
+    /** Categories re-ranked when this index was built. */
+    int recomputedCategories() {
+        return recomputedCategories;
+    }
+
+    List<Candidate> candidates(long productId) {
+        return byProduct.getOrDefault(productId, List.of());
+    }
+
+    /**
+     * Cheaper substitutes of a product, best first.
+     *
+     * @param column       Market column to compare prices at, or -1 to compare averages.
+     * @param requiredTags Lower-case tags every substitute must carry (empty for none).
+     * @param maxCentavos  Highest acceptable substitute price per unit (Long.MAX_VALUE for no limit).
+     */
+    List<Match> substitutes(ShoppingPriceIndex index, long productId, int column, Set<String> requiredTags,
+                            long maxCentavos, int limit) {
+        int productRow = index.row(productId);
+        Long average = averageCentavos.get(productId);
+        if (productRow < 0 || average == null) {
+            return List.of();
+        }
+        long reference = average;
+        if (column >= 0 && index.centavos(productRow, column) != ShoppingPriceIndex.NO_PRICE) {
+            reference = index.centavos(productRow, column);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Candidate candidate : candidates(productId)) {
+            int row = index.row(candidate.productId());
+            if (row < 0 || (!requiredTags.isEmpty() && !index.hasTags(row, requiredTags))) {
+                continue;
+            }
+            long price = column >= 0 ? index.centavos(row, column) : candidate.averageCentavos();
+            if (price == ShoppingPriceIndex.NO_PRICE || price >= reference || price > maxCentavos) {
+                continue;
+            }
+            matches.add(new Match(row, price, reference, candidate.similarity(),
+                    score(candidate.similarity(), reference, price)));
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparingLong(Match::centavos));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private static void rankCategory(ShoppingPriceIndex index, List<Integer> rows, Map<Long, Long> averages,
+                                     Map<Long, List<Candidate>> out) {
+        int size = rows.size();
+        List<Set<String>> tokens = new ArrayList<>(size);
+        for (int row : rows) {
+            tokens.add(tokens(index.productName(row)));
+        }
+
+        for (int i = 0; i < size; i++) {
+            int row = rows.get(i);
+            long price = averages.get(index.productId(row));
+            List<Candidate> candidates = new ArrayList<>();
+            for (int j = 0; j < size; j++) {
+                int other = rows.get(j);
+                long otherPrice = averages.get(index.productId(other));
+                if (i == j || otherPrice >= price || !sameUnit(index.unit(row), index.unit(other))) {
+                    continue;
+                }
+                double similarity = TAG_WEIGHT * jaccard(index.tags(row), index.tags(other))
+                        + NAME_WEIGHT * jaccard(tokens.get(i), tokens.get(j));
+                candidates.add(new Candidate(index.productId(other), similarity, otherPrice));
+            }
+            candidates.sort(Comparator
+                    .comparingDouble((Candidate c) -> score(c.similarity(), price, c.averageCentavos())).reversed()
+                    .thenComparingLong(Candidate::averageCentavos));
+            out.put(index.productId(row), List.copyOf(candidates.size() > MAX_SUBSTITUTES
+                    ? candidates.subList(0, MAX_SUBSTITUTES)
+                    : candidates));
+        }
+    }
+
+    static double score(double similarity, long referenceCentavos, long centavos) {
+        double savings = referenceCentavos <= 0 ? 0 : (double) (referenceCentavos - centavos) / referenceCentavos;
+        return 0.5 * similarity + 0.5 * savings;
+    }
+
+    /** Jaccard similarity; two empty sets count as identical. */
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1.0;
+        }
+        int shared = 0;
+        for (String value : a) {
+            if (b.contains(value)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    static Set<String> tokens(String name) {
+        if (name == null) {
+            return Set.of();
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String token : NON_ALNUM.split(name.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean sameUnit(String a, String b) {
+        return a == null ? b == null : b != null && ShoppingPriceIndex.key(a).equals(ShoppingPriceIndex.key(b));
+    }
+
+    private static long averageCentavos(ShoppingPriceIndex index, int row) {
+        long sum = 0;
+        int markets = 0;
+        for (int column = 0; column < index.marketCount(); column++) {
+            long price = index.centavos(row, column);
+            if (price != ShoppingPriceIndex.NO_PRICE) {
+                sum += price;
+                markets++;
+            }
+        }
+        return markets == 0 ? ShoppingPriceIndex.NO_PRICE : Math.round((double) sum / markets);
+    }
+}
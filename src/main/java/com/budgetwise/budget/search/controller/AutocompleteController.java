@@ -0,0 +1,32 @@
+package com.budgetwise.budget.search.controller;
+
+import com.budgetwise.budget.search.dto.AutocompleteResponse;
+import com.budgetwise.budget.search.service.AutocompleteService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/autocomplete")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Typeahead suggestions for commodity and market names.
+     * * GET /api/v1/autocomplete?q=sibu
+     * Served entirely from memory; matching ignores accents and casing.
+     * * @param query The text typed so far.
+     * @param limit (Optional) Max suggestions per group (Default: 8, Max: 10).
+     */
+    @GetMapping
+    public ResponseEntity<AutocompleteResponse> autocomplete(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(autocompleteService.suggest(query, limit));
+    }
+}
@@ -0,0 +1,10 @@
+package com.budgetwise.budget.search.dto;
+
+import java.util.List;
+
+public record AutocompleteResponse(
+        String query,
+        List<AutocompleteSuggestion> products,
+        List<AutocompleteSuggestion> markets
+) {
+}
@@ -0,0 +1,9 @@
+package com.budgetwise.budget.search.dto;
+
+public record AutocompleteSuggestion(
+        Long id,
+        String label,
+        String detail,
+        long popularity
+) {
+}
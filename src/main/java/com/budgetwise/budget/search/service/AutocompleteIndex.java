@@ -0,0 +1,188 @@
+package com.budgetwise.budget.search.service;
+
+import com.budgetwise.budget.search.dto.AutocompleteSuggestion;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable compressed prefix trie (radix tree) used for typeahead lookups.
+ *
+ * Build Logic:
+ * 1. Suggestions are sorted by popularity first, so a lower index always means a better rank.
+ * 2. Every folded name is inserted along with each of its word suffixes,
+ *    so typing "onion" also finds "Red Onion".
+ * 3. Single-child chains are collapsed into one edge label (compression).
+ * 4. Every node keeps the top-K suggestion indexes of its whole subtree.
+ *
+ * Lookup walks at most |prefix| characters and returns the precomputed top-K,
+ * so a keystroke never sorts, allocates a candidate list, or touches the database.
+ */
+public final class AutocompleteIndex {
+
+    public static final int TOP_K = 10;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+    private static final AutocompleteIndex EMPTY = build(List.of());
+
+    /**
+     * A suggestion together with every name it should be reachable by
+     * (e.g. product name and local name).
+     */
+    public record Entry(AutocompleteSuggestion suggestion, List<String> names) {}
+
+    private final AutocompleteSuggestion[] suggestions;
+    private final Node root;
+
+    private AutocompleteIndex(AutocompleteSuggestion[] suggestions, Node root) {
+        this.suggestions = suggestions;
+        this.root = root;
+    }
+
+    public static AutocompleteIndex empty() {
+        return EMPTY;
+    }
+
+    public static AutocompleteIndex build(List<Entry> entries) {
+        List<Entry> ranked = new ArrayList<>(entries);
+        ranked.sort(Comparator
+                .comparingLong((Entry e) -> e.suggestion().popularity()).reversed()
+                .thenComparing(e -> e.suggestion().label(), Comparator.nullsLast(String::compareTo)));
+
+        BuildNode buildRoot = new BuildNode();
+        AutocompleteSuggestion[] suggestions = new AutocompleteSuggestion[ranked.size()];
+
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Entry entry = ranked.get(rank);
+            suggestions[rank] = entry.suggestion();
+
+            for (String name : entry.names()) {
+                String key = fold(name);
+                for (int start = 0; start < key.length(); start++) {
+                    // Index the full key plus every word suffix
+                    if (start == 0 || key.charAt(start - 1) == ' ') {
+                        buildRoot.insert(key, start, rank);
+                    }
+                }
+            }
+        }
+
+        return new AutocompleteIndex(suggestions, compress(buildRoot, ""));
+    }
+
+    /**
+     * Folds text into its searchable form:
+     * strips diacritics ("Muñoz" -> "munoz"), lowercases, and collapses punctuation into single spaces.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALNUM.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions whose name (or a word in it) starts with the prefix,
+     * most popular first.
+     */
+    public List<AutocompleteSuggestion> lookup(String prefix, int limit) {
+        String query = fold(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        int pos = 0;
+        while (pos < query.length()) {
+            int idx = Arrays.binarySearch(node.firstChars, query.charAt(pos));
+            if (idx < 0) {
+                return List.of();
+            }
+            Node child = node.children[idx];
+            int length = Math.min(child.label.length(), query.length() - pos);
+            if (!query.regionMatches(pos, child.label, 0, length)) {
+                return List.of();
+            }
+            pos += length;
+            node = child;
+        }
+
+        int count = Math.min(limit, node.top.length);
+        List<AutocompleteSuggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(suggestions[node.top[i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * Collapses single-child chains and computes the subtree top-K for each node.
+     */
+    private static Node compress(BuildNode buildNode, String label) {
+        StringBuilder edge = new StringBuilder(label);
+        BuildNode current = buildNode;
+        while (current.children.size() == 1 && current.terminals.isEmpty() && !edge.isEmpty()) {
+            Map.Entry<Character, BuildNode> only = current.children.firstEntry();
+            edge.append(only.getKey());
+            current = only.getValue();
+        }
+
+        int childCount = current.children.size();
+        char[] firstChars = new char[childCount];
+        Node[] children = new Node[childCount];
+        TreeSet<Integer> candidates = new TreeSet<>(current.terminals);
+
+        int i = 0;
+        for (Map.Entry<Character, BuildNode> child : current.children.entrySet()) {
+            firstChars[i] = child.getKey();
+            children[i] = compress(child.getValue(), String.valueOf(child.getKey()));
+            for (int rank : children[i].top) {
+                candidates.add(rank);
+            }
+            i++;
+        }
+
+        // Lower rank = more popular, so the first K of the sorted set are the top-K
+        int[] top = candidates.stream()
+                .limit(TOP_K)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        return new Node(edge.toString(), firstChars, children, top);
+    }
+
+    private static final class Node {
+        final String label;
+        final char[] firstChars;
+        final Node[] children;
+        final int[] top;
+
+        Node(String label, char[] firstChars, Node[] children, int[] top) {
+            this.label = label;
+            this.firstChars = firstChars;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    private static final class BuildNode {
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        final Set<Integer> terminals = new HashSet<>();
+
+        void insert(String key, int start, int rank) {
+            BuildNode node = this;
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            node.terminals.add(rank);
+        }
+    }
+}
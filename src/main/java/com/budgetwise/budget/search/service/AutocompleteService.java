@@ -0,0 +1,138 @@
+package com.budgetwise.budget.search.service;
+
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.snapshot.CoalescingRebuilder;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.search.dto.AutocompleteResponse;
+import com.budgetwise.budget.search.dto.AutocompleteSuggestion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Serves typeahead suggestions for products and markets from in-memory tries.
+ *
+ * Concurrency Model:
+ * - Reads go through a single volatile snapshot, so a lookup never blocks and never hits PostgreSQL.
+ * - Rebuilds run off the request thread (@Async) after catalog changes commit,
+ *   and the finished snapshot is swapped in atomically.
+ * - Bursts of change events are coalesced by a {@link CoalescingRebuilder}: while a rebuild runs,
+ *   further requests only mark the index dirty and the running rebuild loops once more.
+ */
+@Slf4j
+@Service
+public class AutocompleteService {
+
+    public static final int MAX_LIMIT = AutocompleteIndex.TOP_K;
+
+    private final ProductInfoRepository productInfoRepository;
+    private final MarketLocationRepository marketLocationRepository;
+
+    private final CoalescingRebuilder rebuilder = new CoalescingRebuilder("Autocomplete index", this::buildSnapshot);
+
+    private volatile Snapshot snapshot = new Snapshot(AutocompleteIndex.empty(), AutocompleteIndex.empty());
+
+    public AutocompleteService(ProductInfoRepository productInfoRepository, MarketLocationRepository marketLocationRepository) {
+        this.productInfoRepository = productInfoRepository;
+        this.marketLocationRepository = marketLocationRepository;
+    }
+
+    /**
+     * Returns the most popular products and markets matching the typed prefix.
+     *
+     * @param query Raw user input (accents and casing are ignored).
+     * @param limit Maximum suggestions per group, capped at {@link #MAX_LIMIT}.
+     */
+    public AutocompleteResponse suggest(String query, int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Snapshot current = snapshot;
+
+        return new AutocompleteResponse(
+                query,
+                current.products().lookup(query, cappedLimit),
+                current.markets().lookup(query, cappedLimit)
+        );
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildIndex();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuildIndex();
+    }
+
+    /**
+     * Rebuilds both tries and swaps them in. Concurrent calls are coalesced into at most one extra pass.
+     */
+    void rebuildIndex() {
+        rebuilder.rebuild();
+    }
+
+    private void buildSnapshot() {
+        long start = System.nanoTime();
+
+        Snapshot fresh = new Snapshot(buildProductIndex(), buildMarketIndex());
+        snapshot = fresh;
+
+        log.info("Autocomplete index rebuilt: {} products, {} markets in {} ms",
+                fresh.products().size(), fresh.markets().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private AutocompleteIndex buildProductIndex() {
+        List<AutocompleteIndex.Entry> entries = new ArrayList<>();
+
+        for (ProductInfoRepository.ProductPopularityProjection p
+                : productInfoRepository.findPopularityByStatus(ProductInfo.Status.ACTIVE)) {
+
+            List<String> names = Stream.of(p.getProductName(), p.getLocalName())
+                    .filter(name -> name != null && !name.isBlank())
+                    .toList();
+
+            entries.add(new AutocompleteIndex.Entry(
+                    new AutocompleteSuggestion(p.getId(), p.getProductName(), p.getCategory(), popularity(p.getPopularity())),
+                    names
+            ));
+        }
+        return AutocompleteIndex.build(entries);
+    }
+
+    private AutocompleteIndex buildMarketIndex() {
+        List<AutocompleteIndex.Entry> entries = new ArrayList<>();
+
+        for (MarketLocationRepository.MarketPopularityProjection m
+                : marketLocationRepository.findPopularityByStatus(MarketLocation.Status.ACTIVE)) {
+
+            if (m.getMarketLocation() == null || m.getMarketLocation().isBlank()) {
+                continue;
+            }
+            String type = m.getType() != null ? m.getType().name() : null;
+
+            entries.add(new AutocompleteIndex.Entry(
+                    new AutocompleteSuggestion(m.getId(), m.getMarketLocation(), type, popularity(m.getPopularity())),
+                    List.of(m.getMarketLocation())
+            ));
+        }
+        return AutocompleteIndex.build(entries);
+    }
+
+    private long popularity(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    private record Snapshot(AutocompleteIndex products, AutocompleteIndex markets) {}
+}
@@ -0,0 +1,62 @@
+package com.budgetwise.budget.watchlist.controller;
+
+import com.budgetwise.budget.watchlist.dto.CreatePriceWatch;
+import com.budgetwise.budget.watchlist.dto.PriceWatchResponse;
+import com.budgetwise.budget.watchlist.dto.WatchAlertResponse;
+import com.budgetwise.budget.watchlist.service.PriceWatchService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/watchlists")
+public class PriceWatchController {
+
+    private final PriceWatchService priceWatchService;
+
+    public PriceWatchController(PriceWatchService priceWatchService) {
+        this.priceWatchService = priceWatchService;
+    }
+
+    /**
+     * Creates a price watch.
+     * * POST /api/v1/watchlists
+     * - Body: ownerKey, productId, optional marketId (null = any market), direction (BELOW or ABOVE), threshold.
+     * - The watch alerts whenever a report moves the price across the threshold.
+     */
+    @PostMapping
+    public ResponseEntity<PriceWatchResponse> createWatch(@RequestBody @Valid CreatePriceWatch request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(priceWatchService.createWatch(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceWatchResponse>> displayWatches(@RequestParam("owner") String owner) {
+        return ResponseEntity.ok(priceWatchService.findWatches(owner));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<PriceWatchResponse> deactivateWatch(@PathVariable("id") Long id,
+                                                              @RequestParam("owner") String owner) {
+        return ResponseEntity.ok(priceWatchService.deactivateWatch(id, owner));
+    }
+
+    /**
+     * Alert inbox of one owner, newest first. Live alerts are also pushed on
+     * GET /api/v1/prices/stream?watcher={owner}.
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<Page<WatchAlertResponse>> displayAlerts(
+            @RequestParam("owner") String owner,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(priceWatchService.findAlerts(owner, pageable));
+    }
+}
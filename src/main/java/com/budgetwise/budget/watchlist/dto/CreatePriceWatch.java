@@ -0,0 +1,27 @@
+package com.budgetwise.budget.watchlist.dto;
+
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record CreatePriceWatch(
+
+        @NotBlank(message = "Owner key is required")
+        @Size(max = 100, message = "Owner key must be at most 100 characters")
+        String ownerKey,
+
+        @NotNull(message = "Product is required")
+        Long productId,
+
+        Long marketId, // Optional: null watches every market
+
+        @NotNull(message = "Direction is required")
+        PriceWatch.Direction direction,
+
+        @NotNull(message = "Threshold is required")
+        @Positive(message = "Threshold must be positive")
+        Double threshold
+) {
+}
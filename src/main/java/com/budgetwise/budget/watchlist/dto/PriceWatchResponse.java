@@ -0,0 +1,19 @@
+package com.budgetwise.budget.watchlist.dto;
+
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+
+import java.time.LocalDateTime;
+
+public record PriceWatchResponse(
+        Long id,
+        String ownerKey,
+        Long productId,
+        String productName,
+        Long marketId, // Null = any market
+        String marketName,
+        PriceWatch.Direction direction,
+        double threshold,
+        boolean active,
+        LocalDateTime createdAt,
+        LocalDateTime lastTriggeredAt
+) {}
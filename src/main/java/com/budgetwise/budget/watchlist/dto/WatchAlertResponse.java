@@ -0,0 +1,37 @@
+package com.budgetwise.budget.watchlist.dto;
+
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A triggered watch, as listed in the owner's inbox and pushed as the "alert" stream event.
+ */
+public record WatchAlertResponse(
+        Long id,
+        Long watchId,
+        Long productId,
+        String productName,
+        Long marketId,
+        String marketName,
+        PriceWatch.Direction direction,
+        double threshold,
+        double price,
+        Double previousPrice, // Null when the market had no earlier price
+        String unit,
+        LocalDate dateReported,
+        WatchAlert.Status status,
+        LocalDateTime createdAt,
+        LocalDateTime deliveredAt
+) {
+
+    /**
+     * This alert as seen by the client it is pushed to.
+     */
+    public WatchAlertResponse delivered(LocalDateTime at) {
+        return new WatchAlertResponse(id, watchId, productId, productName, marketId, marketName, direction,
+                threshold, price, previousPrice, unit, dateReported, WatchAlert.Status.DELIVERED, createdAt, at);
+    }
+}
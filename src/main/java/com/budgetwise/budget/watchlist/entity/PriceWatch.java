@@ -0,0 +1,63 @@
+package com.budgetwise.budget.watchlist.entity;
+
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A price threshold somebody wants to be told about, e.g. "Premium Rice below 48 at Quiapo".
+ *
+ * A watch fires when a new report moves the price ACROSS the threshold (previous price on the
+ * other side, or no previous price), so a price that stays below it does not alert every day.
+ * Without a market the watch applies to every market carrying the product.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "price_watch",
+        indexes = @Index(name = "idx_price_watch_owner", columnList = "owner_key"))
+public class PriceWatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Opaque id chosen by the client (device, account); alerts are delivered per owner
+    @Column(name = "owner_key", length = 100, nullable = false)
+    private String ownerKey;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_info_id", nullable = false)
+    private ProductInfo productInfo;
+
+    // Null = any market
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "market_location_id")
+    private MarketLocation marketLocation;
+
+    public enum Direction { BELOW, ABOVE }
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private Direction direction;
+
+    @Column(nullable = false)
+    private double threshold;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    @Column
+    private LocalDateTime lastTriggeredAt;
+}
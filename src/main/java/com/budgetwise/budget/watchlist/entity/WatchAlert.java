@@ -0,0 +1,84 @@
+package com.budgetwise.budget.watchlist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row of a triggered watch.
+ *
+ * Written in the ingestion transaction, so an alert exists exactly when its price was committed.
+ * WatchAlertDispatcher delivers PENDING rows after the commit and marks them DELIVERED.
+ * Product and market names are copied in so delivery never joins back into the catalog.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "watch_alert",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"price_watch_id", "price_report_id"}),
+        indexes = {
+                @Index(name = "idx_watch_alert_status", columnList = "status, id"),
+                @Index(name = "idx_watch_alert_owner", columnList = "owner_key, created_at")
+        })
+public class WatchAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "price_watch_id", nullable = false)
+    private PriceWatch priceWatch;
+
+    @Column(name = "owner_key", length = 100, nullable = false)
+    private String ownerKey;
+
+    @Column(name = "price_report_id", nullable = false)
+    private Long priceReportId;
+    @Column
+    private LocalDate dateReported;
+
+    @Column(nullable = false)
+    private Long productId;
+    @Column(length = 250)
+    private String productName;
+    @Column(nullable = false)
+    private Long marketId;
+    @Column(length = 250)
+    private String marketName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private PriceWatch.Direction direction;
+    @Column
+    private double threshold;
+    @Column
+    private double price;
+    @Column
+    private Double previousPrice;
+    @Column(length = 20)
+    private String unit;
+
+    public enum Status { PENDING, DELIVERED, FAILED }
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Status status;
+    @Column
+    private int attempts;
+    @Column(length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    @Column
+    private LocalDateTime deliveredAt;
+}
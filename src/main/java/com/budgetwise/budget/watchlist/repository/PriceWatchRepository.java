@@ -0,0 +1,70 @@
+package com.budgetwise.budget.watchlist.repository;
+
+import com.budgetwise.budget.watchlist.dto.PriceWatchResponse;
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PriceWatchRepository extends JpaRepository<PriceWatch, Long> {
+
+    /**
+     * The fields the in-memory watch index needs, for every active watch.
+     */
+    interface WatchEntryProjection {
+        Long getId();
+        Long getProductId();
+        Long getMarketId();
+        PriceWatch.Direction getDirection();
+        double getThreshold();
+    }
+
+    @Query("""
+        SELECT
+            w.id AS id,
+            w.productInfo.id AS productId,
+            m.id AS marketId,
+            w.direction AS direction,
+            w.threshold AS threshold
+        FROM PriceWatch w
+        LEFT JOIN w.marketLocation m
+        WHERE w.active = true
+    """)
+    List<WatchEntryProjection> findActiveEntries();
+
+    /**
+     * Watches of one owner, active first.
+     */
+    @Query("""
+        SELECT new com.budgetwise.budget.watchlist.dto.PriceWatchResponse(
+            w.id,
+            w.ownerKey,
+            p.id,
+            p.productName,
+            m.id,
+            m.marketLocation,
+            w.direction,
+            w.threshold,
+            w.active,
+            w.createdAt,
+            w.lastTriggeredAt
+        )
+        FROM PriceWatch w
+        JOIN w.productInfo p
+        LEFT JOIN w.marketLocation m
+        WHERE w.ownerKey = :ownerKey
+        ORDER BY w.active DESC, w.createdAt DESC
+    """)
+    List<PriceWatchResponse> findByOwner(@Param("ownerKey") String ownerKey);
+
+    @Modifying
+    @Query("UPDATE PriceWatch w SET w.lastTriggeredAt = :triggeredAt WHERE w.id IN :ids")
+    int markTriggered(@Param("ids") Collection<Long> ids, @Param("triggeredAt") LocalDateTime triggeredAt);
+}
@@ -0,0 +1,34 @@
+package com.budgetwise.budget.watchlist.repository;
+
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WatchAlertRepository extends JpaRepository<WatchAlert, Long> {
+
+    /**
+     * Watches among the given ones that already alerted for this report
+     * (a product listed twice in one report must not alert twice).
+     */
+    @Query("""
+        SELECT a.priceWatch.id FROM WatchAlert a
+        WHERE a.priceReportId = :reportId
+          AND a.priceWatch.id IN :watchIds
+    """)
+    List<Long> findAlertedWatchIds(@Param("reportId") Long reportId, @Param("watchIds") Collection<Long> watchIds);
+
+    /**
+     * Next outbox batch in id order, starting after the given id (keyset pagination via idx_watch_alert_status).
+     */
+    List<WatchAlert> findByStatusAndIdGreaterThanOrderByIdAsc(WatchAlert.Status status, Long afterId, Pageable pageable);
+
+    Page<WatchAlert> findByOwnerKey(String ownerKey, Pageable pageable);
+}
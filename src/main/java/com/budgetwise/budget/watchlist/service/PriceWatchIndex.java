@@ -0,0 +1,215 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+
+import java.util.*;
+
+/**
+ * Immutable interval index over watch thresholds, keyed by product and market.
+ *
+ * Every (product, market) pair has two arrays of watches sorted by threshold, one per direction;
+ * watches without a market live under ANY_MARKET. A price moving from previous to price crosses
+ * exactly the thresholds inside one interval:
+ * - BELOW fires for thresholds in (price, previous]
+ * - ABOVE fires for thresholds in [previous, price)
+ * Without a previous price the interval is open on that side.
+ *
+ * So checking one ingested price is two binary searches per bucket plus the matches,
+ * no matter how many watches exist. Updates copy only the affected bucket (watches change rarely).
+ */
+public final class PriceWatchIndex {
+
+    public static final long ANY_MARKET = 0L;
+
+    private static final PriceWatchIndex EMPTY = new PriceWatchIndex(Map.of(), 0);
+
+    /**
+     * @param marketId ANY_MARKET when the watch applies to every market.
+     */
+    public record Entry(long watchId, long productId, long marketId, PriceWatch.Direction direction, double threshold) {}
+
+    private final Map<Long, Map<Long, Bucket>> byProduct;
+    private final int size;
+
+    private PriceWatchIndex(Map<Long, Map<Long, Bucket>> byProduct, int size) {
+        this.byProduct = byProduct;
+        this.size = size;
+    }
+
+    public static PriceWatchIndex empty() {
+        return EMPTY;
+    }
+
+    public static PriceWatchIndex build(Collection<Entry> entries) {
+        Map<Long, Map<Long, List<Entry>>> grouped = new HashMap<>();
+        for (Entry entry : entries) {
+            grouped.computeIfAbsent(entry.productId(), id -> new HashMap<>())
+                    .computeIfAbsent(entry.marketId(), id -> new ArrayList<>())
+                    .add(entry);
+        }
+
+        Map<Long, Map<Long, Bucket>> byProduct = new HashMap<>();
+        grouped.forEach((productId, markets) -> {
+            Map<Long, Bucket> buckets = new HashMap<>();
+            markets.forEach((marketId, list) -> buckets.put(marketId, Bucket.of(list)));
+            byProduct.put(productId, buckets);
+        });
+        return new PriceWatchIndex(byProduct, entries.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy of this index with the watch added (or replaced, if its id is already indexed in the same bucket).
+     */
+    public PriceWatchIndex with(Entry entry) {
+        List<Entry> bucket = bucketEntries(entry.productId(), entry.marketId());
+        boolean replaced = bucket.removeIf(e -> e.watchId() == entry.watchId());
+        bucket.add(entry);
+        return withBucket(entry.productId(), entry.marketId(), bucket, replaced ? size : size + 1);
+    }
+
+    /**
+     * Copy of this index without the watch; the same index if it was not indexed.
+     */
+    public PriceWatchIndex without(Entry entry) {
+        List<Entry> bucket = bucketEntries(entry.productId(), entry.marketId());
+        if (!bucket.removeIf(e -> e.watchId() == entry.watchId())) {
+            return this;
+        }
+        return withBucket(entry.productId(), entry.marketId(), bucket, size - 1);
+    }
+
+    /**
+     * Watches whose threshold the move from previousPrice to price crossed at this market,
+     * including the product's any-market watches.
+     *
+     * @param previousPrice Null for the first price of the pair (every satisfied threshold counts as crossed).
+     */
+    public List<Entry> crossings(long productId, long marketId, Double previousPrice, double price) {
+        Map<Long, Bucket> buckets = byProduct.get(productId);
+        if (buckets == null) {
+            return List.of();
+        }
+        List<Entry> matches = new ArrayList<>();
+        Bucket market = buckets.get(marketId);
+        if (market != null) {
+            market.collect(previousPrice, price, matches);
+        }
+        if (marketId != ANY_MARKET) {
+            Bucket any = buckets.get(ANY_MARKET);
+            if (any != null) {
+                any.collect(previousPrice, price, matches);
+            }
+        }
+        return matches;
+    }
+
+    private List<Entry> bucketEntries(long productId, long marketId) {
+        Bucket bucket = byProduct.getOrDefault(productId, Map.of()).get(marketId);
+        List<Entry> entries = new ArrayList<>();
+        if (bucket != null) {
+            entries.addAll(Arrays.asList(bucket.below));
+            entries.addAll(Arrays.asList(bucket.above));
+        }
+        return entries;
+    }
+
+    private PriceWatchIndex withBucket(long productId, long marketId, List<Entry> entries, int newSize) {
+        Map<Long, Map<Long, Bucket>> products = new HashMap<>(byProduct);
+        Map<Long, Bucket> buckets = new HashMap<>(products.getOrDefault(productId, Map.of()));
+        if (entries.isEmpty()) {
+            buckets.remove(marketId);
+        } else {
+            buckets.put(marketId, Bucket.of(entries));
+        }
+        if (buckets.isEmpty()) {
+            products.remove(productId);
+        } else {
+            products.put(productId, buckets);
+        }
+        return new PriceWatchIndex(products, newSize);
+    }
+
+    /**
+     * Watches of one (product, market) pair, each direction sorted by threshold ascending.
+     */
+    private static final class Bucket {
+        private final Entry[] below;
+        private final double[] belowThresholds;
+        private final Entry[] above;
+        private final double[] aboveThresholds;
+
+        private Bucket(Entry[] below, Entry[] above) {
+            this.below = below;
+            this.above = above;
+            this.belowThresholds = thresholds(below);
+            this.aboveThresholds = thresholds(above);
+        }
+
+        static Bucket of(List<Entry> entries) {
+            Comparator<Entry> byThreshold = Comparator.comparingDouble(Entry::threshold).thenComparingLong(Entry::watchId);
+            Entry[] below = entries.stream()
+                    .filter(e -> e.direction() == PriceWatch.Direction.BELOW)
+                    .sorted(byThreshold)
+                    .toArray(Entry[]::new);
+            Entry[] above = entries.stream()
+                    .filter(e -> e.direction() == PriceWatch.Direction.ABOVE)
+                    .sorted(byThreshold)
+                    .toArray(Entry[]::new);
+            return new Bucket(below, above);
+        }
+
+        void collect(Double previousPrice, double price, List<Entry> out) {
+            // BELOW: price < threshold <= previous
+            int from = firstGreater(belowThresholds, price);
+            int to = previousPrice == null ? below.length : firstGreater(belowThresholds, previousPrice);
+            for (int i = from; i < to; i++) {
+                out.add(below[i]);
+            }
+
+            // ABOVE: previous <= threshold < price
+            from = previousPrice == null ? 0 : firstAtLeast(aboveThresholds, previousPrice);
+            to = firstAtLeast(aboveThresholds, price);
+            for (int i = from; i < to; i++) {
+                out.add(above[i]);
+            }
+        }
+
+        private static double[] thresholds(Entry[] entries) {
+            double[] thresholds = new double[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                thresholds[i] = entries[i].threshold();
+            }
+            return thresholds;
+        }
+
+        private static int firstGreater(double[] sorted, double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int firstAtLeast(double[] sorted, double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.watchlist.dto.CreatePriceWatch;
+import com.budgetwise.budget.watchlist.dto.PriceWatchResponse;
+import com.budgetwise.budget.watchlist.dto.WatchAlertResponse;
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+import com.budgetwise.budget.watchlist.repository.PriceWatchRepository;
+import com.budgetwise.budget.watchlist.repository.WatchAlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Price watchlists: users register thresholds, ingestion checks every new price against them.
+ *
+ * Logic Flow:
+ * - Active watches live in an in-memory {@link PriceWatchIndex}, loaded at startup and patched
+ *   after every watch change commits.
+ * - Ingestion hands over the latest_market_price rows it just upserted; each row is one index lookup
+ *   (previous price -> new price), so cost follows the matches, not the number of watches.
+ * - Triggered watches become PENDING rows of the watch_alert outbox in the same transaction;
+ *   WatchAlertDispatcher delivers them once the report committed.
+ */
+@Slf4j
+@Service
+public class PriceWatchService {
+
+    public static final int MAX_WATCHES_PER_OWNER = 100;
+
+    private final PriceWatchRepository priceWatchRepository;
+    private final WatchAlertRepository watchAlertRepository;
+    private final ProductInfoRepository productInfoRepository;
+    private final MarketLocationRepository marketLocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile PriceWatchIndex index = PriceWatchIndex.empty();
+    private volatile boolean loaded;
+
+    /**
+     * Published when a watch was created or deactivated; applied to the index after commit.
+     */
+    public record WatchChangedEvent(PriceWatchIndex.Entry entry, boolean active) {}
+
+    public PriceWatchService(PriceWatchRepository priceWatchRepository,
+                             WatchAlertRepository watchAlertRepository,
+                             ProductInfoRepository productInfoRepository,
+                             MarketLocationRepository marketLocationRepository,
+                             ApplicationEventPublisher eventPublisher) {
+        this.priceWatchRepository = priceWatchRepository;
+        this.watchAlertRepository = watchAlertRepository;
+        this.productInfoRepository = productInfoRepository;
+        this.marketLocationRepository = marketLocationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the index from every active watch.
+     */
+    public synchronized void reload() {
+        List<PriceWatchIndex.Entry> entries = priceWatchRepository.findActiveEntries().stream()
+                .map(w -> new PriceWatchIndex.Entry(w.getId(), w.getProductId(),
+                        w.getMarketId() == null ? PriceWatchIndex.ANY_MARKET : w.getMarketId(),
+                        w.getDirection(), w.getThreshold()))
+                .toList();
+        index = PriceWatchIndex.build(entries);
+        loaded = true;
+        log.info("Price watch index loaded: {} active watches", entries.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onWatchChanged(WatchChangedEvent event) {
+        index = event.active() ? index.with(event.entry()) : index.without(event.entry());
+    }
+
+    @Transactional
+    public PriceWatchResponse createWatch(CreatePriceWatch request) {
+        ProductInfo product = productInfoRepository.findById(request.productId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.productId()));
+        MarketLocation market = null;
+        if (request.marketId() != null) {
+            market = marketLocationRepository.findById(request.marketId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Market", "id", request.marketId()));
+        }
+        long activeWatches = priceWatchRepository.findByOwner(request.ownerKey()).stream()
+                .filter(PriceWatchResponse::active)
+                .count();
+        if (activeWatches >= MAX_WATCHES_PER_OWNER) {
+            throw new IllegalArgumentException("An owner can have at most " + MAX_WATCHES_PER_OWNER + " active watches");
+        }
+
+        PriceWatch watch = new PriceWatch();
+        watch.setOwnerKey(request.ownerKey());
+        watch.setProductInfo(product);
+        watch.setMarketLocation(market);
+        watch.setDirection(request.direction());
+        watch.setThreshold(request.threshold());
+        watch.setActive(true);
+        priceWatchRepository.save(watch);
+
+        eventPublisher.publishEvent(new WatchChangedEvent(toEntry(watch), true));
+        return toResponse(watch);
+    }
+
+    /**
+     * Deactivates a watch. The row is kept because delivered alerts reference it.
+     *
+     * @throws IllegalArgumentException if the watch belongs to another owner.
+     */
+    @Transactional
+    public PriceWatchResponse deactivateWatch(Long id, String ownerKey) {
+        PriceWatch watch = priceWatchRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("PriceWatch", "id", id));
+        if (!watch.getOwnerKey().equals(ownerKey)) {
+            throw new IllegalArgumentException("Watch " + id + " belongs to another owner");
+        }
+        if (watch.isActive()) {
+            watch.setActive(false);
+            eventPublisher.publishEvent(new WatchChangedEvent(toEntry(watch), false));
+        }
+        return toResponse(watch);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PriceWatchResponse> findWatches(String ownerKey) {
+        return priceWatchRepository.findByOwner(ownerKey);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WatchAlertResponse> findAlerts(String ownerKey, Pageable pageable) {
+        return watchAlertRepository.findByOwnerKey(ownerKey, pageable).map(PriceWatchService::toAlertResponse);
+    }
+
+    /**
+     * Checks freshly upserted latest prices against the watch index and queues the triggered alerts.
+     * Runs inside the ingestion transaction.
+     *
+     * An any-market watch crossed at several markets alerts once, for its best market
+     * (cheapest for BELOW, dearest for ABOVE).
+     *
+     * @param rows Rows returned by LatestPriceService.applyRecords (one product, several markets).
+     * @return Number of alerts queued.
+     */
+    @Transactional
+    public int evaluate(PriceReport report, List<LatestMarketPrice> rows) {
+        if (!loaded) {
+            reload();
+        }
+        PriceWatchIndex snapshot = index;
+        if (snapshot.size() == 0 || rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Hit> hits = new LinkedHashMap<>();
+        for (LatestMarketPrice row : rows) {
+            if (row.getMarketLocation() == null || row.getMarketLocation().getId() == null) {
+                continue;
+            }
+            List<PriceWatchIndex.Entry> crossed = snapshot.crossings(row.getProductInfo().getId(),
+                    row.getMarketLocation().getId(), row.getPreviousPrice(), row.getPrice());
+            for (PriceWatchIndex.Entry entry : crossed) {
+                hits.merge(entry.watchId(), new Hit(entry, row), Hit::better);
+            }
+        }
+        if (hits.isEmpty()) {
+            return 0;
+        }
+
+        // Same product listed twice in one report (two origins): alert only once
+        watchAlertRepository.findAlertedWatchIds(report.getId(), hits.keySet()).forEach(hits::remove);
+        if (hits.isEmpty()) {
+            return 0;
+        }
+
+        List<PriceWatch> watches = priceWatchRepository.findAllById(hits.keySet());
+        List<WatchAlert> alerts = new ArrayList<>();
+        for (PriceWatch watch : watches) {
+            if (!watch.isActive()) {
+                continue;
+            }
+            alerts.add(toAlert(watch, hits.get(watch.getId()).row(), report));
+        }
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+        watchAlertRepository.saveAll(alerts);
+        priceWatchRepository.markTriggered(alerts.stream().map(a -> a.getPriceWatch().getId()).toList(), LocalDateTime.now());
+
+        log.info("Queued {} watch alerts for report {}", alerts.size(), report.getId());
+        return alerts.size();
+    }
+
+    private record Hit(PriceWatchIndex.Entry entry, LatestMarketPrice row) {
+        Hit better(Hit other) {
+            double current = row.getPrice();
+            double candidate = other.row().getPrice();
+            boolean otherBetter = entry.direction() == PriceWatch.Direction.BELOW ? candidate < current : candidate > current;
+            return otherBetter ? other : this;
+        }
+    }
+
+    private static WatchAlert toAlert(PriceWatch watch, LatestMarketPrice row, PriceReport report) {
+        WatchAlert alert = new WatchAlert();
+        alert.setPriceWatch(watch);
+        alert.setOwnerKey(watch.getOwnerKey());
+        alert.setPriceReportId(report.getId());
+        alert.setDateReported(report.getDateReported());
+        alert.setProductId(row.getProductInfo().getId());
+        alert.setProductName(row.getProductInfo().getProductName());
+        alert.setMarketId(row.getMarketLocation().getId());
+        alert.setMarketName(row.getMarketLocation().getMarketLocation());
+        alert.setDirection(watch.getDirection());
+        alert.setThreshold(watch.getThreshold());
+        alert.setPrice(row.getPrice());
+        alert.setPreviousPrice(row.getPreviousPrice());
+        alert.setUnit(row.getUnit());
+        alert.setStatus(WatchAlert.Status.PENDING);
+        return alert;
+    }
+
+    private static PriceWatchIndex.Entry toEntry(PriceWatch watch) {
+        long marketId = watch.getMarketLocation() == null ? PriceWatchIndex.ANY_MARKET : watch.getMarketLocation().getId();
+        return new PriceWatchIndex.Entry(watch.getId(), watch.getProductInfo().getId(), marketId,
+                watch.getDirection(), watch.getThreshold());
+    }
+
+    private static PriceWatchResponse toResponse(PriceWatch watch) {
+        MarketLocation market = watch.getMarketLocation();
+        return new PriceWatchResponse(
+                watch.getId(),
+                watch.getOwnerKey(),
+                watch.getProductInfo().getId(),
+                watch.getProductInfo().getProductName(),
+                market == null ? null : market.getId(),
+                market == null ? null : market.getMarketLocation(),
+                watch.getDirection(),
+                watch.getThreshold(),
+                watch.isActive(),
+                watch.getCreatedAt(),
+                watch.getLastTriggeredAt()
+        );
+    }
+
+    static WatchAlertResponse toAlertResponse(WatchAlert alert) {
+        return new WatchAlertResponse(
+                alert.getId(),
+                alert.getPriceWatch().getId(),
+                alert.getProductId(),
+                alert.getProductName(),
+                alert.getMarketId(),
+                alert.getMarketName(),
+                alert.getDirection(),
+                alert.getThreshold(),
+                alert.getPrice(),
+                alert.getPreviousPrice(),
+                alert.getUnit(),
+                alert.getDateReported(),
+                alert.getStatus(),
+                alert.getCreatedAt(),
+                alert.getDeliveredAt()
+        );
+    }
+}
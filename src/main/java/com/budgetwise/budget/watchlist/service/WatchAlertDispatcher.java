@@ -0,0 +1,144 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.catalog.service.PriceStreamService;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.snapshot.CoalescingRebuilder;
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+import com.budgetwise.budget.watchlist.repository.WatchAlertRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local consumer of the watch_alert outbox.
+ *
+ * Logic Flow:
+ * - After an ingestion commits, PENDING alerts are drained in id order on a virtual thread.
+ * - Each alert is written to the owner's open price streams and marked DELIVERED once a write succeeded;
+ *   it stays readable in the owner's inbox either way.
+ * - Owner not connected: the alert stays PENDING (no attempt counted) and the periodic SWEEP retries it,
+ *   until it is older than PENDING_TTL and marked FAILED.
+ * - Every write failed: the attempt is counted, and the alert is marked FAILED after MAX_ATTEMPTS.
+ *
+ * Drains are coalesced by a {@link CoalescingRebuilder}: a commit during a running drain causes at most one extra pass.
+ */
+@Slf4j
+@Service
+public class WatchAlertDispatcher {
+
+    static final int BATCH_SIZE = 200;
+    static final int MAX_ATTEMPTS = 5;
+    static final Duration SWEEP = Duration.ofMinutes(1);
+    static final Duration PENDING_TTL = Duration.ofDays(1);
+
+    private final WatchAlertRepository watchAlertRepository;
+    private final PriceStreamService priceStreamService;
+
+    private final CoalescingRebuilder drains = new CoalescingRebuilder("Watch alert drain", this::drainOnce);
+    private final ExecutorService worker = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService sweeper =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("watch-alert-sweep").factory());
+
+    public WatchAlertDispatcher(WatchAlertRepository watchAlertRepository, PriceStreamService priceStreamService) {
+        this.watchAlertRepository = watchAlertRepository;
+        this.priceStreamService = priceStreamService;
+        long period = SWEEP.toSeconds();
+        sweeper.scheduleAtFixedRate(this::drain, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs after the ingestion transaction commits, so every queued alert is visible.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isIngestion()) {
+            worker.execute(this::drain);
+        }
+    }
+
+    /**
+     * Delivers every PENDING alert. Concurrent calls are coalesced into at most one extra pass.
+     */
+    void drain() {
+        drains.rebuild();
+    }
+
+    /**
+     * One pass over the PENDING alerts, in id order.
+     *
+     * @return Number of alerts delivered by this pass.
+     */
+    int drainOnce() {
+        int delivered = 0;
+        try {
+            long afterId = 0;
+            List<WatchAlert> batch;
+            do {
+                batch = watchAlertRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        WatchAlert.Status.PENDING, afterId, PageRequest.of(0, BATCH_SIZE));
+                for (WatchAlert alert : batch) {
+                    delivered += deliver(alert) ? 1 : 0;
+                    afterId = alert.getId();
+                }
+                watchAlertRepository.saveAll(batch);
+            } while (batch.size() == BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            // Undelivered alerts stay PENDING for the next sweep
+            log.error("Watch alert drain failed: {}", ex.getMessage(), ex);
+        }
+        if (delivered > 0) {
+            log.info("Delivered {} watch alerts", delivered);
+        }
+        return delivered;
+    }
+
+    boolean deliver(WatchAlert alert) {
+        if (!priceStreamService.isWatching(alert.getOwnerKey())) {
+            if (alert.getCreatedAt() != null && alert.getCreatedAt().isBefore(LocalDateTime.now().minus(PENDING_TTL))) {
+                alert.setStatus(WatchAlert.Status.FAILED);
+                alert.setLastError("Owner not connected within " + PENDING_TTL.toHours() + " hours");
+            }
+            return false;
+        }
+
+        alert.setAttempts(alert.getAttempts() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        int sent;
+        try {
+            sent = priceStreamService.sendAlert(alert.getOwnerKey(), alert.getId(),
+                    PriceWatchService.toAlertResponse(alert).delivered(now));
+        } catch (RuntimeException ex) {
+            log.warn("Watch alert {} could not be sent: {}", alert.getId(), ex.getMessage());
+            sent = 0;
+        }
+        if (sent > 0) {
+            alert.setStatus(WatchAlert.Status.DELIVERED);
+            alert.setDeliveredAt(now);
+            alert.setLastError(null);
+            return true;
+        }
+
+        alert.setLastError("No open stream accepted the alert");
+        if (alert.getAttempts() >= MAX_ATTEMPTS) {
+            alert.setStatus(WatchAlert.Status.FAILED);
+        }
+        log.warn("Watch alert {} delivery attempt {} failed", alert.getId(), alert.getAttempts());
+        return false;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+        worker.shutdown();
+    }
+}
@@ -1,8 +1,16 @@
 package com.budgetwise.budget.analytics.service;
 
-import com.budgetwise.budget.analytics.dto.PriceHistoryPoint;
+import com.budgetwise.budget.analytics.dto.BatchAnalyticsResponse;
 import com.budgetwise.budget.analytics.dto.ProductAnalyticsResponse;
+import com.budgetwise.budget.analytics.dto.ProductRollupBucket;
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
 import com.budgetwise.budget.analytics.repository.AnalyticsRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceDigestRepository;
+import com.budgetwise.budget.analytics.store.PriceSeriesStore;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.market.repository.MarketLocationRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,9 +21,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.ArgumentCaptor; // <--- ITO ANG KULANG KANINA
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -39,11 +47,19 @@ class AnalyticsServiceTest {
     @Mock
     private MarketLocationRepository marketRepository;
 
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private PriceSeriesStore seriesStore; // Not loaded: returns Optional.empty(), rollups are used
+
+    @Mock
+    private DailyPriceDigestRepository digestRepository; // No digests unless stubbed: distribution fields are null
+
     @InjectMocks
     private AnalyticsService analyticsService;
 
     private MarketLocation mockMarket;
-    private List<PriceHistoryPoint> mockHistory;
     private LocalDate testDate;
     private final String PRODUCT_NAME = "Red Onion";
     private final Long MARKET_ID = 1L;
@@ -56,12 +72,6 @@ class AnalyticsServiceTest {
         mockMarket = new MarketLocation();
         mockMarket.setId(MARKET_ID);
         mockMarket.setMarketLocation("Pasig Mega Market");
-
-        // Mock History Data
-        mockHistory = new ArrayList<>();
-        mockHistory.add(new PriceHistoryPoint(testDate.minusDays(2), 200.0));
-        mockHistory.add(new PriceHistoryPoint(testDate.minusDays(1), 210.0));
-        mockHistory.add(new PriceHistoryPoint(testDate, 205.0));
     }
 
     // ==================== HAPPY PATH: SPECIFIC MARKET ====================
@@ -69,18 +79,13 @@ class AnalyticsServiceTest {
     @Test
     @DisplayName("Happy Path: Get analytics for a specific market with valid data")
     void getProductAnalytics_SpecificMarket_ShouldReturnCorrectData() {
-        // Arrange
-        // Mock DB Stats: [Min, Max, Avg]
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{180.0, 220.0, 200.0});
-
+        // Arrange: one price per day -> Min 180, Max 220, Avg 200
         when(marketRepository.findById(MARKET_ID)).thenReturn(Optional.of(mockMarket));
-        when(recordRepository.findHistoryByMarket(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class)))
-                .thenReturn(mockHistory);
-        when(recordRepository.findStatsByMarket(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class)))
-                .thenReturn(mockStats);
+        when(recordRepository.findDailyRollups(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class)))
+                .thenReturn(dailyPrices(180.0, 220.0, 200.0));
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, MARKET_ID, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, MARKET_ID, 30, null);
 
         // Assert
         assertNotNull(response);
@@ -91,12 +96,15 @@ class AnalyticsServiceTest {
         assertEquals(200.0, response.averagePrice()); // 200.0 rounded is 200.0
         assertEquals(3, response.history().size());
 
-        // Volatility Calculation Check: (220 - 180) / 200 * 100 = 20% -> High
+        // Volatility Check: StdDev 20 / Avg 200 = CV 10% -> High
         assertEquals("High", response.volatility());
+        assertEquals(20.0, response.standardDeviation());
+        assertEquals(10.0, response.coefficientOfVariation());
+        assertEquals(-9.09, response.latestReturn()); // 220 -> 200
+        assertEquals(9.09, response.maxDrawdown());
 
         verify(marketRepository).findById(MARKET_ID);
-        verify(recordRepository).findHistoryByMarket(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class));
-        verify(recordRepository).findStatsByMarket(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class));
+        verify(recordRepository).findDailyRollups(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class));
     }
 
     // ==================== HAPPY PATH: NATIONAL AVERAGE ====================
@@ -104,18 +112,16 @@ class AnalyticsServiceTest {
     @Test
     @DisplayName("Happy Path: Get analytics for National Average (No Market ID)")
     void getProductAnalytics_NationalAverage_ShouldReturnAggregatedData() {
-        // Arrange
-        // Mock DB Stats: [Min, Max, Avg]
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{190.0, 210.0, 200.0});
-
-        // Use findHistoryNationalAverage instead of findHistoryByMarket
-        when(recordRepository.findHistoryNationalAverage(eq(PRODUCT_NAME), any(LocalDate.class)))
-                .thenReturn(mockHistory);
-        when(recordRepository.findStatsNational(eq(PRODUCT_NAME), any(LocalDate.class)))
-                .thenReturn(mockStats);
+        // Arrange: NATIONAL rows hold every market's price of the day
+        List<RollupBucket> national = List.of(
+                new RollupBucket(testDate.minusDays(1), 190.0, 210.0, 400.0, 2L, 190.0 * 190.0 + 210.0 * 210.0),
+                new RollupBucket(testDate, 195.0, 205.0, 400.0, 2L, 195.0 * 195.0 + 205.0 * 205.0)
+        );
+        when(recordRepository.findDailyRollups(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL), any(LocalDate.class)))
+                .thenReturn(national);
 
         // Act - Pass null as marketId
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertNotNull(response);
@@ -123,66 +129,109 @@ class AnalyticsServiceTest {
         assertEquals(190.0, response.minPrice());
         assertEquals(210.0, response.maxPrice());
         assertEquals(200.0, response.averagePrice());
+        assertEquals(200.0, response.history().get(0).price()); // Daily average across markets
 
-        // Volatility Check: (210 - 190) / 200 * 100 = 10% -> Medium
+        // Volatility Check: StdDev ≈ 9.13 / Avg 200 = CV ≈ 4.6% -> Medium
         assertEquals("Medium", response.volatility());
 
         verify(marketRepository, never()).findById(anyLong()); // Should NOT check market repo
-        verify(recordRepository).findHistoryNationalAverage(eq(PRODUCT_NAME), any(LocalDate.class));
-        verify(recordRepository).findStatsNational(eq(PRODUCT_NAME), any(LocalDate.class));
+        verify(recordRepository).findDailyRollups(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Distribution: National view - median, p10/p90 and IQR from the merged daily digests")
+    void getProductAnalytics_NationalAverage_ShouldMergeDigests() {
+        PriceDigest yesterday = new PriceDigest();
+        for (double price : new double[]{190.0, 200.0, 210.0}) {
+            yesterday.add(price);
+        }
+        PriceDigest today = new PriceDigest();
+        for (double price : new double[]{180.0, 220.0}) {
+            today.add(price);
+        }
+        when(recordRepository.findDailyRollups(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL), any(LocalDate.class)))
+                .thenReturn(List.of());
+        when(digestRepository.findDigests(eq(PRODUCT_NAME), any(LocalDate.class)))
+                .thenReturn(List.of(yesterday.toBytes(), today.toBytes()));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
+
+        assertEquals(200.0, response.medianPrice());
+        assertEquals(180.0, response.p10Price());
+        assertEquals(220.0, response.p90Price());
+        assertEquals(25.0, response.interquartileRange()); // 212.5 - 187.5
+    }
+
+    @Test
+    @DisplayName("Distribution: Specific market - no cross-market distribution")
+    void getProductAnalytics_SpecificMarket_ShouldSkipDigests() {
+        when(marketRepository.findById(MARKET_ID)).thenReturn(Optional.of(mockMarket));
+        when(recordRepository.findDailyRollups(eq(PRODUCT_NAME), eq(MARKET_ID), any(LocalDate.class)))
+                .thenReturn(dailyPrices(180.0, 220.0));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, MARKET_ID, 30, null);
+
+        assertNull(response.medianPrice());
+        assertNull(response.interquartileRange());
+        verifyNoInteractions(digestRepository);
+    }
+
+    @Test
+    @DisplayName("Logic: Average is weighted by price count, not by day")
+    void getProductAnalytics_UnevenCounts_ShouldWeightAverageByCount() {
+        // Arrange: 3 prices at 100 on day one, 1 price at 200 on day two -> (300 + 200) / 4 = 125
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(List.of(
+                        new RollupBucket(testDate.minusDays(1), 100.0, 100.0, 300.0, 3L, 30000.0),
+                        new RollupBucket(testDate, 200.0, 200.0, 200.0, 1L, 40000.0)
+                ));
+
+        // Act
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
+
+        // Assert
+        assertEquals(125.0, response.averagePrice());
     }
 
     // ==================== BUSINESS LOGIC: VOLATILITY ====================
 
     @Test
-    @DisplayName("Logic: Low Volatility Calculation (< 5%)")
+    @DisplayName("Logic: Low Volatility Calculation (CV < 3%)")
     void calculateVolatility_LowFluctuation_ShouldReturnLow() {
-        // Arrange: Min=100, Max=104, Avg=102 -> Diff=4, %=(4/102)*100 ≈ 3.92%
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{100.0, 104.0, 102.0});
-
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
-                .thenReturn(mockStats);
+        // Arrange: 100, 104, 102 -> StdDev=2, CV=(2/102)*100 ≈ 1.96%
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100.0, 104.0, 102.0));
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertEquals("Low", response.volatility());
     }
 
     @Test
-    @DisplayName("Logic: Medium Volatility Calculation (5% - 15%)")
+    @DisplayName("Logic: Medium Volatility Calculation (CV 3% - 8%)")
     void calculateVolatility_MediumFluctuation_ShouldReturnMedium() {
-        // Arrange: Min=100, Max=110, Avg=105 -> Diff=10, %=(10/105)*100 ≈ 9.5%
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{100.0, 110.0, 105.0});
-
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
-                .thenReturn(mockStats);
+        // Arrange: 100, 110, 105 -> StdDev=5, CV=(5/105)*100 ≈ 4.76%
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100.0, 110.0, 105.0));
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertEquals("Medium", response.volatility());
     }
 
     @Test
-    @DisplayName("Logic: High Volatility Calculation (> 15%)")
+    @DisplayName("Logic: High Volatility Calculation (CV >= 8%)")
     void calculateVolatility_HighFluctuation_ShouldReturnHigh() {
-        // Arrange: Min=100, Max=150, Avg=125 -> Diff=50, %=(50/125)*100 = 40%
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{100.0, 150.0, 125.0});
-
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
-                .thenReturn(mockStats);
+        // Arrange: 100, 150, 125 -> StdDev=25, CV=(25/125)*100 = 20%
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100.0, 150.0, 125.0));
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertEquals("High", response.volatility());
@@ -192,15 +241,11 @@ class AnalyticsServiceTest {
     @DisplayName("Logic: Zero Average Price (New Product) - Should Default to Low Volatility")
     void calculateVolatility_ZeroAverage_ShouldReturnLow() {
         // Arrange: No data yet
-        List<Object[]> mockStats = Collections.singletonList(new Object[]{0.0, 0.0, 0.0});
-
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
                 .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
-                .thenReturn(mockStats);
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertEquals("Low", response.volatility());
@@ -216,21 +261,178 @@ class AnalyticsServiceTest {
         int daysToLookBack = 7;
         LocalDate expectedStartDate = LocalDate.now().minusDays(daysToLookBack);
 
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
                 .thenReturn(Collections.emptyList());
 
         // Act
-        analyticsService.getProductAnalytics(PRODUCT_NAME, null, daysToLookBack);
+        analyticsService.getProductAnalytics(PRODUCT_NAME, null, daysToLookBack, null);
 
         // Assert - Verify the date passed to repository is correct
         ArgumentCaptor<LocalDate> dateCaptor = ArgumentCaptor.forClass(LocalDate.class);
-        verify(recordRepository).findHistoryNationalAverage(eq(PRODUCT_NAME), dateCaptor.capture());
+        verify(recordRepository).findDailyRollups(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL), dateCaptor.capture());
 
         assertEquals(expectedStartDate, dateCaptor.getValue());
     }
 
+    // ==================== SERIES STORE ====================
+
+    @Test
+    @DisplayName("Series Store: Loaded store answers - rollup tables are not queried")
+    void getProductAnalytics_StoreLoaded_ShouldSkipDatabase() {
+        when(seriesStore.findBuckets(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL), any(LocalDate.class), eq(RollupResolution.DAY)))
+                .thenReturn(Optional.of(dailyPrices(100.0, 120.0)));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
+
+        assertEquals(110.0, response.averagePrice());
+        assertEquals(2, response.history().size());
+        verifyNoInteractions(recordRepository);
+    }
+
+    // ==================== DOWNSAMPLING ====================
+
+    @Test
+    @DisplayName("Downsampling: maxPoints below the history size - keeps the spike and both ends, stats unchanged")
+    void getProductAnalytics_MaxPoints_ShouldDownsampleHistoryOnly() {
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100, 101, 100, 102, 150, 101, 100, 99, 100, 101));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, 5);
+
+        assertEquals(5, response.history().size());
+        assertEquals(testDate.minusDays(9), response.history().get(0).date());
+        assertEquals(testDate, response.history().get(4).date());
+        assertTrue(response.history().stream().anyMatch(point -> point.price() == 150.0));
+        assertEquals(150.0, response.maxPrice());
+        assertEquals(105.4, response.averagePrice());
+    }
+
+    @Test
+    @DisplayName("Downsampling: History already short enough - returned as is")
+    void getProductAnalytics_MaxPointsAboveSize_ShouldKeepHistory() {
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100.0, 110.0, 120.0));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, 50);
+
+        assertEquals(3, response.history().size());
+    }
+
+    @Test
+    @DisplayName("Validation: maxPoints below 3 - should be rejected")
+    void getProductAnalytics_MaxPointsTooSmall_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, 2));
+        verifyNoInteractions(recordRepository);
+    }
+
+    // ==================== BUSINESS LOGIC: RESOLUTION ====================
+
+    @Test
+    @DisplayName("Logic: Short window - reads the daily rollups")
+    void getProductAnalytics_ShortWindow_ShouldUseDailyResolution() {
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(dailyPrices(100.0, 110.0));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 90, null);
+
+        assertEquals(RollupResolution.DAY, response.resolution());
+        verify(recordRepository, never()).findPeriodRollups(anyString(), anyLong(), any(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Logic: One year window - reads weekly buckets starting on a Monday")
+    void getProductAnalytics_YearWindow_ShouldUseWeeklyResolution() {
+        when(recordRepository.findPeriodRollups(anyString(), anyLong(), eq(RollupResolution.WEEK), any(LocalDate.class)))
+                .thenReturn(List.of(new RollupBucket(testDate, 90.0, 130.0, 770.0, 7L, 85000.0)));
+
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 365, null);
+
+        ArgumentCaptor<LocalDate> dateCaptor = ArgumentCaptor.forClass(LocalDate.class);
+        verify(recordRepository).findPeriodRollups(eq(PRODUCT_NAME), eq(DailyPriceRollup.NATIONAL),
+                eq(RollupResolution.WEEK), dateCaptor.capture());
+        assertEquals(DayOfWeek.MONDAY, dateCaptor.getValue().getDayOfWeek());
+
+        assertEquals(RollupResolution.WEEK, response.resolution());
+        assertEquals(90.0, response.minPrice());
+        assertEquals(130.0, response.maxPrice());
+        assertEquals(110.0, response.averagePrice());
+        assertEquals(1, response.history().size());
+    }
+
+    @Test
+    @DisplayName("Logic: Resolution tiers keep history under the target point count")
+    void rollupResolution_ForWindow_ShouldPickFinestTierUnderTarget() {
+        assertEquals(RollupResolution.DAY, RollupResolution.forWindow(30));
+        assertEquals(RollupResolution.DAY, RollupResolution.forWindow(120));
+        assertEquals(RollupResolution.WEEK, RollupResolution.forWindow(365));
+        assertEquals(RollupResolution.MONTH, RollupResolution.forWindow(1825));
+        assertEquals(RollupResolution.YEAR, RollupResolution.forWindow(36500));
+    }
+
+    // ==================== BATCH ANALYTICS ====================
+
+    @Test
+    @DisplayName("Batch: IDs and names resolved, one grouped query, prices aligned to shared dates")
+    void getBatchAnalytics_MixedProducts_ShouldReturnColumnarResponse() {
+        ProductInfo redOnion = product(1L, PRODUCT_NAME);
+        ProductInfo garlic = product(2L, "Garlic");
+        when(productInfoRepository.findAllById(List.of(1L, 99L))).thenReturn(List.of(redOnion));
+        when(productInfoRepository.findByProductNameIn(List.of("Garlic"))).thenReturn(List.of(garlic));
+        when(seriesStore.findBuckets(anyString(), anyLong(), any(LocalDate.class), any())).thenReturn(Optional.empty());
+        when(recordRepository.findDailyRollupsForProducts(eq(List.of(1L, 2L)), eq(DailyPriceRollup.NATIONAL), any(LocalDate.class)))
+                .thenReturn(List.of(
+                        new ProductRollupBucket(1L, testDate.minusDays(1), 200.0, 200.0, 200.0, 1L, 40000.0),
+                        new ProductRollupBucket(1L, testDate, 220.0, 220.0, 220.0, 1L, 48400.0),
+                        new ProductRollupBucket(2L, testDate, 150.0, 150.0, 150.0, 1L, 22500.0)
+                ));
+
+        BatchAnalyticsResponse response = analyticsService.getBatchAnalytics(List.of(1L, 99L), List.of("Garlic"), null, 30);
+
+        assertEquals("National Average", response.marketName());
+        assertEquals(List.of(testDate.minusDays(1), testDate), response.dates());
+        assertEquals(List.of(1L, 2L), response.productIds());
+        assertEquals(List.of(PRODUCT_NAME, "Garlic"), response.productNames());
+        assertEquals(List.of(210.0, 150.0), response.averagePrice());
+        assertArrayEquals(new Double[]{200.0, 220.0}, response.prices().get(0));
+        assertArrayEquals(new Double[]{null, 150.0}, response.prices().get(1)); // No Garlic price yesterday
+        assertEquals(List.of("99"), response.unresolved());
+        verify(recordRepository, times(1)).findDailyRollupsForProducts(anyCollection(), anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Batch: Products loaded in the series store are not queried again")
+    void getBatchAnalytics_StoreLoaded_ShouldSkipDatabase() {
+        when(productInfoRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, PRODUCT_NAME)));
+        when(seriesStore.findBuckets(eq(PRODUCT_NAME), anyLong(), any(LocalDate.class), any()))
+                .thenReturn(Optional.of(dailyPrices(100.0, 120.0)));
+
+        BatchAnalyticsResponse response = analyticsService.getBatchAnalytics(List.of(1L), null, null, 30);
+
+        assertEquals(List.of(110.0), response.averagePrice());
+        verify(recordRepository, never()).findDailyRollupsForProducts(anyCollection(), anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Batch: Empty request - should throw IllegalArgumentException")
+    void getBatchAnalytics_NoProducts_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getBatchAnalytics(List.of(), List.of(" "), null, 30));
+    }
+
+    @Test
+    @DisplayName("Batch: Too many products - should throw IllegalArgumentException")
+    void getBatchAnalytics_TooManyProducts_ShouldThrow() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= AnalyticsService.MAX_BATCH_PRODUCTS + 1; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getBatchAnalytics(ids, null, null, 30));
+        verifyNoInteractions(productInfoRepository);
+    }
+
     // ==================== EDGE CASES ====================
 
     @Test
@@ -239,13 +441,11 @@ class AnalyticsServiceTest {
         // Arrange
         Long nonExistentId = 999L;
         when(marketRepository.findById(nonExistentId)).thenReturn(Optional.empty());
-        when(recordRepository.findHistoryByMarket(anyString(), eq(nonExistentId), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsByMarket(anyString(), eq(nonExistentId), any(LocalDate.class)))
+        when(recordRepository.findDailyRollups(anyString(), eq(nonExistentId), any(LocalDate.class)))
                 .thenReturn(Collections.emptyList());
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, nonExistentId, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, nonExistentId, 30, null);
 
         // Assert
         assertEquals("Unknown Market", response.marketName());
@@ -256,14 +456,11 @@ class AnalyticsServiceTest {
     @DisplayName("Edge Case: No History Data Available")
     void getProductAnalytics_NoData_ShouldReturnEmptyDefaults() {
         // Arrange
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        // Empty stats list
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
                 .thenReturn(Collections.emptyList());
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
         assertTrue(response.history().isEmpty());
@@ -274,23 +471,38 @@ class AnalyticsServiceTest {
     }
 
     @Test
-    @DisplayName("Edge Case: Stats return null values (e.g. products exist but no prices)")
-    void getProductAnalytics_NullStats_ShouldHandleGracefully() {
+    @DisplayName("Edge Case: Empty rollup rows (count 0) - should be skipped gracefully")
+    void getProductAnalytics_EmptyBuckets_ShouldHandleGracefully() {
         // Arrange
-        // Simulate DB returning [null, null, null]
-        List<Object[]> nullStats = Collections.singletonList(new Object[]{null, null, null});
-
-        when(recordRepository.findHistoryNationalAverage(anyString(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
-        when(recordRepository.findStatsNational(anyString(), any(LocalDate.class)))
-                .thenReturn(nullStats);
+        when(recordRepository.findDailyRollups(anyString(), anyLong(), any(LocalDate.class)))
+                .thenReturn(List.of(new RollupBucket(testDate, 0.0, 0.0, 0.0, 0L, 0.0)));
 
         // Act
-        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30);
+        ProductAnalyticsResponse response = analyticsService.getProductAnalytics(PRODUCT_NAME, null, 30, null);
 
         // Assert
+        assertTrue(response.history().isEmpty());
         assertEquals(0.0, response.minPrice());
         assertEquals(0.0, response.maxPrice());
         assertEquals(0.0, response.averagePrice());
     }
-}
\ No newline at end of file
+
+    /**
+     * One price per day, oldest first, ending today.
+     */
+    private List<RollupBucket> dailyPrices(double... prices) {
+        List<RollupBucket> buckets = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            double price = prices[i];
+            buckets.add(new RollupBucket(testDate.minusDays(prices.length - 1 - i), price, price, price, 1L, price * price));
+        }
+        return buckets;
+    }
+
+    private ProductInfo product(Long id, String name) {
+        ProductInfo product = new ProductInfo();
+        product.setId(id);
+        product.setProductName(name);
+        return product;
+    }
+}
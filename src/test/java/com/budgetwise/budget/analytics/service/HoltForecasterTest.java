@@ -0,0 +1,64 @@
+package com.budgetwise.budget.analytics.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for HoltForecaster
+ * Validates trend extrapolation and prediction interval widths
+ */
+@DisplayName("HoltForecaster Tests")
+class HoltForecasterTest {
+
+    @Test
+    @DisplayName("Short Series: Fewer than MIN_POINTS values - no fit")
+    void fit_ShortSeries_ShouldReturnNull() {
+        assertNull(HoltForecaster.fit(new double[]{180, 181, 182}));
+    }
+
+    @Test
+    @DisplayName("Flat Series: Forecast stays at the level with a zero-width interval")
+    void fit_FlatSeries_ShouldForecastLevel() {
+        double[] values = new double[30];
+        Arrays.fill(values, 180.0);
+
+        HoltForecaster.Fit fit = HoltForecaster.fit(values);
+
+        assertEquals(180.0, fit.predict(7), 1e-9);
+        assertEquals(0.0, fit.halfWidth(30), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Linear Trend: ₱1/day increase - should be extrapolated")
+    void fit_LinearTrend_ShouldExtrapolate() {
+        double[] values = new double[30];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 150.0 + i;
+        }
+
+        HoltForecaster.Fit fit = HoltForecaster.fit(values);
+
+        assertEquals(179.0 + 7, fit.predict(7), 1e-6);
+        assertEquals(179.0 + 30, fit.predict(30), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Noisy Series: Prediction interval widens with the horizon")
+    void fit_NoisySeries_IntervalShouldWiden() {
+        double[] values = new double[60];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 180.0 + (i % 2 == 0 ? 4 : -4) + (i % 7);
+        }
+
+        HoltForecaster.Fit fit = HoltForecaster.fit(values);
+
+        assertTrue(fit.sigma() > 0);
+        assertTrue(fit.halfWidth(7) < fit.halfWidth(14));
+        assertTrue(fit.halfWidth(14) < fit.halfWidth(30));
+        assertEquals(HoltForecaster.Z_95 * fit.sigma(), fit.halfWidth(1), 1e-9);
+    }
+}
@@ -0,0 +1,85 @@
+package com.budgetwise.budget.analytics.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Lttb
+ * Validates kept endpoints, preserved extremes and pass-through of short series
+ */
+@DisplayName("Lttb Tests")
+class LttbTest {
+
+    @Test
+    @DisplayName("Short Series: Fewer points than the threshold - every index is kept")
+    void downsample_ShortSeries_ShouldKeepAll() {
+        int[] kept = Lttb.downsample(new double[]{1, 2, 3}, new double[]{10, 20, 30}, 3, 10);
+
+        assertArrayEquals(new int[]{0, 1, 2}, kept);
+    }
+
+    @Test
+    @DisplayName("Endpoints: First and last point - always kept, indices ascending")
+    void downsample_LongSeries_ShouldKeepEndpointsInOrder() {
+        int length = 1_000;
+        double[] x = new double[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 100 + 10 * Math.sin(i / 25.0);
+        }
+
+        int[] kept = Lttb.downsample(x, y, length, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(length - 1, kept[49]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Extremes: Single-day spike and dip in a flat series - both survive")
+    void downsample_SpikeAndDip_ShouldBeKept() {
+        int length = 365;
+        double[] x = new double[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 180;
+        }
+        y[100] = 260; // Typhoon spike
+        y[250] = 120; // Glut
+
+        int[] kept = Lttb.downsample(x, y, length, 20);
+
+        boolean spike = false;
+        boolean dip = false;
+        for (int index : kept) {
+            spike |= index == 100;
+            dip |= index == 250;
+        }
+        assertTrue(spike);
+        assertTrue(dip);
+    }
+
+    @Test
+    @DisplayName("Partial Arrays: Only the first length entries - trailing capacity is ignored")
+    void downsample_PartialArrays_ShouldRespectLength() {
+        double[] x = {0, 1, 2, 3, 4, 5, 0, 0};
+        double[] y = {5, 6, 9, 6, 5, 4, 999, 999};
+
+        int[] kept = Lttb.downsample(x, y, 6, 3);
+
+        assertArrayEquals(new int[]{0, 2, 5}, kept);
+    }
+
+    @Test
+    @DisplayName("Validation: Threshold below 3 - should be rejected")
+    void downsample_TinyThreshold_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Lttb.downsample(new double[4], new double[4], 4, 2));
+    }
+}
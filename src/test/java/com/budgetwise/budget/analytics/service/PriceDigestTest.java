@@ -0,0 +1,90 @@
+package com.budgetwise.budget.analytics.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceDigest
+ * Validates exact small-sample quantiles, merging, serialization and accuracy on large samples
+ */
+@DisplayName("PriceDigest Tests")
+class PriceDigestTest {
+
+    @Test
+    @DisplayName("Empty: No prices - quantiles are NaN")
+    void quantile_Empty_ShouldBeNaN() {
+        assertTrue(Double.isNaN(new PriceDigest().quantile(0.5)));
+    }
+
+    @Test
+    @DisplayName("Small Sample: One day of market prices - exact median and extremes")
+    void quantile_SmallSample_ShouldBeExact() {
+        PriceDigest digest = digestOf(160, 170, 180, 190, 200);
+
+        assertEquals(180.0, digest.quantile(0.5), 1e-9);
+        assertEquals(160.0, digest.quantile(0.0), 1e-9);
+        assertEquals(200.0, digest.quantile(1.0), 1e-9);
+        assertEquals(5, digest.count());
+    }
+
+    @Test
+    @DisplayName("Merge: Two days merge into the distribution of both")
+    void add_Digest_ShouldMerge() {
+        PriceDigest window = digestOf(100, 110, 120);
+        window.add(digestOf(130, 140));
+
+        assertEquals(5, window.count());
+        assertEquals(120.0, window.quantile(0.5), 1e-9);
+        assertEquals(140.0, window.quantile(1.0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Serialization: Round trip keeps every centroid")
+    void toBytes_RoundTrip_ShouldKeepQuantiles() {
+        PriceDigest digest = digestOf(55, 60, 65, 70);
+
+        PriceDigest restored = PriceDigest.fromBytes(digest.toBytes());
+
+        assertEquals(digest.count(), restored.count());
+        assertEquals(digest.quantile(0.25), restored.quantile(0.25), 1e-12);
+        assertEquals(digest.quantile(0.9), restored.quantile(0.9), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Large Sample: Merged daily digests stay small and close to the true quantiles")
+    void quantile_ManyDays_ShouldStayAccurate() {
+        Random random = new Random(42);
+        double[] all = new double[365 * 60];
+        PriceDigest window = new PriceDigest();
+        for (int day = 0; day < 365; day++) {
+            PriceDigest daily = new PriceDigest();
+            for (int market = 0; market < 60; market++) {
+                double price = 150 + random.nextGaussian() * 20;
+                all[day * 60 + market] = price;
+                daily.add(price);
+            }
+            window.add(PriceDigest.fromBytes(daily.toBytes()));
+        }
+        Arrays.sort(all);
+
+        for (double q : new double[]{0.1, 0.25, 0.5, 0.75, 0.9}) {
+            double exact = all[(int) (q * (all.length - 1))];
+            assertEquals(exact, window.quantile(q), 0.5, "q=" + q);
+        }
+        // Bounded size: a few hundred centroids at most, not one per price
+        assertTrue(window.toBytes().length < 300 * 16);
+    }
+
+    private PriceDigest digestOf(double... prices) {
+        PriceDigest digest = new PriceDigest();
+        for (double price : prices) {
+            digest.add(price);
+        }
+        return digest;
+    }
+}
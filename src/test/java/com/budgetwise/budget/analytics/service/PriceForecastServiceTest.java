@@ -0,0 +1,200 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.PriceForecastResponse;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.PriceForecast;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository.DailyAverageProjection;
+import com.budgetwise.budget.analytics.repository.PriceForecastRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceForecastService
+ * Validates series assembly from daily rollups, the forecast run and the read side
+ * Uses Red Onion prices rising ₱1 per report day
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceForecastService Tests")
+class PriceForecastServiceTest {
+
+    @Mock
+    private DailyPriceRollupRepository rollupRepository;
+
+    @Mock
+    private PriceForecastRepository forecastRepository;
+
+    @Mock
+    private MarketLocationRepository marketRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PriceForecastService service;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        service = new PriceForecastService(rollupRepository, forecastRepository, marketRepository, jdbcTemplate, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // ==================== SERIES ASSEMBLY ====================
+
+    @Test
+    @DisplayName("Assembly: Days without a report carry the last average forward")
+    void collectSeries_Gaps_ShouldCarryForward() {
+        LocalDate day1 = LocalDate.of(2026, 3, 2);
+
+        List<PriceForecastService.SeriesInput> series = PriceForecastService.collectSeries(Stream.of(
+                row(1L, 0L, day1, 100.0),
+                row(1L, 0L, day1.plusDays(3), 110.0),
+                row(1L, 5L, day1, 90.0)));
+
+        assertEquals(2, series.size());
+        assertArrayEquals(new double[]{100, 100, 100, 110}, series.get(0).values());
+        assertEquals(2, series.get(0).reportDays());
+        assertEquals(day1.plusDays(3), series.get(0).lastDate());
+        assertEquals(5L, series.get(1).marketId());
+    }
+
+    // ==================== FORECAST RUN ====================
+
+    @Test
+    @DisplayName("Run: Trending series - stores 7/14/30 day forecasts with intervals")
+    @SuppressWarnings("unchecked")
+    void recomputeAll_TrendingSeries_ShouldStoreAllHorizons() {
+        when(rollupRepository.streamDailyAveragesSince(any())).thenReturn(trendingNationalSeries(20));
+
+        int rows = service.recomputeAll();
+
+        assertEquals(3, rows);
+        verify(forecastRepository).deleteAllRows();
+        ArgumentCaptor<Collection<PriceForecast>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        List<PriceForecast> forecasts = new ArrayList<>(captor.getValue());
+        assertEquals(List.of(7, 14, 30), forecasts.stream().map(PriceForecast::getHorizonDays).toList());
+        PriceForecast week = forecasts.get(0);
+        assertEquals(today.minusDays(1), week.getBaseDate());
+        assertEquals(today.plusDays(6), week.getTargetDate());
+        assertEquals(119.0 + 7, week.getForecastPrice(), 0.01);
+        assertTrue(week.getLowerBound() <= week.getForecastPrice() && week.getForecastPrice() <= week.getUpperBound());
+        assertEquals(1, service.completedRuns());
+    }
+
+    @Test
+    @DisplayName("Run: Too few report days - series is skipped")
+    @SuppressWarnings("unchecked")
+    void recomputeAll_ShortHistory_ShouldSkipSeries() {
+        when(rollupRepository.streamDailyAveragesSince(any())).thenReturn(trendingNationalSeries(PriceForecastService.MIN_REPORT_DAYS - 1));
+
+        assertEquals(0, service.recomputeAll());
+    }
+
+    @Test
+    @DisplayName("Events: Admin edits do not trigger a forecast run")
+    void onCatalogChanged_AdminEdit_ShouldSkip() {
+        service.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(1L)));
+
+        verifyNoInteractions(rollupRepository, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Events: Rollups rebuilt from history - forecasts are recomputed")
+    void onCatalogChanged_HistoryRebuild_ShouldRecompute() {
+        when(rollupRepository.streamDailyAveragesSince(any())).thenReturn(Stream.empty());
+
+        service.onCatalogChanged(CatalogChangedEvent.historyRebuilt());
+
+        assertEquals(1, service.completedRuns());
+    }
+
+    @Test
+    @DisplayName("Failure: Database error - previous forecasts are kept, run is not counted")
+    void recomputeAll_ReadFails_ShouldKeepPreviousForecasts() {
+        when(rollupRepository.streamDailyAveragesSince(any())).thenThrow(new RuntimeException("connection reset"));
+
+        assertEquals(0, service.recomputeAll());
+        verify(forecastRepository, never()).deleteAllRows();
+        assertEquals(0, service.completedRuns());
+    }
+
+    // ==================== READ SIDE ====================
+
+    @Test
+    @DisplayName("Read: National forecast - horizons in order, labelled National Average")
+    void getForecast_National_ShouldMapRows() {
+        LocalDateTime generatedAt = LocalDateTime.of(2026, 3, 20, 6, 0);
+        when(forecastRepository.findForSeries("Red Onion", DailyPriceRollup.NATIONAL)).thenReturn(List.of(
+                new PriceForecast(1L, 1L, 0L, 7, today, today.plusDays(7), 126.0, 120.0, 132.0, generatedAt),
+                new PriceForecast(2L, 1L, 0L, 14, today, today.plusDays(14), 133.0, 122.0, 144.0, generatedAt)));
+
+        PriceForecastResponse response = service.getForecast("Red Onion", null);
+
+        assertEquals("National Average", response.marketName());
+        assertEquals(today, response.baseDate());
+        assertEquals(2, response.forecasts().size());
+        assertEquals(132.0, response.forecasts().get(0).upperBound());
+    }
+
+    @Test
+    @DisplayName("Exception: No forecast for the series - should throw ResourceNotFoundException")
+    void getForecast_Missing_ShouldThrow() {
+        when(forecastRepository.findForSeries("Unknown", DailyPriceRollup.NATIONAL)).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getForecast("Unknown", 0L));
+    }
+
+    /**
+     * One NATIONAL report per day up to yesterday, ₱1 higher each day, ending at ₱(100 + days - 1).
+     */
+    private Stream<DailyAverageProjection> trendingNationalSeries(int days) {
+        List<DailyAverageProjection> rows = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            rows.add(row(1L, DailyPriceRollup.NATIONAL, today.minusDays(days - i), 100.0 + i));
+        }
+        return rows.stream();
+    }
+
+    private DailyAverageProjection row(Long productId, Long marketId, LocalDate date, double average) {
+        return new DailyAverageProjection() {
+            public Long getProductId() { return productId; }
+            public Long getMarketId() { return marketId; }
+            public LocalDate getRollupDate() { return date; }
+            public double getPriceSum() { return average * 2; }
+            public long getPriceCount() { return 2; }
+        };
+    }
+}
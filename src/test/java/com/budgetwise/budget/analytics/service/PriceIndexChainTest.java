@@ -0,0 +1,98 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.entity.CategoryPriceIndex;
+import com.budgetwise.budget.analytics.service.PriceIndexChain.DayPrice;
+import com.budgetwise.budget.analytics.service.PriceIndexChain.Level;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceIndexChain
+ * Validates Jevons and Laspeyres links on rice and vegetable prices
+ */
+@DisplayName("PriceIndexChain Tests")
+class PriceIndexChainTest {
+
+    @Test
+    @DisplayName("First Day: Every category starts at the base")
+    void advance_FirstDay_ShouldStartAtBase() {
+        PriceIndexChain chain = new PriceIndexChain(Map.of());
+
+        List<Level> levels = chain.advance(List.of(rice(1L, 50.0), vegetable(2L, 80.0)));
+
+        assertEquals(List.of(CategoryPriceIndex.ALL_CATEGORIES, "RICE", "VEGETABLES"), levels.stream().map(Level::category).toList());
+        levels.forEach(level -> {
+            assertEquals(100.0, level.jevons());
+            assertEquals(100.0, level.laspeyres());
+            assertEquals(0, level.matchedProducts());
+        });
+    }
+
+    @Test
+    @DisplayName("Links: Jevons is the geometric mean, Laspeyres the basket cost ratio")
+    void advance_SecondDay_ShouldChainLinks() {
+        PriceIndexChain chain = new PriceIndexChain(Map.of());
+        chain.advance(List.of(rice(1L, 50.0), rice(3L, 40.0)));
+
+        // Rice A doubles, Rice B halves
+        List<Level> levels = chain.advance(List.of(rice(1L, 100.0), rice(3L, 20.0)));
+
+        Level rice = levels.get(1);
+        assertEquals(2, rice.matchedProducts());
+        assertEquals(100.0, rice.jevons(), 1e-9); // sqrt(2 * 0.5) = 1
+        assertEquals(100.0 * 120.0 / 90.0, rice.laspeyres(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Chaining: Links multiply onto the stored start level")
+    void advance_WithStartLevel_ShouldContinueChain() {
+        PriceIndexChain chain = new PriceIndexChain(Map.of(
+                "RICE", new double[]{110.0, 112.0},
+                CategoryPriceIndex.ALL_CATEGORIES, new double[]{105.0, 106.0}));
+        chain.reference(List.of(rice(1L, 50.0)));
+
+        List<Level> levels = chain.advance(List.of(rice(1L, 55.0)));
+
+        assertEquals(105.0 * 1.1, levels.get(0).jevons(), 1e-9);
+        assertEquals(110.0 * 1.1, levels.get(1).jevons(), 1e-9);
+        assertEquals(112.0 * 1.1, levels.get(1).laspeyres(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("New Product: Unmatched products do not move the index")
+    void advance_NewProduct_ShouldBeIgnoredUntilMatched() {
+        PriceIndexChain chain = new PriceIndexChain(Map.of());
+        chain.reference(List.of(rice(1L, 50.0)));
+
+        List<Level> levels = chain.advance(List.of(rice(1L, 50.0), rice(9L, 500.0)));
+
+        assertEquals(1, levels.get(1).matchedProducts());
+        assertEquals(100.0, levels.get(1).laspeyres(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Categories: A category named \"ALL\" keeps its own level next to the all-products index")
+    void advance_CategoryNamedAll_ShouldNotCollide() {
+        PriceIndexChain chain = new PriceIndexChain(Map.of());
+        chain.reference(List.of(rice(1L, 50.0), new DayPrice(2L, "ALL", 10.0)));
+
+        List<Level> levels = chain.advance(List.of(rice(1L, 100.0), new DayPrice(2L, "ALL", 10.0)));
+
+        assertEquals(List.of(CategoryPriceIndex.ALL_CATEGORIES, "ALL", "RICE"), levels.stream().map(Level::category).toList());
+        assertEquals(2, levels.get(0).matchedProducts());
+        assertEquals(100.0, levels.get(1).jevons(), 1e-9);
+    }
+
+    private DayPrice rice(Long id, double price) {
+        return new DayPrice(id, "RICE", price);
+    }
+
+    private DayPrice vegetable(Long id, double price) {
+        return new DayPrice(id, "VEGETABLES", price);
+    }
+}
@@ -0,0 +1,169 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.PriceIndexResponse;
+import com.budgetwise.budget.analytics.entity.CategoryPriceIndex;
+import com.budgetwise.budget.analytics.repository.CategoryPriceIndexRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository.CategoryAverageProjection;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceIndexService
+ * Validates incremental chain updates after a report and the history read
+ * Uses Commercial Rice prices on consecutive report days
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceIndexService Tests")
+class PriceIndexServiceTest {
+
+    @Mock
+    private DailyPriceRollupRepository rollupRepository;
+
+    @Mock
+    private CategoryPriceIndexRepository indexRepository;
+
+    @InjectMocks
+    private PriceIndexService priceIndexService;
+
+    private final LocalDate monday = LocalDate.of(2026, 3, 2);
+    private final LocalDate tuesday = LocalDate.of(2026, 3, 3);
+
+    // ==================== INCREMENTAL UPDATE ====================
+
+    @Test
+    @DisplayName("Ingestion: New report day - chains from the previous day's levels and prices")
+    void onCatalogChanged_NewDay_ShouldUpsertChainedLevels() {
+        when(rollupRepository.findPreviousNationalDate(tuesday)).thenReturn(monday);
+        when(indexRepository.findLatestBefore(tuesday)).thenReturn(List.of(
+                new CategoryPriceIndex(1L, "COMMERCIAL RICE", monday, 120.0, 118.0, 2)));
+        when(rollupRepository.streamNationalAveragesSince(monday)).thenReturn(Stream.of(
+                row(1L, monday, 50.0), row(2L, monday, 40.0),
+                row(1L, tuesday, 55.0), row(2L, tuesday, 44.0)));
+
+        priceIndexService.onCatalogChanged(CatalogChangedEvent.ingestion(7L, tuesday, Set.of(1L, 2L), Set.of(1L)));
+
+        verify(indexRepository).upsert(eq("COMMERCIAL RICE"), eq(tuesday), doubleThat(v -> Math.abs(v - 132.0) < 1e-9),
+                doubleThat(v -> Math.abs(v - 129.8) < 1e-9), eq(2));
+        // ALL had no stored level yet: starts at the base
+        verify(indexRepository).upsert(eq(CategoryPriceIndex.ALL_CATEGORIES), eq(tuesday),
+                doubleThat(v -> Math.abs(v - 110.0) < 1e-9), anyDouble(), eq(2));
+        verify(indexRepository, never()).upsert(anyString(), eq(monday), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Ingestion: First report ever - base levels, nothing to chain")
+    void onCatalogChanged_FirstDay_ShouldWriteBase() {
+        when(rollupRepository.findPreviousNationalDate(monday)).thenReturn(null);
+        when(rollupRepository.streamNationalAveragesSince(monday)).thenReturn(Stream.of(row(1L, monday, 50.0)));
+
+        priceIndexService.onCatalogChanged(CatalogChangedEvent.ingestion(7L, monday, Set.of(1L), Set.of(1L)));
+
+        verify(indexRepository).upsert("COMMERCIAL RICE", monday, 100.0, 100.0, 0);
+        verify(indexRepository, never()).findLatestBefore(any());
+    }
+
+    @Test
+    @DisplayName("Events: Admin edits do not touch the indices")
+    void onCatalogChanged_AdminEdit_ShouldSkip() {
+        priceIndexService.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(1L)));
+
+        verifyNoInteractions(rollupRepository, indexRepository);
+    }
+
+    @Test
+    @DisplayName("Events: Rollups rebuilt from history - whole chain recomputed from scratch")
+    void onCatalogChanged_HistoryRebuild_ShouldRecomputeChain() {
+        when(rollupRepository.findPreviousNationalDate(LocalDate.EPOCH)).thenReturn(null);
+        when(rollupRepository.streamNationalAveragesSince(LocalDate.EPOCH)).thenReturn(Stream.of(row(1L, monday, 50.0)));
+
+        priceIndexService.onCatalogChanged(CatalogChangedEvent.historyRebuilt());
+
+        InOrder inOrder = inOrder(indexRepository);
+        inOrder.verify(indexRepository).deleteAllRows();
+        inOrder.verify(indexRepository).upsert("COMMERCIAL RICE", monday, 100.0, 100.0, 0);
+    }
+
+    // ==================== BACKFILL ====================
+
+    @Test
+    @DisplayName("Backfill: All-products rows stored under the former \"ALL\" key - index rebuilt")
+    void backfillIfEmpty_LegacyAllKey_ShouldRebuild() {
+        when(rollupRepository.count()).thenReturn(12L);
+        when(indexRepository.count()).thenReturn(30L);
+        when(indexRepository.existsByCategory(CategoryPriceIndex.ALL_CATEGORIES)).thenReturn(false);
+        when(rollupRepository.streamNationalAveragesSince(LocalDate.EPOCH)).thenReturn(Stream.of(row(1L, monday, 50.0)));
+
+        priceIndexService.backfillIfEmpty();
+
+        verify(indexRepository).deleteAllRows();
+        verify(indexRepository).upsert(CategoryPriceIndex.ALL_CATEGORIES, monday, 100.0, 100.0, 0);
+    }
+
+    @Test
+    @DisplayName("Backfill: Current all-products key present - nothing rebuilt")
+    void backfillIfEmpty_Current_ShouldSkip() {
+        when(rollupRepository.count()).thenReturn(12L);
+        when(indexRepository.count()).thenReturn(30L);
+        when(indexRepository.existsByCategory(CategoryPriceIndex.ALL_CATEGORIES)).thenReturn(true);
+
+        priceIndexService.backfillIfEmpty();
+
+        verify(indexRepository, never()).deleteAllRows();
+        verify(rollupRepository, never()).streamNationalAveragesSince(any());
+    }
+
+    // ==================== HISTORY ====================
+
+    @Test
+    @DisplayName("History: Base date given - values rebased to 100 on the first point")
+    void getIndexHistory_BaseDate_ShouldRebase() {
+        when(indexRepository.findByCategoryAndIndexDateGreaterThanEqualOrderByIndexDateAsc(CategoryPriceIndex.ALL_CATEGORIES, monday)).thenReturn(List.of(
+                new CategoryPriceIndex(1L, CategoryPriceIndex.ALL_CATEGORIES, monday, 120.0, 150.0, 10),
+                new CategoryPriceIndex(2L, CategoryPriceIndex.ALL_CATEGORIES, tuesday, 132.0, 165.0, 10)));
+
+        PriceIndexResponse response = priceIndexService.getIndexHistory(null, 90, monday);
+
+        assertEquals(monday, response.baseDate());
+        assertEquals(100.0, response.history().get(0).jevonsIndex());
+        assertEquals(110.0, response.history().get(1).jevonsIndex());
+        assertEquals(110.0, response.history().get(1).laspeyresIndex());
+    }
+
+    @Test
+    @DisplayName("History: No base date - stored chain values")
+    void getIndexHistory_Window_ShouldReturnStoredValues() {
+        when(indexRepository.findByCategoryAndIndexDateGreaterThanEqualOrderByIndexDateAsc(eq("VEGETABLES"), any()))
+                .thenReturn(List.of(new CategoryPriceIndex(1L, "VEGETABLES", tuesday, 103.456, 104.0, 8)));
+
+        PriceIndexResponse response = priceIndexService.getIndexHistory(" VEGETABLES ", 30, null);
+
+        assertNull(response.baseDate());
+        assertEquals(103.46, response.history().get(0).jevonsIndex());
+    }
+
+    private CategoryAverageProjection row(Long productId, LocalDate date, double average) {
+        return new CategoryAverageProjection() {
+            public Long getProductId() { return productId; }
+            public String getCategory() { return "COMMERCIAL RICE"; }
+            public LocalDate getRollupDate() { return date; }
+            public double getPriceSum() { return average; }
+            public long getPriceCount() { return 1; }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceDigest;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.repository.DailyPriceDigestRepository;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.analytics.repository.PeriodPriceRollupRepository;
+import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceRollupService
+ * Validates per-market and NATIONAL rollup merging during ingestion and the rebuild path
+ * Uses Red Onion prices from two markets in one DA report
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceRollupService Tests")
+class PriceRollupServiceTest {
+
+    @Mock
+    private DailyPriceRollupRepository rollupRepository;
+
+    @Mock
+    private PeriodPriceRollupRepository periodRollupRepository;
+
+    @Mock
+    private DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    @Mock
+    private DailyPriceDigestRepository digestRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PriceRollupService priceRollupService;
+
+    private ProductInfo redOnion;
+    private PriceReport report;
+    private MarketLocation pasig;
+    private MarketLocation quiapo;
+    private final LocalDate reportDate = LocalDate.of(2025, 12, 17); // Wednesday
+
+    @BeforeEach
+    void setUp() {
+        redOnion = new ProductInfo();
+        redOnion.setId(7L);
+        redOnion.setProductName("Red Onion");
+
+        report = new PriceReport();
+        report.setDateReported(reportDate);
+
+        pasig = new MarketLocation();
+        pasig.setId(1L);
+        quiapo = new MarketLocation();
+        quiapo.setId(2L);
+    }
+
+    // ==================== HAPPY PATH ====================
+
+    @Test
+    @DisplayName("Happy Path: Merges one row per market and one NATIONAL row")
+    void applyRecords_TwoMarkets_ShouldMergeMarketAndNationalRows() {
+        priceRollupService.applyRecords(List.of(record(pasig, 200.0), record(quiapo, 220.0)));
+
+        verify(rollupRepository).mergeDay(7L, 1L, reportDate, 200.0, 200.0, 200.0, 1L, 40000.0);
+        verify(rollupRepository).mergeDay(7L, 2L, reportDate, 220.0, 220.0, 220.0, 1L, 48400.0);
+        verify(rollupRepository).mergeDay(7L, DailyPriceRollup.NATIONAL, reportDate,
+                200.0, 220.0, 420.0, 2L, 88400.0);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Same market listed twice (two origins) - aggregated into one merge")
+    void applyRecords_DuplicateMarket_ShouldAggregateBeforeMerging() {
+        priceRollupService.applyRecords(List.of(record(pasig, 200.0), record(pasig, 240.0)));
+
+        verify(rollupRepository).mergeDay(7L, 1L, reportDate, 200.0, 240.0, 440.0, 2L, 97600.0);
+        verify(rollupRepository).mergeDay(eq(7L), eq(DailyPriceRollup.NATIONAL), eq(reportDate),
+                anyDouble(), anyDouble(), anyDouble(), eq(2L), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Happy Path: Refreshes the week, month and year buckets containing the report date")
+    void applyRecords_ShouldRefreshPeriodBuckets() {
+        priceRollupService.applyRecords(List.of(record(pasig, 200.0)));
+
+        verify(periodRollupRepository).refreshFromDaily(7L, "WEEK",
+                LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 22));
+        verify(periodRollupRepository).refreshFromDaily(7L, "MONTH",
+                LocalDate.of(2025, 12, 1), LocalDate.of(2026, 1, 1));
+        verify(periodRollupRepository).refreshYearFromMonths(7L,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1));
+    }
+
+    // ==================== EDGE CASES ====================
+
+    @Test
+    @DisplayName("Digest: Prices are added to the day's existing digest")
+    void applyRecords_ExistingDigest_ShouldMergePrices() {
+        PriceDigest morning = new PriceDigest();
+        morning.add(180.0);
+        when(digestRepository.findByProductIdAndDigestDate(7L, reportDate))
+                .thenReturn(Optional.of(new DailyPriceDigest(3L, 7L, reportDate, morning.toBytes())));
+
+        priceRollupService.applyRecords(List.of(record(pasig, 200.0), record(quiapo, 220.0)));
+
+        ArgumentCaptor<DailyPriceDigest> captor = ArgumentCaptor.forClass(DailyPriceDigest.class);
+        verify(digestRepository).save(captor.capture());
+        PriceDigest merged = PriceDigest.fromBytes(captor.getValue().getDigest());
+        assertEquals(3, merged.count());
+        assertEquals(200.0, merged.quantile(0.5), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Edge Case: Records without market - nothing is merged")
+    void applyRecords_NoMarket_ShouldSkip() {
+        priceRollupService.applyRecords(List.of(record(null, 200.0)));
+
+        verifyNoInteractions(rollupRepository, periodRollupRepository, digestRepository);
+    }
+
+    // ==================== REBUILD ====================
+
+    @Test
+    @DisplayName("Rebuild: Clears the table, then market rows, then NATIONAL rows")
+    void rebuildFromHistory_ShouldRunInOrder() {
+        when(rollupRepository.rebuildMarketRows()).thenReturn(10);
+        when(rollupRepository.rebuildNationalRows()).thenReturn(4);
+
+        priceRollupService.rebuildFromHistory();
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteAllRows();
+        inOrder.verify(rollupRepository).rebuildMarketRows();
+        inOrder.verify(rollupRepository).rebuildNationalRows();
+        verify(periodRollupRepository).rebuildFromDaily("WEEK", "week");
+        verify(periodRollupRepository).rebuildFromDaily("MONTH", "month");
+        verify(periodRollupRepository).rebuildYearsFromMonths();
+    }
+
+    @Test
+    @DisplayName("Rebuild: Publishes one catalog-wide change so caches, versions and derived tables refresh")
+    void rebuildFromHistory_ShouldPublishCatalogWideChange() {
+        priceRollupService.rebuildFromHistory();
+
+        ArgumentCaptor<CatalogChangedEvent> captor = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertTrue(captor.getValue().isHistoryRebuild());
+        assertTrue(captor.getValue().productIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Backfill: Tables already filled - should not rebuild")
+    void backfillIfEmpty_AlreadyFilled_ShouldSkip() {
+        when(rollupRepository.count()).thenReturn(12L);
+        when(periodRollupRepository.count()).thenReturn(6L);
+        when(digestRepository.count()).thenReturn(4L);
+
+        priceRollupService.backfillIfEmpty();
+
+        verify(rollupRepository, never()).deleteAllRows();
+        verify(periodRollupRepository, never()).deleteAllRows();
+        verify(digestRepository, never()).deleteAllRows();
+    }
+
+    @Test
+    @DisplayName("Backfill: No digests yet - should build one digest per product and day from history")
+    @SuppressWarnings("unchecked")
+    void backfillIfEmpty_MissingDigests_ShouldRebuildDigests() {
+        when(rollupRepository.count()).thenReturn(12L);
+        when(periodRollupRepository.count()).thenReturn(6L);
+        when(digestRepository.count()).thenReturn(0L);
+        when(dailyPriceRecordRepository.streamSeriesEntries()).thenReturn(Stream.of(
+                entry(7L, reportDate, 200.0), entry(7L, reportDate, 220.0),
+                entry(7L, reportDate.plusDays(1), 210.0)));
+
+        priceRollupService.backfillIfEmpty();
+
+        verify(digestRepository).deleteAllRows();
+        // One JDBC batch per day, no entities saved through the persistence context
+        ArgumentCaptor<Collection<Map.Entry<Long, PriceDigest>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture(), anyInt(), any());
+        verify(digestRepository, never()).saveAll(any());
+        Map.Entry<Long, PriceDigest> first = captor.getAllValues().get(0).iterator().next();
+        assertEquals(7L, first.getKey());
+        assertEquals(2, first.getValue().count());
+    }
+
+    @Test
+    @DisplayName("Backfill: Daily rows present but no period tiers - should rebuild tiers only")
+    void backfillIfEmpty_MissingPeriods_ShouldRebuildPeriodsOnly() {
+        when(rollupRepository.count()).thenReturn(12L);
+        when(periodRollupRepository.count()).thenReturn(0L);
+
+        priceRollupService.backfillIfEmpty();
+
+        verify(rollupRepository, never()).deleteAllRows();
+        verify(periodRollupRepository).deleteAllRows();
+        verify(periodRollupRepository).rebuildYearsFromMonths();
+    }
+
+    private DailyPriceRecordRepository.SeriesEntryProjection entry(Long productId, LocalDate date, double price) {
+        return new DailyPriceRecordRepository.SeriesEntryProjection() {
+            public Long getId() { return 1L; }
+            public Long getReportId() { return 1L; }
+            public Long getProductId() { return productId; }
+            public String getProductName() { return "Red Onion"; }
+            public Long getMarketId() { return 1L; }
+            public LocalDate getDateReported() { return date; }
+            public double getPrice() { return price; }
+        };
+    }
+
+    private DailyPriceRecord record(MarketLocation market, double price) {
+        DailyPriceRecord record = new DailyPriceRecord();
+        record.setProductInfo(redOnion);
+        record.setPriceReport(report);
+        record.setMarketLocation(market);
+        record.setPrice(price);
+        return record;
+    }
+}
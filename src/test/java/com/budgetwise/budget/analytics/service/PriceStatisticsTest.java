@@ -0,0 +1,113 @@
+package com.budgetwise.budget.analytics.service;
+
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceStatistics
+ * Validates the one-pass variance merge, returns, EWMA volatility and drawdown
+ * against values computed by hand
+ */
+@DisplayName("PriceStatistics Tests")
+class PriceStatisticsTest {
+
+    private final LocalDate day = LocalDate.of(2026, 3, 2);
+
+    // ==================== HAPPY PATH ====================
+
+    @Test
+    @DisplayName("Happy Path: Merged buckets give the same variance as the raw prices")
+    void accept_MultiPriceBuckets_ShouldMatchRawVariance() {
+        // Raw prices: 100, 120 | 110, 130, 140  -> mean 120, sample variance 250
+        PriceStatistics stats = new PriceStatistics();
+        stats.accept(bucket(0, 100, 120));
+        stats.accept(bucket(1, 110, 130, 140));
+
+        assertEquals(5, stats.count());
+        assertEquals(120.0, stats.mean(), 1e-9);
+        assertEquals(Math.sqrt(250), stats.standardDeviation(), 1e-9);
+        assertEquals(Math.sqrt(250) / 120 * 100, stats.coefficientOfVariation(), 1e-9);
+        assertEquals(100.0, stats.min());
+        assertEquals(140.0, stats.max());
+    }
+
+    @Test
+    @DisplayName("Happy Path: Returns are computed between bucket averages")
+    void accept_Series_ShouldTrackReturns() {
+        PriceStatistics stats = new PriceStatistics();
+        stats.accept(bucket(0, 100));
+        stats.accept(bucket(1, 110));  // +10%
+        stats.accept(bucket(2, 99));   // -10%
+
+        assertEquals(0.0, stats.averageReturn(), 1e-9);
+        assertEquals(-10.0, stats.latestReturn(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Happy Path: EWMA weighs recent changes more than old ones")
+    void accept_Series_ShouldComputeEwmaVolatility() {
+        PriceStatistics stats = new PriceStatistics();
+        stats.accept(bucket(0, 100));
+        stats.accept(bucket(1, 110));  // r1 = 0.10
+        stats.accept(bucket(2, 110));  // r2 = 0
+
+        // var = 0.94 * 0.01 + 0.06 * 0 = 0.0094
+        assertEquals(Math.sqrt(0.0094) * 100, stats.ewmaVolatility(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Max drawdown is the largest drop from a running peak")
+    void accept_Series_ShouldComputeMaxDrawdown() {
+        PriceStatistics stats = new PriceStatistics();
+        stats.accept(bucket(0, 100));
+        stats.accept(bucket(1, 200));
+        stats.accept(bucket(2, 150));  // -25% from 200
+        stats.accept(bucket(3, 250));
+        stats.accept(bucket(4, 225));  // -10% from 250
+
+        assertEquals(25.0, stats.maxDrawdown(), 1e-9);
+    }
+
+    // ==================== EDGE CASES ====================
+
+    @Test
+    @DisplayName("Edge Case: No buckets - every metric is zero")
+    void accept_Nothing_ShouldReturnZeros() {
+        PriceStatistics stats = new PriceStatistics();
+
+        assertEquals(0, stats.count());
+        assertEquals(0.0, stats.min());
+        assertEquals(0.0, stats.standardDeviation());
+        assertEquals(0.0, stats.coefficientOfVariation());
+        assertEquals(0.0, stats.ewmaVolatility());
+        assertEquals(0.0, stats.maxDrawdown());
+    }
+
+    @Test
+    @DisplayName("Edge Case: Empty bucket (count 0) is ignored")
+    void accept_EmptyBucket_ShouldBeIgnored() {
+        PriceStatistics stats = new PriceStatistics();
+        stats.accept(new RollupBucket(day, 0.0, 0.0, 0.0, 0L, 0.0));
+        stats.accept(bucket(1, 80));
+
+        assertEquals(1, stats.count());
+        assertEquals(80.0, stats.min());
+        assertEquals(0.0, stats.latestReturn());
+    }
+
+    private RollupBucket bucket(int offset, double... prices) {
+        double min = Double.MAX_VALUE, max = -Double.MAX_VALUE, sum = 0, sumSquares = 0;
+        for (double price : prices) {
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+            sum += price;
+            sumSquares += price * price;
+        }
+        return new RollupBucket(day.plusDays(offset), min, max, sum, (long) prices.length, sumSquares);
+    }
+}
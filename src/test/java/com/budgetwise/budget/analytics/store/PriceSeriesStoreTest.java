@@ -0,0 +1,253 @@
+package com.budgetwise.budget.analytics.store;
+
+import com.budgetwise.budget.analytics.dto.RollupBucket;
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.entity.RollupResolution;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository.SeriesEntryProjection;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceSeriesStore
+ * Validates loading, appending and bucket scans over memory-mapped series
+ * Uses Galunggong prices at two markets across a month boundary
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceSeriesStore Tests")
+class PriceSeriesStoreTest {
+
+    @Mock
+    private DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private PriceSeriesStore store;
+    private long nextRecordId = 1;
+    private final LocalDate jan30 = LocalDate.of(2026, 1, 30);
+    private final LocalDate jan31 = LocalDate.of(2026, 1, 31);
+    private final LocalDate feb2 = LocalDate.of(2026, 2, 2);
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceSeriesStore(dailyPriceRecordRepository, productInfoRepository, transactionManager, true, directory.toString());
+    }
+
+    // ==================== LOADING ====================
+
+    @Test
+    @DisplayName("Disabled: Store stays unloaded and answers nothing")
+    void load_Disabled_ShouldNotTouchDatabase() {
+        PriceSeriesStore disabled = new PriceSeriesStore(dailyPriceRecordRepository, productInfoRepository, transactionManager, false, directory.toString());
+
+        disabled.load();
+
+        assertFalse(disabled.isReady());
+        assertTrue(disabled.findBuckets("Galunggong", 1L, jan30, RollupResolution.DAY).isEmpty());
+        verifyNoInteractions(dailyPriceRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Happy Path: Daily buckets per market, prices restored from centavos")
+    void findBuckets_Daily_ShouldReturnOneBucketPerDay() {
+        loadWith(entry(1L, 1L, jan30, 200.0), entry(1L, 1L, jan31, 210.5), entry(1L, 2L, jan31, 190.0));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, jan30, RollupResolution.DAY).orElseThrow();
+
+        assertEquals(2, buckets.size());
+        assertEquals(jan30, buckets.get(0).bucketStart());
+        assertEquals(210.5, buckets.get(1).minPrice());
+        assertEquals(1L, buckets.get(1).priceCount());
+    }
+
+    @Test
+    @DisplayName("Happy Path: NATIONAL series merges every market of the day")
+    void findBuckets_National_ShouldAggregateAllMarkets() {
+        loadWith(entry(1L, 1L, jan31, 210.0), entry(1L, 2L, jan31, 190.0));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", DailyPriceRollup.NATIONAL, jan31, RollupResolution.DAY).orElseThrow();
+
+        assertEquals(1, buckets.size());
+        assertEquals(190.0, buckets.get(0).minPrice());
+        assertEquals(210.0, buckets.get(0).maxPrice());
+        assertEquals(200.0, buckets.get(0).average());
+        assertEquals(210.0 * 210.0 + 190.0 * 190.0, buckets.get(0).priceSumSquares(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Resolution: Monthly buckets split on the month boundary")
+    void findBuckets_Monthly_ShouldGroupByMonth() {
+        loadWith(entry(1L, 1L, jan30, 200.0), entry(1L, 1L, jan31, 220.0), entry(1L, 1L, feb2, 230.0));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, jan30, RollupResolution.MONTH).orElseThrow();
+
+        assertEquals(2, buckets.size());
+        assertEquals(LocalDate.of(2026, 1, 1), buckets.get(0).bucketStart());
+        assertEquals(210.0, buckets.get(0).average());
+        assertEquals(LocalDate.of(2026, 2, 1), buckets.get(1).bucketStart());
+    }
+
+    @Test
+    @DisplayName("Window: Entries before the start date are skipped")
+    void findBuckets_Window_ShouldStartAtStartDate() {
+        loadWith(entry(1L, 1L, jan30, 200.0), entry(1L, 1L, feb2, 230.0));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, jan31, RollupResolution.DAY).orElseThrow();
+
+        assertEquals(1, buckets.size());
+        assertEquals(feb2, buckets.get(0).bucketStart());
+    }
+
+    @Test
+    @DisplayName("Scale: Series spanning several chunks stays sorted and complete")
+    void findBuckets_ManyChunks_ShouldReturnEveryDay() {
+        List<SeriesEntryProjection> entries = new ArrayList<>();
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < PriceSeries.CHUNK_ENTRIES * 2 + 10; i++) {
+            entries.add(entry(1L, 1L, start.plusDays(i), 100.0 + i));
+        }
+        loadWith(entries.toArray(SeriesEntryProjection[]::new));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, start, RollupResolution.DAY).orElseThrow();
+
+        assertEquals(entries.size(), buckets.size());
+        assertEquals(100.0 + entries.size() - 1, buckets.get(buckets.size() - 1).maxPrice());
+    }
+
+    // ==================== APPENDING ====================
+
+    @Test
+    @DisplayName("Append: Late (older) report is inserted in date order")
+    void onCatalogChanged_OlderReport_ShouldKeepSeriesSorted() {
+        loadWith(entry(1L, 1L, jan30, 200.0), entry(1L, 1L, feb2, 230.0));
+        when(dailyPriceRecordRepository.findSeriesEntriesByReportId(9L, 0L))
+                .thenReturn(List.of(entry(9L, 1L, 1L, jan31, 215.0)));
+
+        store.onCatalogChanged(CatalogChangedEvent.ingestion(9L, jan31, Set.of(1L), Set.of(1L)));
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, jan30, RollupResolution.DAY).orElseThrow();
+        assertEquals(List.of(jan30, jan31, feb2), buckets.stream().map(RollupBucket::bucketStart).toList());
+    }
+
+    @Test
+    @DisplayName("Append: Report already loaded - only records after the last loaded one are read")
+    void onCatalogChanged_AlreadyLoadedReport_ShouldReadOnlyNewerRecords() {
+        loadWith(entry(1L, 1L, jan30, 200.0), entry(1L, 2L, jan30, 205.0)); // record ids 1 and 2
+        when(dailyPriceRecordRepository.findSeriesEntriesByReportId(1L, 2L))
+                .thenReturn(List.of(entry(1L, 3L, jan30, 260.0))); // e.g. an approved anomaly
+
+        store.onCatalogChanged(CatalogChangedEvent.ingestion(1L, jan30, Set.of(1L), Set.of(3L)));
+
+        List<RollupBucket> national = store.findBuckets("Galunggong", DailyPriceRollup.NATIONAL, jan30, RollupResolution.DAY).orElseThrow();
+        assertEquals(3L, national.get(0).priceCount());
+    }
+
+    @Test
+    @DisplayName("Append: Same records appended by another event while this one read them - added once")
+    void onCatalogChanged_RecordsAddedMeanwhile_ShouldSkipThem() {
+        loadWith(entry(1L, 1L, jan30, 200.0)); // record id 1
+        CatalogChangedEvent event = CatalogChangedEvent.ingestion(1L, jan30, Set.of(1L), Set.of(1L));
+        SeriesEntryProjection approved = entry(1L, 1L, jan30, 210.0); // record id 2
+        AtomicInteger reads = new AtomicInteger();
+        when(dailyPriceRecordRepository.findSeriesEntriesByReportId(1L, 1L)).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                // Second append of the same report completes while the first one is reading (no lock held)
+                store.onCatalogChanged(event);
+            }
+            return List.of(approved);
+        });
+
+        store.onCatalogChanged(event);
+
+        List<RollupBucket> buckets = store.findBuckets("Galunggong", 1L, jan30, RollupResolution.DAY).orElseThrow();
+        assertEquals(2L, buckets.get(0).priceCount());
+    }
+
+    // ==================== RENAMES ====================
+
+    @Test
+    @DisplayName("Rename: Product edited - resolves under its new name only")
+    void onCatalogChanged_ProductRenamed_ShouldRemapName() {
+        loadWith(entry(1L, 1L, jan30, 200.0));
+        ProductInfo renamed = new ProductInfo();
+        renamed.setId(1L);
+        renamed.setProductName("Galunggong (Round Scad)");
+        when(productInfoRepository.findAllById(Set.of(1L))).thenReturn(List.of(renamed));
+
+        store.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(1L)));
+
+        assertTrue(store.findBuckets("Galunggong", 1L, jan30, RollupResolution.DAY).isEmpty());
+        assertEquals(1, store.findBuckets("Galunggong (Round Scad)", 1L, jan30, RollupResolution.DAY).orElseThrow().size());
+    }
+
+    @Test
+    @DisplayName("Rename: Edited product not held - no lookup")
+    void onCatalogChanged_UnknownProductEdited_ShouldSkip() {
+        loadWith(entry(1L, 1L, jan30, 200.0));
+
+        store.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(99L)));
+
+        verifyNoInteractions(productInfoRepository);
+    }
+
+    @Test
+    @DisplayName("Edge Case: Unknown product - empty so the caller falls back to the rollups")
+    void findBuckets_UnknownProduct_ShouldReturnEmpty() {
+        loadWith(entry(1L, 1L, jan30, 200.0));
+
+        Optional<List<RollupBucket>> buckets = store.findBuckets("Tamban", 1L, jan30, RollupResolution.DAY);
+
+        assertTrue(buckets.isEmpty());
+    }
+
+    private void loadWith(SeriesEntryProjection... entries) {
+        when(dailyPriceRecordRepository.streamSeriesEntries()).thenReturn(Stream.of(entries));
+        store.load();
+        assertTrue(store.isReady());
+    }
+
+    private SeriesEntryProjection entry(Long productId, Long marketId, LocalDate date, double price) {
+        return entry(1L, productId, marketId, date, price);
+    }
+
+    private SeriesEntryProjection entry(Long reportId, Long productId, Long marketId, LocalDate date, double price) {
+        long id = nextRecordId++;
+        return new SeriesEntryProjection() {
+            public Long getId() { return id; }
+            public Long getReportId() { return reportId; }
+            public Long getProductId() { return productId; }
+            public String getProductName() { return "Galunggong"; }
+            public Long getMarketId() { return marketId; }
+            public LocalDate getDateReported() { return date; }
+            public double getPrice() { return price; }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.budgetwise.budget.basket.service;
+
+import com.budgetwise.budget.basket.entity.SavedBasket;
+import com.budgetwise.budget.basket.repository.BasketDailyCostRepository;
+import com.budgetwise.budget.basket.repository.SavedBasketRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.ProductPriceProjection;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for SavedBasketService
+ * Validates per-market basket costing and that ingestion only recomputes baskets holding a changed product
+ * Uses a weekly basket of rice (product 1) and eggs (product 2) at Quiapo (10) and Marikina (20)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SavedBasketService Tests")
+class SavedBasketServiceTest {
+
+    @Mock
+    private SavedBasketRepository savedBasketRepository;
+
+    @Mock
+    private BasketDailyCostRepository basketDailyCostRepository;
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SavedBasketService savedBasketService;
+
+    private final LocalDate reportDate = LocalDate.of(2025, 12, 16);
+    private SavedBasket weekly;
+
+    @BeforeEach
+    void setUp() {
+        weekly = new SavedBasket();
+        weekly.setId(5L);
+        weekly.setOwnerKey("owner-1");
+        weekly.setName("Weekly basket");
+        weekly.setItems(List.of(new SavedBasket.Item(1L, 5.0), new SavedBasket.Item(2L, 12.0)));
+
+        savedBasketService.onBasketChanged(new SavedBasketService.BasketChangedEvent(5L, Set.of(1L, 2L)));
+    }
+
+    // ==================== COSTING ====================
+
+    @Test
+    @DisplayName("Costing: Market carrying every item - should sum quantity x price")
+    void costByMarket_AllItemsPriced_ShouldSumQuantityTimesPrice() {
+        List<SavedBasketService.MarketCost> costs = SavedBasketService.costByMarket(weekly.getItems(), List.of(
+                new SavedBasketService.Price(1L, 10L, 48.0),
+                new SavedBasketService.Price(2L, 10L, 8.5)));
+
+        assertEquals(1, costs.size());
+        assertEquals(5 * 48.0 + 12 * 8.5, costs.get(0).totalCost());
+        assertEquals(2, costs.get(0).pricedItems());
+    }
+
+    @Test
+    @DisplayName("Costing: Market missing an item - should cost the priced items and report coverage")
+    void costByMarket_MissingItem_ShouldReportPartialCoverage() {
+        List<SavedBasketService.MarketCost> costs = SavedBasketService.costByMarket(weekly.getItems(), List.of(
+                new SavedBasketService.Price(1L, 10L, 48.0),
+                new SavedBasketService.Price(2L, 10L, 8.5),
+                new SavedBasketService.Price(1L, 20L, 50.0),
+                new SavedBasketService.Price(99L, 20L, 100.0)));
+
+        assertEquals(2, costs.size());
+        SavedBasketService.MarketCost marikina = costs.get(1);
+        assertEquals(20L, marikina.marketId());
+        assertEquals(250.0, marikina.totalCost());
+        assertEquals(1, marikina.pricedItems());
+    }
+
+    // ==================== INCREMENTAL RECOMPUTATION ====================
+
+    @Test
+    @DisplayName("Ingestion: Report changing a basket product - should upsert one row per market")
+    void onCatalogChanged_BasketProductChanged_ShouldRecompute() {
+        when(savedBasketRepository.findAllById(Set.of(5L))).thenReturn(List.of(weekly));
+        when(latestMarketPriceRepository.findCurrentPrices(anyCollection())).thenReturn(List.of(
+                price(1L, 10L, 48.0, reportDate),
+                price(2L, 10L, 8.5, reportDate),
+                price(1L, 20L, 50.0, reportDate)));
+
+        savedBasketService.onCatalogChanged(CatalogChangedEvent.ingestion(7L, reportDate, Set.of(1L, 3L), Set.of(10L, 20L)));
+
+        verify(basketDailyCostRepository).upsert(5L, 10L, reportDate, 342.0, 2, 2);
+        verify(basketDailyCostRepository).upsert(5L, 20L, reportDate, 250.0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Ingestion: Report without basket products - should not touch any basket")
+    void onCatalogChanged_UnrelatedProducts_ShouldSkip() {
+        savedBasketService.onCatalogChanged(CatalogChangedEvent.ingestion(7L, reportDate, Set.of(3L, 4L), Set.of(10L)));
+
+        verifyNoInteractions(savedBasketRepository, latestMarketPriceRepository, basketDailyCostRepository);
+    }
+
+    @Test
+    @DisplayName("Ingestion: Late backfill of an older report - should keep the newer prices out of the old day")
+    void onCatalogChanged_OlderReport_ShouldSkipRecompute() {
+        when(savedBasketRepository.findAllById(Set.of(5L))).thenReturn(List.of(weekly));
+        when(latestMarketPriceRepository.findCurrentPrices(anyCollection())).thenReturn(List.of(
+                price(1L, 10L, 48.0, reportDate.plusDays(1))));
+
+        savedBasketService.onCatalogChanged(CatalogChangedEvent.ingestion(6L, reportDate, Set.of(1L), Set.of(10L)));
+
+        verify(basketDailyCostRepository, never()).upsert(any(), any(), any(), anyDouble(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Ingestion: Deleted basket - should drop out of the reverse index")
+    void onBasketChanged_Deleted_ShouldStopRecomputing() {
+        savedBasketService.onBasketChanged(new SavedBasketService.BasketChangedEvent(5L, null));
+
+        savedBasketService.onCatalogChanged(CatalogChangedEvent.ingestion(7L, reportDate, Set.of(1L), Set.of(10L)));
+
+        verifyNoInteractions(savedBasketRepository);
+    }
+
+    // ==================== OWNERSHIP ====================
+
+    @Test
+    @DisplayName("Ownership: Another owner's key - reading, charting and deleting are refused")
+    void ownedOperations_OtherOwner_ShouldThrow() {
+        when(savedBasketRepository.findById(5L)).thenReturn(Optional.of(weekly));
+
+        assertThrows(IllegalArgumentException.class, () -> savedBasketService.getBasket(5L, "owner-2"));
+        assertThrows(IllegalArgumentException.class, () -> savedBasketService.getCostHistory(5L, "owner-2", 30, null));
+        assertThrows(IllegalArgumentException.class, () -> savedBasketService.deleteBasket(5L, "owner-2"));
+
+        verify(savedBasketRepository, never()).delete(any());
+        verifyNoInteractions(basketDailyCostRepository);
+    }
+
+    @Test
+    @DisplayName("Ownership: Owner's own key - basket deleted with its cost rows")
+    void deleteBasket_Owner_ShouldDelete() {
+        when(savedBasketRepository.findById(5L)).thenReturn(Optional.of(weekly));
+
+        savedBasketService.deleteBasket(5L, "owner-1");
+
+        verify(basketDailyCostRepository).deleteByBasket(5L);
+        verify(savedBasketRepository).delete(weekly);
+    }
+
+    private static ProductPriceProjection price(Long productId, Long marketId, double price, LocalDate date) {
+        return new ProductPriceProjection() {
+            public Long getProductId() { return productId; }
+            public Long getMarketId() { return marketId; }
+            public double getPrice() { return price; }
+            public LocalDate getDateReported() { return date; }
+        };
+    }
+}
@@ -1,11 +1,16 @@
 package com.budgetwise.budget.catalog.service;
 
+import com.budgetwise.budget.analytics.service.PriceRollupService;
 import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
 import com.budgetwise.budget.market.entity.MarketLocation;
 import com.budgetwise.budget.catalog.entity.PriceReport;
 import com.budgetwise.budget.catalog.entity.ProductInfo;
 import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.PriceAnomalyRepository;
 import com.budgetwise.budget.integration.scrapper.dto.ScrapeResultDto;
+import com.budgetwise.budget.watchlist.service.PriceWatchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +27,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,6 +42,21 @@ class DailyPriceIngestionServiceTest {
     @Mock
     private DailyPriceRecordRepository dailyPriceRecordRepository;
 
+    @Mock
+    private LatestPriceService latestPriceService;
+
+    @Mock
+    private PriceRollupService priceRollupService;
+
+    @Mock
+    private PriceAnomalyDetector anomalyDetector;
+
+    @Mock
+    private PriceAnomalyRepository priceAnomalyRepository;
+
+    @Mock
+    private PriceWatchService priceWatchService;
+
     @InjectMocks
     private DailyPriceIngestionService dailyPriceRecordService;
 
@@ -55,6 +76,10 @@ class DailyPriceIngestionServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Every price looks normal unless a test says otherwise
+        lenient().when(anomalyDetector.assess(any(), any(), anyDouble()))
+                .thenReturn(new PriceAnomalyDetector.Assessment(false, null, 0, 0, 0));
+
         // Test data: Scraped products from DA market
         bangusDagupan = new ScrapeResultDto.ScrapedProduct(
                 "FISH",           // category
@@ -460,6 +485,54 @@ class DailyPriceIngestionServiceTest {
                 () -> dailyPriceRecordService.createRecordForAllMarkets(bangusDagupan, bangusProduct, priceReport, threeMarkets));
     }
 
+    // ==================== ANOMALY GATE ====================
+
+    @Test
+    @DisplayName("Anomaly Gate: Flagged price - should quarantine instead of saving records")
+    void createRecordForAllMarkets_AnomalousPrice_ShouldQuarantine() {
+        // Arrange - Bangus history sits near ₱18/kg, scraped at ₱180 (decimal slip)
+        when(anomalyDetector.assess(1L, "kg", 180.0)).thenReturn(new PriceAnomalyDetector.Assessment(
+                true, PriceAnomaly.Reason.DECIMAL_SLIP, 18.0, 1.0, 162.0));
+
+        // Act
+        dailyPriceRecordService.createRecordForAllMarkets(bangusDagupan, bangusProduct, priceReport, threeMarkets);
+
+        // Assert
+        ArgumentCaptor<PriceAnomaly> captor = ArgumentCaptor.forClass(PriceAnomaly.class);
+        verify(priceAnomalyRepository).save(captor.capture());
+        PriceAnomaly anomaly = captor.getValue();
+        assertEquals(PriceAnomaly.Status.PENDING, anomaly.getStatus());
+        assertEquals(PriceAnomaly.Reason.DECIMAL_SLIP, anomaly.getReason());
+        assertEquals(3, anomaly.getMarketIds().size());
+
+        verify(dailyPriceRecordRepository, never()).saveAll(any());
+        verify(anomalyDetector).flag(1L, 180.0);
+        verify(anomalyDetector, never()).observe(any(), any(), anyDouble());
+        verifyNoInteractions(priceWatchService);
+    }
+
+    @Test
+    @DisplayName("Anomaly Gate: Accepted price - should feed the detector")
+    void createRecordForAllMarkets_NormalPrice_ShouldObserve() {
+        dailyPriceRecordService.createRecordForAllMarkets(bangusDagupan, bangusProduct, priceReport, threeMarkets);
+
+        verify(anomalyDetector).observe(1L, "kg", 180.0);
+        verifyNoInteractions(priceAnomalyRepository);
+    }
+
+    // ==================== PRICE WATCHES ====================
+
+    @Test
+    @DisplayName("Price Watches: Accepted price - should check the upserted latest rows against watches")
+    void createRecordForAllMarkets_NormalPrice_ShouldEvaluateWatches() {
+        List<LatestMarketPrice> latestRows = List.of(new LatestMarketPrice(), new LatestMarketPrice());
+        when(latestPriceService.applyRecords(any())).thenReturn(latestRows);
+
+        dailyPriceRecordService.createRecordForAllMarkets(bangusDagupan, bangusProduct, priceReport, threeMarkets);
+
+        verify(priceWatchService).evaluate(priceReport, latestRows);
+    }
+
     // ==================== REAL WORLD SCENARIOS ====================
 
     @Test
@@ -0,0 +1,172 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.entity.DailyPriceRecord;
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for LatestPriceService
+ * Validates the upsert rules of the per-market latest price table
+ * Uses Bangus prices reported on consecutive DA report days
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LatestPriceService Tests")
+class LatestPriceServiceTest {
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @Mock
+    private DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    @InjectMocks
+    private LatestPriceService latestPriceService;
+
+    private ProductInfo bangus;
+    private MarketLocation commonwealth;
+    private MarketLocation balintawak;
+    private final LocalDate monday = LocalDate.of(2025, 12, 15);
+    private final LocalDate tuesday = LocalDate.of(2025, 12, 16);
+
+    @BeforeEach
+    void setUp() {
+        bangus = new ProductInfo();
+        bangus.setId(10L);
+        bangus.setProductName("Bangus");
+
+        commonwealth = new MarketLocation();
+        commonwealth.setId(1L);
+        commonwealth.setMarketLocation("Commonwealth Market");
+
+        balintawak = new MarketLocation();
+        balintawak.setId(2L);
+        balintawak.setMarketLocation("Balintawak Market");
+    }
+
+    @Test
+    @DisplayName("Happy Path: First price for a market - should insert a row without change")
+    void applyRecords_NewPair_ShouldInsertRow() {
+        when(latestMarketPriceRepository.findByProductAndMarkets(eq(10L), anyCollection())).thenReturn(List.of());
+
+        latestPriceService.applyRecords(List.of(record(commonwealth, 180.0, monday), record(balintawak, 180.0, monday)));
+
+        List<LatestMarketPrice> saved = captureSaved();
+        assertEquals(2, saved.size());
+        assertEquals(180.0, saved.get(0).getPrice());
+        assertNull(saved.get(0).getPreviousPrice());
+        assertNull(saved.get(0).getPriceChange());
+    }
+
+    @Test
+    @DisplayName("Day Over Day: Newer report - current price becomes previous price")
+    void applyRecords_NewerReport_ShouldShiftPrevious() {
+        LatestMarketPrice existing = latest(commonwealth, 180.0, monday);
+        when(latestMarketPriceRepository.findByProductAndMarkets(eq(10L), anyCollection())).thenReturn(List.of(existing));
+
+        latestPriceService.applyRecords(List.of(record(commonwealth, 190.0, tuesday)));
+
+        assertEquals(190.0, existing.getPrice());
+        assertEquals(180.0, existing.getPreviousPrice());
+        assertEquals(monday, existing.getPreviousDateReported());
+        assertEquals(10.0, existing.getPriceChange());
+    }
+
+    @Test
+    @DisplayName("Same Day: Second origin in the same report - last wins, previous kept")
+    void applyRecords_SameDay_ShouldKeepPrevious() {
+        LatestMarketPrice existing = latest(commonwealth, 190.0, tuesday);
+        existing.setPreviousPrice(180.0);
+        existing.setPreviousDateReported(monday);
+        when(latestMarketPriceRepository.findByProductAndMarkets(eq(10L), anyCollection())).thenReturn(List.of(existing));
+
+        latestPriceService.applyRecords(List.of(record(commonwealth, 200.0, tuesday)));
+
+        assertEquals(200.0, existing.getPrice());
+        assertEquals(180.0, existing.getPreviousPrice());
+        assertEquals(20.0, existing.getPriceChange());
+    }
+
+    @Test
+    @DisplayName("Backfill: Older report - should not overwrite newer data")
+    void applyRecords_OlderReport_ShouldBeIgnored() {
+        LatestMarketPrice existing = latest(commonwealth, 190.0, tuesday);
+        when(latestMarketPriceRepository.findByProductAndMarkets(eq(10L), anyCollection())).thenReturn(List.of(existing));
+
+        latestPriceService.applyRecords(List.of(record(commonwealth, 150.0, monday)));
+
+        assertEquals(190.0, existing.getPrice());
+        assertTrue(captureSaved().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Edge Case: Records without market - should not touch the table")
+    void applyRecords_NoMarket_ShouldSkip() {
+        latestPriceService.applyRecords(List.of(record(null, 150.0, monday)));
+
+        verifyNoInteractions(latestMarketPriceRepository);
+    }
+
+    @Test
+    @DisplayName("Backfill: Empty table with history - should rebuild from history")
+    void backfillIfEmpty_EmptyTable_ShouldRebuild() {
+        when(latestMarketPriceRepository.count()).thenReturn(0L);
+        when(dailyPriceRecordRepository.count()).thenReturn(500L);
+
+        latestPriceService.backfillIfEmpty();
+
+        verify(latestMarketPriceRepository).deleteAllRows();
+        verify(latestMarketPriceRepository).rebuildFromHistory();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LatestMarketPrice> captureSaved() {
+        ArgumentCaptor<Iterable<LatestMarketPrice>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(latestMarketPriceRepository).saveAll(captor.capture());
+        List<LatestMarketPrice> saved = new ArrayList<>();
+        captor.getValue().forEach(saved::add);
+        return saved;
+    }
+
+    private DailyPriceRecord record(MarketLocation market, double price, LocalDate date) {
+        PriceReport report = new PriceReport();
+        report.setDateReported(date);
+
+        DailyPriceRecord record = new DailyPriceRecord();
+        record.setProductInfo(bangus);
+        record.setMarketLocation(market);
+        record.setPriceReport(report);
+        record.setPrice(price);
+        record.setUnit("kg");
+        record.setOrigin("Dagupan");
+        return record;
+    }
+
+    private LatestMarketPrice latest(MarketLocation market, double price, LocalDate date) {
+        LatestMarketPrice latest = new LatestMarketPrice();
+        latest.setMarketLocation(market);
+        latest.setProductInfo(bangus);
+        latest.setPrice(price);
+        latest.setDateReported(date);
+        return latest;
+    }
+}
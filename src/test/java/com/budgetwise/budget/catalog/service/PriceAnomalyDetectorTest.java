@@ -0,0 +1,199 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.analytics.entity.DailyPriceRollup;
+import com.budgetwise.budget.analytics.repository.DailyPriceRollupRepository;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceAnomalyDetector
+ * Validates warm-up, spike/drop, decimal slip and unit change detection on Bangus prices (~₱180/kg),
+ * and recovery after a real level shift
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceAnomalyDetector Tests")
+class PriceAnomalyDetectorTest {
+
+    @Mock
+    private DailyPriceRollupRepository rollupRepository;
+
+    @InjectMocks
+    private PriceAnomalyDetector detector;
+
+    // ==================== WARM-UP ====================
+
+    @Test
+    @DisplayName("Warm-up: Fewer than MIN_OBSERVATIONS prices - should never flag")
+    void assess_NoHistory_ShouldNotFlag() {
+        when(rollupRepository.findTop20ByProductIdAndMarketIdOrderByRollupDateDesc(1L, DailyPriceRollup.NATIONAL))
+                .thenReturn(List.of());
+
+        PriceAnomalyDetector.Assessment assessment = detector.assess(1L, "kg", 9999.0);
+
+        assertFalse(assessment.anomalous());
+        assertNull(assessment.reason());
+    }
+
+    @Test
+    @DisplayName("Seeding: Rolling statistics are loaded once per product")
+    void assess_Twice_ShouldSeedOnce() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+
+        detector.assess(1L, "kg", 180.0);
+        detector.assess(1L, "kg", 181.0);
+
+        verify(rollupRepository, times(1)).findTop20ByProductIdAndMarketIdOrderByRollupDateDesc(1L, DailyPriceRollup.NATIONAL);
+    }
+
+    // ==================== DETECTION ====================
+
+    @Test
+    @DisplayName("Normal: Price within the usual range - should pass")
+    void assess_NormalPrice_ShouldPass() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+
+        PriceAnomalyDetector.Assessment assessment = detector.assess(1L, "kg", 185.0);
+
+        assertFalse(assessment.anomalous());
+        assertEquals(180.0, assessment.expectedPrice(), 1.0);
+    }
+
+    @Test
+    @DisplayName("Spike: Price far above the rolling mean - should flag SPIKE")
+    void assess_Spike_ShouldFlag() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+
+        PriceAnomalyDetector.Assessment assessment = detector.assess(1L, "kg", 320.0);
+
+        assertTrue(assessment.anomalous());
+        assertEquals(PriceAnomaly.Reason.SPIKE, assessment.reason());
+        assertTrue(assessment.score() > PriceAnomalyDetector.Z_THRESHOLD);
+    }
+
+    @Test
+    @DisplayName("Drop: Price far below the rolling mean - should flag DROP")
+    void assess_Drop_ShouldFlag() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+
+        assertEquals(PriceAnomaly.Reason.DROP, detector.assess(1L, "kg", 90.0).reason());
+    }
+
+    @Test
+    @DisplayName("Decimal Slip: Price off by a factor of ten - should flag DECIMAL_SLIP")
+    void assess_DecimalSlip_ShouldFlag() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+
+        assertEquals(PriceAnomaly.Reason.DECIMAL_SLIP, detector.assess(1L, "kg", 1800.0).reason());
+        assertEquals(PriceAnomaly.Reason.DECIMAL_SLIP, detector.assess(1L, "kg", 18.0).reason());
+    }
+
+    @Test
+    @DisplayName("Unit Change: Moderate jump together with a new unit - should flag UNIT_CHANGE")
+    void assess_UnitChange_ShouldFlag() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+        detector.observe(1L, "kg", 180.0);
+
+        PriceAnomalyDetector.Assessment assessment = detector.assess(1L, "pc", 240.0);
+
+        assertEquals(PriceAnomaly.Reason.UNIT_CHANGE, assessment.reason());
+    }
+
+    // ==================== STATE UPDATES ====================
+
+    @Test
+    @DisplayName("Observe: Accepted prices move the mean toward the new level")
+    void observe_ShouldUpdateMean() {
+        seedHistory(180, 180, 180, 180, 180, 180);
+
+        detector.observe(1L, "kg", 200.0);
+
+        double expected = detector.assess(1L, "kg", 200.0).expectedPrice();
+        assertEquals(180.0 + PriceAnomalyDetector.ALPHA * 20.0, expected, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Rebase: Approved price becomes the new level - same price no longer flagged")
+    void rebase_ShouldAcceptNewLevel() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+        assertTrue(detector.assess(1L, "kg", 320.0).anomalous());
+
+        detector.rebase(1L, "kg", 320.0);
+
+        assertFalse(detector.assess(1L, "kg", 320.0).anomalous());
+    }
+
+    @Test
+    @DisplayName("Rebase: Old spread is dropped - a price the old variance allowed is flagged at the new level")
+    void rebase_ShouldResetVariance() {
+        seedHistory(100, 140, 100, 140, 100, 140);
+        assertFalse(detector.assess(1L, "kg", 160.0).anomalous());
+
+        detector.rebase(1L, "kg", 120.0);
+
+        assertTrue(detector.assess(1L, "kg", 160.0).anomalous());
+    }
+
+    // ==================== RECOVERY ====================
+
+    @Test
+    @DisplayName("Recovery: Consistent outliers - the SHIFT_OUTLIERS-th passes and becomes the new level")
+    void assess_ConsistentOutliers_ShouldRecover() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+        for (int i = 1; i < PriceAnomalyDetector.SHIFT_OUTLIERS; i++) {
+            assertTrue(detector.assess(1L, "kg", 320.0 + i).anomalous());
+            detector.flag(1L, 320.0 + i);
+        }
+
+        assertFalse(detector.assess(1L, "kg", 322.0).anomalous());
+        detector.observe(1L, "kg", 322.0);
+
+        assertEquals((321.0 + 322.0 + 322.0) / 3, detector.assess(1L, "kg", 320.0).expectedPrice(), 1e-9);
+        assertTrue(detector.assess(1L, "kg", 180.0).anomalous());
+    }
+
+    @Test
+    @DisplayName("Recovery: Accepted price breaks the run - outliers start counting again")
+    void observe_BetweenOutliers_ShouldResetRun() {
+        seedHistory(180, 182, 178, 181, 179, 180);
+        detector.flag(1L, 320.0);
+        detector.flag(1L, 321.0);
+
+        detector.observe(1L, "kg", 181.0);
+
+        assertTrue(detector.assess(1L, "kg", 322.0).anomalous());
+    }
+
+    /**
+     * Stubs the NATIONAL rollups, given oldest first (the repository returns newest first).
+     */
+    private void seedHistory(double... averages) {
+        List<DailyPriceRollup> days = new ArrayList<>();
+        LocalDate date = LocalDate.of(2025, 12, 1);
+        for (int i = averages.length - 1; i >= 0; i--) {
+            DailyPriceRollup day = new DailyPriceRollup();
+            day.setProductId(1L);
+            day.setMarketId(DailyPriceRollup.NATIONAL);
+            day.setRollupDate(date.plusDays(i));
+            day.setMinPrice(averages[i]);
+            day.setMaxPrice(averages[i]);
+            day.setPriceSum(averages[i] * 2);
+            day.setPriceCount(2L);
+            day.setPriceSumSquares(averages[i] * averages[i] * 2);
+            days.add(day);
+        }
+        when(rollupRepository.findTop20ByProductIdAndMarketIdOrderByRollupDateDesc(1L, DailyPriceRollup.NATIONAL))
+                .thenReturn(days);
+    }
+}
@@ -0,0 +1,146 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.PriceAnomalyResponse;
+import com.budgetwise.budget.catalog.entity.PriceAnomaly;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.PriceAnomalyRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceAnomalyService
+ * Validates the approve / reject review workflow of quarantined prices
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceAnomalyService Tests")
+class PriceAnomalyServiceTest {
+
+    @Mock
+    private PriceAnomalyRepository priceAnomalyRepository;
+
+    @Mock
+    private MarketLocationRepository marketLocationRepository;
+
+    @Mock
+    private DailyPriceIngestionService dailyPriceIngestionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PriceAnomalyService priceAnomalyService;
+
+    private PriceAnomaly anomaly;
+    private MarketLocation commonwealth;
+
+    @BeforeEach
+    void setUp() {
+        ProductInfo bangus = new ProductInfo();
+        bangus.setId(10L);
+        bangus.setProductName("Bangus");
+
+        PriceReport report = new PriceReport();
+        report.setId(5L);
+        report.setDateReported(LocalDate.of(2025, 12, 16));
+
+        commonwealth = new MarketLocation();
+        commonwealth.setId(1L);
+
+        anomaly = new PriceAnomaly();
+        anomaly.setId(100L);
+        anomaly.setProductInfo(bangus);
+        anomaly.setPriceReport(report);
+        anomaly.setPrice(320.0);
+        anomaly.setUnit("kg");
+        anomaly.setReason(PriceAnomaly.Reason.SPIKE);
+        anomaly.setStatus(PriceAnomaly.Status.PENDING);
+        anomaly.setMarketIds(List.of(1L));
+    }
+
+    // ==================== APPROVE ====================
+
+    @Test
+    @DisplayName("Approve: Pending anomaly - should publish records and an ingestion event")
+    void approve_Pending_ShouldCreateRecordsAndPublish() {
+        when(priceAnomalyRepository.findWithLockById(100L)).thenReturn(Optional.of(anomaly));
+        when(marketLocationRepository.findAllById(List.of(1L))).thenReturn(List.of(commonwealth));
+
+        PriceAnomalyResponse response = priceAnomalyService.approve(100L);
+
+        verify(dailyPriceIngestionService).createApprovedRecords(anomaly, List.of(commonwealth));
+        assertEquals(PriceAnomaly.Status.APPROVED, response.status());
+        assertNotNull(anomaly.getReviewedAt());
+
+        ArgumentCaptor<CatalogChangedEvent> captor = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(5L, captor.getValue().reportId());
+        assertEquals(Set.of(10L), captor.getValue().productIds());
+        assertEquals(Set.of(1L), captor.getValue().marketIds());
+    }
+
+    // ==================== REJECT ====================
+
+    @Test
+    @DisplayName("Reject: Pending anomaly - should be marked rejected without records")
+    void reject_Pending_ShouldNotCreateRecords() {
+        when(priceAnomalyRepository.findWithLockById(100L)).thenReturn(Optional.of(anomaly));
+
+        PriceAnomalyResponse response = priceAnomalyService.reject(100L);
+
+        assertEquals(PriceAnomaly.Status.REJECTED, response.status());
+        verifyNoInteractions(dailyPriceIngestionService, eventPublisher);
+    }
+
+    // ==================== EXCEPTIONS ====================
+
+    @Test
+    @DisplayName("Exception: Already reviewed anomaly - should throw IllegalArgumentException")
+    void approve_AlreadyReviewed_ShouldThrow() {
+        anomaly.setStatus(PriceAnomaly.Status.REJECTED);
+        when(priceAnomalyRepository.findWithLockById(100L)).thenReturn(Optional.of(anomaly));
+
+        assertThrows(IllegalArgumentException.class, () -> priceAnomalyService.approve(100L));
+        verify(dailyPriceIngestionService, never()).createApprovedRecords(any(), any());
+    }
+
+    @Test
+    @DisplayName("Exception: Approved twice - second approval should throw without writing records")
+    void approve_Twice_ShouldCreateRecordsOnce() {
+        when(priceAnomalyRepository.findWithLockById(100L)).thenReturn(Optional.of(anomaly));
+        when(marketLocationRepository.findAllById(List.of(1L))).thenReturn(List.of(commonwealth));
+
+        priceAnomalyService.approve(100L);
+
+        assertThrows(IllegalArgumentException.class, () -> priceAnomalyService.approve(100L));
+        verify(dailyPriceIngestionService, times(1)).createApprovedRecords(any(), any());
+    }
+
+    @Test
+    @DisplayName("Exception: Unknown anomaly - should throw ResourceNotFoundException")
+    void reject_NotFound_ShouldThrow() {
+        when(priceAnomalyRepository.findWithLockById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> priceAnomalyService.reject(999L));
+    }
+}
@@ -0,0 +1,47 @@
+package com.budgetwise.budget.catalog.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceExportService
+ * Validates filter validation and the generated export query
+ */
+@DisplayName("PriceExportService Tests")
+class PriceExportServiceTest {
+
+    private final LocalDate from = LocalDate.of(2025, 1, 1);
+    private final LocalDate to = LocalDate.of(2025, 12, 31);
+
+    @Test
+    @DisplayName("Query: No filters - whole history, oldest report first")
+    void buildQuery_NoFilters_ShouldSelectEverything() {
+        PriceExportService.ExportQuery query = PriceExportService.buildQuery(null, null, null, null);
+
+        assertFalse(query.sql().contains("WHERE"));
+        assertTrue(query.sql().endsWith("ORDER BY r.date_reported, d.id"));
+        assertTrue(query.args().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Query: All filters - bound as parameters in order")
+    void buildQuery_AllFilters_ShouldBindParameters() {
+        PriceExportService.ExportQuery query = PriceExportService.buildQuery(from, to, " FISH ", 3L);
+
+        assertTrue(query.sql().contains(
+                "WHERE r.date_reported >= ? AND r.date_reported <= ? AND p.category = ? AND d.market_location_id = ?"));
+        assertEquals(List.of(Date.valueOf(from), Date.valueOf(to), "FISH", 3L), query.args());
+    }
+
+    @Test
+    @DisplayName("Validation: from after to - should be rejected before streaming starts")
+    void buildQuery_InvertedRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> PriceExportService.buildQuery(to, from, null, null));
+    }
+}
@@ -0,0 +1,100 @@
+package com.budgetwise.budget.catalog.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceExportWriter
+ * Validates CSV quoting and the block layout of the gzipped columnar format
+ * Uses Bangus and Galunggong records from DA reports
+ */
+@DisplayName("PriceExportWriter Tests")
+class PriceExportWriterTest {
+
+    private final LocalDate monday = LocalDate.of(2025, 12, 15);
+
+    // ==================== CSV ====================
+
+    @Test
+    @DisplayName("CSV: Plain and special fields - quoted only when needed, empty for nulls")
+    void csv_SpecialCharacters_ShouldBeQuoted() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PriceExportWriter writer = PriceExportWriter.open(PriceExportService.Format.CSV, out);
+
+        writer.write(monday, 10L, "Bangus", "FISH", 1L, "Commonwealth Market", 180.0, "kg", "Dagupan, Pangasinan");
+        writer.write(monday, 11L, "Galunggong \"Local\"", "FISH", null, null, 220.5, null, null);
+        writer.finish();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(PriceExportWriter.Csv.HEADER, lines[0]);
+        assertEquals("2025-12-15,10,Bangus,FISH,1,Commonwealth Market,180.0,kg,\"Dagupan, Pangasinan\"", lines[1]);
+        assertEquals("2025-12-15,11,\"Galunggong \"\"Local\"\"\",FISH,,,220.5,,", lines[2]);
+    }
+
+    // ==================== COLUMNAR ====================
+
+    @Test
+    @DisplayName("Columnar: More rows than one block - names sent once, every row decodes back")
+    void columnar_MultipleBlocks_ShouldRoundTrip() throws IOException {
+        int total = PriceExportWriter.Columnar.BLOCK_ROWS + 10;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PriceExportWriter writer = PriceExportWriter.open(PriceExportService.Format.COLUMNAR, out);
+        for (int i = 0; i < total; i++) {
+            Long market = i % 2 == 0 ? 1L : null;
+            writer.write(monday.plusDays(i % 7), 10L, "Bangus", "FISH", market, market == null ? null : "Commonwealth Market",
+                    180.0 + i, "kg", "Dagupan");
+        }
+        writer.finish();
+
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+            assertEquals(PriceExportWriter.Columnar.MAGIC, in.readInt());
+            assertEquals(PriceExportWriter.Columnar.VERSION, in.readInt());
+
+            // First block: full, carries the product and market names
+            assertEquals(PriceExportWriter.Columnar.BLOCK_ROWS, in.readInt());
+            assertEquals(1, in.readInt());
+            assertEquals(10L, in.readLong());
+            assertEquals("Bangus", in.readUTF());
+            assertEquals("FISH", in.readUTF());
+            assertEquals(1, in.readInt());
+            assertEquals(1L, in.readLong());
+            assertEquals("Commonwealth Market", in.readUTF());
+            int rows = PriceExportWriter.Columnar.BLOCK_ROWS;
+            assertEquals((int) monday.toEpochDay(), in.readInt());
+            in.skipNBytes(4L * (rows - 1) + 8L * rows);
+            assertEquals(1L, in.readLong());
+            assertEquals(0L, in.readLong()); // Row without market
+            in.skipNBytes(8L * (rows - 2));
+            assertEquals(180.0, in.readDouble());
+            in.skipNBytes(8L * (rows - 1));
+            for (int i = 0; i < 2 * rows; i++) {
+                in.readUTF();
+            }
+
+            // Second block: the remaining rows, no names repeated
+            assertEquals(10, in.readInt());
+            assertEquals(0, in.readInt());
+            assertEquals(0, in.readInt());
+            in.skipNBytes(4L * 10 + 8L * 10 + 8L * 10);
+            assertEquals(180.0 + rows, in.readDouble());
+            in.skipNBytes(8L * 9);
+            for (int i = 0; i < 20; i++) {
+                in.readUTF();
+            }
+
+            assertEquals(0, in.readInt());
+            assertEquals(-1, in.read());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.PriceDelta;
+import com.budgetwise.budget.catalog.dto.PriceUpdateEvent;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceStreamService
+ * Validates subscription limits, per-subscriber delta filtering and dropping of dead clients
+ * Uses capturing emitters in place of real servlet responses
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceStreamService Tests")
+class PriceStreamServiceTest {
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @InjectMocks
+    private PriceStreamService priceStreamService;
+
+    private final LocalDate reportDate = LocalDate.of(2025, 12, 16);
+
+    @AfterEach
+    void tearDown() {
+        priceStreamService.shutdown();
+    }
+
+    // ==================== SUBSCRIBE ====================
+
+    @Test
+    @DisplayName("Subscribe: Too many productIds - should be rejected")
+    void subscribe_TooManyProducts_ShouldThrow() {
+        List<Long> productIds = LongStream.rangeClosed(1, PriceStreamService.MAX_PRODUCT_FILTER + 1)
+                .boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> priceStreamService.subscribe(productIds));
+        assertEquals(0, priceStreamService.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Subscribe: No filter - should register the client")
+    void subscribe_NoFilter_ShouldRegister() {
+        assertNotNull(priceStreamService.subscribe(null));
+        assertEquals(1, priceStreamService.subscriberCount());
+    }
+
+    // ==================== FAN-OUT ====================
+
+    @Test
+    @DisplayName("Fan-out: Summary subscriber - should get counts without deltas or a query")
+    void publish_SummaryOnly_ShouldSkipDeltaQuery() throws InterruptedException {
+        CapturingEmitter client = new CapturingEmitter();
+        priceStreamService.register(client, Set.of());
+
+        priceStreamService.publish(ingestion(Set.of(10L, 11L, 12L), Set.of(1L, 2L)));
+
+        PriceUpdateEvent event = client.next();
+        assertEquals(7L, event.reportId());
+        assertEquals(reportDate, event.reportDate());
+        assertEquals(3, event.changedProducts());
+        assertEquals(2, event.changedMarkets());
+        assertTrue(event.deltas().isEmpty());
+        verifyNoInteractions(latestMarketPriceRepository);
+    }
+
+    @Test
+    @DisplayName("Fan-out: Filtered subscribers - one query, each client only gets its own products")
+    @SuppressWarnings("unchecked")
+    void publish_FilteredSubscribers_ShouldGetOwnDeltas() throws InterruptedException {
+        CapturingEmitter bangusWatcher = new CapturingEmitter();
+        CapturingEmitter riceWatcher = new CapturingEmitter();
+        priceStreamService.register(bangusWatcher, Set.of(10L, 99L));
+        priceStreamService.register(riceWatcher, Set.of(11L));
+        when(latestMarketPriceRepository.findPriceDeltas(anyCollection(), eq(reportDate))).thenReturn(List.of(
+                new PriceDelta(10L, "Bangus", 190.0, 10.0, 2L),
+                new PriceDelta(11L, "Rice", 52.0, -1.0, 3L)));
+
+        priceStreamService.publish(ingestion(Set.of(10L, 11L, 12L), Set.of(1L, 2L, 3L)));
+
+        List<PriceDelta> bangusDeltas = bangusWatcher.next().deltas();
+        assertEquals(1, bangusDeltas.size());
+        assertEquals("Bangus", bangusDeltas.get(0).productName());
+        assertEquals(10.0, bangusDeltas.get(0).averageChange());
+
+        List<PriceDelta> riceDeltas = riceWatcher.next().deltas();
+        assertEquals(1, riceDeltas.size());
+        assertEquals("Rice", riceDeltas.get(0).productName());
+
+        // Product 99 did not change and product 12 is not subscribed
+        ArgumentCaptor<Collection<Long>> wanted = ArgumentCaptor.forClass(Collection.class);
+        verify(latestMarketPriceRepository, times(1)).findPriceDeltas(wanted.capture(), eq(reportDate));
+        assertEquals(Set.of(10L, 11L), Set.copyOf(wanted.getValue()));
+    }
+
+    @Test
+    @DisplayName("Fan-out: Client that went away - should be dropped")
+    void publish_DeadClient_ShouldBeDropped() throws InterruptedException {
+        CapturingEmitter alive = new CapturingEmitter();
+        CapturingEmitter dead = new CapturingEmitter();
+        priceStreamService.register(alive, Set.of());
+        priceStreamService.register(dead, Set.of());
+        dead.broken = true;
+
+        priceStreamService.publish(ingestion(Set.of(10L), Set.of(1L)));
+
+        assertNotNull(alive.next());
+        assertTrue(awaitSubscriberCount(1));
+    }
+
+    @Test
+    @DisplayName("Edge Case: Admin edit - should not push anything")
+    void onCatalogChanged_AdminEdit_ShouldIgnore() {
+        CapturingEmitter client = new CapturingEmitter();
+        priceStreamService.register(client, Set.of(10L));
+
+        priceStreamService.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(10L)));
+
+        assertTrue(client.events.isEmpty());
+        verifyNoInteractions(latestMarketPriceRepository);
+    }
+
+    // Sends run on their own virtual threads
+    private boolean awaitSubscriberCount(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && priceStreamService.subscriberCount() != expected; i++) {
+            Thread.sleep(10);
+        }
+        return priceStreamService.subscriberCount() == expected;
+    }
+
+    private CatalogChangedEvent ingestion(Set<Long> productIds, Set<Long> marketIds) {
+        return CatalogChangedEvent.ingestion(7L, reportDate, productIds, marketIds);
+    }
+
+    /**
+     * Records the JSON payloads it is asked to send; comments (connected, keep-alive) are skipped.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<PriceUpdateEvent> events = new LinkedBlockingQueue<>();
+        private volatile boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof PriceUpdateEvent event) {
+                    events.add(event);
+                }
+            }
+        }
+
+        private PriceUpdateEvent next() throws InterruptedException {
+            PriceUpdateEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event pushed");
+            return event;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +26,9 @@ import org.mockito.quality.Strictness;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,6 +52,9 @@ class ProductInfoServiceTest {
     @Mock
     private DailyPriceRecordRepository dailyPriceRecordRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductInfoService productInfoService;
 
@@ -884,4 +891,96 @@ class ProductInfoServiceTest {
         assertThrows(com.budgetwise.budget.common.exception.ResourceNotFoundException.class,
                 () -> productInfoService.getProductMarketDetails(id));
     }
+
+    // ==================== BULK UPDATES ====================
+
+    @Test
+    @DisplayName("bulkUpdateProductStatus: should run one set-based update and report per-ID outcome")
+    void bulkUpdateProductStatus_ShouldUpdateExistingAndReportMissing() {
+        when(productInfoRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+
+        com.budgetwise.budget.catalog.dto.BulkUpdateResponse resp = productInfoService.bulkUpdateProductStatus(
+                new com.budgetwise.budget.catalog.dto.BulkProductStatusRequest(List.of(1L, 2L, 3L, 2L), "ACTIVE"));
+
+        assertEquals(3, resp.requested());
+        assertEquals(2, resp.updated());
+        assertEquals(com.budgetwise.budget.catalog.dto.BulkUpdateResult.Outcome.NOT_FOUND, resp.results().get(2).outcome());
+        verify(productInfoRepository, times(1)).updateStatusByIds(eq(Set.of(1L, 2L)), eq(ProductInfo.Status.ACTIVE), any(java.time.LocalDateTime.class));
+        verify(productInfoRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("bulkUpdateProductStatus: no existing IDs - should not update or publish")
+    void bulkUpdateProductStatus_NoneExisting_ShouldSkipUpdate() {
+        when(productInfoRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        com.budgetwise.budget.catalog.dto.BulkUpdateResponse resp = productInfoService.bulkUpdateProductStatus(
+                new com.budgetwise.budget.catalog.dto.BulkProductStatusRequest(List.of(9L), "INACTIVE"));
+
+        assertEquals(0, resp.updated());
+        verify(productInfoRepository, never()).updateStatusByIds(anyCollection(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("bulkUpdateProductStatus: empty ID list or invalid status should throw IllegalArgumentException")
+    void bulkUpdateProductStatus_InvalidRequest_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> productInfoService.bulkUpdateProductStatus(
+                new com.budgetwise.budget.catalog.dto.BulkProductStatusRequest(List.of(), "ACTIVE")));
+        assertThrows(IllegalArgumentException.class, () -> productInfoService.bulkUpdateProductStatus(
+                new com.budgetwise.budget.catalog.dto.BulkProductStatusRequest(List.of(1L), "NOT_A_STATUS")));
+    }
+
+    @Test
+    @DisplayName("bulkUpdateProductStatus: missing status should throw IllegalArgumentException")
+    void bulkUpdateProductStatus_NullStatus_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> productInfoService.bulkUpdateProductStatus(
+                new com.budgetwise.budget.catalog.dto.BulkProductStatusRequest(List.of(1L), null)));
+        verifyNoInteractions(productInfoRepository);
+    }
+
+    @Test
+    @DisplayName("bulkManageNewComers: approve with patch - should patch fields and activate in the same batch")
+    void bulkManageNewComers_ApproveWithPatch_ShouldPatchAndActivate() {
+        when(productInfoRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(productInfoRepository.findIdsByStatus(anyCollection(), eq(ProductInfo.Status.PENDING))).thenReturn(List.of(1L, 2L));
+
+        com.budgetwise.budget.catalog.dto.BulkUpdateResponse resp = productInfoService.bulkManageNewComers(
+                new com.budgetwise.budget.catalog.dto.BulkNewComersRequest(List.of(1L, 2L), "FISH", null, true));
+
+        assertEquals(2, resp.updated());
+        verify(productInfoRepository).patchNewComersByIds(eq(Set.of(1L, 2L)), eq("FISH"), isNull(), any(java.time.LocalDateTime.class));
+        verify(productInfoRepository).updateStatusByIds(eq(Set.of(1L, 2L)), eq(ProductInfo.Status.ACTIVE), any(java.time.LocalDateTime.class));
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("bulkManageNewComers: approve only - should not run the field patch")
+    void bulkManageNewComers_ApproveOnly_ShouldSkipPatch() {
+        when(productInfoRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(productInfoRepository.findIdsByStatus(anyCollection(), eq(ProductInfo.Status.PENDING))).thenReturn(List.of(1L));
+
+        productInfoService.bulkManageNewComers(
+                new com.budgetwise.budget.catalog.dto.BulkNewComersRequest(List.of(1L), null, null, true));
+
+        verify(productInfoRepository, never()).patchNewComersByIds(anyCollection(), any(), any(), any());
+        verify(productInfoRepository).updateStatusByIds(eq(Set.of(1L)), eq(ProductInfo.Status.ACTIVE), any(java.time.LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("bulkManageNewComers: already reviewed product - should be skipped and reported NOT_PENDING")
+    void bulkManageNewComers_ActiveProduct_ShouldSkip() {
+        when(productInfoRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(productInfoRepository.findIdsByStatus(anyCollection(), eq(ProductInfo.Status.PENDING))).thenReturn(List.of(1L));
+
+        com.budgetwise.budget.catalog.dto.BulkUpdateResponse resp = productInfoService.bulkManageNewComers(
+                new com.budgetwise.budget.catalog.dto.BulkNewComersRequest(List.of(1L, 2L, 3L), "FISH", null, true));
+
+        assertEquals(1, resp.updated());
+        assertEquals(com.budgetwise.budget.catalog.dto.BulkUpdateResult.Outcome.NOT_PENDING, resp.results().get(1).outcome());
+        assertEquals(com.budgetwise.budget.catalog.dto.BulkUpdateResult.Outcome.NOT_FOUND, resp.results().get(2).outcome());
+        verify(productInfoRepository).patchNewComersByIds(eq(Set.of(1L)), eq("FISH"), isNull(), any(java.time.LocalDateTime.class));
+        verify(productInfoRepository).updateStatusByIds(eq(Set.of(1L)), eq(ProductInfo.Status.ACTIVE), any(java.time.LocalDateTime.class));
+    }
 }
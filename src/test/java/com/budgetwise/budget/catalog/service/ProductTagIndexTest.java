@@ -0,0 +1,81 @@
+package com.budgetwise.budget.catalog.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductTagIndex
+ * Validates AND/OR/NOT tag filters and that facet counts cover exactly the matching products
+ * Uses Vegan (bit 0), Low-Fat (bit 1) and Gluten-Free (bit 5) on four products
+ */
+@DisplayName("ProductTagIndex Tests")
+class ProductTagIndexTest {
+
+    private ProductTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        String[] tagNames = new String[ProductTagIndex.MAX_TAGS];
+        tagNames[0] = "Vegan";
+        tagNames[1] = "Low-Fat";
+        tagNames[5] = "Gluten-Free";
+
+        long vegan = 1L, lowFat = 1L << 1, glutenFree = 1L << 5;
+        index = ProductTagIndex.build(tagNames,
+                new long[]{10, 20, 30, 40},
+                new long[]{vegan | lowFat, vegan | glutenFree, lowFat, 0});
+    }
+
+    // ==================== FILTERS ====================
+
+    @Test
+    @DisplayName("No filter: Every product matches and every tag is counted")
+    void query_NoFilter_ShouldMatchAll() {
+        ProductTagIndex.Result result = index.query(index.filter(null, null, null));
+
+        assertEquals(List.of(10L, 20L, 30L, 40L), List.copyOf(result.masks().keySet()));
+        assertEquals(2, result.facets()[0]);
+        assertEquals(2, result.facets()[1]);
+        assertEquals(1, result.facets()[5]);
+    }
+
+    @Test
+    @DisplayName("AND: Vegan and Low-Fat - only the product carrying both")
+    void query_All_ShouldRequireEveryTag() {
+        ProductTagIndex.Result result = index.query(index.filter(List.of("vegan", "LOW-FAT"), null, null));
+
+        assertEquals(List.of(10L), List.copyOf(result.masks().keySet()));
+    }
+
+    @Test
+    @DisplayName("OR + NOT: Low-Fat or Gluten-Free, not Vegan - facets follow the result set")
+    void query_AnyAndNone_ShouldCountFacetsOfMatchesOnly() {
+        ProductTagIndex.Result result = index.query(
+                index.filter(null, List.of("Low-Fat", "Gluten-Free"), List.of("Vegan")));
+
+        assertEquals(List.of(30L), List.copyOf(result.masks().keySet()));
+        assertEquals(0, result.facets()[0]);
+        assertEquals(1, result.facets()[1]);
+        assertEquals(0, result.facets()[5]);
+    }
+
+    @Test
+    @DisplayName("Validation: Unknown tag - should throw IllegalArgumentException")
+    void filter_UnknownTag_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> index.filter(List.of("Keto"), null, null));
+    }
+
+    // ==================== DECODING ====================
+
+    @Test
+    @DisplayName("Decoding: Mask back to tag names in bit order")
+    void tagNames_ShouldDecodeMask() {
+        assertEquals(List.of("Vegan", "Gluten-Free"), index.tagNames(1L | 1L << 5));
+        assertTrue(index.tagNames(0).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.budgetwise.budget.catalog.service;
+
+import com.budgetwise.budget.catalog.dto.ProductFacetResponse;
+import com.budgetwise.budget.catalog.dto.ProductTableResponse;
+import com.budgetwise.budget.catalog.entity.DietaryTag;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.DailyPriceRecordRepository;
+import com.budgetwise.budget.catalog.repository.DietaryTagRepository;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ProductTagService
+ * Validates that a filtered page is sliced from the in-memory index and only its products are queried
+ * Uses five Vegan products (ids 1..5, in name order) and no other tag
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductTagService Tests")
+class ProductTagServiceTest {
+
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private DietaryTagRepository dietaryTagRepository;
+
+    @Mock
+    private DailyPriceRecordRepository dailyPriceRecordRepository;
+
+    private ProductTagService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductTagService(productInfoRepository, dietaryTagRepository, dailyPriceRecordRepository);
+
+        DietaryTag vegan = new DietaryTag();
+        vegan.setTagName("Vegan");
+        vegan.setTagBit(0);
+        when(dietaryTagRepository.findAllByOrderByIdAsc()).thenReturn(List.of(vegan));
+        when(productInfoRepository.findTagMasksByStatus(ProductInfo.Status.ACTIVE))
+                .thenReturn(List.of(mask(1L), mask(2L), mask(3L), mask(4L), mask(5L)));
+        service.refresh(Set.of());
+    }
+
+    // ==================== PAGING ====================
+
+    @Test
+    @DisplayName("Paging: Second page of two - only its ids queried, total from the index")
+    void filterProducts_SecondPage_ShouldQueryPageIdsOnly() {
+        // Rows come back out of order
+        when(productInfoRepository.displayProductTableByIds(List.of(3L, 4L)))
+                .thenReturn(List.of(row(4L), row(3L)));
+        when(dailyPriceRecordRepository.countMarketsByProductIds(List.of(3L, 4L))).thenReturn(List.of());
+
+        ProductFacetResponse response = service.filterProducts(List.of("Vegan"), null, null,
+                PageRequest.of(1, 2, Sort.by("productName")));
+
+        assertEquals(List.of(3L, 4L), response.products().map(ProductTableResponse::getId).getContent());
+        assertEquals(5, response.products().getTotalElements());
+        assertEquals(List.of("Vegan"), response.products().getContent().get(0).getDietaryTags());
+    }
+
+    @Test
+    @DisplayName("Paging: Page past the end - empty page, nothing queried")
+    void filterProducts_PagePastEnd_ShouldNotQuery() {
+        ProductFacetResponse response = service.filterProducts(null, null, null, PageRequest.of(3, 2));
+
+        assertTrue(response.products().getContent().isEmpty());
+        assertEquals(5, response.products().getTotalElements());
+        verify(productInfoRepository, never()).displayProductTableByIds(any());
+    }
+
+    @Test
+    @DisplayName("Validation: Sorted by price - should throw IllegalArgumentException")
+    void filterProducts_OtherSort_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> service.filterProducts(null, null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price"))));
+    }
+
+    private static ProductInfoRepository.TagMaskProjection mask(Long id) {
+        return new ProductInfoRepository.TagMaskProjection() {
+            public Long getId() { return id; }
+            public long getDietaryTagMask() { return 1L; }
+        };
+    }
+
+    private static ProductTableResponse row(Long id) {
+        return new ProductTableResponse(id, "Product " + id, "VEGETABLES", "Local", null, "kg",
+                ProductInfo.Status.ACTIVE, 100.0, 0, null, LocalDate.of(2025, 1, 1));
+    }
+}
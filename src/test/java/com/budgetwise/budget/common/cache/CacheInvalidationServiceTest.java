@@ -0,0 +1,121 @@
+package com.budgetwise.budget.common.cache;
+
+import com.budgetwise.budget.analytics.service.AnalyticsCacheKey;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CacheInvalidationService
+ * Validates that each kind of catalog change evicts only the affected entries
+ * and hands the evicted keys to the warmer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidationService Tests")
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private CacheWarmer cacheWarmer;
+
+    private CacheManager cacheManager;
+    private CacheInvalidationService cacheInvalidationService;
+
+    private final AnalyticsCacheKey bangusKey = AnalyticsCacheKey.of("Bangus", 1L, 30);
+    private final AnalyticsCacheKey tilapiaKey = AnalyticsCacheKey.of("Tilapia", 2L, 30);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager();
+        cacheInvalidationService = new CacheInvalidationService(cacheManager, productInfoRepository, cacheWarmer);
+
+        cacheManager.getCache(CacheNames.PRODUCT_TABLE).put(PageRequest.of(0, 10), "page");
+        cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).put(10L, "bangus-details");
+        cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).put(20L, "tilapia-details");
+        cacheManager.getCache(CacheNames.MARKET_PRODUCTS).put(1L, "commonwealth");
+        cacheManager.getCache(CacheNames.MARKET_PRODUCTS).put(2L, "balintawak");
+        cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).put(bangusKey, "bangus-analytics");
+        cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).put(tilapiaKey, "tilapia-analytics");
+    }
+
+    @Test
+    @DisplayName("Ingestion: evicts touched products and markets only")
+    void onCatalogChanged_Ingestion_ShouldEvictTouchedEntries() {
+        ProductInfo bangus = new ProductInfo();
+        bangus.setId(10L);
+        bangus.setProductName("Bangus");
+        when(productInfoRepository.findAllById(Set.of(10L))).thenReturn(List.of(bangus));
+
+        cacheInvalidationService.onCatalogChanged(
+                CatalogChangedEvent.ingestion(5L, LocalDate.of(2025, 12, 15), Set.of(10L), Set.of(1L)));
+
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_TABLE).get(PageRequest.of(0, 10)));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).get(10L));
+        assertNotNull(cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).get(20L));
+        assertNull(cacheManager.getCache(CacheNames.MARKET_PRODUCTS).get(1L));
+        assertNotNull(cacheManager.getCache(CacheNames.MARKET_PRODUCTS).get(2L));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(bangusKey));
+        assertNotNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(tilapiaKey));
+    }
+
+    @Test
+    @DisplayName("Market Edit: evicts the product table, all product details and analytics of that market")
+    void onCatalogChanged_MarketAdmin_ShouldEvictMarketScopedEntries() {
+        cacheInvalidationService.onCatalogChanged(CatalogChangedEvent.marketsUpdated(Set.of(2L)));
+
+        // Product table rows embed market counts
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_TABLE).get(PageRequest.of(0, 10)));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).get(10L));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_MARKET_DETAILS).get(20L));
+        assertNull(cacheManager.getCache(CacheNames.MARKET_PRODUCTS).get(2L));
+        assertNotNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(bangusKey));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(tilapiaKey));
+        verifyNoInteractions(productInfoRepository);
+    }
+
+    @Test
+    @DisplayName("History Rebuild: evicts every analytics entry, keeps catalog pages")
+    void onCatalogChanged_HistoryRebuild_ShouldEvictAllAnalytics() {
+        cacheInvalidationService.onCatalogChanged(CatalogChangedEvent.historyRebuilt());
+
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(bangusKey));
+        assertNull(cacheManager.getCache(CacheNames.PRODUCT_ANALYTICS).get(tilapiaKey));
+        assertNotNull(cacheManager.getCache(CacheNames.PRODUCT_TABLE).get(PageRequest.of(0, 10)));
+        assertNotNull(cacheManager.getCache(CacheNames.MARKET_PRODUCTS).get(1L));
+        verifyNoInteractions(productInfoRepository);
+    }
+
+    @Test
+    @DisplayName("Refresh-Ahead: evicted keys are handed to the warmer")
+    @SuppressWarnings("unchecked")
+    void onCatalogChanged_ShouldWarmEvictedKeys() {
+        cacheInvalidationService.onCatalogChanged(CatalogChangedEvent.marketsUpdated(Set.of(2L)));
+
+        ArgumentCaptor<Map<String, List<Object>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cacheWarmer).warm(captor.capture());
+
+        assertEquals(List.of(2L), captor.getValue().get(CacheNames.MARKET_PRODUCTS));
+        assertEquals(List.of(tilapiaKey), captor.getValue().get(CacheNames.PRODUCT_ANALYTICS));
+        verify(cacheWarmer, times(1)).warm(any());
+    }
+}
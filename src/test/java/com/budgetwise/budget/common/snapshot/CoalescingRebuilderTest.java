@@ -0,0 +1,127 @@
+package com.budgetwise.budget.common.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CoalescingRebuilder
+ * Validates pass coalescing, failure handling and the first build for early reads
+ */
+@DisplayName("CoalescingRebuilder Tests")
+class CoalescingRebuilderTest {
+
+    @Test
+    @DisplayName("Coalescing: Requests during a pass - exactly one extra pass")
+    void rebuild_RequestedDuringPass_ShouldRunOneExtraPass() {
+        AtomicInteger passes = new AtomicInteger();
+        CoalescingRebuilder[] rebuilder = new CoalescingRebuilder[1];
+        rebuilder[0] = new CoalescingRebuilder("Test index", () -> {
+            if (passes.incrementAndGet() == 1) {
+                // Three change events arrive while the first pass runs
+                rebuilder[0].rebuild();
+                rebuilder[0].rebuild();
+                rebuilder[0].rebuild();
+            }
+        });
+
+        rebuilder[0].rebuild();
+
+        assertEquals(2, passes.get());
+        assertEquals(2, rebuilder[0].generation());
+    }
+
+    @Test
+    @DisplayName("Failure: Pass throws - not counted, reads back off, next change event runs again")
+    void rebuild_Failure_ShouldNotCountGeneration() {
+        AtomicInteger passes = new AtomicInteger();
+        CoalescingRebuilder rebuilder = new CoalescingRebuilder("Test index", () -> {
+            if (passes.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+        });
+
+        rebuilder.rebuild();
+        assertEquals(0, rebuilder.generation());
+
+        // Reads during the back-off do not rebuild on the request thread
+        rebuilder.ensureBuilt();
+        rebuilder.ensureBuilt();
+        assertEquals(1, passes.get());
+
+        rebuilder.rebuild();
+        assertEquals(1, rebuilder.generation());
+    }
+
+    @Test
+    @DisplayName("Failure: Back-off elapsed - the next read retries the first build")
+    void ensureBuilt_AfterBackoff_ShouldRetry() {
+        AtomicInteger passes = new AtomicInteger();
+        CoalescingRebuilder rebuilder = new CoalescingRebuilder("Test index", () -> {
+            if (passes.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+        }, Duration.ZERO);
+
+        rebuilder.rebuild();
+        rebuilder.ensureBuilt();
+
+        assertEquals(2, passes.get());
+        assertEquals(1, rebuilder.generation());
+    }
+
+    @Test
+    @DisplayName("Early Read: First build in flight - the read waits for it instead of running another")
+    void ensureBuilt_FirstBuildInFlight_ShouldWait() throws Exception {
+        AtomicInteger passes = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingRebuilder rebuilder = new CoalescingRebuilder("Test index", () -> {
+            passes.incrementAndGet();
+            started.countDown();
+            await(release);
+        });
+
+        CompletableFuture<Void> startup = CompletableFuture.runAsync(rebuilder::rebuild);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Long> read = CompletableFuture.supplyAsync(() -> {
+            rebuilder.ensureBuilt();
+            return rebuilder.generation();
+        });
+        Thread.sleep(50);
+        assertFalse(read.isDone());
+
+        release.countDown();
+        assertEquals(1, read.get(5, TimeUnit.SECONDS));
+        startup.get(5, TimeUnit.SECONDS);
+        assertEquals(1, passes.get());
+    }
+
+    @Test
+    @DisplayName("On Demand: ensureBuilt - builds once, later reads reuse the snapshot")
+    void ensureBuilt_Twice_ShouldBuildOnce() {
+        AtomicInteger passes = new AtomicInteger();
+        CoalescingRebuilder rebuilder = new CoalescingRebuilder("Test index", passes::incrementAndGet);
+
+        rebuilder.ensureBuilt();
+        rebuilder.ensureBuilt();
+
+        assertEquals(1, passes.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
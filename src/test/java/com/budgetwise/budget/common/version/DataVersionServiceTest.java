@@ -0,0 +1,85 @@
+package com.budgetwise.budget.common.version;
+
+import com.budgetwise.budget.common.event.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DataVersionService
+ * Validates global and per-entity version bumps and ETag formatting
+ */
+@DisplayName("DataVersionService Tests")
+class DataVersionServiceTest {
+
+    private DataVersionService dataVersionService;
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = new DataVersionService();
+    }
+
+    @Test
+    @DisplayName("Ingestion: bumps global, product and market versions")
+    void onCatalogChanged_Ingestion_ShouldBumpTouchedVersions() {
+        long global = dataVersionService.globalVersion();
+        long untouchedProduct = dataVersionService.productVersion(99L);
+
+        dataVersionService.onCatalogChanged(
+                CatalogChangedEvent.ingestion(1L, LocalDate.of(2025, 12, 15), Set.of(10L), Set.of(1L)));
+
+        assertTrue(dataVersionService.globalVersion() > global);
+        assertEquals(dataVersionService.globalVersion(), dataVersionService.productVersion(10L));
+        assertEquals(dataVersionService.globalVersion(), dataVersionService.marketVersion(1L));
+        assertEquals(untouchedProduct, dataVersionService.productVersion(99L));
+    }
+
+    @Test
+    @DisplayName("Admin Edit: market edit invalidates every product page")
+    void onCatalogChanged_MarketAdmin_ShouldBumpAllProductPages() {
+        long before = dataVersionService.productVersion(10L);
+
+        dataVersionService.onCatalogChanged(CatalogChangedEvent.marketsUpdated(Set.of(1L)));
+
+        assertTrue(dataVersionService.productVersion(10L) > before);
+    }
+
+    @Test
+    @DisplayName("History Rebuild: bumps the global version behind the analytics ETags, not product pages")
+    void onCatalogChanged_HistoryRebuild_ShouldBumpGlobalOnly() {
+        long global = dataVersionService.globalVersion();
+        long product = dataVersionService.productVersion(10L);
+
+        dataVersionService.onCatalogChanged(CatalogChangedEvent.historyRebuilt());
+
+        assertTrue(dataVersionService.globalVersion() > global);
+        assertEquals(product, dataVersionService.productVersion(10L));
+    }
+
+    @Test
+    @DisplayName("Versions: consecutive changes always produce increasing versions")
+    void onCatalogChanged_Repeated_ShouldBeMonotonic() {
+        dataVersionService.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(1L)));
+        long first = dataVersionService.globalVersion();
+        dataVersionService.onCatalogChanged(CatalogChangedEvent.productsUpdated(Set.of(1L)));
+
+        assertTrue(dataVersionService.globalVersion() > first);
+    }
+
+    @Test
+    @DisplayName("ETag: strong, quoted, and sensitive to qualifiers")
+    void etag_ShouldBeQuotedAndQualified() {
+        String plain = dataVersionService.etag("products-display", 255L);
+        String today = dataVersionService.etag("analytics-product", 255L, LocalDate.of(2025, 12, 15));
+        String tomorrow = dataVersionService.etag("analytics-product", 255L, LocalDate.of(2025, 12, 16));
+
+        assertEquals("\"products-display-ff\"", plain);
+        assertTrue(today.startsWith("\"") && today.endsWith("\""));
+        assertNotEquals(today, tomorrow);
+    }
+}
@@ -0,0 +1,159 @@
+package com.budgetwise.budget.market.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.MatrixCellProjection;
+import com.budgetwise.budget.market.dto.PriceMatrixResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceMatrixService
+ * Validates the dense matrix layout, slicing and both encodings
+ * Uses Bangus and Tilapia prices at Balintawak and Commonwealth markets
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceMatrixService Tests")
+class PriceMatrixServiceTest {
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PriceMatrixService priceMatrixService;
+
+    // ==================== LAYOUT ====================
+
+    @Test
+    @DisplayName("Happy Path: Full matrix - axes sorted by name, row-major centavos with presence bits")
+    void getMatrix_Full_ShouldBuildDenseLayout() {
+        stubCells();
+
+        PriceMatrixResponse matrix = priceMatrixService.getMatrix(null, null, null);
+
+        assertEquals(List.of(10L, 20L), matrix.productIds()); // Bangus, Tilapia
+        assertEquals(List.of("Balintawak Market", "Commonwealth Market"), matrix.marketNames());
+        assertArrayEquals(new long[]{18050, 17500, 0, 12000}, matrix.centavos());
+        assertEquals(3, matrix.priceCount());
+
+        BitSet present = BitSet.valueOf(matrix.present());
+        assertTrue(present.get(0));
+        assertFalse(present.get(2)); // Tilapia has no price at Balintawak
+    }
+
+    @Test
+    @DisplayName("Slice: Product and market filters - only the requested cells")
+    void getMatrix_Slice_ShouldKeepRequestedOrder() {
+        stubCells();
+
+        PriceMatrixResponse matrix = priceMatrixService.getMatrix(List.of(20L, 99L), List.of(2L), null);
+
+        assertEquals(List.of(20L), matrix.productIds()); // Unknown product 99 skipped
+        assertEquals(List.of(2L), matrix.marketIds());
+        assertArrayEquals(new long[]{12000}, matrix.centavos());
+    }
+
+    @Test
+    @DisplayName("Slice: Category filter - case insensitive")
+    void getMatrix_Category_ShouldFilterRows() {
+        stubCells();
+
+        PriceMatrixResponse matrix = priceMatrixService.getMatrix(null, null, "fish");
+
+        assertEquals(2, matrix.productIds().size());
+        assertEquals(0, priceMatrixService.getMatrix(null, null, "VEGETABLES").productIds().size());
+    }
+
+    // ==================== SNAPSHOTS ====================
+
+    @Test
+    @DisplayName("Snapshot: Reads reuse the built matrix until the next rebuild")
+    void getMatrix_Twice_ShouldReadDatabaseOnce() {
+        stubCells();
+
+        priceMatrixService.getMatrix(null, null, null);
+        priceMatrixService.getMatrix(null, null, null);
+        assertEquals(1, priceMatrixService.generation());
+
+        priceMatrixService.rebuild();
+        verify(latestMarketPriceRepository, times(2)).findMatrixCells();
+        assertEquals(2, priceMatrixService.generation());
+    }
+
+    @Test
+    @DisplayName("Failure: Rebuild error - previous snapshot is kept")
+    void rebuild_Failure_ShouldKeepSnapshot() {
+        stubCells();
+        priceMatrixService.getMatrix(null, null, null);
+        when(latestMarketPriceRepository.findMatrixCells()).thenThrow(new RuntimeException("connection reset"));
+
+        priceMatrixService.rebuild();
+
+        assertEquals(3, priceMatrixService.getMatrix(null, null, null).priceCount());
+    }
+
+    // ==================== BINARY ====================
+
+    @Test
+    @DisplayName("Binary: Header, axes, bitmap and int centavos in order")
+    void getMatrixBinary_ShouldEncodeSlice() throws IOException {
+        stubCells();
+
+        byte[] bytes = priceMatrixService.getMatrixBinary(List.of(10L), null, null);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            assertEquals(PriceMatrix.BINARY_MAGIC, in.readInt());
+            assertEquals(1, in.readInt());
+            assertEquals(2, in.readInt());
+            assertEquals(10L, in.readLong());
+            assertEquals("Bangus", in.readUTF());
+            assertEquals("FISH", in.readUTF());
+            assertEquals("kg", in.readUTF());
+            assertEquals(1L, in.readLong());
+            assertEquals("Balintawak Market", in.readUTF());
+            assertEquals(2L, in.readLong());
+            assertEquals("Commonwealth Market", in.readUTF());
+            byte[] bitmap = new byte[in.readInt()];
+            in.readFully(bitmap);
+            assertEquals(2, BitSet.valueOf(bitmap).cardinality());
+            assertEquals(18050, in.readInt());
+            assertEquals(17500, in.readInt());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    private void stubCells() {
+        when(latestMarketPriceRepository.findMatrixCells()).thenReturn(List.of(
+                cell(20L, "Tilapia", 2L, "Commonwealth Market", 120.0),
+                cell(10L, "Bangus", 2L, "Commonwealth Market", 175.0),
+                cell(10L, "Bangus", 1L, "Balintawak Market", 180.5)));
+    }
+
+    private MatrixCellProjection cell(Long productId, String productName, Long marketId, String marketName, double price) {
+        return new MatrixCellProjection() {
+            public Long getProductId() { return productId; }
+            public String getProductName() { return productName; }
+            public String getCategory() { return "FISH"; }
+            public String getUnit() { return "kg"; }
+            public Long getMarketId() { return marketId; }
+            public String getMarketName() { return marketName; }
+            public double getPrice() { return price; }
+        };
+    }
+}
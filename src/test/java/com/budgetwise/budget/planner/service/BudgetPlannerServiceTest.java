@@ -0,0 +1,236 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.MatrixCellProjection;
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository;
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository.TagProjection;
+import com.budgetwise.budget.common.exception.ResourceNotFoundException;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.market.service.PriceMatrixService;
+import com.budgetwise.budget.planner.dto.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for BudgetPlannerService
+ * Validates market choice, dietary filtering, budget handling and the knapsack repair step
+ * Uses Bangus, Tilapia, Premium Rice and Pechay prices at Balintawak and Commonwealth markets
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BudgetPlannerService Tests")
+class BudgetPlannerServiceTest {
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @Mock
+    private ProductDietaryTagRepository productDietaryTagRepository;
+
+    @Mock
+    private MarketLocationRepository marketLocationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BudgetPlannerService budgetPlannerService;
+
+    @BeforeEach
+    void setUp() {
+        budgetPlannerService = new BudgetPlannerService(
+                new ShoppingIndexService(new PriceMatrixService(latestMarketPriceRepository, eventPublisher),
+                        productDietaryTagRepository, marketLocationRepository));
+    }
+
+    // ==================== CHEAPEST ====================
+
+    @Test
+    @DisplayName("Happy Path: Fish and rice for two - cheapest market and cheapest fish chosen")
+    void plan_Cheapest_ShouldPickCheapestMarket() {
+        stubIndex();
+
+        BudgetPlanResponse plan = budgetPlannerService.plan(request(1000.0, 2, null, null,
+                item("FISH", 1.0), item("GRAINS", 2.0)));
+
+        // Balintawak: Tilapia 2 x 120 + Rice 4 x 52 = 448; Commonwealth: 2 x 130 + 4 x 50 = 460
+        assertEquals(1L, plan.marketId());
+        assertEquals(448.0, plan.totalCost());
+        assertEquals(552.0, plan.remainingBudget());
+        assertTrue(plan.withinBudget());
+        assertEquals("Tilapia", plan.lines().get(0).productName());
+        assertEquals(2.0, plan.lines().get(0).quantity());
+        assertEquals(List.of(2L), plan.alternatives().stream().map(MarketOption::marketId).toList());
+    }
+
+    @Test
+    @DisplayName("Coverage First: Only one market sells every item - it wins despite the higher cost")
+    void plan_Cheapest_ShouldPreferFullCoverage() {
+        stubIndex();
+
+        BudgetPlanResponse plan = budgetPlannerService.plan(request(1000.0, 1, null, null,
+                item("FISH", 1.0), item("GRAINS", 1.0), item("VEGETABLES", 1.0)));
+
+        assertEquals(2L, plan.marketId());
+        assertEquals(3, plan.lines().size());
+        assertTrue(plan.unmet().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Over Budget: Cheapest plan exceeds the budget - reported, nothing dropped")
+    void plan_CheapestOverBudget_ShouldReportNegativeRemainder() {
+        stubIndex();
+
+        BudgetPlanResponse plan = budgetPlannerService.plan(request(100.0, 1, null, null, item("FISH", 1.0)));
+
+        assertFalse(plan.withinBudget());
+        assertEquals(-20.0, plan.remainingBudget());
+        assertEquals(1, plan.lines().size());
+    }
+
+    // ==================== DIETARY TAGS ====================
+
+    @Test
+    @DisplayName("Dietary Tags: Low-Fat fish - Bangus is excluded, tag match is case insensitive")
+    void plan_DietaryTag_ShouldFilterProducts() {
+        stubIndex();
+
+        BudgetPlanResponse plan = budgetPlannerService.plan(request(1000.0, 1, List.of("low-fat"), 2L, item("FISH", 1.0)));
+
+        assertEquals("Tilapia", plan.lines().get(0).productName());
+    }
+
+    @Test
+    @DisplayName("Dietary Tags: No product carries the tag - item is NOT_AVAILABLE")
+    void plan_UnknownTag_ShouldReportNotAvailable() {
+        stubIndex();
+
+        BudgetPlanResponse plan = budgetPlannerService.plan(request(1000.0, 1, List.of("Vegan"), null, item("FISH", 1.0)));
+
+        assertTrue(plan.lines().isEmpty());
+        assertEquals(UnmetItem.Reason.NOT_AVAILABLE, plan.unmet().get(0).reason());
+    }
+
+    // ==================== COVERAGE ====================
+
+    @Test
+    @DisplayName("Coverage: Budget fits only one item - cheaper rice bought, fish OVER_BUDGET")
+    void plan_Coverage_ShouldStayWithinBudget() {
+        stubIndex();
+
+        BudgetPlanRequest request = new BudgetPlanRequest(110.0, 1,
+                List.of(item("FISH", 1.0), item("GRAINS", 2.0)), null, 1L, BudgetPlanRequest.Objective.COVERAGE);
+        BudgetPlanResponse plan = budgetPlannerService.plan(request);
+
+        assertEquals(104.0, plan.totalCost());
+        assertTrue(plan.withinBudget());
+        assertEquals("Premium Rice", plan.lines().get(0).productName());
+        assertEquals(UnmetItem.Reason.OVER_BUDGET, plan.unmet().get(0).reason());
+    }
+
+    @Test
+    @DisplayName("Substitutes: Named Bangus over budget - cheaper Tilapia suggested within what is left")
+    void plan_NamedProductOverBudget_ShouldSuggestSubstitute() {
+        stubIndex();
+
+        BudgetPlanRequest request = new BudgetPlanRequest(150.0, 1,
+                List.of(new PlanItemRequest(null, 10L, 1.0, null)), null, 1L, BudgetPlanRequest.Objective.COVERAGE);
+        BudgetPlanResponse plan = budgetPlannerService.plan(request);
+
+        UnmetItem unmet = plan.unmet().get(0);
+        assertEquals(UnmetItem.Reason.OVER_BUDGET, unmet.reason());
+        assertEquals(1, unmet.substitutes().size());
+        assertEquals("Tilapia", unmet.substitutes().get(0).productName());
+        assertEquals(120.0, unmet.substitutes().get(0).unitPrice());
+    }
+
+    @Test
+    @DisplayName("Repair: A cheap low-priority item crowds out the important one - repair swaps it in")
+    void selectWithinBudget_HeavyItemCrowdedOut_ShouldRepair() {
+        int[] rows = {0, 1};
+        long[] costs = {100, 10_000};
+        int[] weights = {2, 100};
+
+        boolean[] chosen = BudgetPlannerService.selectWithinBudget(rows, costs, weights, 10_000);
+
+        assertFalse(chosen[0]);
+        assertTrue(chosen[1]);
+    }
+
+    // ==================== VALIDATION ====================
+
+    @Test
+    @DisplayName("Validation: Missing budget - should throw IllegalArgumentException")
+    void plan_NoBudget_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> budgetPlannerService.plan(request(null, 1, null, null, item("FISH", 1.0))));
+        verifyNoInteractions(latestMarketPriceRepository);
+    }
+
+    @Test
+    @DisplayName("Validation: Item without quantity - should throw IllegalArgumentException")
+    void plan_NoQuantity_ShouldThrow() {
+        stubIndex();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> budgetPlannerService.plan(request(500.0, 1, null, null, item("FISH", null))));
+    }
+
+    @Test
+    @DisplayName("Edge Case: Market without prices - should throw ResourceNotFoundException")
+    void plan_UnknownMarket_ShouldThrow() {
+        stubIndex();
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> budgetPlannerService.plan(request(500.0, 1, null, 99L, item("FISH", 1.0))));
+    }
+
+    private BudgetPlanRequest request(Double budget, int householdSize, List<String> tags, Long marketId, PlanItemRequest... items) {
+        return new BudgetPlanRequest(budget, householdSize, List.of(items), tags, marketId, null);
+    }
+
+    private PlanItemRequest item(String category, Double quantity) {
+        return new PlanItemRequest(category, null, quantity, null);
+    }
+
+    private void stubIndex() {
+        when(latestMarketPriceRepository.findMatrixCells()).thenReturn(List.of(
+                cell(10L, "Bangus", "FISH", 1L, "Balintawak Market", 180.0),
+                cell(10L, "Bangus", "FISH", 2L, "Commonwealth Market", 175.0),
+                cell(20L, "Tilapia", "FISH", 1L, "Balintawak Market", 120.0),
+                cell(20L, "Tilapia", "FISH", 2L, "Commonwealth Market", 130.0),
+                cell(30L, "Premium Rice", "GRAINS", 1L, "Balintawak Market", 52.0),
+                cell(30L, "Premium Rice", "GRAINS", 2L, "Commonwealth Market", 50.0),
+                cell(40L, "Pechay", "VEGETABLES", 2L, "Commonwealth Market", 25.0)));
+        when(productDietaryTagRepository.findAllTags()).thenReturn(List.of(
+                tag(10L, "High-Protein"), tag(20L, "High-Protein"), tag(20L, "Low-Fat")));
+    }
+
+    private MatrixCellProjection cell(Long productId, String productName, String category,
+                                      Long marketId, String marketName, double price) {
+        return new MatrixCellProjection() {
+            public Long getProductId() { return productId; }
+            public String getProductName() { return productName; }
+            public String getCategory() { return category; }
+            public String getUnit() { return "kg"; }
+            public Long getMarketId() { return marketId; }
+            public String getMarketName() { return marketName; }
+            public double getPrice() { return price; }
+        };
+    }
+
+    private TagProjection tag(Long productId, String tagName) {
+        return new TagProjection() {
+            public Long getProductId() { return productId; }
+            public String getDietaryTag() { return tagName; }
+        };
+    }
+}
@@ -0,0 +1,267 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository;
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.MatrixCellProjection;
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.market.service.PriceMatrixService;
+import com.budgetwise.budget.planner.dto.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for RoutePlannerService
+ * Validates the price vs travel trade-off, stop ordering, opening hours and the 2-opt tour step
+ * Uses Tilapia, Premium Rice and Pechay at Balintawak (about 0.6 km from the start) and Commonwealth (about 5.4 km)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoutePlannerService Tests")
+class RoutePlannerServiceTest {
+
+    private static final double START_LATITUDE = 14.65;
+    private static final double START_LONGITUDE = 121.00;
+
+    @Mock
+    private LatestMarketPriceRepository latestMarketPriceRepository;
+
+    @Mock
+    private ProductDietaryTagRepository productDietaryTagRepository;
+
+    @Mock
+    private MarketLocationRepository marketLocationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RoutePlannerService routePlannerService;
+
+    @BeforeEach
+    void setUp() {
+        routePlannerService = new RoutePlannerService(
+                new ShoppingIndexService(new PriceMatrixService(latestMarketPriceRepository, eventPublisher),
+                        productDietaryTagRepository, marketLocationRepository));
+    }
+
+    // ==================== PRICE VS TRAVEL ====================
+
+    @Test
+    @DisplayName("Free Travel: Each item bought where cheapest - nearest market visited first")
+    void plan_FreeTravel_ShouldSplitAcrossMarkets() {
+        stubIndex(null, null);
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(6, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(List.of(1L, 2L), route.stops().stream().map(RouteStop::marketId).toList());
+        assertEquals("Premium Rice", route.stops().get(0).lines().get(0).productName());
+        assertEquals("Tilapia", route.stops().get(1).lines().get(0).productName());
+        assertEquals(150.0, route.goodsCost());
+        assertEquals(150.0, route.totalCost());
+        // Best single stop is Commonwealth at 100 + 55
+        assertEquals(155.0, route.singleMarketTotalCost());
+        assertEquals(5.0, route.savings());
+    }
+
+    @Test
+    @DisplayName("Costly Travel: The 5 peso saving is not worth the detour - one stop at the nearest market")
+    void plan_CostlyTravel_ShouldStayAtNearestMarket() {
+        stubIndex(null, null);
+
+        RoutePlanResponse route = routePlannerService.plan(request(10.0, LocalTime.of(6, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(1, route.stops().size());
+        assertEquals(1L, route.stops().get(0).marketId());
+        assertEquals(180.0, route.goodsCost());
+        assertTrue(route.travelCost() > 0);
+        assertEquals(0.0, route.savings());
+    }
+
+    @Test
+    @DisplayName("Coverage First: Pechay is only sold far away - the far market is used despite the travel")
+    void plan_ItemOnlyFarAway_ShouldTravelForIt() {
+        stubIndex(null, null);
+
+        RoutePlanResponse route = routePlannerService.plan(request(10.0, LocalTime.of(6, 0),
+                item("GRAINS"), item("VEGETABLES")));
+
+        // Rice is 5 pesos dearer there, still cheaper than an extra stop at Balintawak
+        assertEquals(List.of(2L), route.stops().stream().map(RouteStop::marketId).toList());
+        assertTrue(route.unmet().isEmpty());
+        assertEquals(80.0, route.goodsCost());
+    }
+
+    // ==================== OPENING HOURS ====================
+
+    @Test
+    @DisplayName("Opening Hours: Arriving before Commonwealth opens - arrival is the opening time")
+    void plan_ArriveBeforeOpening_ShouldWait() {
+        stubIndex(at(7, 0), null);
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(6, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(LocalTime.of(7, 0), route.stops().get(1).arrivalTime());
+    }
+
+    @Test
+    @DisplayName("Opening Hours: Nearest-first misses Commonwealth's closing - earliest closing visited first")
+    void plan_NearestFirstTooLate_ShouldVisitClosingMarketFirst() {
+        stubIndex(null, at(6, 40));
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(6, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(List.of(2L, 1L), route.stops().stream().map(RouteStop::marketId).toList());
+    }
+
+    @Test
+    @DisplayName("Opening Hours: Commonwealth closes before anyone can get there - only Balintawak used")
+    void plan_MarketClosed_ShouldSkipIt() {
+        stubIndex(null, at(6, 20));
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(6, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(List.of(1L), route.stops().stream().map(RouteStop::marketId).toList());
+        assertEquals(2, route.stops().get(0).lines().size());
+    }
+
+    @Test
+    @DisplayName("Opening Hours: Commonwealth open overnight 22:00-06:00 - visited late at night")
+    void plan_OvernightMarketAtNight_ShouldVisitIt() {
+        stubIndex(at(22, 0), at(6, 0));
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(23, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(List.of(1L, 2L), route.stops().stream().map(RouteStop::marketId).toList());
+    }
+
+    @Test
+    @DisplayName("Opening Hours: Overnight Commonwealth in the afternoon - wait until it opens at 22:00")
+    void plan_OvernightMarketBeforeOpening_ShouldWait() {
+        stubIndex(at(22, 0), at(6, 0));
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(21, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(LocalTime.of(22, 0), route.stops().get(1).arrivalTime());
+    }
+
+    @Test
+    @DisplayName("Opening Hours: Overnight Commonwealth just after midnight - still open from the night before")
+    void plan_OvernightMarketAfterMidnight_ShouldVisitIt() {
+        stubIndex(at(22, 0), at(6, 0));
+
+        RoutePlanResponse route = routePlannerService.plan(request(0.0, LocalTime.of(1, 0),
+                item("FISH"), item("GRAINS")));
+
+        assertEquals(List.of(1L, 2L), route.stops().stream().map(RouteStop::marketId).toList());
+        assertTrue(route.stops().get(1).arrivalTime().isBefore(LocalTime.of(2, 0)));
+    }
+
+    // ==================== TOUR ====================
+
+    @Test
+    @DisplayName("2-opt: Nearest neighbour zig-zags along a line - reversal straightens the tour")
+    void solve_NearestNeighbourZigZag_ShouldBeImprovedByTwoOpt() {
+        double[] positions = {0, 1, -1.9, 4};
+        double[][] distances = new double[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                distances[i][j] = Math.abs(positions[i] - positions[j]);
+            }
+        }
+
+        assertArrayEquals(new int[]{0, 1, 2, 3}, TourOptimizer.nearestNeighbour(distances));
+        int[] tour = TourOptimizer.solve(distances);
+
+        assertArrayEquals(new int[]{0, 2, 1, 3}, tour);
+        assertEquals(7.8, TourOptimizer.length(tour, distances), 1e-9);
+    }
+
+    // ==================== VALIDATION ====================
+
+    @Test
+    @DisplayName("Validation: Missing start point - should throw IllegalArgumentException")
+    void plan_NoStart_ShouldThrow() {
+        RoutePlanRequest request = new RoutePlanRequest(null, START_LONGITUDE, null, null,
+                List.of(item("FISH")), null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> routePlannerService.plan(request));
+        verifyNoInteractions(latestMarketPriceRepository);
+    }
+
+    @Test
+    @DisplayName("Validation: Too many markets - should throw IllegalArgumentException")
+    void plan_TooManyMarkets_ShouldThrow() {
+        RoutePlanRequest request = new RoutePlanRequest(START_LATITUDE, START_LONGITUDE, null, null,
+                List.of(item("FISH")), null, RoutePlannerService.MAX_MARKETS + 1, null);
+
+        assertThrows(IllegalArgumentException.class, () -> routePlannerService.plan(request));
+    }
+
+    private RoutePlanRequest request(Double costPerKm, LocalTime departure, PlanItemRequest... items) {
+        return new RoutePlanRequest(START_LATITUDE, START_LONGITUDE, departure, 1, List.of(items), null, 2, costPerKm);
+    }
+
+    private PlanItemRequest item(String category) {
+        return new PlanItemRequest(category, null, 1.0, null);
+    }
+
+    private LocalDateTime at(int hour, int minute) {
+        return LocalDate.of(2025, 1, 1).atTime(hour, minute);
+    }
+
+    private void stubIndex(LocalDateTime commonwealthOpening, LocalDateTime commonwealthClosing) {
+        when(latestMarketPriceRepository.findMatrixCells()).thenReturn(List.of(
+                cell(20L, "Tilapia", "FISH", 1L, "Balintawak Market", 130.0),
+                cell(20L, "Tilapia", "FISH", 2L, "Commonwealth Market", 100.0),
+                cell(30L, "Premium Rice", "GRAINS", 1L, "Balintawak Market", 50.0),
+                cell(30L, "Premium Rice", "GRAINS", 2L, "Commonwealth Market", 55.0),
+                cell(40L, "Pechay", "VEGETABLES", 2L, "Commonwealth Market", 25.0)));
+        when(productDietaryTagRepository.findAllTags()).thenReturn(List.of());
+        when(marketLocationRepository.findAll()).thenReturn(List.of(
+                location(1L, 14.655, 121.00, null, null),
+                location(2L, 14.65, 121.05, commonwealthOpening, commonwealthClosing)));
+    }
+
+    private MarketLocation location(Long id, double latitude, double longitude,
+                                    LocalDateTime openingTime, LocalDateTime closingTime) {
+        MarketLocation location = new MarketLocation();
+        location.setId(id);
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setOpeningTime(openingTime);
+        location.setClosingTime(closingTime);
+        return location;
+    }
+
+    private MatrixCellProjection cell(Long productId, String productName, String category,
+                                      Long marketId, String marketName, double price) {
+        return new MatrixCellProjection() {
+            public Long getProductId() { return productId; }
+            public String getProductName() { return productName; }
+            public String getCategory() { return category; }
+            public String getUnit() { return "kg"; }
+            public Long getMarketId() { return marketId; }
+            public String getMarketName() { return marketName; }
+            public double getPrice() { return price; }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.budgetwise.budget.planner.service;
+
+import com.budgetwise.budget.catalog.repository.LatestMarketPriceRepository.MatrixCellProjection;
+import com.budgetwise.budget.catalog.repository.ProductDietaryTagRepository.TagProjection;
+import com.budgetwise.budget.market.service.PriceMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SubstitutionIndex
+ * Validates candidate filtering (category, unit, cheaper), ranking and incremental re-ranking per category
+ * Uses Bangus, Galunggong, Tilapia, Tuyo (per pack) and rice prices at Balintawak (1) and Commonwealth (2)
+ */
+@DisplayName("SubstitutionIndex Tests")
+class SubstitutionIndexTest {
+
+    // ==================== CANDIDATES ====================
+
+    @Test
+    @DisplayName("Candidates: Same category and unit, cheaper only - Tuyo (pack) and pricier fish excluded")
+    void build_ShouldKeepComparableCheaperProducts() {
+        ShoppingPriceIndex index = index(cells());
+        SubstitutionIndex substitutes = SubstitutionIndex.build(index);
+
+        List<Long> forBangus = substitutes.candidates(10L).stream().map(SubstitutionIndex.Candidate::productId).toList();
+        assertEquals(List.of(50L, 20L), forBangus);
+        assertTrue(substitutes.candidates(50L).stream().noneMatch(c -> c.productId() == 10L));
+        assertTrue(substitutes.candidates(30L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ranking: Averages - the more similar Galunggong beats the cheaper Tilapia")
+    void substitutes_Averages_ShouldRankBySimilarityAndSavings() {
+        ShoppingPriceIndex index = index(cells());
+
+        List<SubstitutionIndex.Match> matches = SubstitutionIndex.build(index)
+                .substitutes(index, 10L, -1, Set.of(), Long.MAX_VALUE, 5);
+
+        assertEquals(List.of(50L, 20L), matches.stream().map(m -> index.productId(m.row())).toList());
+        assertEquals(17_750L, matches.get(0).referenceCentavos());
+        assertEquals(14_000L, matches.get(0).centavos());
+    }
+
+    @Test
+    @DisplayName("Market: Commonwealth - only substitutes sold there, under the price cap")
+    void substitutes_AtMarket_ShouldUseMarketPricesAndCap() {
+        ShoppingPriceIndex index = index(cells());
+        SubstitutionIndex substitutes = SubstitutionIndex.build(index);
+        int commonwealth = index.column(2L);
+
+        List<SubstitutionIndex.Match> matches = substitutes.substitutes(index, 10L, commonwealth, Set.of(), Long.MAX_VALUE, 5);
+        assertEquals(1, matches.size());
+        assertEquals(20L, index.productId(matches.get(0).row()));
+        assertEquals(17_500L, matches.get(0).referenceCentavos());
+
+        assertTrue(substitutes.substitutes(index, 10L, commonwealth, Set.of(), 12_000L, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Dietary Tags: Low-Fat required - only Tilapia qualifies")
+    void substitutes_RequiredTags_ShouldFilter() {
+        ShoppingPriceIndex index = index(cells());
+
+        List<SubstitutionIndex.Match> matches = SubstitutionIndex.build(index)
+                .substitutes(index, 10L, -1, Set.of("low-fat"), Long.MAX_VALUE, 5);
+
+        assertEquals(List.of(20L), matches.stream().map(m -> index.productId(m.row())).toList());
+    }
+
+    // ==================== INCREMENTAL UPDATE ====================
+
+    @Test
+    @DisplayName("Incremental: Only rice changed - fish lists reused as is")
+    void update_UnrelatedChange_ShouldReuseCleanCategories() {
+        SubstitutionIndex previous = SubstitutionIndex.build(index(cells()));
+        assertEquals(2, previous.recomputedCategories());
+
+        SubstitutionIndex next = SubstitutionIndex.update(previous, index(cells()), Set.of(30L));
+
+        assertEquals(1, next.recomputedCategories());
+        assertSame(previous.candidates(10L), next.candidates(10L));
+    }
+
+    @Test
+    @DisplayName("Incremental: New fish product - fish category re-ranked even without a reported change")
+    void update_MembershipChanged_ShouldReRankCategory() {
+        SubstitutionIndex previous = SubstitutionIndex.build(index(cells()));
+        List<MatrixCellProjection> cells = new ArrayList<>(cells());
+        cells.add(cell(60L, "Bangus Belly", "FISH", "kg", 1L, 160.0));
+
+        SubstitutionIndex next = SubstitutionIndex.update(previous, index(cells), Set.of());
+
+        assertEquals(1, next.recomputedCategories());
+        assertTrue(next.candidates(10L).stream().anyMatch(c -> c.productId() == 60L));
+    }
+
+    private ShoppingPriceIndex index(List<MatrixCellProjection> cells) {
+        return ShoppingPriceIndex.build(PriceMatrix.build(cells), List.of(
+                tag(10L, "High-Protein"), tag(20L, "High-Protein"), tag(20L, "Low-Fat"),
+                tag(50L, "High-Protein"), tag(60L, "High-Protein")), List.of());
+    }
+
+    private List<MatrixCellProjection> cells() {
+        return List.of(
+                cell(10L, "Bangus", "FISH", "kg", 1L, 180.0),
+                cell(10L, "Bangus", "FISH", "kg", 2L, 175.0),
+                cell(20L, "Tilapia", "FISH", "kg", 1L, 120.0),
+                cell(20L, "Tilapia", "FISH", "kg", 2L, 130.0),
+                cell(30L, "Premium Rice", "GRAINS", "kg", 2L, 50.0),
+                cell(40L, "Tuyo", "FISH", "pack", 1L, 45.0),
+                cell(50L, "Galunggong", "FISH", "kg", 1L, 140.0));
+    }
+
+    private MatrixCellProjection cell(Long productId, String productName, String category, String unit,
+                                      Long marketId, double price) {
+        return new MatrixCellProjection() {
+            public Long getProductId() { return productId; }
+            public String getProductName() { return productName; }
+            public String getCategory() { return category; }
+            public String getUnit() { return unit; }
+            public Long getMarketId() { return marketId; }
+            public String getMarketName() { return marketId == 1L ? "Balintawak Market" : "Commonwealth Market"; }
+            public double getPrice() { return price; }
+        };
+    }
+
+    private TagProjection tag(Long productId, String tagName) {
+        return new TagProjection() {
+            public Long getProductId() { return productId; }
+            public String getDietaryTag() { return tagName; }
+        };
+    }
+}
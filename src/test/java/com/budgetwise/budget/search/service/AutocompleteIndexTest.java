@@ -0,0 +1,137 @@
+package com.budgetwise.budget.search.service;
+
+import com.budgetwise.budget.search.dto.AutocompleteSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AutocompleteIndex
+ * Validates prefix matching, word-suffix matching, diacritic folding and popularity ranking
+ * Uses realistic DA commodity and Metro Manila market names
+ */
+@DisplayName("AutocompleteIndex Tests")
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<AutocompleteIndex.Entry> entries = new ArrayList<>();
+        entries.add(entry(1L, "Red Onion", "Sibuyas Pula", 120));
+        entries.add(entry(2L, "White Onion", "Sibuyas Puti", 80));
+        entries.add(entry(3L, "Regular Milled Rice", "Bigas", 300));
+        entries.add(entry(4L, "Red Egg", null, 10));
+        entries.add(entry(5L, "Farmers Market Cubao (Muñoz)", null, 50));
+
+        index = AutocompleteIndex.build(entries);
+    }
+
+    // ==================== HAPPY PATH ====================
+
+    @Test
+    @DisplayName("Happy Path: Prefix of full name - should return matching products")
+    void lookup_FullNamePrefix_ShouldReturnMatches() {
+        List<AutocompleteSuggestion> result = index.lookup("red", 10);
+
+        assertEquals(2, result.size());
+        assertEquals("Red Onion", result.get(0).label());
+        assertEquals("Red Egg", result.get(1).label());
+    }
+
+    @Test
+    @DisplayName("Happy Path: Prefix of a later word - should match word suffixes")
+    void lookup_WordPrefix_ShouldMatchInnerWords() {
+        List<AutocompleteSuggestion> result = index.lookup("oni", 10);
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(s -> s.label().contains("Onion")));
+    }
+
+    @Test
+    @DisplayName("Happy Path: Local name prefix - should resolve to the product")
+    void lookup_LocalName_ShouldResolveProduct() {
+        List<AutocompleteSuggestion> result = index.lookup("bigas", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).id());
+    }
+
+    // ==================== RANKING ====================
+
+    @Test
+    @DisplayName("Ranking: Results ordered by popularity, highest first")
+    void lookup_ShouldOrderByPopularity() {
+        List<AutocompleteSuggestion> result = index.lookup("sibuyas", 10);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(AutocompleteSuggestion::id).toList());
+    }
+
+    @Test
+    @DisplayName("Ranking: Limit should return only the top results")
+    void lookup_WithLimit_ShouldTruncate() {
+        List<AutocompleteSuggestion> result = index.lookup("r", 1);
+
+        assertEquals(1, result.size());
+        assertEquals("Regular Milled Rice", result.get(0).label());
+    }
+
+    @Test
+    @DisplayName("Ranking: Product indexed under several names appears only once")
+    void lookup_MultipleNames_ShouldNotDuplicate() {
+        List<AutocompleteSuggestion> result = index.lookup("p", 10);
+
+        assertEquals(2, result.size());
+    }
+
+    // ==================== FOLDING ====================
+
+    @Test
+    @DisplayName("Folding: Accents and casing are ignored")
+    void lookup_DiacriticsAndCase_ShouldBeFolded() {
+        assertEquals(1, index.lookup("MUNOZ", 10).size());
+        assertEquals(1, index.lookup("muñ", 10).size());
+    }
+
+    @Test
+    @DisplayName("Folding: Punctuation is treated as a word boundary")
+    void fold_Punctuation_ShouldCollapseToSpaces() {
+        assertEquals("farmers market cubao munoz", AutocompleteIndex.fold("Farmers Market Cubao (Muñoz)"));
+    }
+
+    // ==================== EDGE CASES ====================
+
+    @Test
+    @DisplayName("Edge Case: No match - should return empty list")
+    void lookup_NoMatch_ShouldReturnEmpty() {
+        assertTrue(index.lookup("tilapia", 10).isEmpty());
+        assertTrue(index.lookup("rex", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Edge Case: Blank query - should return empty list")
+    void lookup_BlankQuery_ShouldReturnEmpty() {
+        assertTrue(index.lookup("   ", 10).isEmpty());
+        assertTrue(index.lookup(null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Edge Case: Empty index - should return empty list")
+    void lookup_EmptyIndex_ShouldReturnEmpty() {
+        assertTrue(AutocompleteIndex.empty().lookup("red", 10).isEmpty());
+    }
+
+    private AutocompleteIndex.Entry entry(Long id, String name, String localName, long popularity) {
+        List<String> names = new ArrayList<>();
+        names.add(name);
+        if (localName != null) {
+            names.add(localName);
+        }
+        return new AutocompleteIndex.Entry(new AutocompleteSuggestion(id, name, "TEST", popularity), names);
+    }
+}
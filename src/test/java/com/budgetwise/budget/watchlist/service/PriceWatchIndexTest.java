@@ -0,0 +1,134 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PriceWatchIndex
+ * Validates threshold crossing in both directions, any-market watches and copy-on-write updates
+ * Uses Premium Rice (product 1) watches at Quiapo (market 10) and Marikina (market 20)
+ */
+@DisplayName("PriceWatchIndex Tests")
+class PriceWatchIndexTest {
+
+    private static final long RICE = 1L;
+    private static final long QUIAPO = 10L;
+    private static final long MARIKINA = 20L;
+
+    private PriceWatchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = PriceWatchIndex.build(List.of(
+                below(100L, QUIAPO, 48.0),
+                below(101L, QUIAPO, 45.0),
+                above(102L, QUIAPO, 55.0),
+                below(103L, PriceWatchIndex.ANY_MARKET, 47.0),
+                below(104L, MARIKINA, 50.0)));
+    }
+
+    // ==================== CROSSINGS ====================
+
+    @Test
+    @DisplayName("Crossing: Price drops through one threshold - should fire only that watch")
+    void crossings_DropBelowOne_ShouldFireIt() {
+        assertEquals(Set.of(100L), ids(index.crossings(RICE, QUIAPO, 50.0, 47.5)));
+    }
+
+    @Test
+    @DisplayName("Crossing: Price drops through several thresholds - should fire all, including any-market")
+    void crossings_DeepDrop_ShouldFireAllCrossed() {
+        assertEquals(Set.of(100L, 101L, 103L), ids(index.crossings(RICE, QUIAPO, 50.0, 44.0)));
+    }
+
+    @Test
+    @DisplayName("Crossing: Price already below and dropping further - should not fire again")
+    void crossings_StaysBelow_ShouldNotRefire() {
+        assertTrue(index.crossings(RICE, QUIAPO, 47.5, 47.2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Crossing: Price rises through ABOVE threshold - should fire the ABOVE watch")
+    void crossings_RiseAbove_ShouldFireAboveWatch() {
+        assertEquals(Set.of(102L), ids(index.crossings(RICE, QUIAPO, 52.0, 56.0)));
+    }
+
+    @Test
+    @DisplayName("Crossing: Threshold equal to previous price - should count as crossed")
+    void crossings_PreviousOnThreshold_ShouldFire() {
+        assertEquals(Set.of(100L), ids(index.crossings(RICE, QUIAPO, 48.0, 47.9)));
+        assertEquals(Set.of(102L), ids(index.crossings(RICE, QUIAPO, 55.0, 55.1)));
+    }
+
+    @Test
+    @DisplayName("Crossing: Price equal to threshold - should not fire (strictly below/above)")
+    void crossings_PriceOnThreshold_ShouldNotFire() {
+        assertTrue(index.crossings(RICE, QUIAPO, 50.0, 48.0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Crossing: First price of the pair - should fire every satisfied watch")
+    void crossings_NoPrevious_ShouldFireSatisfied() {
+        assertEquals(Set.of(100L, 103L), ids(index.crossings(RICE, QUIAPO, null, 46.0)));
+    }
+
+    @Test
+    @DisplayName("Crossing: Other market - should only see its own and any-market watches")
+    void crossings_OtherMarket_ShouldIgnoreQuiapoWatches() {
+        assertEquals(Set.of(104L, 103L), ids(index.crossings(RICE, MARIKINA, 52.0, 44.0)));
+    }
+
+    @Test
+    @DisplayName("Edge Case: Unwatched product - should return nothing")
+    void crossings_UnwatchedProduct_ShouldBeEmpty() {
+        assertTrue(index.crossings(99L, QUIAPO, 50.0, 1.0).isEmpty());
+    }
+
+    // ==================== UPDATES ====================
+
+    @Test
+    @DisplayName("Updates: Added watch - should fire in the new index only")
+    void with_NewWatch_ShouldNotChangeOriginal() {
+        PriceWatchIndex updated = index.with(below(105L, QUIAPO, 49.0));
+
+        assertEquals(6, updated.size());
+        assertEquals(5, index.size());
+        assertEquals(Set.of(105L), ids(updated.crossings(RICE, QUIAPO, 50.0, 48.5)));
+        assertTrue(index.crossings(RICE, QUIAPO, 50.0, 48.5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Updates: Removed watch - should no longer fire")
+    void without_Watch_ShouldStopFiring() {
+        PriceWatchIndex updated = index.without(below(100L, QUIAPO, 48.0));
+
+        assertEquals(4, updated.size());
+        assertTrue(updated.crossings(RICE, QUIAPO, 50.0, 47.5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Updates: Removing an unknown watch - should return the same index")
+    void without_UnknownWatch_ShouldBeNoOp() {
+        assertSame(index, index.without(below(999L, QUIAPO, 48.0)));
+    }
+
+    private static PriceWatchIndex.Entry below(long id, long marketId, double threshold) {
+        return new PriceWatchIndex.Entry(id, RICE, marketId, PriceWatch.Direction.BELOW, threshold);
+    }
+
+    private static PriceWatchIndex.Entry above(long id, long marketId, double threshold) {
+        return new PriceWatchIndex.Entry(id, RICE, marketId, PriceWatch.Direction.ABOVE, threshold);
+    }
+
+    private static Set<Long> ids(List<PriceWatchIndex.Entry> entries) {
+        return entries.stream().map(PriceWatchIndex.Entry::watchId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,201 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.catalog.entity.LatestMarketPrice;
+import com.budgetwise.budget.catalog.entity.PriceReport;
+import com.budgetwise.budget.catalog.entity.ProductInfo;
+import com.budgetwise.budget.catalog.repository.ProductInfoRepository;
+import com.budgetwise.budget.market.entity.MarketLocation;
+import com.budgetwise.budget.market.repository.MarketLocationRepository;
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+import com.budgetwise.budget.watchlist.repository.PriceWatchRepository;
+import com.budgetwise.budget.watchlist.repository.WatchAlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PriceWatchService
+ * Validates alert queueing at ingestion: crossing detection, any-market de-duplication
+ * and once-per-report alerts
+ * Uses Premium Rice watches at Quiapo and Marikina
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceWatchService Tests")
+class PriceWatchServiceTest {
+
+    @Mock
+    private PriceWatchRepository priceWatchRepository;
+
+    @Mock
+    private WatchAlertRepository watchAlertRepository;
+
+    @Mock
+    private ProductInfoRepository productInfoRepository;
+
+    @Mock
+    private MarketLocationRepository marketLocationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PriceWatchService priceWatchService;
+
+    private ProductInfo rice;
+    private MarketLocation quiapo;
+    private MarketLocation marikina;
+    private PriceReport report;
+
+    @BeforeEach
+    void setUp() {
+        rice = new ProductInfo();
+        rice.setId(1L);
+        rice.setProductName("Premium Rice");
+
+        quiapo = market(10L, "Quiapo Market");
+        marikina = market(20L, "Marikina Public Market");
+
+        report = new PriceReport();
+        report.setId(7L);
+        report.setDateReported(LocalDate.of(2025, 12, 16));
+
+        lenient().when(priceWatchRepository.findActiveEntries()).thenReturn(List.of());
+        priceWatchService.reload();
+    }
+
+    @Test
+    @DisplayName("Evaluate: Price drops below a watch - should queue one PENDING alert")
+    void evaluate_DropBelowThreshold_ShouldQueueAlert() {
+        PriceWatch watch = watch(100L, quiapo, PriceWatch.Direction.BELOW, 48.0);
+        index(watch);
+        when(priceWatchRepository.findAllById(anyCollection())).thenReturn(List.of(watch));
+
+        int queued = priceWatchService.evaluate(report, List.of(latest(quiapo, 50.0, 47.0)));
+
+        assertEquals(1, queued);
+        WatchAlert alert = savedAlerts().get(0);
+        assertEquals(WatchAlert.Status.PENDING, alert.getStatus());
+        assertEquals("owner-1", alert.getOwnerKey());
+        assertEquals(47.0, alert.getPrice());
+        assertEquals(50.0, alert.getPreviousPrice());
+        assertEquals("Quiapo Market", alert.getMarketName());
+        assertEquals(7L, alert.getPriceReportId());
+        verify(priceWatchRepository).markTriggered(eq(List.of(100L)), any());
+    }
+
+    @Test
+    @DisplayName("Evaluate: Any-market watch crossed at two markets - should alert once for the cheapest")
+    void evaluate_AnyMarketWatch_ShouldAlertOnceForCheapest() {
+        PriceWatch watch = watch(101L, null, PriceWatch.Direction.BELOW, 48.0);
+        index(watch);
+        when(priceWatchRepository.findAllById(anyCollection())).thenReturn(List.of(watch));
+
+        priceWatchService.evaluate(report, List.of(latest(quiapo, 50.0, 47.0), latest(marikina, 50.0, 46.0)));
+
+        List<WatchAlert> alerts = savedAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(20L, alerts.get(0).getMarketId());
+    }
+
+    @Test
+    @DisplayName("Evaluate: Watch already alerted for this report - should not alert twice")
+    void evaluate_AlreadyAlertedForReport_ShouldSkip() {
+        index(watch(100L, quiapo, PriceWatch.Direction.BELOW, 48.0));
+        when(watchAlertRepository.findAlertedWatchIds(eq(7L), anyCollection())).thenReturn(new ArrayList<>(List.of(100L)));
+
+        assertEquals(0, priceWatchService.evaluate(report, List.of(latest(quiapo, 50.0, 47.0))));
+        verify(watchAlertRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Evaluate: Price moves without crossing - should not touch the database")
+    void evaluate_NoCrossing_ShouldSkipQueries() {
+        index(watch(100L, quiapo, PriceWatch.Direction.BELOW, 48.0));
+
+        assertEquals(0, priceWatchService.evaluate(report, List.of(latest(quiapo, 50.0, 49.0))));
+        verifyNoInteractions(watchAlertRepository);
+    }
+
+    // ==================== OWNERSHIP ====================
+
+    @Test
+    @DisplayName("Ownership: Another owner's key - deactivation is refused")
+    void deactivateWatch_OtherOwner_ShouldThrow() {
+        PriceWatch watch = watch(100L, quiapo, PriceWatch.Direction.BELOW, 48.0);
+        when(priceWatchRepository.findById(100L)).thenReturn(Optional.of(watch));
+
+        assertThrows(IllegalArgumentException.class, () -> priceWatchService.deactivateWatch(100L, "owner-2"));
+
+        assertTrue(watch.isActive());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Ownership: Owner's own key - watch deactivated and removed from the index")
+    void deactivateWatch_Owner_ShouldDeactivate() {
+        PriceWatch watch = watch(100L, quiapo, PriceWatch.Direction.BELOW, 48.0);
+        when(priceWatchRepository.findById(100L)).thenReturn(Optional.of(watch));
+
+        assertFalse(priceWatchService.deactivateWatch(100L, "owner-1").active());
+        verify(eventPublisher).publishEvent(any(PriceWatchService.WatchChangedEvent.class));
+    }
+
+    private void index(PriceWatch watch) {
+        long marketId = watch.getMarketLocation() == null ? PriceWatchIndex.ANY_MARKET : watch.getMarketLocation().getId();
+        priceWatchService.onWatchChanged(new PriceWatchService.WatchChangedEvent(new PriceWatchIndex.Entry(
+                watch.getId(), rice.getId(), marketId, watch.getDirection(), watch.getThreshold()), true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WatchAlert> savedAlerts() {
+        ArgumentCaptor<List<WatchAlert>> captor = ArgumentCaptor.forClass(List.class);
+        verify(watchAlertRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private PriceWatch watch(Long id, MarketLocation market, PriceWatch.Direction direction, double threshold) {
+        PriceWatch watch = new PriceWatch();
+        watch.setId(id);
+        watch.setOwnerKey("owner-1");
+        watch.setProductInfo(rice);
+        watch.setMarketLocation(market);
+        watch.setDirection(direction);
+        watch.setThreshold(threshold);
+        watch.setActive(true);
+        return watch;
+    }
+
+    private LatestMarketPrice latest(MarketLocation market, Double previousPrice, double price) {
+        LatestMarketPrice latest = new LatestMarketPrice();
+        latest.setProductInfo(rice);
+        latest.setMarketLocation(market);
+        latest.setPreviousPrice(previousPrice);
+        latest.setPrice(price);
+        latest.setUnit("kg");
+        latest.setDateReported(report.getDateReported());
+        return latest;
+    }
+
+    private static MarketLocation market(Long id, String name) {
+        MarketLocation market = new MarketLocation();
+        market.setId(id);
+        market.setMarketLocation(name);
+        return market;
+    }
+}
@@ -0,0 +1,125 @@
+package com.budgetwise.budget.watchlist.service;
+
+import com.budgetwise.budget.catalog.service.PriceStreamService;
+import com.budgetwise.budget.watchlist.entity.PriceWatch;
+import com.budgetwise.budget.watchlist.entity.WatchAlert;
+import com.budgetwise.budget.watchlist.repository.WatchAlertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for WatchAlertDispatcher
+ * Validates that an alert is only marked DELIVERED after a stream accepted it,
+ * and how disconnected owners and failed writes are retried
+ * Uses one Premium Rice BELOW alert for owner "owner-1"
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WatchAlertDispatcher Tests")
+class WatchAlertDispatcherTest {
+
+    @Mock
+    private WatchAlertRepository watchAlertRepository;
+
+    @Mock
+    private PriceStreamService priceStreamService;
+
+    private WatchAlertDispatcher dispatcher;
+    private WatchAlert alert;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new WatchAlertDispatcher(watchAlertRepository, priceStreamService);
+
+        PriceWatch watch = new PriceWatch();
+        watch.setId(3L);
+        alert = new WatchAlert();
+        alert.setId(11L);
+        alert.setPriceWatch(watch);
+        alert.setOwnerKey("owner-1");
+        alert.setProductName("Premium Rice");
+        alert.setDirection(PriceWatch.Direction.BELOW);
+        alert.setStatus(WatchAlert.Status.PENDING);
+        alert.setCreatedAt(LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Happy Path: Owner connected - alert written and marked DELIVERED")
+    void deliver_StreamAccepted_ShouldMarkDelivered() {
+        when(priceStreamService.isWatching("owner-1")).thenReturn(true);
+        when(priceStreamService.sendAlert(eq("owner-1"), eq(11L), any())).thenReturn(1);
+
+        assertTrue(dispatcher.deliver(alert));
+
+        assertEquals(WatchAlert.Status.DELIVERED, alert.getStatus());
+        assertNotNull(alert.getDeliveredAt());
+        assertEquals(1, alert.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Offline: Owner not connected - alert stays PENDING without using an attempt")
+    void deliver_OwnerOffline_ShouldStayPending() {
+        when(priceStreamService.isWatching("owner-1")).thenReturn(false);
+
+        assertFalse(dispatcher.deliver(alert));
+
+        assertEquals(WatchAlert.Status.PENDING, alert.getStatus());
+        assertEquals(0, alert.getAttempts());
+        verify(priceStreamService, never()).sendAlert(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Offline: Pending longer than the TTL - alert marked FAILED")
+    void deliver_OwnerOfflineTooLong_ShouldFail() {
+        alert.setCreatedAt(LocalDateTime.now().minus(WatchAlertDispatcher.PENDING_TTL).minusMinutes(1));
+        when(priceStreamService.isWatching("owner-1")).thenReturn(false);
+
+        dispatcher.deliver(alert);
+
+        assertEquals(WatchAlert.Status.FAILED, alert.getStatus());
+    }
+
+    @Test
+    @DisplayName("Retry: Every write fails - PENDING until MAX_ATTEMPTS, then FAILED")
+    void deliver_WritesFail_ShouldFailAfterMaxAttempts() {
+        when(priceStreamService.isWatching("owner-1")).thenReturn(true);
+        when(priceStreamService.sendAlert(eq("owner-1"), eq(11L), any())).thenReturn(0);
+
+        for (int attempt = 1; attempt < WatchAlertDispatcher.MAX_ATTEMPTS; attempt++) {
+            dispatcher.deliver(alert);
+            assertEquals(WatchAlert.Status.PENDING, alert.getStatus());
+        }
+        dispatcher.deliver(alert);
+
+        assertEquals(WatchAlert.Status.FAILED, alert.getStatus());
+        assertNull(alert.getDeliveredAt());
+    }
+
+    @Test
+    @DisplayName("Drain: One pass - delivers the PENDING batch and saves it")
+    void drainOnce_PendingAlert_ShouldDeliverAndSave() {
+        when(watchAlertRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(WatchAlert.Status.PENDING), eq(0L), any()))
+                .thenReturn(List.of(alert));
+        when(priceStreamService.isWatching("owner-1")).thenReturn(true);
+        when(priceStreamService.sendAlert(eq("owner-1"), eq(11L), any())).thenReturn(1);
+
+        assertEquals(1, dispatcher.drainOnce());
+        verify(watchAlertRepository).saveAll(List.of(alert));
+    }
+}